@@ -0,0 +1,68 @@
+package com.azjvsdk.experimental.http;
+
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * A response with the body buffered in a {@link ReplayableBody}, the body can be read multiple
+ * times. {@link BufferedHttpResponse#close()} releases the pooled buffers and deletes the temp
+ * file the body spilled to, hence the response should always be closed.
+ */
+public final class BufferedHttpResponse extends HttpResponse {
+    private final HttpResponse innerResponse;
+    private final ReplayableBody body;
+
+    /**
+     * Creates BufferedHttpResponse.
+     *
+     * @param innerResponse the response the body was read from
+     * @param body the buffered body
+     */
+    public BufferedHttpResponse(HttpResponse innerResponse, ReplayableBody body) {
+        this.innerResponse = Objects.requireNonNull(innerResponse);
+        this.body = Objects.requireNonNull(body);
+        this.withRequest(innerResponse.request());
+    }
+
+    @Override
+    public int statusCode() {
+        return this.innerResponse.statusCode();
+    }
+
+    @Override
+    public String headerValue(String headerName) {
+        return this.innerResponse.headerValue(headerName);
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return this.innerResponse.headers();
+    }
+
+    @Override
+    public Flux<ByteBuffer> body() {
+        return this.body.toFlux();
+    }
+
+    /**
+     * @return the number of bytes buffered.
+     */
+    public long length() {
+        return this.body.length();
+    }
+
+    /**
+     * @return true if the body exceeded the memory threshold and spilled to temp file.
+     */
+    public boolean spilled() {
+        return this.body.spilled();
+    }
+
+    @Override
+    public void close() {
+        this.body.close();
+        this.innerResponse.close();
+    }
+}
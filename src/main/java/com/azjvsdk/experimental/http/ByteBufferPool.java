@@ -0,0 +1,76 @@
+package com.azjvsdk.experimental.http;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of fixed size {@link ByteBuffer}s, released buffers are retained for reuse
+ * up to a maximum count, buffers released beyond that are left to the GC.
+ */
+public final class ByteBufferPool {
+    private final int bufferSize;
+    private final int maxPooledBuffers;
+    private final Queue<ByteBuffer> pooled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledCount = new AtomicInteger();
+
+    /**
+     * Creates ByteBufferPool.
+     *
+     * @param bufferSize the capacity of each buffer in the pool
+     * @param maxPooledBuffers the maximum number of released buffers to retain for reuse
+     *
+     * @throws IllegalArgumentException if {@code bufferSize} is less than 1 or {@code maxPooledBuffers} is negative
+     */
+    public ByteBufferPool(int bufferSize, int maxPooledBuffers) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be greater than zero.");
+        }
+        if (maxPooledBuffers < 0) {
+            throw new IllegalArgumentException("maxPooledBuffers cannot be negative.");
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooledBuffers = maxPooledBuffers;
+    }
+
+    /**
+     * @return the capacity of each buffer in the pool.
+     */
+    public int bufferSize() {
+        return this.bufferSize;
+    }
+
+    /**
+     * Gets a cleared buffer from the pool, allocates a new one if the pool is empty.
+     *
+     * @return the buffer
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = this.pooled.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocate(this.bufferSize);
+        }
+        this.pooledCount.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer acquired from this pool, the caller must not use the buffer after release.
+     *
+     * @param buffer the buffer to release
+     */
+    public void release(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer);
+        if (buffer.capacity() != this.bufferSize) {
+            throw new IllegalArgumentException("The buffer was not acquired from this pool.");
+        }
+        if (this.pooledCount.incrementAndGet() <= this.maxPooledBuffers) {
+            buffer.clear();
+            this.pooled.offer(buffer);
+        } else {
+            this.pooledCount.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.azjvsdk.experimental.http;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.AttributeKey;
+import io.netty.util.ReferenceCountUtil;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Package private type, netty handler that consumes the interim (1xx) responses, which reactor-netty
+ * would take for the final response, and opens the {@link Gate} of the request waiting for 100 Continue.
+ *
+ * The handler is added to a connection once and looks up the gate of the current request from a
+ * channel attribute. The gate is opened by 100 Continue and closed by a final response received before it.
+ */
+final class ExpectContinueHandler extends ChannelInboundHandlerAdapter {
+    static final String NAME = "azjvsdk.expectContinue";
+    static final AttributeKey<Gate> GATE = AttributeKey.valueOf("azjvsdk.expectContinueGate");
+    // An interim response is followed by an empty last content, which is consumed as well.
+    private boolean skipContent;
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (msg instanceof io.netty.handler.codec.http.HttpResponse) {
+            final int status = ((io.netty.handler.codec.http.HttpResponse) msg).status().code();
+            if (status >= 100 && status < 200 && status != 101) {
+                ReferenceCountUtil.release(msg);
+                this.skipContent = true;
+                final Gate gate = ctx.channel().attr(GATE).get();
+                if (gate != null && status == 100) {
+                    gate.open();
+                }
+                return;
+            }
+            final Gate gate = ctx.channel().attr(GATE).getAndSet(null);
+            if (gate != null) {
+                gate.close();
+            }
+        } else if (this.skipContent && msg instanceof HttpContent) {
+            this.skipContent = !(msg instanceof LastHttpContent);
+            ReferenceCountUtil.release(msg);
+            return;
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    /**
+     * Type representing the decision to send the body of a request sent with Expect: 100-continue.
+     */
+    static final class Gate {
+        private static final int WAITING = 0;
+        private static final int OPEN = 1;
+        private static final int CLOSED = 2;
+        //
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private final MonoProcessor<Boolean> decision = MonoProcessor.create();
+
+        /**
+         * @param timeout the time to wait for the decision, the gate opens once it elapses
+         * @return a mono emitting true if the body should be sent, false if the request was answered without it.
+         */
+        Mono<Boolean> await(Duration timeout) {
+            return this.decision.timeout(timeout, Mono.fromCallable(() -> {
+                this.open();
+                return !this.closed();
+            }));
+        }
+
+        /**
+         * @return true if a final response was received before 100 Continue.
+         */
+        boolean closed() {
+            return this.state.get() == CLOSED;
+        }
+
+        private void open() {
+            if (this.state.compareAndSet(WAITING, OPEN)) {
+                this.decision.onNext(true);
+            }
+        }
+
+        private void close() {
+            if (this.state.compareAndSet(WAITING, CLOSED)) {
+                this.decision.onNext(false);
+            }
+        }
+    }
+}
@@ -1,8 +1,36 @@
 package com.azjvsdk.experimental.http;
 
 import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import io.reactivex.Single;
 import reactor.core.publisher.Mono;
 
+import java.net.URL;
+
 public abstract class HttpClient {
     public abstract Mono<HttpResponse> sendRequestAsync(PipelineCallContext context);
+
+    /**
+     * Sends the request as a {@link Single}, used when the request is sent with
+     * {@link com.azjvsdk.experimental.http.pipeline.HttpPipeline#sendRequestRx(PipelineCallContext)}.
+     * Converts the response of {@link HttpClient#sendRequestAsync(PipelineCallContext)} by default,
+     * a client with a native RxJava2 implementation overrides it.
+     *
+     * @param context the request context
+     * @return a single upon subscription sends the request and emits the response.
+     */
+    public Single<HttpResponse> sendRequestRx(PipelineCallContext context) {
+        return Single.fromPublisher(this.sendRequestAsync(context));
+    }
+
+    /**
+     * Opens pooled connections to the host of the given url ahead of the traffic, including
+     * the TLS handshake for https. Clients without a connection pool complete right away.
+     *
+     * @param url the url to send the warm-up requests to
+     * @param connections the number of connections to open
+     * @return a publisher upon subscription opens the connections and completes once they are pooled.
+     */
+    public Mono<Void> warmUp(URL url, int connections) {
+        return Mono.empty();
+    }
 }
@@ -1,9 +1,14 @@
 package com.azjvsdk.experimental.http;
 
 import java.net.Proxy;
+import java.time.Duration;
+import java.util.Objects;
 
 public class HttpClientConfiguration {
+    static final Duration DEFAULT_EXPECT_CONTINUE_TIMEOUT = Duration.ofSeconds(1);
+    //
     private final Proxy proxy;
+    private Duration expectContinueTimeout = DEFAULT_EXPECT_CONTINUE_TIMEOUT;
 
     public Proxy proxy() {
         return proxy;
@@ -12,4 +17,30 @@ public class HttpClientConfiguration {
     public HttpClientConfiguration(Proxy proxy) {
         this.proxy = proxy;
     }
+
+    /**
+     * @return the time to wait for 100 Continue before sending the body of a request with Expect: 100-continue.
+     */
+    public Duration expectContinueTimeout() {
+        return this.expectContinueTimeout;
+    }
+
+    /**
+     * Sets the time to wait for 100 Continue before sending the body of a request with an
+     * Expect: 100-continue header, the body is sent once the time elapses so that the requests
+     * to a service ignoring the header still complete. Defaults to one second.
+     *
+     * @param expectContinueTimeout the wait timeout
+     * @return HttpClientConfiguration
+     *
+     * @throws IllegalArgumentException if {@code expectContinueTimeout} is negative
+     */
+    public HttpClientConfiguration withExpectContinueTimeout(Duration expectContinueTimeout) {
+        Objects.requireNonNull(expectContinueTimeout);
+        if (expectContinueTimeout.isNegative()) {
+            throw new IllegalArgumentException("expectContinueTimeout cannot be negative.");
+        }
+        this.expectContinueTimeout = expectContinueTimeout;
+        return this;
+    }
 }
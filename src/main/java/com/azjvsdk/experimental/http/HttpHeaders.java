@@ -49,6 +49,16 @@ public class HttpHeaders implements Iterable<HttpHeader> {
         return header == null ? null : header.values();
     }
 
+    /**
+     * Package private method.
+     *
+     * @param headerKey the lower case header name
+     * @return true if there is a header with the name.
+     */
+    boolean containsKey(String headerKey) {
+        return headers.containsKey(headerKey);
+    }
+
     private HttpHeader getHeader(String headerName) {
         final String headerKey = headerName.toLowerCase();
         return headers.get(headerKey);
@@ -2,16 +2,28 @@ package com.azjvsdk.experimental.http;
 
 import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 public class HttpRequest {
     private String callerMethod;
     private HttpMethod httpMethod;
+    // The url as given, the other form is derived upon first use.
     private URL url;
+    private RequestUrl requestUrl;
     private HttpHeaders headers;
+    private StaticHeaders staticHeaders;
     private Flux<ByteBuffer> body;
+    private boolean bodyReplayable;
+    //
+    private static final int FILE_READ_CHUNK_SIZE = 64 * 1024;
 
     public HttpRequest(String callerMethod, HttpMethod httpMethod, URL url) {
         this.callerMethod = callerMethod;
@@ -20,6 +32,20 @@ public class HttpRequest {
         this.headers = new HttpHeaders();
     }
 
+    /**
+     * Creates HttpRequest.
+     *
+     * @param callerMethod the caller method name
+     * @param httpMethod the http method
+     * @param requestUrl the pre-parsed request url
+     */
+    public HttpRequest(String callerMethod, HttpMethod httpMethod, RequestUrl requestUrl) {
+        this.callerMethod = callerMethod;
+        this.httpMethod = httpMethod;
+        this.requestUrl = requestUrl;
+        this.headers = new HttpHeaders();
+    }
+
     public HttpRequest(HttpMethod httpMethod, URL url, HttpHeaders headers, Flux<ByteBuffer> body) {
         this.httpMethod = httpMethod;
         this.url = url;
@@ -37,11 +63,38 @@ public class HttpRequest {
     }
 
     public URL url() {
+        if (url == null && requestUrl != null) {
+            url = requestUrl.toURL();
+        }
         return url;
     }
 
     public HttpRequest withUrl(URL url) {
         this.url = url;
+        this.requestUrl = null;
+        return this;
+    }
+
+    /**
+     * @return the pre-parsed request url, derived from the {@link URL} without resolving the host if the
+     * request was created with one.
+     */
+    public RequestUrl requestUrl() {
+        if (requestUrl == null && url != null) {
+            requestUrl = RequestUrl.fromUrl(url);
+        }
+        return requestUrl;
+    }
+
+    /**
+     * Sets the pre-parsed request url.
+     *
+     * @param requestUrl the request url
+     * @return HttpRequest
+     */
+    public HttpRequest withUrl(RequestUrl requestUrl) {
+        this.requestUrl = requestUrl;
+        this.url = null;
         return this;
     }
 
@@ -59,6 +112,26 @@ public class HttpRequest {
         return this;
     }
 
+    /**
+     * @return the static headers sent with the request unless overridden by {@link HttpRequest#headers()},
+     * null if there are none.
+     */
+    public StaticHeaders staticHeaders() {
+        return staticHeaders;
+    }
+
+    /**
+     * Sets the static headers sent with the request, a header in {@link HttpRequest#headers()}
+     * overrides the static header with the same name.
+     *
+     * @param staticHeaders the static headers
+     * @return HttpRequest
+     */
+    public HttpRequest withStaticHeaders(StaticHeaders staticHeaders) {
+        this.staticHeaders = staticHeaders;
+        return this;
+    }
+
     public Flux<ByteBuffer> body() {
         return body;
     }
@@ -70,11 +143,64 @@ public class HttpRequest {
 
     public HttpRequest withBody(byte[] body) {
         headers.set("Content-Length", String.valueOf(body.length));
-        return withBody(Flux.just(ByteBuffer.wrap(body)));
+        // Wrap per subscription so that each subscriber reads the bytes from the beginning.
+        return withReplayableBody(Flux.defer(() -> Flux.just(ByteBuffer.wrap(body))));
+    }
+
+    public HttpRequest withBody(Path file) {
+        try {
+            headers.set("Content-Length", String.valueOf(Files.size(file)));
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+        return withReplayableBody(Flux.using(() -> FileChannel.open(file, StandardOpenOption.READ),
+            channel -> Flux.<ByteBuffer, Long>generate(() -> 0L, (position, sink) -> {
+                ByteBuffer buffer = ByteBuffer.allocate(FILE_READ_CHUNK_SIZE);
+                try {
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        sink.complete();
+                        return position;
+                    }
+                    buffer.flip();
+                    sink.next(buffer);
+                    return position + read;
+                } catch (IOException ioe) {
+                    sink.error(ioe);
+                    return position;
+                }
+            }),
+            channel -> {
+                try {
+                    channel.close();
+                } catch (IOException ioe) {
+                    throw new UncheckedIOException(ioe);
+                }
+            }));
     }
 
     public HttpRequest withBody(Flux<ByteBuffer> body) {
         this.body = body;
+        this.bodyReplayable = false;
         return this;
     }
+
+    /**
+     * Sets a body that emits the same content each time it is subscribed.
+     *
+     * @param body the replayable body
+     * @return HttpRequest
+     */
+    public HttpRequest withReplayableBody(Flux<ByteBuffer> body) {
+        this.body = body;
+        this.bodyReplayable = true;
+        return this;
+    }
+
+    /**
+     * @return true if the body can be subscribed multiple times e.g. to resend the request.
+     */
+    public boolean isBodyReplayable() {
+        return body == null || bodyReplayable;
+    }
 }
@@ -5,6 +5,14 @@ import reactor.core.publisher.Flux;
 import java.io.Closeable;
 import java.nio.ByteBuffer;
 
+/**
+ * The response to a http request.
+ *
+ * A response holds the connection it was received on until it's body is read to the end or the
+ * response is closed, the receiver of a response must do one of them. The pipeline discards the
+ * responses it knows are abandoned: a response superseded by a resend of the request, and the
+ * last response of a request flow that fails or is cancelled.
+ */
 public abstract class HttpResponse implements Closeable {
     private HttpRequest request;
 
@@ -20,10 +28,23 @@ public abstract class HttpResponse implements Closeable {
         return request;
     }
 
+    /**
+     * Closes the response, releases the connection without reading the body if the body was not
+     * read. Closing a response is idempotent, the body cannot be read once the response is closed.
+     */
     public void close() {
         // no-op
     }
 
+    /**
+     * Releases a response that is not going to be read, the implementations backed by a pooled
+     * connection drain the unread body if it's small enough for the connection to be reused,
+     * otherwise close the response. By default the response is closed.
+     */
+    public void discard() {
+        this.close();
+    }
+
     public final HttpResponse withRequest(HttpRequest request) {
         this.request = request;
         return this;
@@ -0,0 +1,27 @@
+package com.azjvsdk.experimental.http;
+
+/**
+ * Exception thrown when a response is received that cannot be processed
+ * (e.g. an unexpected status code).
+ */
+public class HttpResponseException extends RuntimeException {
+    private final transient HttpResponse response;
+
+    /**
+     * Creates HttpResponseException.
+     *
+     * @param message the exception message
+     * @param response the response that caused the exception
+     */
+    public HttpResponseException(String message, HttpResponse response) {
+        super(message);
+        this.response = response;
+    }
+
+    /**
+     * @return the response that caused the exception.
+     */
+    public HttpResponse response() {
+        return this.response;
+    }
+}
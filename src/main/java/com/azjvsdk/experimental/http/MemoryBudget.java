@@ -0,0 +1,147 @@
+package com.azjvsdk.experimental.http;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accounts the bytes held in memory against a limit.
+ *
+ * A reservation is granted while the usage is below the limit, so the usage can exceed the limit
+ * by the last reservation granted. A budget can be created as an account of a parent budget, the
+ * reservations on the account are also reserved on the parent and fail if the parent is exhausted.
+ */
+public final class MemoryBudget {
+    private final MemoryBudget parent;
+    private final long limit;
+    private final AtomicLong used = new AtomicLong();
+    private final AtomicLong highWaterMark = new AtomicLong();
+    private final Queue<Runnable> waiters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates MemoryBudget.
+     *
+     * @param limit the number of bytes beyond which reservations are refused
+     *
+     * @throws IllegalArgumentException if {@code limit} is negative
+     */
+    public MemoryBudget(long limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit cannot be negative.");
+        }
+        this.parent = null;
+        this.limit = limit;
+    }
+
+    /**
+     * Creates MemoryBudget as an account of the given budget, the account has no limit of it's own.
+     *
+     * @param parent the budget to reserve on
+     */
+    public MemoryBudget(MemoryBudget parent) {
+        this.parent = Objects.requireNonNull(parent);
+        this.limit = Long.MAX_VALUE;
+    }
+
+    /**
+     * @return the number of bytes beyond which reservations are refused.
+     */
+    public long limit() {
+        return this.limit;
+    }
+
+    /**
+     * @return the number of bytes reserved.
+     */
+    public long used() {
+        return this.used.get();
+    }
+
+    /**
+     * @return the highest number of bytes reserved at the same time.
+     */
+    public long highWaterMark() {
+        return this.highWaterMark.get();
+    }
+
+    /**
+     * @return true if the budget or a parent budget is exhausted.
+     */
+    public boolean exhausted() {
+        return this.used.get() >= this.limit || (this.parent != null && this.parent.exhausted());
+    }
+
+    /**
+     * Reserves the bytes if the budget is not exhausted.
+     *
+     * @param bytes the number of bytes to reserve
+     * @return true if the bytes are reserved, false if the budget or a parent budget is exhausted.
+     *
+     * @throws IllegalArgumentException if {@code bytes} is negative
+     */
+    public boolean tryReserve(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("bytes cannot be negative.");
+        }
+        long current;
+        do {
+            current = this.used.get();
+            if (current >= this.limit) {
+                return false;
+            }
+        } while (!this.used.compareAndSet(current, current + bytes));
+        if (this.parent != null && !this.parent.tryReserve(bytes)) {
+            this.used.addAndGet(-bytes);
+            return false;
+        }
+        this.highWaterMark.accumulateAndGet(current + bytes, Math::max);
+        return true;
+    }
+
+    /**
+     * Releases bytes previously reserved.
+     *
+     * @param bytes the number of bytes to release
+     */
+    public void release(long bytes) {
+        if (bytes == 0) {
+            return;
+        }
+        this.used.addAndGet(-bytes);
+        if (this.parent != null) {
+            this.parent.release(bytes);
+        }
+        if (!this.waiters.isEmpty() && !this.exhausted()) {
+            this.signalWaiters();
+        }
+    }
+
+    /**
+     * @return a publisher that completes once the budget is not exhausted.
+     */
+    public Mono<Void> whenAvailable() {
+        return Mono.create(sink -> {
+            if (!this.exhausted()) {
+                sink.success();
+                return;
+            }
+            final Runnable waiter = sink::success;
+            this.waiters.add(waiter);
+            sink.onDispose(() -> this.waiters.remove(waiter));
+            // The budget may have been released before the waiter was added.
+            if (!this.exhausted()) {
+                this.signalWaiters();
+            }
+        });
+    }
+
+    private void signalWaiters() {
+        Runnable waiter;
+        while ((waiter = this.waiters.poll()) != null) {
+            waiter.run();
+        }
+    }
+}
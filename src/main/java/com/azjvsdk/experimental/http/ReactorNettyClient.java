@@ -0,0 +1,296 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.RequestTimeline;
+import com.azjvsdk.experimental.http.pipeline.TimelineEvent;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.AsciiString;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Package private type, {@link HttpClient} that sends the requests using reactor-netty.
+ * Instances are created by {@link ReactorNettyClientFactory}.
+ */
+final class ReactorNettyClient extends HttpClient {
+    private static final AsciiString EXPECT = AsciiString.cached("Expect");
+    private static final AsciiString CONTINUE = AsciiString.cached("100-continue");
+    //
+    private final reactor.netty.http.client.HttpClient client;
+    private final ResponseLeakDetector leakDetector;
+    private final Duration expectContinueTimeout;
+
+    /**
+     * Package private ctr.
+     *
+     * @param client the reactor-netty client
+     * @param leakDetector the detector of the responses that are never released
+     * @param expectContinueTimeout the time to wait for 100 Continue before sending the body anyway
+     */
+    ReactorNettyClient(reactor.netty.http.client.HttpClient client, ResponseLeakDetector leakDetector, Duration expectContinueTimeout) {
+        this.client = client;
+        this.leakDetector = leakDetector;
+        this.expectContinueTimeout = expectContinueTimeout;
+    }
+
+    /**
+     * Sends the request, the body of a request with an Expect: 100-continue header, or for which the
+     * pipeline asks to expect 100 Continue, is sent only once the service answers with 100 Continue
+     * or the wait times out. A final response received before that completes the request without the
+     * body ever being subscribed, and the connection is closed since the service may still expect the
+     * body declared by the headers.
+     */
+    @Override
+    public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+        final HttpRequest request = context.httpRequest();
+        if (request.body() != null
+            && (context.expectContinue() || "100-continue".equalsIgnoreCase(request.headers().value("Expect")))) {
+            return Mono.defer(() -> this.send(context, new ExpectContinueHandler.Gate()));
+        }
+        return this.send(context, null);
+    }
+
+    /**
+     * @param context the context of the request
+     * @param gate the gate the body waits on, null to send the body right away
+     * @return a mono emitting the response.
+     */
+    private Mono<HttpResponse> send(PipelineCallContext context, ExpectContinueHandler.Gate gate) {
+        final HttpRequest request = context.httpRequest();
+        final RequestTimeline timeline = context.timeline();
+        final int generation = timeline.generation();
+        final Throwable leakOrigin = this.leakDetector.sample(request);
+        return this.client
+            .request(io.netty.handler.codec.http.HttpMethod.valueOf(request.httpMethod().name()))
+            .uri(request.requestUrl().toString())
+            .send((nettyRequest, outbound) -> {
+                timeline.record(generation, TimelineEvent.CONNECTION_ACQUIRED);
+                final HttpHeaders headers = request.headers();
+                final StaticHeaders staticHeaders = context.staticHeaders();
+                if (staticHeaders != null) {
+                    final AsciiString[] encoded = encode(staticHeaders);
+                    for (int i = 0; i < staticHeaders.size(); i++) {
+                        if (headers.size() == 0 || !headers.containsKey(staticHeaders.key(i))) {
+                            nettyRequest.header(encoded[2 * i], encoded[2 * i + 1]);
+                        }
+                    }
+                }
+                for (HttpHeader header : headers) {
+                    nettyRequest.header(header.name(), header.value());
+                }
+                if (request.body() == null) {
+                    return outbound;
+                }
+                final Flux<ByteBuf> body = request.body().map(Unpooled::wrappedBuffer);
+                if (gate == null) {
+                    return outbound.send(body);
+                }
+                nettyRequest.header(EXPECT, CONTINUE);
+                outbound.withConnection(connection -> {
+                    connection.addHandlerLast(ExpectContinueHandler.NAME, new ExpectContinueHandler());
+                    connection.channel().attr(ExpectContinueHandler.GATE).set(gate);
+                    // reactor-netty reads the response once the request is sent, read the interim response now.
+                    connection.channel().read();
+                });
+                return outbound.send(gate.await(this.expectContinueTimeout)
+                    .flatMapMany(proceed -> proceed ? body : Flux.empty()));
+            })
+            .responseConnection((nettyResponse, connection) -> {
+                timeline.record(generation, TimelineEvent.FIRST_BYTE);
+                if (gate != null && gate.closed()) {
+                    connection.markPersistent(false);
+                }
+                final ReactorNettyResponse response = new ReactorNettyResponse(nettyResponse, connection, timeline, generation);
+                response.leakTracker = this.leakDetector.track(response, leakOrigin);
+                timeline.endWithBody(generation, response);
+                return Mono.just(response.withRequest(request));
+            })
+            .single();
+    }
+
+    /**
+     * @param staticHeaders the static headers
+     * @return the names and values of the headers as {@link AsciiString}s sharing the encoded bytes, which
+     * netty copies to the wire as is, created upon first write of the headers and kept on the instance.
+     */
+    private static AsciiString[] encode(StaticHeaders staticHeaders) {
+        final Object cached = staticHeaders.clientEncoding();
+        if (cached instanceof AsciiString[]) {
+            return (AsciiString[]) cached;
+        }
+        final AsciiString[] encoded = new AsciiString[2 * staticHeaders.size()];
+        for (int i = 0; i < staticHeaders.size(); i++) {
+            encoded[2 * i] = new AsciiString(staticHeaders.encodedName(i), false);
+            encoded[2 * i + 1] = new AsciiString(staticHeaders.encodedValue(i), false);
+        }
+        // Racing writers create equal forms, either one can be kept.
+        staticHeaders.clientEncoding(encoded);
+        return encoded;
+    }
+
+    /**
+     * Sends concurrent HEAD requests to the url so that the pool opens a connection for each,
+     * the connections return to the pool as the responses are read.
+     */
+    @Override
+    public Mono<Void> warmUp(URL url, int connections) {
+        Objects.requireNonNull(url);
+        if (connections < 1) {
+            throw new IllegalArgumentException("connections must be greater than zero.");
+        }
+        final String uri = url.toString();
+        return Flux.range(0, connections)
+            .flatMap(i -> this.client.head().uri(uri).responseSingle((response, content) -> content.then()), connections)
+            .then();
+    }
+
+    /**
+     * Type representing the response received by reactor-netty.
+     *
+     * The response owns the connection until the body is subscribed or the response is closed,
+     * once the body is subscribed reactor-netty returns the connection to the pool at the end
+     * of the content, or closes it if the subscription is cancelled.
+     */
+    private static final class ReactorNettyResponse extends HttpResponse {
+        private static final int OPEN = 0;
+        private static final int BODY_SUBSCRIBED = 1;
+        private static final int CLOSED = 2;
+        // The unread content up to this length is drained on discard, a longer one closes the connection.
+        private static final long MAX_DRAIN_LENGTH = 64 * 1024;
+        //
+        private final HttpClientResponse nettyResponse;
+        private final Connection connection;
+        private final RequestTimeline timeline;
+        private final int generation;
+        private final AtomicInteger state = new AtomicInteger(OPEN);
+        private HttpHeaders headers;
+        private ResponseLeakDetector.Tracker leakTracker;
+
+        private ReactorNettyResponse(HttpClientResponse nettyResponse, Connection connection, RequestTimeline timeline, int generation) {
+            this.nettyResponse = nettyResponse;
+            this.connection = connection;
+            this.timeline = timeline;
+            this.generation = generation;
+        }
+
+        @Override
+        public int statusCode() {
+            return this.nettyResponse.status().code();
+        }
+
+        @Override
+        public String headerValue(String headerName) {
+            return this.nettyResponse.responseHeaders().get(headerName);
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            if (this.headers == null) {
+                HttpHeaders headers = new HttpHeaders();
+                for (Map.Entry<String, String> header : this.nettyResponse.responseHeaders()) {
+                    headers.set(header.getKey(), header.getValue());
+                }
+                this.headers = headers;
+            }
+            return this.headers;
+        }
+
+        /**
+         * The content is copied out of the netty buffers, which are released
+         * by reactor-netty once emitted. The end of the content is recorded on the
+         * request timeline, the request ends with the body.
+         */
+        @Override
+        public Flux<ByteBuffer> body() {
+            return Flux.defer(() -> {
+                if (!this.state.compareAndSet(OPEN, BODY_SUBSCRIBED)) {
+                    return Flux.error(new IllegalStateException(this.state.get() == CLOSED
+                        ? "The response is closed."
+                        : "The response body can be read only once."));
+                }
+                this.untrack();
+                return this.connection.inbound().receive().map(ReactorNettyResponse::copy)
+                    .doOnComplete(() -> {
+                        this.timeline.record(this.generation, TimelineEvent.LAST_BYTE);
+                        this.timeline.bodyEnded(this.generation, this);
+                    })
+                    .doOnError(error -> this.timeline.bodyEnded(this.generation, this))
+                    .doOnCancel(() -> this.timeline.bodyEnded(this.generation, this));
+            });
+        }
+
+        /**
+         * Closes the connection if the body was never subscribed, a connection
+         * with unread content cannot be returned to the pool.
+         */
+        @Override
+        public void close() {
+            if (this.state.compareAndSet(OPEN, CLOSED)) {
+                this.untrack();
+                this.connection.dispose();
+                this.timeline.bodyEnded(this.generation, this);
+            }
+        }
+
+        /**
+         * Drains the unread content if it's length is known and small, so that the connection
+         * returns to the pool, closes the connection otherwise.
+         */
+        @Override
+        public void discard() {
+            final long length = this.contentLength();
+            if (length < 0 || length > MAX_DRAIN_LENGTH) {
+                this.close();
+            } else if (this.state.compareAndSet(OPEN, CLOSED)) {
+                this.untrack();
+                this.timeline.bodyEnded(this.generation, this);
+                // reactor-netty releases the buffers as they are emitted
+                this.connection.inbound().receive().subscribe(buffer -> { }, error -> this.connection.dispose());
+            }
+        }
+
+        /**
+         * @return the length of the content, 0 if the response has no content by definition
+         * (1xx, 204, 304 and responses to HEAD), -1 if the length is not known.
+         */
+        private long contentLength() {
+            final int status = this.nettyResponse.status().code();
+            if (status < 200 || status == 204 || status == 304
+                || (this.request() != null && this.request().httpMethod() == HttpMethod.HEAD)) {
+                return 0;
+            }
+            final String value = this.nettyResponse.responseHeaders().get("Content-Length");
+            if (value == null) {
+                return -1;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException nfe) {
+                return -1;
+            }
+        }
+
+        private void untrack() {
+            if (this.leakTracker != null) {
+                this.leakTracker.close();
+            }
+        }
+
+        private static ByteBuffer copy(ByteBuf buffer) {
+            ByteBuffer copy = ByteBuffer.allocate(buffer.readableBytes());
+            buffer.readBytes(copy);
+            copy.flip();
+            return copy;
+        }
+    }
+}
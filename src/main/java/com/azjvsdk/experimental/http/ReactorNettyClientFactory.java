@@ -0,0 +1,91 @@
+package com.azjvsdk.experimental.http;
+
+import io.netty.handler.ssl.SslContext;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.tcp.ProxyProvider;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Objects;
+
+/**
+ * Factory to create {@link HttpClient} backed by reactor-netty, the clients created by the
+ * factory share a connection pool that is disposed when the factory is closed.
+ *
+ * The clients also share one TLS context, so the TLS sessions established by
+ * {@link HttpClient#warmUp(java.net.URL, int)} are cached and resumed by later connections.
+ */
+public final class ReactorNettyClientFactory implements HttpClientFactory {
+    private final ConnectionProvider connectionProvider;
+    private final SslContext sslContext;
+    private final ResponseLeakDetector leakDetector;
+
+    /**
+     * Creates ReactorNettyClientFactory with the reactor-netty default max connections per host.
+     */
+    public ReactorNettyClientFactory() {
+        this(ConnectionProvider.DEFAULT_POOL_MAX_CONNECTIONS);
+    }
+
+    /**
+     * Creates ReactorNettyClientFactory.
+     *
+     * @param maxConnectionsPerHost the maximum number of pooled connections to a host
+     *
+     * @throws IllegalArgumentException if {@code maxConnectionsPerHost} is less than 1
+     */
+    public ReactorNettyClientFactory(int maxConnectionsPerHost) {
+        this(maxConnectionsPerHost, null);
+    }
+
+    /**
+     * Creates ReactorNettyClientFactory.
+     *
+     * @param maxConnectionsPerHost the maximum number of pooled connections to a host
+     * @param sslContext the client TLS context for https connections, null to use the reactor-netty default
+     *
+     * @throws IllegalArgumentException if {@code maxConnectionsPerHost} is less than 1
+     */
+    public ReactorNettyClientFactory(int maxConnectionsPerHost, SslContext sslContext) {
+        this(maxConnectionsPerHost, sslContext, ResponseLeakDetector.defaultDetector());
+    }
+
+    /**
+     * Creates ReactorNettyClientFactory.
+     *
+     * @param maxConnectionsPerHost the maximum number of pooled connections to a host
+     * @param sslContext the client TLS context for https connections, null to use the reactor-netty default
+     * @param leakDetector the detector of the responses that are never released
+     *
+     * @throws IllegalArgumentException if {@code maxConnectionsPerHost} is less than 1
+     */
+    public ReactorNettyClientFactory(int maxConnectionsPerHost, SslContext sslContext, ResponseLeakDetector leakDetector) {
+        if (maxConnectionsPerHost < 1) {
+            throw new IllegalArgumentException("maxConnectionsPerHost must be greater than zero.");
+        }
+        this.connectionProvider = ConnectionProvider.fixed("http-pipeline", maxConnectionsPerHost);
+        this.sslContext = sslContext;
+        this.leakDetector = Objects.requireNonNull(leakDetector);
+    }
+
+    @Override
+    public HttpClient create(HttpClientConfiguration configuration) {
+        reactor.netty.http.client.HttpClient client = reactor.netty.http.client.HttpClient.create(this.connectionProvider);
+        final Proxy proxy = configuration == null ? null : configuration.proxy();
+        if (proxy != null && proxy.type() != Proxy.Type.DIRECT) {
+            final ProxyProvider.Proxy type = proxy.type() == Proxy.Type.SOCKS ? ProxyProvider.Proxy.SOCKS5 : ProxyProvider.Proxy.HTTP;
+            client = client.tcpConfiguration(tcp -> tcp.proxy(spec -> spec.type(type).address((InetSocketAddress) proxy.address())));
+        }
+        if (this.sslContext != null) {
+            client = client.secure(spec -> spec.sslContext(this.sslContext));
+        }
+        return new ReactorNettyClient(client, this.leakDetector, configuration == null
+            ? HttpClientConfiguration.DEFAULT_EXPECT_CONTINUE_TIMEOUT
+            : configuration.expectContinueTimeout());
+    }
+
+    @Override
+    public void close() {
+        this.connectionProvider.dispose();
+    }
+}
@@ -0,0 +1,315 @@
+package com.azjvsdk.experimental.http;
+
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A body that records a one-shot {@code Flux<ByteBuffer>} so that it can be subscribed multiple times.
+ *
+ * The source is consumed once, upon the first subscription, and the first {@code memoryThreshold}
+ * bytes are kept in buffers from a {@link ByteBufferPool}, the rest is spilled to a temp file.
+ * Each subscription replays the recorded bytes and then follows the recording as it progresses,
+ * the recording continues even if a subscriber cancels so that the next subscriber can read the
+ * whole body. {@link ReplayableBody#close()} releases the pooled buffers and deletes the temp file,
+ * the buffers previously emitted must not be used after close.
+ *
+ * If a {@link MemoryBudget} is given, each pooled buffer is reserved on it and the body spills to
+ * temp file early once the budget is exhausted. The spilled bytes are read back in chunks of up to
+ * 64KB whatever the size of the pooled buffers.
+ */
+public final class ReplayableBody implements Closeable {
+    private static final int FILE_READ_CHUNK_SIZE = 64 * 1024;
+    //
+    private final Flux<ByteBuffer> source;
+    private final ByteBufferPool pool;
+    private final int maxMemoryBuffers;
+    private final MemoryBudget memoryBudget;
+    private final AtomicBoolean recordingStarted = new AtomicBoolean();
+    private final List<Reader> readers = new CopyOnWriteArrayList<>();
+    //
+    private final List<ByteBuffer> memory = new ArrayList<>();
+    private long memoryLength;
+    private FileChannel file;
+    private long fileLength;
+    private boolean completed;
+    private Throwable error;
+    private boolean closed;
+    private volatile Subscription sourceSubscription;
+
+    /**
+     * Creates ReplayableBody.
+     *
+     * @param source the one-shot body to record
+     * @param pool the pool to get the buffers to hold the bytes kept in memory
+     * @param memoryThreshold the number of bytes to keep in memory before spilling to temp file
+     *
+     * @throws IllegalArgumentException if {@code memoryThreshold} is negative
+     */
+    public ReplayableBody(Flux<ByteBuffer> source, ByteBufferPool pool, long memoryThreshold) {
+        this(source, pool, memoryThreshold, null);
+    }
+
+    /**
+     * Creates ReplayableBody.
+     *
+     * @param source the one-shot body to record
+     * @param pool the pool to get the buffers to hold the bytes kept in memory
+     * @param memoryThreshold the number of bytes to keep in memory before spilling to temp file
+     * @param memoryBudget the budget to reserve the buffers kept in memory on, null if not accounted
+     *
+     * @throws IllegalArgumentException if {@code memoryThreshold} is negative
+     */
+    public ReplayableBody(Flux<ByteBuffer> source, ByteBufferPool pool, long memoryThreshold, MemoryBudget memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        this.source = Objects.requireNonNull(source);
+        this.pool = Objects.requireNonNull(pool);
+        if (memoryThreshold < 0) {
+            throw new IllegalArgumentException("memoryThreshold cannot be negative.");
+        }
+        this.maxMemoryBuffers = (int) Math.min(Integer.MAX_VALUE, (memoryThreshold + pool.bufferSize() - 1) / pool.bufferSize());
+    }
+
+    /**
+     * @return a publisher that emits the body, can be subscribed multiple times.
+     */
+    public Flux<ByteBuffer> toFlux() {
+        return Flux.create(sink -> {
+            final Reader reader = new Reader(sink);
+            this.readers.add(reader);
+            sink.onRequest(n -> reader.drain());
+            sink.onDispose(() -> this.readers.remove(reader));
+            this.startRecording();
+            reader.drain();
+        });
+    }
+
+    /**
+     * @return the number of bytes recorded so far.
+     */
+    public synchronized long length() {
+        return this.memoryLength + this.fileLength;
+    }
+
+    /**
+     * @return true if the recorded bytes exceeded the memory threshold and spilled to temp file.
+     */
+    public synchronized boolean spilled() {
+        return this.file != null;
+    }
+
+    /**
+     * Releases the pooled buffers and deletes the temp file, subscribers still reading
+     * the body receives an error.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            if (this.memoryBudget != null) {
+                this.memoryBudget.release((long) this.memory.size() * this.pool.bufferSize());
+            }
+            for (ByteBuffer buffer : this.memory) {
+                this.pool.release(buffer);
+            }
+            this.memory.clear();
+            this.closeFile();
+        }
+        Subscription subscription = this.sourceSubscription;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        this.signalReaders();
+    }
+
+    /**
+     * Subscribes to the source upon the first subscription to the body.
+     */
+    private void startRecording() {
+        if (this.recordingStarted.compareAndSet(false, true)) {
+            this.source.subscribe(new BaseSubscriber<ByteBuffer>() {
+                @Override
+                protected void hookOnSubscribe(Subscription subscription) {
+                    sourceSubscription = subscription;
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                protected void hookOnNext(ByteBuffer buffer) {
+                    record(buffer);
+                }
+
+                @Override
+                protected void hookOnComplete() {
+                    synchronized (ReplayableBody.this) {
+                        completed = true;
+                    }
+                    signalReaders();
+                }
+
+                @Override
+                protected void hookOnError(Throwable throwable) {
+                    synchronized (ReplayableBody.this) {
+                        error = throwable;
+                    }
+                    signalReaders();
+                }
+            });
+        }
+    }
+
+    /**
+     * Appends the buffer to the recording, into pooled buffers until the memory threshold
+     * or the memory budget is reached and then into the temp file.
+     *
+     * @param buffer the buffer from the source
+     */
+    private void record(ByteBuffer buffer) {
+        final ByteBuffer src = buffer.duplicate();
+        synchronized (this) {
+            if (this.closed || this.error != null) {
+                return;
+            }
+            while (src.hasRemaining() && this.file == null) {
+                ByteBuffer last = this.memory.isEmpty() ? null : this.memory.get(this.memory.size() - 1);
+                if (last == null || !last.hasRemaining()) {
+                    if (this.memory.size() == this.maxMemoryBuffers
+                        || (this.memoryBudget != null && !this.memoryBudget.tryReserve(this.pool.bufferSize()))) {
+                        break;
+                    }
+                    last = this.pool.acquire();
+                    this.memory.add(last);
+                }
+                int length = Math.min(src.remaining(), last.remaining());
+                ByteBuffer slice = src.duplicate();
+                slice.limit(slice.position() + length);
+                last.put(slice);
+                src.position(src.position() + length);
+                this.memoryLength += length;
+            }
+            if (src.hasRemaining()) {
+                try {
+                    if (this.file == null) {
+                        this.file = FileChannel.open(Files.createTempFile("http-body", ".tmp"),
+                            StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+                    }
+                    while (src.hasRemaining()) {
+                        this.fileLength += this.file.write(src, this.fileLength);
+                    }
+                } catch (IOException ioe) {
+                    this.error = ioe;
+                    Subscription subscription = this.sourceSubscription;
+                    if (subscription != null) {
+                        subscription.cancel();
+                    }
+                }
+            }
+        }
+        this.signalReaders();
+    }
+
+    private void closeFile() {
+        if (this.file != null) {
+            try {
+                this.file.close();
+            } catch (IOException ignored) {
+                // The temp file is deleted on close, nothing else to release.
+            }
+        }
+    }
+
+    private void signalReaders() {
+        for (Reader reader : this.readers) {
+            reader.drain();
+        }
+    }
+
+    /**
+     * Type representing a subscription to the body, emits the recorded bytes
+     * from it's position as requested.
+     */
+    private final class Reader {
+        private final FluxSink<ByteBuffer> sink;
+        private final AtomicInteger wip = new AtomicInteger();
+        private long position;
+
+        private Reader(FluxSink<ByteBuffer> sink) {
+            this.sink = sink;
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!this.sink.isCancelled() && this.sink.requestedFromDownstream() > 0) {
+                    ByteBuffer next = null;
+                    long fileOffset = -1;
+                    int fileReadLength = 0;
+                    FileChannel fileChannel;
+                    synchronized (ReplayableBody.this) {
+                        if (closed) {
+                            this.sink.error(new IllegalStateException("The body is closed."));
+                            return;
+                        }
+                        fileChannel = file;
+                        if (this.position < memoryLength) {
+                            final int bufferSize = pool.bufferSize();
+                            final int index = (int) (this.position / bufferSize);
+                            next = memory.get(index).duplicate();
+                            next.limit((int) Math.min(bufferSize, memoryLength - (long) index * bufferSize));
+                            next.position((int) (this.position % bufferSize));
+                        } else if (this.position < memoryLength + fileLength) {
+                            fileOffset = this.position - memoryLength;
+                            fileReadLength = (int) Math.min(FILE_READ_CHUNK_SIZE, fileLength - fileOffset);
+                        } else if (error != null) {
+                            this.sink.error(error);
+                            return;
+                        } else if (completed) {
+                            this.sink.complete();
+                            return;
+                        } else {
+                            // Caught up with the recording, wait for the next signal.
+                            break;
+                        }
+                    }
+                    if (next == null) {
+                        next = ByteBuffer.allocate(fileReadLength);
+                        try {
+                            while (next.hasRemaining()) {
+                                if (fileChannel.read(next, fileOffset + next.position()) < 0) {
+                                    break;
+                                }
+                            }
+                        } catch (IOException ioe) {
+                            this.sink.error(ioe);
+                            return;
+                        }
+                        next.flip();
+                    }
+                    this.position += next.remaining();
+                    this.sink.next(next);
+                }
+                missed = this.wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
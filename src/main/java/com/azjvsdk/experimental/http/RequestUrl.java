@@ -0,0 +1,444 @@
+package com.azjvsdk.experimental.http;
+
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * An immutable, pre-parsed request url.
+ *
+ * Unlike {@link URL}, equality and hash code are computed from the parsed components without
+ * resolving the host, so a RequestUrl can be used as a key to cache, coalesce or route requests.
+ * The scheme and the host are case folded, the path and the query are kept as encoded. The user
+ * info and the fragment are not retained since they are never sent as part of a request.
+ */
+public final class RequestUrl {
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    //
+    private final String scheme;
+    private final String host;
+    private final int port;
+    private final String path;
+    private final String rawQuery;
+    private String string;
+    private int hash;
+    private volatile URL url;
+
+    private RequestUrl(String scheme, String host, int port, String path, String rawQuery) {
+        this.scheme = scheme;
+        this.host = host;
+        this.port = port;
+        this.path = path;
+        this.rawQuery = rawQuery;
+    }
+
+    /**
+     * Parses the url.
+     *
+     * @param url the url string
+     * @return the parsed url.
+     *
+     * @throws IllegalArgumentException if the url has no scheme or host, or has an invalid port
+     */
+    public static RequestUrl parse(String url) {
+        Objects.requireNonNull(url);
+        final int schemeEnd = url.indexOf("://");
+        if (schemeEnd <= 0) {
+            throw new IllegalArgumentException("The url '" + url + "' has no scheme.");
+        }
+        final int length = url.length();
+        final int authorityStart = schemeEnd + 3;
+        int authorityEnd = authorityStart;
+        while (authorityEnd < length && "/?#".indexOf(url.charAt(authorityEnd)) < 0) {
+            authorityEnd++;
+        }
+        final int userInfoEnd = url.lastIndexOf('@', authorityEnd - 1);
+        final int hostStart = userInfoEnd >= authorityStart ? userInfoEnd + 1 : authorityStart;
+        int hostEnd = authorityEnd;
+        if (hostStart < authorityEnd && url.charAt(hostStart) == '[') {
+            // IPv6 literal, the brackets are part of the host.
+            final int closing = url.indexOf(']', hostStart);
+            if (closing < 0 || closing >= authorityEnd) {
+                throw new IllegalArgumentException("The url '" + url + "' has an invalid IPv6 host.");
+            }
+            hostEnd = closing + 1;
+        } else {
+            final int colon = url.indexOf(':', hostStart);
+            if (colon >= 0 && colon < authorityEnd) {
+                hostEnd = colon;
+            }
+        }
+        if (hostEnd == hostStart) {
+            throw new IllegalArgumentException("The url '" + url + "' has no host.");
+        }
+        int port = -1;
+        if (hostEnd < authorityEnd) {
+            if (url.charAt(hostEnd) != ':') {
+                throw new IllegalArgumentException("The url '" + url + "' has an invalid host.");
+            }
+            if (hostEnd + 1 < authorityEnd) {
+                port = parsePort(url, hostEnd + 1, authorityEnd);
+            }
+        }
+        int pathEnd = authorityEnd;
+        while (pathEnd < length && url.charAt(pathEnd) != '?' && url.charAt(pathEnd) != '#') {
+            pathEnd++;
+        }
+        String rawQuery = null;
+        if (pathEnd < length && url.charAt(pathEnd) == '?') {
+            final int fragment = url.indexOf('#', pathEnd);
+            rawQuery = url.substring(pathEnd + 1, fragment < 0 ? length : fragment);
+        }
+        return new RequestUrl(url.substring(0, schemeEnd).toLowerCase(Locale.ROOT),
+            url.substring(hostStart, hostEnd).toLowerCase(Locale.ROOT),
+            port,
+            url.substring(authorityEnd, pathEnd),
+            rawQuery);
+    }
+
+    /**
+     * Creates RequestUrl from the components of the url, the host is not resolved.
+     *
+     * @param url the url
+     * @return the request url.
+     */
+    public static RequestUrl fromUrl(URL url) {
+        Objects.requireNonNull(url);
+        RequestUrl requestUrl = new RequestUrl(url.getProtocol().toLowerCase(Locale.ROOT),
+            url.getHost().toLowerCase(Locale.ROOT),
+            url.getPort(),
+            url.getPath(),
+            url.getQuery());
+        if (url.getUserInfo() == null && url.getRef() == null) {
+            requestUrl.url = url;
+        }
+        return requestUrl;
+    }
+
+    /**
+     * @return the scheme in lower case.
+     */
+    public String scheme() {
+        return this.scheme;
+    }
+
+    /**
+     * @return the host in lower case, an IPv6 address is enclosed in brackets.
+     */
+    public String host() {
+        return this.host;
+    }
+
+    /**
+     * @return the port, -1 if the url has no port.
+     */
+    public int port() {
+        return this.port;
+    }
+
+    /**
+     * @return the port, the default port of the scheme if the url has no port.
+     */
+    public int effectivePort() {
+        if (this.port != -1) {
+            return this.port;
+        }
+        return "https".equals(this.scheme) ? 443 : "http".equals(this.scheme) ? 80 : -1;
+    }
+
+    /**
+     * @return the host and the port if the url has one.
+     */
+    public String authority() {
+        return this.port == -1 ? this.host : this.host + ":" + this.port;
+    }
+
+    /**
+     * @return the encoded path, empty if the url has no path.
+     */
+    public String path() {
+        return this.path;
+    }
+
+    /**
+     * @return the encoded query, null if the url has no query.
+     */
+    public String rawQuery() {
+        return this.rawQuery;
+    }
+
+    /**
+     * @return a builder initialized with the components of this url.
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * @return the url as {@link URL}, created upon first call.
+     *
+     * @throws UncheckedIOException if the scheme is not supported by {@link URL}
+     */
+    public URL toURL() {
+        URL url = this.url;
+        if (url == null) {
+            try {
+                url = new URL(this.toString());
+            } catch (MalformedURLException mue) {
+                throw new UncheckedIOException(mue);
+            }
+            this.url = url;
+        }
+        return url;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof RequestUrl)) {
+            return false;
+        }
+        RequestUrl that = (RequestUrl) other;
+        return this.port == that.port
+            && this.host.equals(that.host)
+            && this.path.equals(that.path)
+            && this.scheme.equals(that.scheme)
+            && Objects.equals(this.rawQuery, that.rawQuery);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = this.hash;
+        if (h == 0) {
+            h = this.scheme.hashCode();
+            h = 31 * h + this.host.hashCode();
+            h = 31 * h + this.port;
+            h = 31 * h + this.path.hashCode();
+            h = 31 * h + (this.rawQuery == null ? 0 : this.rawQuery.hashCode());
+            this.hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        String s = this.string;
+        if (s == null) {
+            StringBuilder builder = new StringBuilder(this.scheme.length() + this.host.length() + this.path.length()
+                + (this.rawQuery == null ? 0 : this.rawQuery.length() + 1) + 10);
+            builder.append(this.scheme).append("://").append(this.host);
+            if (this.port != -1) {
+                builder.append(':').append(this.port);
+            }
+            builder.append(this.path);
+            if (this.rawQuery != null) {
+                builder.append('?').append(this.rawQuery);
+            }
+            s = builder.toString();
+            this.string = s;
+        }
+        return s;
+    }
+
+    private static int parsePort(String url, int start, int end) {
+        int port = 0;
+        for (int i = start; i < end; i++) {
+            final char c = url.charAt(i);
+            if (c < '0' || c > '9' || port > 0xFFFF) {
+                throw new IllegalArgumentException("The url '" + url + "' has an invalid port.");
+            }
+            port = port * 10 + (c - '0');
+        }
+        if (port > 0xFFFF) {
+            throw new IllegalArgumentException("The url '" + url + "' has an invalid port.");
+        }
+        return port;
+    }
+
+    /**
+     * Appends the value to the builder, percent-encoding the UTF-8 bytes of the characters
+     * other than the unreserved characters of RFC 3986.
+     *
+     * @param builder the builder
+     * @param value the value to encode
+     */
+    private static void appendEncoded(StringBuilder builder, String value) {
+        final int length = value.length();
+        int i = 0;
+        while (i < length && isUnreserved(value.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            builder.append(value);
+            return;
+        }
+        builder.append(value, 0, i);
+        for (byte b : value.substring(i).getBytes(StandardCharsets.UTF_8)) {
+            final char c = (char) (b & 0xFF);
+            if (isUnreserved(c)) {
+                builder.append(c);
+            } else {
+                builder.append('%').append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+            }
+        }
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+            || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    /**
+     * Builder for {@link RequestUrl}.
+     */
+    public static final class Builder {
+        private String scheme;
+        private String host;
+        private int port = -1;
+        private final StringBuilder path = new StringBuilder();
+        private StringBuilder query;
+
+        /**
+         * Creates an empty Builder.
+         */
+        public Builder() {
+        }
+
+        private Builder(RequestUrl url) {
+            this.scheme = url.scheme;
+            this.host = url.host;
+            this.port = url.port;
+            this.path.append(url.path);
+            if (url.rawQuery != null) {
+                this.query = new StringBuilder(url.rawQuery.length() + 32).append(url.rawQuery);
+            }
+        }
+
+        /**
+         * Sets the scheme.
+         *
+         * @param scheme the scheme
+         * @return Builder
+         */
+        public Builder withScheme(String scheme) {
+            this.scheme = scheme;
+            return this;
+        }
+
+        /**
+         * Sets the host.
+         *
+         * @param host the host
+         * @return Builder
+         */
+        public Builder withHost(String host) {
+            this.host = host;
+            return this;
+        }
+
+        /**
+         * Sets the port.
+         *
+         * @param port the port, -1 for the default port of the scheme
+         * @return Builder
+         *
+         * @throws IllegalArgumentException if {@code port} is not a valid port
+         */
+        public Builder withPort(int port) {
+            if (port < -1 || port > 0xFFFF) {
+                throw new IllegalArgumentException("port must be between 0 and 65535, or -1.");
+            }
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Sets the encoded path.
+         *
+         * @param path the encoded path
+         * @return Builder
+         */
+        public Builder withPath(String path) {
+            this.path.setLength(0);
+            if (path != null) {
+                this.path.append(path);
+            }
+            return this;
+        }
+
+        /**
+         * Appends a segment to the path, the segment is percent-encoded.
+         *
+         * @param segment the segment
+         * @return Builder
+         */
+        public Builder withPathSegment(String segment) {
+            Objects.requireNonNull(segment);
+            if (this.path.length() == 0 || this.path.charAt(this.path.length() - 1) != '/') {
+                this.path.append('/');
+            }
+            appendEncoded(this.path, segment);
+            return this;
+        }
+
+        /**
+         * Sets the encoded query, replacing the query parameters added so far.
+         *
+         * @param rawQuery the encoded query, null for no query
+         * @return Builder
+         */
+        public Builder withRawQuery(String rawQuery) {
+            this.query = rawQuery == null ? null : new StringBuilder(rawQuery);
+            return this;
+        }
+
+        /**
+         * Appends a query parameter, the name and the value are percent-encoded.
+         *
+         * @param name the parameter name
+         * @param value the parameter value
+         * @return Builder
+         */
+        public Builder withQueryParameter(String name, String value) {
+            Objects.requireNonNull(name);
+            Objects.requireNonNull(value);
+            if (this.query == null) {
+                this.query = new StringBuilder(name.length() + value.length() + 16);
+            } else if (this.query.length() > 0) {
+                this.query.append('&');
+            }
+            appendEncoded(this.query, name);
+            this.query.append('=');
+            appendEncoded(this.query, value);
+            return this;
+        }
+
+        /**
+         * @return the request url.
+         *
+         * @throws IllegalArgumentException if the scheme or the host is not set
+         */
+        public RequestUrl build() {
+            if (this.scheme == null || this.scheme.isEmpty()) {
+                throw new IllegalArgumentException("The scheme is required.");
+            }
+            if (this.host == null || this.host.isEmpty()) {
+                throw new IllegalArgumentException("The host is required.");
+            }
+            String path = this.path.toString();
+            if (!path.isEmpty() && path.charAt(0) != '/') {
+                path = "/" + path;
+            }
+            return new RequestUrl(this.scheme.toLowerCase(Locale.ROOT),
+                this.host.toLowerCase(Locale.ROOT),
+                this.port,
+                path,
+                this.query == null ? null : this.query.toString());
+        }
+    }
+}
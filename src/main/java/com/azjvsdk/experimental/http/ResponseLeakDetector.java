@@ -0,0 +1,146 @@
+package com.azjvsdk.experimental.http;
+
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Detector of the responses garbage collected without their body being read or the response
+ * being closed, each such response held a connection that never returned to the pool.
+ *
+ * One in {@code samplingInterval} requests is sampled: the stack trace of the code sending the
+ * request is recorded and the response is tracked with a weak reference that is cleared once the
+ * response is read, closed or discarded. A tracked response collected before that is reported
+ * with the recorded trace. The requests not sampled cost a random number draw.
+ */
+public final class ResponseLeakDetector {
+    private static final Logger LOGGER = Loggers.getLogger(ResponseLeakDetector.class);
+    private static final String INTERVAL_PROPERTY = "com.azjvsdk.experimental.http.leakDetectionInterval";
+    private static final ResponseLeakDetector DEFAULT = new ResponseLeakDetector(Integer.getInteger(INTERVAL_PROPERTY, 128));
+    //
+    private final int samplingInterval;
+    private final Consumer<Throwable> reporter;
+    private final ReferenceQueue<HttpResponse> queue = new ReferenceQueue<>();
+    // Keeps the trackers reachable until their response is released or reported.
+    private final Set<Tracker> trackers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong leakCount = new AtomicLong();
+
+    /**
+     * Creates ResponseLeakDetector reporting the leaks to the log.
+     *
+     * @param samplingInterval the detector samples one in this many requests, 1 to sample all, 0 to disable
+     */
+    public ResponseLeakDetector(int samplingInterval) {
+        this(samplingInterval, origin -> LOGGER.error(origin.getMessage(), origin));
+    }
+
+    /**
+     * Creates ResponseLeakDetector.
+     *
+     * @param samplingInterval the detector samples one in this many requests, 1 to sample all, 0 to disable
+     * @param reporter the consumer of the leaks, receives the trace of the code that sent the request
+     *
+     * @throws IllegalArgumentException if {@code samplingInterval} is negative
+     */
+    public ResponseLeakDetector(int samplingInterval, Consumer<Throwable> reporter) {
+        if (samplingInterval < 0) {
+            throw new IllegalArgumentException("samplingInterval cannot be negative.");
+        }
+        this.samplingInterval = samplingInterval;
+        this.reporter = Objects.requireNonNull(reporter);
+    }
+
+    /**
+     * @return the detector used by the clients not configured with one, samples one in 128 requests
+     * unless the {@code com.azjvsdk.experimental.http.leakDetectionInterval} system property says otherwise.
+     */
+    public static ResponseLeakDetector defaultDetector() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return the number of leaked responses reported.
+     */
+    public long leakCount() {
+        return this.leakCount.get();
+    }
+
+    /**
+     * Samples a request, called by the http client on the thread sending the request.
+     *
+     * @param request the request
+     * @return the trace of the code sending the request if the request is sampled, null otherwise.
+     */
+    public Throwable sample(HttpRequest request) {
+        if (this.samplingInterval == 0
+            || (this.samplingInterval > 1 && ThreadLocalRandom.current().nextInt(this.samplingInterval) != 0)) {
+            return null;
+        }
+        this.reportLeaks();
+        return new Throwable("LEAK: The response to " + request.httpMethod() + " " + request.requestUrl()
+            + " was neither read nor closed before it was garbage collected, it's connection was not released."
+            + " The request was sent from:");
+    }
+
+    /**
+     * Tracks the response to a sampled request.
+     *
+     * @param response the response
+     * @param origin the trace returned by {@link ResponseLeakDetector#sample(HttpRequest)}
+     * @return the tracker to close once the response is read, closed or discarded, null if the request was not sampled.
+     */
+    public Tracker track(HttpResponse response, Throwable origin) {
+        if (origin == null) {
+            return null;
+        }
+        Tracker tracker = new Tracker(response, origin, this);
+        this.trackers.add(tracker);
+        return tracker;
+    }
+
+    /**
+     * Package private method.
+     *
+     * Reports the tracked responses that were collected, invoked upon each sample.
+     */
+    void reportLeaks() {
+        Tracker tracker;
+        while ((tracker = (Tracker) this.queue.poll()) != null) {
+            if (this.trackers.remove(tracker)) {
+                this.leakCount.incrementAndGet();
+                this.reporter.accept(tracker.origin);
+            }
+        }
+    }
+
+    /**
+     * The tracker of a sampled response.
+     */
+    public static final class Tracker extends WeakReference<HttpResponse> {
+        private final Throwable origin;
+        private final ResponseLeakDetector detector;
+
+        private Tracker(HttpResponse response, Throwable origin, ResponseLeakDetector detector) {
+            super(response, detector.queue);
+            this.origin = origin;
+            this.detector = detector;
+        }
+
+        /**
+         * Stops tracking the response, the response was released.
+         */
+        public void close() {
+            if (this.detector.trackers.remove(this)) {
+                this.clear();
+            }
+        }
+    }
+}
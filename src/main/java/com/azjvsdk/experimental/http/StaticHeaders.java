@@ -0,0 +1,160 @@
+package com.azjvsdk.experimental.http;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable set of headers sent with every request, e.g. User-Agent or x-ms-version.
+ *
+ * The names and values are validated and encoded to ASCII bytes once, a StaticHeaders can be
+ * shared across requests and threads. The headers are not copied into the {@link HttpHeaders}
+ * of a request, a header set on the request overrides the static header with the same name
+ * when the request is written.
+ */
+public final class StaticHeaders {
+    private final String[] names;
+    private final String[] values;
+    private final String[] keys;
+    private final byte[][] encodedNames;
+    private final byte[][] encodedValues;
+    // The form of the headers written by the http client, set by the client upon first write.
+    private volatile Object clientEncoding;
+
+    /**
+     * Creates StaticHeaders.
+     *
+     * @param headers the header names and values
+     *
+     * @throws IllegalArgumentException if a name or a value is not printable ASCII, or a name is duplicated
+     */
+    public StaticHeaders(Map<String, String> headers) {
+        Objects.requireNonNull(headers);
+        final int size = headers.size();
+        this.names = new String[size];
+        this.values = new String[size];
+        this.keys = new String[size];
+        this.encodedNames = new byte[size][];
+        this.encodedValues = new byte[size][];
+        int i = 0;
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            final String name = Objects.requireNonNull(header.getKey());
+            final String value = Objects.requireNonNull(header.getValue());
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("The header name cannot be empty.");
+            }
+            validateAscii(name, false);
+            validateAscii(value, true);
+            final String key = name.toLowerCase(Locale.ROOT);
+            for (int j = 0; j < i; j++) {
+                if (this.keys[j].equals(key)) {
+                    throw new IllegalArgumentException("The header '" + name + "' is duplicated.");
+                }
+            }
+            this.names[i] = name;
+            this.values[i] = value;
+            this.keys[i] = key;
+            this.encodedNames[i] = name.getBytes(StandardCharsets.US_ASCII);
+            this.encodedValues[i] = value.getBytes(StandardCharsets.US_ASCII);
+            i++;
+        }
+    }
+
+    /**
+     * @return the number of headers.
+     */
+    public int size() {
+        return this.names.length;
+    }
+
+    /**
+     * @param index the index of the header
+     * @return the name of the header.
+     */
+    public String name(int index) {
+        return this.names[index];
+    }
+
+    /**
+     * @param index the index of the header
+     * @return the value of the header.
+     */
+    public String value(int index) {
+        return this.values[index];
+    }
+
+    /**
+     * @param headerName the header name
+     * @return the value of the header with the name, null if there is none.
+     */
+    public String value(String headerName) {
+        final String key = headerName.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keys[i].equals(key)) {
+                return this.values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Package private method.
+     *
+     * @param index the index of the header
+     * @return the lower case name of the header.
+     */
+    String key(int index) {
+        return this.keys[index];
+    }
+
+    /**
+     * Package private method.
+     *
+     * @param index the index of the header
+     * @return the ASCII bytes of the name, must not be modified.
+     */
+    byte[] encodedName(int index) {
+        return this.encodedNames[index];
+    }
+
+    /**
+     * Package private method.
+     *
+     * @param index the index of the header
+     * @return the ASCII bytes of the value, must not be modified.
+     */
+    byte[] encodedValue(int index) {
+        return this.encodedValues[index];
+    }
+
+    /**
+     * Package private method.
+     *
+     * @return the form of the headers cached by the http client, null if none yet.
+     */
+    Object clientEncoding() {
+        return this.clientEncoding;
+    }
+
+    /**
+     * Package private method.
+     *
+     * Caches the form of the headers written by the http client, a StaticHeaders is immutable
+     * so the form is computed once per instance however the instances are mixed across requests.
+     *
+     * @param clientEncoding the form of the headers
+     */
+    void clientEncoding(Object clientEncoding) {
+        this.clientEncoding = clientEncoding;
+    }
+
+    private static void validateAscii(String s, boolean allowSpace) {
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (c > '~' || (c < '!' && !(allowSpace && (c == ' ' || c == '\t')))) {
+                throw new IllegalArgumentException("The header '" + s + "' contains a character that is not printable ASCII.");
+            }
+        }
+    }
+}
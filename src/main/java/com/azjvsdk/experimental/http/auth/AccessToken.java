@@ -0,0 +1,37 @@
+package com.azjvsdk.experimental.http.auth;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * An immutable bearer access token and it's expiry.
+ */
+public final class AccessToken {
+    private final String token;
+    private final Instant expiresOn;
+
+    /**
+     * Creates AccessToken.
+     *
+     * @param token the token
+     * @param expiresOn the time the token expires
+     */
+    public AccessToken(String token, Instant expiresOn) {
+        this.token = Objects.requireNonNull(token);
+        this.expiresOn = Objects.requireNonNull(expiresOn);
+    }
+
+    /**
+     * @return the token.
+     */
+    public String token() {
+        return this.token;
+    }
+
+    /**
+     * @return the time the token expires.
+     */
+    public Instant expiresOn() {
+        return this.expiresOn;
+    }
+}
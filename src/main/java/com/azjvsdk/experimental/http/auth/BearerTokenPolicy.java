@@ -0,0 +1,84 @@
+package com.azjvsdk.experimental.http.auth;
+
+import com.azjvsdk.experimental.http.HttpResponse;
+import com.azjvsdk.experimental.http.pipeline.NextPolicy;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.ReplayingRequestPolicy;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+
+/**
+ * Request policy that authorizes the requests with a bearer token from a {@link TokenCache}.
+ *
+ * If the service rejects the token with 401, the token is invalidated and the request is
+ * sent once more with a newly acquired token, the response to that attempt is emitted as is.
+ */
+public final class BearerTokenPolicy implements ReplayingRequestPolicy {
+    private final TokenCache tokenCache;
+    private final String scope;
+    // The authorization header of the token last used, the token changes only on refresh.
+    private volatile AuthorizationHeader authorizationHeader;
+
+    /**
+     * Creates BearerTokenPolicy with a token cache of it's own.
+     *
+     * @param credential the provider of the tokens
+     * @param scope the scope of the tokens
+     */
+    public BearerTokenPolicy(TokenCredential credential, String scope) {
+        this(new TokenCache(credential), scope);
+    }
+
+    /**
+     * Creates BearerTokenPolicy.
+     *
+     * @param tokenCache the token cache, can be shared by policies
+     * @param scope the scope of the tokens
+     */
+    public BearerTokenPolicy(TokenCache tokenCache, String scope) {
+        this.tokenCache = Objects.requireNonNull(tokenCache);
+        this.scope = Objects.requireNonNull(scope);
+    }
+
+    @Override
+    public Mono<HttpResponse> process(PipelineCallContext context, NextPolicy next) {
+        return this.tokenCache.getToken(this.scope).flatMap(token -> {
+            this.authorize(context, token);
+            return next.process().flatMap(response -> {
+                if (response.statusCode() != 401) {
+                    return Mono.just(response);
+                }
+                this.tokenCache.invalidate(this.scope, token);
+                return response.body()
+                    .then(Mono.defer(() -> this.tokenCache.getToken(this.scope)))
+                    .flatMap(newToken -> {
+                        this.authorize(context, newToken);
+                        return next.process();
+                    });
+            });
+        });
+    }
+
+    private void authorize(PipelineCallContext context, AccessToken token) {
+        AuthorizationHeader header = this.authorizationHeader;
+        if (header == null || header.token != token) {
+            header = new AuthorizationHeader(token);
+            this.authorizationHeader = header;
+        }
+        context.httpRequest().withHeader("Authorization", header.value);
+    }
+
+    /**
+     * Type holding the authorization header value of a token.
+     */
+    private static final class AuthorizationHeader {
+        final AccessToken token;
+        final String value;
+
+        private AuthorizationHeader(AccessToken token) {
+            this.token = token;
+            this.value = "Bearer " + token.token();
+        }
+    }
+}
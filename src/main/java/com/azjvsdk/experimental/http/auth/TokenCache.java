@@ -0,0 +1,172 @@
+package com.azjvsdk.experimental.http.auth;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A cache of the access tokens of a {@link TokenCredential} per scope, can be shared by the
+ * policies of multiple pipelines.
+ *
+ * A cached token is handed out until it expires. Once it's within {@code refreshBefore} of it's
+ * expiry the token is refreshed in the background while the readers keep getting the current
+ * token, readers wait only when there is no valid token. A token whose lifetime is not longer
+ * than {@code refreshBefore} is refreshed half way through it's lifetime instead, so that it's
+ * not refreshed on every use. There is at most one acquisition in flight per scope, the readers
+ * arriving meanwhile share it's result. The readers never take a lock, they read the cached token
+ * from a volatile field and start a refresh with a CAS.
+ */
+public final class TokenCache {
+    private static final Duration DEFAULT_REFRESH_BEFORE = Duration.ofMinutes(5);
+    // The time to wait before retrying a failed background refresh while the token is still valid.
+    private static final long REFRESH_RETRY_NANOS = TimeUnit.SECONDS.toNanos(5);
+    //
+    private final TokenCredential credential;
+    private final long refreshBeforeNanos;
+    private final ConcurrentHashMap<String, Scope> scopes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates TokenCache that refreshes the tokens 5 minutes before they expire.
+     *
+     * @param credential the provider of the tokens
+     */
+    public TokenCache(TokenCredential credential) {
+        this(credential, DEFAULT_REFRESH_BEFORE);
+    }
+
+    /**
+     * Creates TokenCache.
+     *
+     * @param credential the provider of the tokens
+     * @param refreshBefore the time before expiry to refresh a token
+     *
+     * @throws IllegalArgumentException if {@code refreshBefore} is negative
+     */
+    public TokenCache(TokenCredential credential, Duration refreshBefore) {
+        this.credential = Objects.requireNonNull(credential);
+        Objects.requireNonNull(refreshBefore);
+        if (refreshBefore.isNegative()) {
+            throw new IllegalArgumentException("refreshBefore cannot be negative.");
+        }
+        this.refreshBeforeNanos = refreshBefore.toNanos();
+    }
+
+    /**
+     * Gets a valid token for the scope, from the cache if there is one.
+     *
+     * @param scope the scope
+     * @return a publisher that emits the token.
+     */
+    public Mono<AccessToken> getToken(String scope) {
+        return this.scope(scope).getToken();
+    }
+
+    /**
+     * Removes the token from the cache if it's still the cached token of the scope, e.g. once
+     * the service rejected it, so that the next {@link TokenCache#getToken(String)} acquires a
+     * new token.
+     *
+     * @param scope the scope
+     * @param token the rejected token
+     */
+    public void invalidate(String scope, AccessToken token) {
+        this.scope(scope).invalidate(token);
+    }
+
+    private Scope scope(String scope) {
+        Objects.requireNonNull(scope);
+        Scope entry = this.scopes.get(scope);
+        return entry != null ? entry : this.scopes.computeIfAbsent(scope, Scope::new);
+    }
+
+    /**
+     * Type representing a cached token.
+     */
+    private static final class CachedToken {
+        final AccessToken token;
+        final Mono<AccessToken> mono;
+        final long refreshAtNanos;
+        final long expiresAtNanos;
+
+        private CachedToken(AccessToken token, long refreshAtNanos, long expiresAtNanos) {
+            this.token = token;
+            this.mono = Mono.just(token);
+            this.refreshAtNanos = refreshAtNanos;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    /**
+     * Type representing the cached token and the acquisition in flight of a scope.
+     */
+    private final class Scope {
+        private final String scope;
+        private final AtomicReference<CachedToken> cached = new AtomicReference<>();
+        private final AtomicReference<MonoProcessor<AccessToken>> inFlight = new AtomicReference<>();
+        private volatile long nextRefreshNanos;
+
+        private Scope(String scope) {
+            this.scope = scope;
+        }
+
+        private Mono<AccessToken> getToken() {
+            final CachedToken cachedToken = this.cached.get();
+            if (cachedToken != null) {
+                final long now = System.nanoTime();
+                if (now - cachedToken.expiresAtNanos < 0) {
+                    if (now - cachedToken.refreshAtNanos >= 0 && now - this.nextRefreshNanos >= 0) {
+                        this.acquire();
+                    }
+                    return cachedToken.mono;
+                }
+            }
+            return this.acquire();
+        }
+
+        private void invalidate(AccessToken token) {
+            final CachedToken cachedToken = this.cached.get();
+            if (cachedToken != null && cachedToken.token == token) {
+                this.cached.compareAndSet(cachedToken, null);
+            }
+        }
+
+        /**
+         * @return the acquisition in flight, starts one if there is none.
+         */
+        private Mono<AccessToken> acquire() {
+            while (true) {
+                MonoProcessor<AccessToken> current = this.inFlight.get();
+                if (current != null) {
+                    return current;
+                }
+                final MonoProcessor<AccessToken> processor = MonoProcessor.create();
+                if (this.inFlight.compareAndSet(null, processor)) {
+                    // Deferred so that a credential throwing instead of returning an error fails the acquisition.
+                    Mono.defer(() -> credential.getToken(this.scope))
+                        .switchIfEmpty(Mono.error(new IllegalStateException("The credential returned no token for the scope '" + this.scope + "'.")))
+                        .subscribe(token -> {
+                            final long now = System.nanoTime();
+                            final long lifetimeNanos = Duration.between(Instant.now(), token.expiresOn()).toNanos();
+                            final long refreshInNanos = lifetimeNanos > refreshBeforeNanos
+                                ? lifetimeNanos - refreshBeforeNanos
+                                : lifetimeNanos / 2;
+                            this.cached.set(new CachedToken(token, now + refreshInNanos, now + lifetimeNanos));
+                            this.inFlight.set(null);
+                            processor.onNext(token);
+                        }, error -> {
+                            this.nextRefreshNanos = System.nanoTime() + REFRESH_RETRY_NANOS;
+                            this.inFlight.set(null);
+                            processor.onError(error);
+                        });
+                    return processor;
+                }
+            }
+        }
+    }
+}
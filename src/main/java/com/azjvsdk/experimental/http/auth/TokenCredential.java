@@ -0,0 +1,17 @@
+package com.azjvsdk.experimental.http.auth;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Provider of access tokens, e.g. a client of an OAuth token endpoint.
+ */
+@FunctionalInterface
+public interface TokenCredential {
+    /**
+     * Acquires a new token for the scope.
+     *
+     * @param scope the scope the token is for
+     * @return a publisher upon subscription acquires the token and emits it.
+     */
+    Mono<AccessToken> getToken(String scope);
+}
@@ -0,0 +1,188 @@
+package com.azjvsdk.experimental.http.balancing;
+
+import com.azjvsdk.experimental.http.RequestUrl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An endpoint of the {@link LoadBalancingPolicy} and it's statistics.
+ *
+ * The statistics are kept in per-endpoint atomic counters, selecting an endpoint only reads them
+ * and recording an outcome updates the counters of the endpoint with compare-and-set, so
+ * concurrent requests never wait on each other.
+ */
+public final class Endpoint {
+    // The latency added to the average in the cost, so that the requests in flight weigh even
+    // on an endpoint with no completed request yet.
+    private static final double LATENCY_FLOOR_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    //
+    private final RequestUrl url;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // The raw bits of the latency EWMA in nanoseconds, zero until the first sample.
+    private final AtomicLong latencyEwmaBits = new AtomicLong();
+    private volatile long lastSampleNanos;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger ejections = new AtomicInteger();
+    private volatile long ejectedUntilNanos;
+    private volatile boolean ejected;
+
+    /**
+     * Package private ctr.
+     *
+     * @param url the scheme, host and port of the endpoint
+     */
+    Endpoint(RequestUrl url) {
+        this.url = url;
+    }
+
+    /**
+     * @return the scheme, host and port of the endpoint.
+     */
+    public RequestUrl url() {
+        return this.url;
+    }
+
+    /**
+     * @return the number of requests in flight to the endpoint.
+     */
+    public int inFlight() {
+        return this.inFlight.get();
+    }
+
+    /**
+     * @return the exponentially weighted moving average of the latency in nanoseconds,
+     * zero if no request to the endpoint completed yet.
+     */
+    public double latencyEwmaNanos() {
+        return Double.longBitsToDouble(this.latencyEwmaBits.get());
+    }
+
+    /**
+     * @return the number of failures since the last success.
+     */
+    public int consecutiveFailures() {
+        return this.consecutiveFailures.get();
+    }
+
+    /**
+     * @return true if the endpoint is ejected.
+     */
+    public boolean isEjected() {
+        return this.isEjected(System.nanoTime());
+    }
+
+    /**
+     * Package private method.
+     *
+     * @param nowNanos the current time
+     * @return true if the endpoint is ejected at the given time.
+     */
+    boolean isEjected(long nowNanos) {
+        return this.ejected && nowNanos - this.ejectedUntilNanos < 0;
+    }
+
+    /**
+     * Package private method.
+     *
+     * @return the time the ejection of the endpoint ends.
+     */
+    long ejectedUntilNanos() {
+        return this.ejectedUntilNanos;
+    }
+
+    /**
+     * Package private method.
+     *
+     * The latency of an endpoint with no request in flight decays with the time since the last
+     * sample, so that an endpoint not selected for a while, e.g. after a latency spike, is probed
+     * again rather than left with a stale cost. The latency of an endpoint with requests in flight
+     * does not decay, so that an endpoint not completing it's requests does not get cheaper.
+     *
+     * @param nowNanos the current time
+     * @param decayNanos the time constant of the decay
+     * @return the load of the endpoint, the latency plus a floor weighted by the requests in flight.
+     */
+    double cost(long nowNanos, long decayNanos) {
+        double latency = this.latencyEwmaNanos();
+        final int inFlight = this.inFlight.get();
+        final long idleNanos = nowNanos - this.lastSampleNanos;
+        if (latency != 0 && inFlight == 0 && idleNanos > 0) {
+            latency *= Math.exp(-(double) idleNanos / decayNanos);
+        }
+        return (latency + LATENCY_FLOOR_NANOS) * (inFlight + 1);
+    }
+
+    /**
+     * Package private method.
+     */
+    void onStart() {
+        this.inFlight.incrementAndGet();
+    }
+
+    /**
+     * Package private method.
+     */
+    void onEnd() {
+        this.inFlight.decrementAndGet();
+    }
+
+    /**
+     * Package private method.
+     *
+     * Records a successful request, resets the failure streak and the ejection backoff.
+     *
+     * @param latencyNanos the latency of the request
+     * @param weight the weight of the sample in the moving average
+     */
+    void onSuccess(long latencyNanos, double weight) {
+        long current;
+        long next;
+        do {
+            current = this.latencyEwmaBits.get();
+            final double ewma = Double.longBitsToDouble(current);
+            next = Double.doubleToRawLongBits(ewma == 0 ? latencyNanos : ewma + weight * (latencyNanos - ewma));
+        } while (!this.latencyEwmaBits.compareAndSet(current, next));
+        this.lastSampleNanos = System.nanoTime();
+        if (this.consecutiveFailures.get() != 0) {
+            this.consecutiveFailures.set(0);
+        }
+        if (this.ejections.get() != 0 && !this.isEjected(System.nanoTime())) {
+            this.ejections.set(0);
+        }
+    }
+
+    /**
+     * Package private method.
+     *
+     * Records a failed request, ejects the endpoint once the failure streak reaches the threshold.
+     * The ejection time doubles with each ejection without a success in between.
+     *
+     * @param failureThreshold the number of consecutive failures ejecting the endpoint
+     * @param baseEjectionNanos the ejection time of the first ejection
+     * @param maxEjectionNanos the maximum ejection time
+     */
+    void onFailure(int failureThreshold, long baseEjectionNanos, long maxEjectionNanos) {
+        if (this.consecutiveFailures.incrementAndGet() < failureThreshold) {
+            return;
+        }
+        final long now = System.nanoTime();
+        if (this.isEjected(now)) {
+            return;
+        }
+        // Only the request resetting the streak ejects, the others racing with it see the reset.
+        final int failures = this.consecutiveFailures.get();
+        if (failures >= failureThreshold && this.consecutiveFailures.compareAndSet(failures, 0)) {
+            final int shift = Math.min(this.ejections.getAndIncrement(), 30);
+            final long ejectionNanos = Math.min(maxEjectionNanos, baseEjectionNanos << shift);
+            this.ejectedUntilNanos = now + (ejectionNanos < 0 ? maxEjectionNanos : ejectionNanos);
+            this.ejected = true;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.url.toString();
+    }
+}
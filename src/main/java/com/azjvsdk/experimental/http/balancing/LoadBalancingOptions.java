@@ -0,0 +1,163 @@
+package com.azjvsdk.experimental.http.balancing;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Options to configure {@link LoadBalancingPolicy}.
+ */
+public class LoadBalancingOptions {
+    private double latencyWeight = 0.2;
+    private Duration latencyDecayTime = Duration.ofSeconds(10);
+    private int failureThreshold = 5;
+    private Duration baseEjectionTime = Duration.ofSeconds(10);
+    private Duration maxEjectionTime = Duration.ofMinutes(5);
+    private int maxFailovers = 1;
+
+    /**
+     * @return the weight of a new latency sample in the moving average.
+     */
+    public double latencyWeight() {
+        return this.latencyWeight;
+    }
+
+    /**
+     * Sets the weight of a new latency sample in the exponentially weighted moving average of
+     * the endpoint latency, a higher weight reacts faster to a change in latency.
+     *
+     * @param latencyWeight the weight, greater than 0 and at most 1
+     * @return LoadBalancingOptions
+     *
+     * @throws IllegalArgumentException if {@code latencyWeight} is not in (0, 1]
+     */
+    public LoadBalancingOptions withLatencyWeight(double latencyWeight) {
+        if (!(latencyWeight > 0 && latencyWeight <= 1)) {
+            throw new IllegalArgumentException("latencyWeight must be greater than 0 and at most 1.");
+        }
+        this.latencyWeight = latencyWeight;
+        return this;
+    }
+
+    /**
+     * @return the time constant of the decay of an endpoint's latency while it's not sampled.
+     */
+    public Duration latencyDecayTime() {
+        return this.latencyDecayTime;
+    }
+
+    /**
+     * Sets the time constant of the decay of an endpoint's latency while it's not sampled, the
+     * latency used to compare endpoints drops by a factor of e per decay time since the last
+     * sample, so that an endpoint penalized by a latency spike is probed again.
+     *
+     * @param latencyDecayTime the decay time
+     * @return LoadBalancingOptions
+     *
+     * @throws IllegalArgumentException if {@code latencyDecayTime} is not positive
+     */
+    public LoadBalancingOptions withLatencyDecayTime(Duration latencyDecayTime) {
+        Objects.requireNonNull(latencyDecayTime);
+        if (latencyDecayTime.isNegative() || latencyDecayTime.isZero()) {
+            throw new IllegalArgumentException("latencyDecayTime must be positive.");
+        }
+        this.latencyDecayTime = latencyDecayTime;
+        return this;
+    }
+
+    /**
+     * @return the number of consecutive failures ejecting an endpoint.
+     */
+    public int failureThreshold() {
+        return this.failureThreshold;
+    }
+
+    /**
+     * Sets the number of consecutive failures ejecting an endpoint, a failure is a request
+     * failing with an error or a 5xx response.
+     *
+     * @param failureThreshold the number of consecutive failures
+     * @return LoadBalancingOptions
+     *
+     * @throws IllegalArgumentException if {@code failureThreshold} is less than 1
+     */
+    public LoadBalancingOptions withFailureThreshold(int failureThreshold) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be greater than zero.");
+        }
+        this.failureThreshold = failureThreshold;
+        return this;
+    }
+
+    /**
+     * @return the time an endpoint is ejected for the first time.
+     */
+    public Duration baseEjectionTime() {
+        return this.baseEjectionTime;
+    }
+
+    /**
+     * Sets the time an endpoint is ejected for the first time, the time doubles with each
+     * ejection until a request to the endpoint succeeds.
+     *
+     * @param baseEjectionTime the ejection time
+     * @return LoadBalancingOptions
+     *
+     * @throws IllegalArgumentException if {@code baseEjectionTime} is negative
+     */
+    public LoadBalancingOptions withBaseEjectionTime(Duration baseEjectionTime) {
+        Objects.requireNonNull(baseEjectionTime);
+        if (baseEjectionTime.isNegative()) {
+            throw new IllegalArgumentException("baseEjectionTime cannot be negative.");
+        }
+        this.baseEjectionTime = baseEjectionTime;
+        return this;
+    }
+
+    /**
+     * @return the maximum time an endpoint is ejected.
+     */
+    public Duration maxEjectionTime() {
+        return this.maxEjectionTime;
+    }
+
+    /**
+     * Sets the maximum time an endpoint is ejected.
+     *
+     * @param maxEjectionTime the maximum ejection time
+     * @return LoadBalancingOptions
+     *
+     * @throws IllegalArgumentException if {@code maxEjectionTime} is negative
+     */
+    public LoadBalancingOptions withMaxEjectionTime(Duration maxEjectionTime) {
+        Objects.requireNonNull(maxEjectionTime);
+        if (maxEjectionTime.isNegative()) {
+            throw new IllegalArgumentException("maxEjectionTime cannot be negative.");
+        }
+        this.maxEjectionTime = maxEjectionTime;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of times a failed request is resent to another endpoint.
+     */
+    public int maxFailovers() {
+        return this.maxFailovers;
+    }
+
+    /**
+     * Sets the maximum number of times a request failing with an error is resent to another
+     * endpoint. Only the idempotent requests with a replayable or no body are failed over.
+     *
+     * @param maxFailovers the maximum number of failovers, zero to disable failover
+     * @return LoadBalancingOptions
+     *
+     * @throws IllegalArgumentException if {@code maxFailovers} is negative
+     */
+    public LoadBalancingOptions withMaxFailovers(int maxFailovers) {
+        if (maxFailovers < 0) {
+            throw new IllegalArgumentException("maxFailovers cannot be negative.");
+        }
+        this.maxFailovers = maxFailovers;
+        return this;
+    }
+}
@@ -0,0 +1,227 @@
+package com.azjvsdk.experimental.http.balancing;
+
+import com.azjvsdk.experimental.http.HttpMethod;
+import com.azjvsdk.experimental.http.HttpRequest;
+import com.azjvsdk.experimental.http.HttpResponse;
+import com.azjvsdk.experimental.http.RequestUrl;
+import com.azjvsdk.experimental.http.pipeline.NextPolicy;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.RequestPolicy;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Request policy that routes each request to one of several endpoints serving the same content,
+ * e.g. regional replicas of a service, by rewriting the scheme, host and port of the request url.
+ *
+ * The endpoint is selected with power-of-two-choices: two random endpoints that are not ejected
+ * are compared and the one with the lower cost wins, the cost being the moving average of the
+ * latency plus a floor of 1ms, weighted by the requests in flight. The average of an idle
+ * endpoint decays while it's not sampled so that a latency spike does not keep an endpoint out
+ * for long. An endpoint with no completed request yet costs only the floor, so new endpoints are
+ * probed first, while an endpoint whose requests hang gets costlier with each request sent to
+ * it. An endpoint whose consecutive failures reach the
+ * threshold is ejected for a while, if all the endpoints are ejected the one whose ejection ends
+ * first is used.
+ *
+ * An idempotent request failing with an error is resent to another endpoint, if it's body is
+ * replayable or it has no body.
+ */
+public final class LoadBalancingPolicy implements RequestPolicy {
+    private final Endpoint[] endpoints;
+    private final double latencyWeight;
+    private final long latencyDecayNanos;
+    private final int failureThreshold;
+    private final long baseEjectionNanos;
+    private final long maxEjectionNanos;
+    private final int maxFailovers;
+
+    /**
+     * Creates LoadBalancingPolicy with default {@link LoadBalancingOptions}.
+     *
+     * @param endpoints the urls of the endpoints, only their scheme, host and port are used
+     */
+    public LoadBalancingPolicy(String... endpoints) {
+        this(toRequestUrls(endpoints), new LoadBalancingOptions());
+    }
+
+    /**
+     * Creates LoadBalancingPolicy.
+     *
+     * @param endpoints the urls of the endpoints, only their scheme, host and port are used
+     * @param options the load balancing options
+     *
+     * @throws IllegalArgumentException if {@code endpoints} is empty
+     */
+    public LoadBalancingPolicy(List<RequestUrl> endpoints, LoadBalancingOptions options) {
+        Objects.requireNonNull(endpoints);
+        Objects.requireNonNull(options);
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required.");
+        }
+        this.endpoints = new Endpoint[endpoints.size()];
+        for (int i = 0; i < this.endpoints.length; i++) {
+            this.endpoints[i] = new Endpoint(Objects.requireNonNull(endpoints.get(i)));
+        }
+        this.latencyWeight = options.latencyWeight();
+        this.latencyDecayNanos = options.latencyDecayTime().toNanos();
+        this.failureThreshold = options.failureThreshold();
+        this.baseEjectionNanos = options.baseEjectionTime().toNanos();
+        this.maxEjectionNanos = options.maxEjectionTime().toNanos();
+        this.maxFailovers = options.maxFailovers();
+    }
+
+    /**
+     * @return the endpoints and their statistics.
+     */
+    public List<Endpoint> endpoints() {
+        return Collections.unmodifiableList(Arrays.asList(this.endpoints));
+    }
+
+    @Override
+    public Mono<HttpResponse> process(PipelineCallContext context, NextPolicy next) {
+        final HttpRequest request = context.httpRequest();
+        final boolean canFailover = this.maxFailovers > 0 && isIdempotent(request.httpMethod()) && request.isBodyReplayable();
+        return this.attempt(request, next, null, canFailover ? this.maxFailovers : 0);
+    }
+
+    private Mono<HttpResponse> attempt(HttpRequest request, NextPolicy next, Endpoint failed, int failoversLeft) {
+        return Mono.defer(() -> {
+            final Endpoint endpoint = this.select(failed);
+            final RequestUrl url = request.requestUrl();
+            request.withUrl(url.toBuilder()
+                .withScheme(endpoint.url().scheme())
+                .withHost(endpoint.url().host())
+                .withPort(endpoint.url().port())
+                .build());
+            final Attempt attempt = new Attempt(endpoint);
+            return next.process()
+                .doOnSuccess(response -> {
+                    if (attempt.end()) {
+                        if (response != null && response.statusCode() >= 500) {
+                            this.onFailure(endpoint);
+                        } else {
+                            endpoint.onSuccess(System.nanoTime() - attempt.startNanos, this.latencyWeight);
+                        }
+                    }
+                })
+                .doOnError(error -> {
+                    if (attempt.end()) {
+                        this.onFailure(endpoint);
+                    }
+                })
+                .doOnCancel(attempt::end)
+                .onErrorResume(error -> failoversLeft > 0 && this.endpoints.length > 1,
+                    error -> this.attempt(request, next, endpoint, failoversLeft - 1));
+        });
+    }
+
+    /**
+     * Selects an endpoint with power-of-two-choices among the endpoints not ejected.
+     *
+     * @param excluded the endpoint to avoid, null if none
+     * @return the endpoint.
+     */
+    private Endpoint select(Endpoint excluded) {
+        final Endpoint[] endpoints = this.endpoints;
+        if (endpoints.length == 1) {
+            return endpoints[0];
+        }
+        final long now = System.nanoTime();
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int i = random.nextInt(endpoints.length);
+        int j = random.nextInt(endpoints.length - 1);
+        if (j >= i) {
+            j++;
+        }
+        final Endpoint first = this.usable(endpoints[i], excluded, now) ? endpoints[i] : null;
+        final Endpoint second = this.usable(endpoints[j], excluded, now) ? endpoints[j] : null;
+        if (first != null && second != null) {
+            return first.cost(now, this.latencyDecayNanos) <= second.cost(now, this.latencyDecayNanos) ? first : second;
+        }
+        if (first != null || second != null) {
+            return first != null ? first : second;
+        }
+        return this.fallback(excluded, now);
+    }
+
+    /**
+     * Scans the endpoints when both random picks were unusable.
+     *
+     * @param excluded the endpoint to avoid, null if none
+     * @param now the current time
+     * @return the usable endpoint with the lowest cost, the endpoint whose ejection ends first if none is usable.
+     */
+    private Endpoint fallback(Endpoint excluded, long now) {
+        Endpoint best = null;
+        Endpoint soonest = null;
+        for (Endpoint endpoint : this.endpoints) {
+            if (this.usable(endpoint, excluded, now)) {
+                if (best == null || endpoint.cost(now, this.latencyDecayNanos) < best.cost(now, this.latencyDecayNanos)) {
+                    best = endpoint;
+                }
+            } else if (endpoint != excluded
+                && (soonest == null || endpoint.ejectedUntilNanos() - soonest.ejectedUntilNanos() < 0)) {
+                soonest = endpoint;
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+        return soonest != null ? soonest : excluded;
+    }
+
+    private boolean usable(Endpoint endpoint, Endpoint excluded, long now) {
+        return endpoint != excluded && !endpoint.isEjected(now);
+    }
+
+    private void onFailure(Endpoint endpoint) {
+        endpoint.onFailure(this.failureThreshold, this.baseEjectionNanos, this.maxEjectionNanos);
+    }
+
+    private static boolean isIdempotent(HttpMethod method) {
+        return method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.PUT || method == HttpMethod.DELETE;
+    }
+
+    /**
+     * Type representing a request in flight to an endpoint, the request leaves the in-flight
+     * count of the endpoint once, upon the response, the error or the cancellation.
+     */
+    private static final class Attempt {
+        private final Endpoint endpoint;
+        private final long startNanos;
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        private Attempt(Endpoint endpoint) {
+            this.endpoint = endpoint;
+            this.startNanos = System.nanoTime();
+            endpoint.onStart();
+        }
+
+        /**
+         * @return true if the request left the in-flight count on this call, false if it already left.
+         */
+        private boolean end() {
+            if (this.ended.compareAndSet(false, true)) {
+                this.endpoint.onEnd();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static List<RequestUrl> toRequestUrls(String[] endpoints) {
+        Objects.requireNonNull(endpoints);
+        RequestUrl[] urls = new RequestUrl[endpoints.length];
+        for (int i = 0; i < endpoints.length; i++) {
+            urls[i] = RequestUrl.parse(endpoints[i]);
+        }
+        return Arrays.asList(urls);
+    }
+}
@@ -0,0 +1,48 @@
+package com.azjvsdk.experimental.http.checksum;
+
+/**
+ * The checksum algorithms of {@link ChecksumPolicy}, the checksums are sent base64 encoded.
+ */
+public enum ChecksumAlgorithm {
+    /**
+     * MD5, sent in the Content-MD5 header.
+     */
+    MD5("Content-MD5"),
+    /**
+     * CRC32C, big-endian, sent in the x-content-crc32c header by default.
+     */
+    CRC32C("x-content-crc32c"),
+    /**
+     * CRC64 of the storage service, little-endian, sent in the x-ms-content-crc64 header.
+     */
+    CRC64("x-ms-content-crc64");
+
+    private final String headerName;
+
+    ChecksumAlgorithm(String headerName) {
+        this.headerName = headerName;
+    }
+
+    /**
+     * @return the default header carrying the checksum.
+     */
+    public String headerName() {
+        return this.headerName;
+    }
+
+    /**
+     * Package private method.
+     *
+     * @return a new checksum computation.
+     */
+    StreamingChecksum newChecksum() {
+        switch (this) {
+            case MD5:
+                return new Md5Checksum();
+            case CRC32C:
+                return new Crc32cChecksum();
+            default:
+                return new Crc64Checksum();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.azjvsdk.experimental.http.checksum;
+
+import com.azjvsdk.experimental.http.HttpHeaders;
+import com.azjvsdk.experimental.http.HttpMethod;
+import com.azjvsdk.experimental.http.HttpRequest;
+import com.azjvsdk.experimental.http.HttpResponse;
+import com.azjvsdk.experimental.http.HttpResponseException;
+import com.azjvsdk.experimental.http.pipeline.NextPolicy;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.RequestPolicy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request policy that computes the checksum of the request and response bodies as the buffers
+ * flow through, without buffering the bodies.
+ *
+ * For a request with a replayable body and no checksum header, the checksum is computed by
+ * reading the body once ahead of sending and is sent in the header for the service to verify.
+ * A one-shot body cannot be read ahead, it's checksum is computed while it's sent, the
+ * checksumming body is created once per call context and installed on the request for the
+ * duration of each attempt. The checksum header of the response to a request with a body is the
+ * echo of the request checksum, it's verified against the checksum sent and the response fails
+ * with {@link HttpResponseException} on mismatch. The body of the response to a request without
+ * body is verified against the checksum header of the response, if any, the body fails with
+ * {@link HttpResponseException} at the end of stream on mismatch.
+ */
+public final class ChecksumPolicy implements RequestPolicy {
+    private static final AtomicLong INSTANCE_IDS = new AtomicLong();
+    //
+    private final String contextDataKey = ChecksumPolicy.class.getName() + "." + INSTANCE_IDS.incrementAndGet();
+    private final ChecksumAlgorithm algorithm;
+    private final String headerName;
+
+    /**
+     * Creates ChecksumPolicy sending and verifying the checksum in the default header of the algorithm.
+     *
+     * @param algorithm the checksum algorithm
+     */
+    public ChecksumPolicy(ChecksumAlgorithm algorithm) {
+        this(algorithm, Objects.requireNonNull(algorithm).headerName());
+    }
+
+    /**
+     * Creates ChecksumPolicy.
+     *
+     * @param algorithm the checksum algorithm
+     * @param headerName the header carrying the checksum
+     */
+    public ChecksumPolicy(ChecksumAlgorithm algorithm, String headerName) {
+        this.algorithm = Objects.requireNonNull(algorithm);
+        this.headerName = Objects.requireNonNull(headerName);
+    }
+
+    @Override
+    public Mono<HttpResponse> process(PipelineCallContext context, NextPolicy next) {
+        final HttpRequest request = context.httpRequest();
+        if (request.body() == null) {
+            return next.process().map(this::verifyResponse);
+        }
+        final String sentHeader = request.headers().value(this.headerName);
+        if (sentHeader != null) {
+            return next.process().flatMap(response -> this.verifyEcho(response, this.decode(sentHeader)));
+        }
+        if (request.isBodyReplayable()) {
+            return this.checksum(request.body())
+                .flatMap(digest -> {
+                    request.withHeader(this.headerName, Base64.getEncoder().encodeToString(digest));
+                    return next.process().flatMap(response -> this.verifyEcho(response, digest));
+                });
+        }
+        final ChecksummedBody sentBody = this.checksummedBody(context);
+        final Runnable restoreBody = sentBody.install(request);
+        final Mono<HttpResponse> attempt = restoreBody == null
+            ? next.process()
+            : next.process().doOnSuccessOrError((response, error) -> restoreBody.run()).doOnCancel(restoreBody);
+        return attempt.flatMap(response -> this.verifyEcho(response, sentBody.digest));
+    }
+
+    /**
+     * @param response the response to a request with a body
+     * @param sent the checksum of the request body sent, null if not known
+     * @return a publisher that emits the response as is if the checksum the service echoes, if any,
+     * matches the checksum sent, fails with {@link HttpResponseException} otherwise.
+     */
+    private Mono<HttpResponse> verifyEcho(HttpResponse response, byte[] sent) {
+        final byte[] echoed = this.decode(response.headerValue(this.headerName));
+        if (echoed != null && sent != null && !Arrays.equals(echoed, sent)) {
+            return Mono.error(new HttpResponseException("The " + this.algorithm + " checksum of the request body sent does not match the checksum received by the service.", response));
+        }
+        return Mono.just(response);
+    }
+
+    /**
+     * @param context the call context
+     * @return the checksumming body of the context, created upon first use.
+     */
+    private ChecksummedBody checksummedBody(PipelineCallContext context) {
+        ChecksummedBody checksummedBody = (ChecksummedBody) context.getData(this.contextDataKey);
+        if (checksummedBody == null) {
+            checksummedBody = new ChecksummedBody();
+            context.setData(this.contextDataKey, checksummedBody);
+        }
+        return checksummedBody;
+    }
+
+    /**
+     * @param body the replayable body
+     * @return a publisher that reads the body and emits it's checksum.
+     */
+    private Mono<byte[]> checksum(Flux<ByteBuffer> body) {
+        return Mono.defer(() -> {
+            final StreamingChecksum checksum = this.algorithm.newChecksum();
+            return body.doOnNext(checksum::update).then(Mono.fromCallable(checksum::digest));
+        });
+    }
+
+    /**
+     * @param response the response
+     * @return the response with the body verified against the checksum header, the response as is if there is no header.
+     */
+    private HttpResponse verifyResponse(HttpResponse response) {
+        final String header = response.headerValue(this.headerName);
+        if (header == null
+            || response.statusCode() < 200 || response.statusCode() >= 300 || response.statusCode() == 204
+            || (response.request() != null && response.request().httpMethod() == HttpMethod.HEAD)) {
+            return response;
+        }
+        return new ChecksumVerifyingResponse(response, header);
+    }
+
+    /**
+     * @param header the header value
+     * @return the decoded checksum, null if there is no header.
+     */
+    private byte[] decode(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Base64.getDecoder().decode(header.trim());
+        } catch (IllegalArgumentException iae) {
+            // A malformed checksum matches nothing.
+            return new byte[0];
+        }
+    }
+
+    /**
+     * Type holding the checksumming wrapper of a one-shot request body for a call context, so that
+     * a resend through the policy does not stack another wrapper.
+     */
+    private final class ChecksummedBody {
+        private Flux<ByteBuffer> body;
+        private Flux<ByteBuffer> checksummedBody;
+        private volatile byte[] digest;
+
+        /**
+         * Installs the checksumming body on the request, the digest of the previous attempt is cleared.
+         *
+         * @param request the request
+         * @return the action restoring the body the wrapper was installed over, null if the wrapper is already installed.
+         */
+        private Runnable install(HttpRequest request) {
+            if (request.body() == this.checksummedBody) {
+                // Installed by an attempt that has not ended yet.
+                return null;
+            }
+            if (request.body() != this.body) {
+                final Flux<ByteBuffer> source = request.body();
+                this.body = source;
+                this.checksummedBody = Flux.defer(() -> {
+                    final StreamingChecksum checksum = algorithm.newChecksum();
+                    return source
+                        .doOnNext(checksum::update)
+                        .doOnComplete(() -> this.digest = checksum.digest());
+                });
+            }
+            this.digest = null;
+            final Flux<ByteBuffer> body = this.body;
+            final Flux<ByteBuffer> checksummedBody = this.checksummedBody;
+            request.withBody(checksummedBody);
+            return () -> {
+                if (request.body() == checksummedBody) {
+                    request.withBody(body);
+                }
+            };
+        }
+    }
+
+    /**
+     * The response with the body verified at end of stream.
+     */
+    private final class ChecksumVerifyingResponse extends HttpResponse {
+        private final HttpResponse innerResponse;
+        private final String expected;
+
+        private ChecksumVerifyingResponse(HttpResponse innerResponse, String expected) {
+            this.innerResponse = innerResponse;
+            this.expected = expected;
+            this.withRequest(innerResponse.request());
+        }
+
+        @Override
+        public int statusCode() {
+            return this.innerResponse.statusCode();
+        }
+
+        @Override
+        public String headerValue(String headerName) {
+            return this.innerResponse.headerValue(headerName);
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return this.innerResponse.headers();
+        }
+
+        @Override
+        public Flux<ByteBuffer> body() {
+            return Flux.defer(() -> {
+                final StreamingChecksum checksum = algorithm.newChecksum();
+                return this.innerResponse.body()
+                    .doOnNext(checksum::update)
+                    .concatWith(Mono.defer(() -> Arrays.equals(checksum.digest(), decode(this.expected))
+                        ? Mono.empty()
+                        : Mono.error(new HttpResponseException("The " + algorithm + " checksum of the response body does not match the "
+                            + headerName + " header.", this))));
+            });
+        }
+
+        @Override
+        public void close() {
+            this.innerResponse.close();
+        }
+
+        @Override
+        public void discard() {
+            this.innerResponse.discard();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.azjvsdk.experimental.http.checksum;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Package private type, CRC32C (Castagnoli) of a body, the digest is big-endian.
+ *
+ * Computed with slicing-by-8 tables, the bytes are read in place with absolute gets so that
+ * direct buffers are not copied.
+ */
+final class Crc32cChecksum extends StreamingChecksum {
+    private static final int[][] TABLES = tables(0x82F63B78);
+    //
+    private int crc = 0xFFFFFFFF;
+
+    @Override
+    void update(ByteBuffer buffer) {
+        final int[][] t = TABLES;
+        int c = this.crc;
+        int i = buffer.position();
+        final int limit = buffer.limit();
+        for (; i + 8 <= limit; i += 8) {
+            final int one = c ^ ((buffer.get(i) & 0xFF) | (buffer.get(i + 1) & 0xFF) << 8
+                | (buffer.get(i + 2) & 0xFF) << 16 | (buffer.get(i + 3) & 0xFF) << 24);
+            c = t[7][one & 0xFF] ^ t[6][(one >>> 8) & 0xFF] ^ t[5][(one >>> 16) & 0xFF] ^ t[4][one >>> 24]
+                ^ t[3][buffer.get(i + 4) & 0xFF] ^ t[2][buffer.get(i + 5) & 0xFF]
+                ^ t[1][buffer.get(i + 6) & 0xFF] ^ t[0][buffer.get(i + 7) & 0xFF];
+        }
+        for (; i < limit; i++) {
+            c = t[0][(c ^ buffer.get(i)) & 0xFF] ^ (c >>> 8);
+        }
+        this.crc = c;
+    }
+
+    @Override
+    byte[] digest() {
+        final int value = ~this.crc;
+        return new byte[] { (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value };
+    }
+
+    private static int[][] tables(int polynomial) {
+        int[][] tables = new int[8][256];
+        for (int i = 0; i < 256; i++) {
+            int c = i;
+            for (int k = 0; k < 8; k++) {
+                c = (c & 1) != 0 ? (c >>> 1) ^ polynomial : c >>> 1;
+            }
+            tables[0][i] = c;
+        }
+        for (int i = 0; i < 256; i++) {
+            for (int k = 1; k < 8; k++) {
+                tables[k][i] = (tables[k - 1][i] >>> 8) ^ tables[0][tables[k - 1][i] & 0xFF];
+            }
+        }
+        return tables;
+    }
+}
@@ -0,0 +1,65 @@
+package com.azjvsdk.experimental.http.checksum;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Package private type, CRC64 of a body with the reflected polynomial 0x9A6C9329AC4BC9B5 used
+ * by the storage service (CRC-64/NVME), the digest is little-endian.
+ *
+ * Computed with slicing-by-8 tables, the bytes are read in place with absolute gets so that
+ * direct buffers are not copied.
+ */
+final class Crc64Checksum extends StreamingChecksum {
+    private static final long[][] TABLES = tables(0x9A6C9329AC4BC9B5L);
+    //
+    private long crc = 0xFFFFFFFFFFFFFFFFL;
+
+    @Override
+    void update(ByteBuffer buffer) {
+        final long[][] t = TABLES;
+        long c = this.crc;
+        int i = buffer.position();
+        final int limit = buffer.limit();
+        for (; i + 8 <= limit; i += 8) {
+            c ^= (buffer.get(i) & 0xFFL) | (buffer.get(i + 1) & 0xFFL) << 8
+                | (buffer.get(i + 2) & 0xFFL) << 16 | (buffer.get(i + 3) & 0xFFL) << 24
+                | (buffer.get(i + 4) & 0xFFL) << 32 | (buffer.get(i + 5) & 0xFFL) << 40
+                | (buffer.get(i + 6) & 0xFFL) << 48 | (buffer.get(i + 7) & 0xFFL) << 56;
+            c = t[7][(int) c & 0xFF] ^ t[6][(int) (c >>> 8) & 0xFF]
+                ^ t[5][(int) (c >>> 16) & 0xFF] ^ t[4][(int) (c >>> 24) & 0xFF]
+                ^ t[3][(int) (c >>> 32) & 0xFF] ^ t[2][(int) (c >>> 40) & 0xFF]
+                ^ t[1][(int) (c >>> 48) & 0xFF] ^ t[0][(int) (c >>> 56)];
+        }
+        for (; i < limit; i++) {
+            c = t[0][(int) (c ^ buffer.get(i)) & 0xFF] ^ (c >>> 8);
+        }
+        this.crc = c;
+    }
+
+    @Override
+    byte[] digest() {
+        final long value = ~this.crc;
+        byte[] digest = new byte[8];
+        for (int i = 0; i < 8; i++) {
+            digest[i] = (byte) (value >>> (8 * i));
+        }
+        return digest;
+    }
+
+    private static long[][] tables(long polynomial) {
+        long[][] tables = new long[8][256];
+        for (int i = 0; i < 256; i++) {
+            long c = i;
+            for (int k = 0; k < 8; k++) {
+                c = (c & 1) != 0 ? (c >>> 1) ^ polynomial : c >>> 1;
+            }
+            tables[0][i] = c;
+        }
+        for (int i = 0; i < 256; i++) {
+            for (int k = 1; k < 8; k++) {
+                tables[k][i] = (tables[k - 1][i] >>> 8) ^ tables[0][(int) tables[k - 1][i] & 0xFF];
+            }
+        }
+        return tables;
+    }
+}
@@ -0,0 +1,35 @@
+package com.azjvsdk.experimental.http.checksum;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Package private type, MD5 of a body.
+ */
+final class Md5Checksum extends StreamingChecksum {
+    private final MessageDigest digest;
+
+    /**
+     * Package private ctr.
+     */
+    Md5Checksum() {
+        try {
+            this.digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException nsae) {
+            // Every Java platform is required to support MD5.
+            throw new IllegalStateException(nsae);
+        }
+    }
+
+    @Override
+    void update(ByteBuffer buffer) {
+        // MessageDigest reads a direct buffer through a temp array it reuses across updates.
+        this.digest.update(buffer.duplicate());
+    }
+
+    @Override
+    byte[] digest() {
+        return this.digest.digest();
+    }
+}
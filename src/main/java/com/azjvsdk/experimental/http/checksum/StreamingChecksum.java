@@ -0,0 +1,20 @@
+package com.azjvsdk.experimental.http.checksum;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Package private type, a checksum computed incrementally over the buffers of a body.
+ */
+abstract class StreamingChecksum {
+    /**
+     * Updates the checksum with the remaining bytes of the buffer, the position of the buffer is not changed.
+     *
+     * @param buffer the buffer, heap or direct
+     */
+    abstract void update(ByteBuffer buffer);
+
+    /**
+     * @return the checksum in the byte order the protocol sends it.
+     */
+    abstract byte[] digest();
+}
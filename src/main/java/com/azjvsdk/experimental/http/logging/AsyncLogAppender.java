@@ -0,0 +1,113 @@
+package com.azjvsdk.experimental.http.logging;
+
+import reactor.util.Logger;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appender that formats and writes the log entries on a background thread, the request path
+ * only enqueues the captured values. The queue is bounded, the entries that do not fit are
+ * dropped and counted rather than blocking the request.
+ *
+ * The thread is a daemon started upon the first entry, an appender can be shared by policies.
+ */
+public final class AsyncLogAppender implements AutoCloseable {
+    private final Logger logger;
+    private final BlockingQueue<LogEntry> queue;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final Thread thread;
+    private volatile boolean closed;
+    //
+    private static final long CLOSE_TIMEOUT_MILLIS = 5_000;
+
+    /**
+     * Creates AsyncLogAppender.
+     *
+     * @param logger the logger the entries are written to at info level
+     * @param capacity the maximum number of entries waiting to be written
+     *
+     * @throws IllegalArgumentException if {@code capacity} is less than 1
+     */
+    public AsyncLogAppender(Logger logger, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be greater than zero.");
+        }
+        this.logger = Objects.requireNonNull(logger);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(this::drain, "http-log-appender");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * @return true if the logger is enabled at info level and the appender is not closed.
+     */
+    public boolean isEnabled() {
+        return !this.closed && this.logger.isInfoEnabled();
+    }
+
+    /**
+     * @return the number of entries dropped because the queue was full.
+     */
+    public long droppedCount() {
+        return this.droppedCount.get();
+    }
+
+    /**
+     * Stops accepting entries and waits for the queued entries to be written.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        if (this.started.get()) {
+            try {
+                this.thread.join(CLOSE_TIMEOUT_MILLIS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Package private method.
+     *
+     * Enqueues an entry without blocking, drops it if the queue is full.
+     *
+     * @param entry the entry
+     */
+    void append(LogEntry entry) {
+        if (this.closed || !this.queue.offer(entry)) {
+            this.droppedCount.incrementAndGet();
+            return;
+        }
+        if (!this.started.get() && this.started.compareAndSet(false, true)) {
+            this.thread.start();
+        }
+    }
+
+    private void drain() {
+        final StringBuilder builder = new StringBuilder(256);
+        try {
+            while (!this.closed || !this.queue.isEmpty()) {
+                LogEntry entry = this.queue.poll(100, TimeUnit.MILLISECONDS);
+                if (entry == null) {
+                    continue;
+                }
+                builder.setLength(0);
+                try {
+                    entry.formatTo(builder);
+                    this.logger.info(builder.toString());
+                } catch (RuntimeException re) {
+                    this.logger.warn("Failed to write http log entry.", re);
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.azjvsdk.experimental.http.logging;
+
+import reactor.util.Loggers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Options to configure {@link HttpLoggingPolicy}.
+ */
+public class HttpLoggingOptions {
+    private static final String[] DEFAULT_ALLOWED_HEADER_NAMES = new String[] {
+        "Accept", "Cache-Control", "Connection", "Content-Length", "Content-Type", "Date", "ETag",
+        "Expires", "If-Match", "If-Modified-Since", "If-None-Match", "If-Unmodified-Since",
+        "Last-Modified", "Pragma", "Retry-After", "Server", "Transfer-Encoding", "User-Agent",
+        "traceparent", "x-ms-client-request-id", "x-ms-request-id", "x-ms-version"
+    };
+    private static final String[] DEFAULT_ALLOWED_QUERY_PARAM_NAMES = new String[] {
+        "api-version", "comp", "delimiter", "include", "marker", "maxresults", "prefix", "restype", "timeout"
+    };
+    //
+    private Set<String> allowedHeaderNames = newNameSet(DEFAULT_ALLOWED_HEADER_NAMES);
+    private Set<String> allowedQueryParamNames = newNameSet(DEFAULT_ALLOWED_QUERY_PARAM_NAMES);
+    private double bodySampleRate;
+    private int maxLoggedBodyBytes = 4096;
+    private AsyncLogAppender appender;
+
+    /**
+     * @return the names of the headers logged with their values.
+     */
+    public Set<String> allowedHeaderNames() {
+        return Collections.unmodifiableSet(this.allowedHeaderNames);
+    }
+
+    /**
+     * Sets the names of the headers logged with their values, the values of the other
+     * request headers are logged as redacted. The names are matched ignoring case.
+     *
+     * @param allowedHeaderNames the header names
+     * @return HttpLoggingOptions
+     */
+    public HttpLoggingOptions withAllowedHeaderNames(String... allowedHeaderNames) {
+        Objects.requireNonNull(allowedHeaderNames);
+        this.allowedHeaderNames = newNameSet(allowedHeaderNames);
+        return this;
+    }
+
+    /**
+     * @return the names of the query parameters logged with their values.
+     */
+    public Set<String> allowedQueryParamNames() {
+        return Collections.unmodifiableSet(this.allowedQueryParamNames);
+    }
+
+    /**
+     * Sets the names of the query parameters logged with their values, the values of the other
+     * query parameters, e.g. the signature of a SAS, are logged as redacted. The names are
+     * matched as encoded in the url, ignoring case.
+     *
+     * @param allowedQueryParamNames the query parameter names
+     * @return HttpLoggingOptions
+     */
+    public HttpLoggingOptions withAllowedQueryParamNames(String... allowedQueryParamNames) {
+        Objects.requireNonNull(allowedQueryParamNames);
+        this.allowedQueryParamNames = newNameSet(allowedQueryParamNames);
+        return this;
+    }
+
+    /**
+     * @return the fraction of the requests whose bodies are logged.
+     */
+    public double bodySampleRate() {
+        return this.bodySampleRate;
+    }
+
+    /**
+     * Sets the fraction of the requests whose request and response bodies are logged, the
+     * bodies of the other requests are passed through untouched.
+     *
+     * @param bodySampleRate the fraction between 0 and 1, zero to not log bodies
+     * @return HttpLoggingOptions
+     *
+     * @throws IllegalArgumentException if {@code bodySampleRate} is not between 0 and 1
+     */
+    public HttpLoggingOptions withBodySampleRate(double bodySampleRate) {
+        if (!(bodySampleRate >= 0 && bodySampleRate <= 1)) {
+            throw new IllegalArgumentException("bodySampleRate must be between 0 and 1.");
+        }
+        this.bodySampleRate = bodySampleRate;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of bytes logged from the beginning of a body.
+     */
+    public int maxLoggedBodyBytes() {
+        return this.maxLoggedBodyBytes;
+    }
+
+    /**
+     * Sets the maximum number of bytes logged from the beginning of a body, the bytes
+     * are copied as the body flows through and the rest of the body is only counted.
+     *
+     * @param maxLoggedBodyBytes the maximum number of bytes
+     * @return HttpLoggingOptions
+     *
+     * @throws IllegalArgumentException if {@code maxLoggedBodyBytes} is negative
+     */
+    public HttpLoggingOptions withMaxLoggedBodyBytes(int maxLoggedBodyBytes) {
+        if (maxLoggedBodyBytes < 0) {
+            throw new IllegalArgumentException("maxLoggedBodyBytes cannot be negative.");
+        }
+        this.maxLoggedBodyBytes = maxLoggedBodyBytes;
+        return this;
+    }
+
+    /**
+     * @return the appender writing the log entries, null if the policy creates one of it's own.
+     */
+    public AsyncLogAppender appender() {
+        return this.appender;
+    }
+
+    /**
+     * Sets the appender writing the log entries, an appender can be shared by policies.
+     * By default the policy writes to a logger named after {@link HttpLoggingPolicy}.
+     *
+     * @param appender the appender
+     * @return HttpLoggingOptions
+     */
+    public HttpLoggingOptions withAppender(AsyncLogAppender appender) {
+        this.appender = appender;
+        return this;
+    }
+
+    /**
+     * Package private method.
+     *
+     * @return the appender to use, creates the default one if none was set.
+     */
+    AsyncLogAppender appenderOrDefault() {
+        return this.appender != null
+            ? this.appender
+            : new AsyncLogAppender(Loggers.getLogger(HttpLoggingPolicy.class), 1024);
+    }
+
+    private static Set<String> newNameSet(String[] names) {
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        set.addAll(Arrays.asList(names));
+        return set;
+    }
+}
@@ -0,0 +1,437 @@
+package com.azjvsdk.experimental.http.logging;
+
+import com.azjvsdk.experimental.http.HttpHeader;
+import com.azjvsdk.experimental.http.HttpHeaders;
+import com.azjvsdk.experimental.http.HttpMethod;
+import com.azjvsdk.experimental.http.HttpRequest;
+import com.azjvsdk.experimental.http.HttpResponse;
+import com.azjvsdk.experimental.http.RequestUrl;
+import com.azjvsdk.experimental.http.pipeline.NextPolicy;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.RequestPolicy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request policy that logs the requests and responses through an {@link AsyncLogAppender}.
+ *
+ * The policy checks the log level before doing any work, when logging is disabled the request
+ * passes through untouched. On the request path the policy only captures the values to log,
+ * formatting happens on the appender thread. The values of the request headers and of the query
+ * parameters not in the allowlists are redacted, only the allowlisted response headers are looked up so that the
+ * response headers are not materialized. The bodies of a sampled fraction of the requests are
+ * logged by copying a bounded prefix of the buffers as they flow through, the bodies are never
+ * buffered. The bodies of a request are sampled once per call context, a request resent through
+ * the policy is logged through the same tee which is removed from the request once the attempt ends.
+ */
+public final class HttpLoggingPolicy implements RequestPolicy, AutoCloseable {
+    private static final String REDACTED = "REDACTED";
+    private static final AtomicLong INSTANCE_IDS = new AtomicLong();
+    //
+    private final String contextDataKey = HttpLoggingPolicy.class.getName() + "." + INSTANCE_IDS.incrementAndGet();
+    private final AsyncLogAppender appender;
+    private final boolean ownsAppender;
+    private final Set<String> allowedHeaderNames;
+    private final String[] allowedHeaderNameArray;
+    private final Set<String> allowedQueryParamNames;
+    private final double bodySampleRate;
+    private final int maxLoggedBodyBytes;
+
+    /**
+     * Creates HttpLoggingPolicy with default {@link HttpLoggingOptions}.
+     */
+    public HttpLoggingPolicy() {
+        this(new HttpLoggingOptions());
+    }
+
+    /**
+     * Creates HttpLoggingPolicy.
+     *
+     * @param options the logging options
+     */
+    public HttpLoggingPolicy(HttpLoggingOptions options) {
+        Objects.requireNonNull(options);
+        this.ownsAppender = options.appender() == null;
+        this.appender = options.appenderOrDefault();
+        this.allowedHeaderNames = options.allowedHeaderNames();
+        this.allowedHeaderNameArray = this.allowedHeaderNames.toArray(new String[0]);
+        this.allowedQueryParamNames = options.allowedQueryParamNames();
+        this.bodySampleRate = options.bodySampleRate();
+        this.maxLoggedBodyBytes = options.maxLoggedBodyBytes();
+    }
+
+    @Override
+    public Mono<HttpResponse> process(PipelineCallContext context, NextPolicy next) {
+        if (!this.appender.isEnabled()) {
+            return next.process();
+        }
+        final HttpRequest request = context.httpRequest();
+        final LoggedUrl url = new LoggedUrl(request.requestUrl(), this.allowedQueryParamNames);
+        RequestBodyTee requestBodyTee = (RequestBodyTee) context.getData(this.contextDataKey);
+        if (requestBodyTee == null) {
+            requestBodyTee = new RequestBodyTee(this.sampleBodies());
+            context.setData(this.contextDataKey, requestBodyTee);
+        }
+        final boolean logBodies = requestBodyTee.logBodies;
+        this.appender.append(new RequestEntry(request.httpMethod(), url, this.redact(request.headers())));
+        final Runnable restoreBody = logBodies && request.body() != null
+            ? requestBodyTee.install(request, url)
+            : null;
+        final long startNanos = System.nanoTime();
+        final Mono<HttpResponse> sent = restoreBody == null
+            ? next.process()
+            : next.process().doOnSuccessOrError((response, error) -> restoreBody.run()).doOnCancel(restoreBody);
+        return sent
+            .map(response -> {
+                this.appender.append(new ResponseEntry(url, response.statusCode(),
+                    this.allowedResponseHeaders(response), System.nanoTime() - startNanos));
+                return logBodies ? new LoggingResponse(response, url) : response;
+            })
+            .doOnError(error -> this.appender.append(new ErrorEntry(url, error, System.nanoTime() - startNanos)));
+    }
+
+    /**
+     * Closes the appender if the policy created it.
+     */
+    @Override
+    public void close() {
+        if (this.ownsAppender) {
+            this.appender.close();
+        }
+    }
+
+    private boolean sampleBodies() {
+        return this.bodySampleRate > 0
+            && (this.bodySampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < this.bodySampleRate);
+    }
+
+    /**
+     * @param headers the request headers
+     * @return the names and values of the headers, the values not in the allowlist replaced.
+     */
+    private String[] redact(HttpHeaders headers) {
+        final String[] namesAndValues = new String[2 * headers.size()];
+        int i = 0;
+        for (HttpHeader header : headers) {
+            namesAndValues[i++] = header.name();
+            namesAndValues[i++] = this.allowedHeaderNames.contains(header.name()) ? header.value() : REDACTED;
+        }
+        return namesAndValues;
+    }
+
+    /**
+     * @param response the response
+     * @return the names and values of the allowlisted headers present in the response.
+     */
+    private String[] allowedResponseHeaders(HttpResponse response) {
+        String[] namesAndValues = null;
+        int count = 0;
+        for (String name : this.allowedHeaderNameArray) {
+            final String value = response.headerValue(name);
+            if (value != null) {
+                if (namesAndValues == null) {
+                    namesAndValues = new String[2 * this.allowedHeaderNameArray.length];
+                }
+                namesAndValues[count++] = name;
+                namesAndValues[count++] = value;
+            }
+        }
+        return namesAndValues == null ? new String[0] : Arrays.copyOf(namesAndValues, count);
+    }
+
+    /**
+     * @param body the body
+     * @param kind the kind of the body, request or response
+     * @param url the request url
+     * @return the body copying it's prefix as it flows through, logs the prefix once the body terminates.
+     */
+    private Flux<ByteBuffer> tee(Flux<ByteBuffer> body, String kind, LoggedUrl url) {
+        return Flux.defer(() -> {
+            final BodyPrefix prefix = new BodyPrefix(this.maxLoggedBodyBytes);
+            return body
+                .doOnNext(prefix::update)
+                .doFinally(signal -> this.appender.append(new BodyEntry(kind, url, prefix, signal)));
+        });
+    }
+
+    private static void setBody(HttpRequest request, Flux<ByteBuffer> body, boolean replayable) {
+        if (replayable) {
+            request.withReplayableBody(body);
+        } else {
+            request.withBody(body);
+        }
+    }
+
+    private static void formatHeaders(StringBuilder builder, String[] namesAndValues) {
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            builder.append(System.lineSeparator())
+                .append(namesAndValues[i]).append(": ").append(namesAndValues[i + 1]);
+        }
+    }
+
+    /**
+     * Type representing the url of a logged request, the values of the query parameters not in the
+     * allowlist are redacted when the url is first formatted on the appender thread.
+     */
+    private static final class LoggedUrl {
+        private final RequestUrl url;
+        private final Set<String> allowedQueryParamNames;
+        private String string;
+
+        private LoggedUrl(RequestUrl url, Set<String> allowedQueryParamNames) {
+            this.url = url;
+            this.allowedQueryParamNames = allowedQueryParamNames;
+        }
+
+        @Override
+        public String toString() {
+            String s = this.string;
+            if (s == null) {
+                final String query = this.url.rawQuery();
+                if (query == null) {
+                    s = this.url.toString();
+                } else {
+                    StringBuilder builder = new StringBuilder(this.url.scheme()).append("://")
+                        .append(this.url.authority()).append(this.url.path()).append('?');
+                    int start = 0;
+                    while (start <= query.length()) {
+                        int end = query.indexOf('&', start);
+                        if (end < 0) {
+                            end = query.length();
+                        }
+                        final int equals = query.indexOf('=', start);
+                        if (equals >= 0 && equals < end
+                            && !this.allowedQueryParamNames.contains(query.substring(start, equals))) {
+                            builder.append(query, start, equals + 1).append(REDACTED);
+                        } else {
+                            builder.append(query, start, end);
+                        }
+                        if (end < query.length()) {
+                            builder.append('&');
+                        }
+                        start = end + 1;
+                    }
+                    s = builder.toString();
+                }
+                this.string = s;
+            }
+            return s;
+        }
+    }
+
+    /**
+     * Type holding the request body tee of a call context, the tee is created once and installed on
+     * the request for the duration of each attempt so that a resend does not stack another tee.
+     */
+    private final class RequestBodyTee {
+        private final boolean logBodies;
+        private Flux<ByteBuffer> body;
+        private Flux<ByteBuffer> tee;
+
+        private RequestBodyTee(boolean logBodies) {
+            this.logBodies = logBodies;
+        }
+
+        /**
+         * Installs the tee on the request.
+         *
+         * @param request the request
+         * @param url the request url
+         * @return the action restoring the body the tee was installed over, null if the tee is already installed.
+         */
+        private Runnable install(HttpRequest request, LoggedUrl url) {
+            if (request.body() == this.tee) {
+                // Installed by an attempt that has not ended yet.
+                return null;
+            }
+            if (request.body() != this.body) {
+                this.body = request.body();
+                this.tee = tee(this.body, "Request", url);
+            }
+            final Flux<ByteBuffer> body = this.body;
+            final Flux<ByteBuffer> tee = this.tee;
+            final boolean replayable = request.isBodyReplayable();
+            setBody(request, tee, replayable);
+            return () -> {
+                if (request.body() == tee) {
+                    setBody(request, body, replayable);
+                }
+            };
+        }
+    }
+
+    /**
+     * Type holding the bounded prefix of a body, the bytes past the prefix are only counted.
+     */
+    private static final class BodyPrefix {
+        private final byte[] bytes;
+        private int length;
+        private long totalLength;
+
+        private BodyPrefix(int maxLength) {
+            this.bytes = new byte[maxLength];
+        }
+
+        private void update(ByteBuffer buffer) {
+            final int remaining = buffer.remaining();
+            this.totalLength += remaining;
+            final int count = Math.min(remaining, this.bytes.length - this.length);
+            if (count > 0) {
+                // Copy from a duplicate so that the position seen downstream is unchanged.
+                ByteBuffer source = buffer.duplicate();
+                source.get(this.bytes, this.length, count);
+                this.length += count;
+            }
+        }
+    }
+
+    /**
+     * Type representing the log entry of a request.
+     */
+    private static final class RequestEntry extends LogEntry {
+        private final HttpMethod method;
+        private final LoggedUrl url;
+        private final String[] headers;
+
+        private RequestEntry(HttpMethod method, LoggedUrl url, String[] headers) {
+            this.method = method;
+            this.url = url;
+            this.headers = headers;
+        }
+
+        @Override
+        void formatTo(StringBuilder builder) {
+            builder.append("--> ").append(this.method).append(' ').append(this.url);
+            formatHeaders(builder, this.headers);
+        }
+    }
+
+    /**
+     * Type representing the log entry of a response.
+     */
+    private static final class ResponseEntry extends LogEntry {
+        private final LoggedUrl url;
+        private final int statusCode;
+        private final String[] headers;
+        private final long elapsedNanos;
+
+        private ResponseEntry(LoggedUrl url, int statusCode, String[] headers, long elapsedNanos) {
+            this.url = url;
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        @Override
+        void formatTo(StringBuilder builder) {
+            builder.append("<-- ").append(this.statusCode).append(' ').append(this.url)
+                .append(" (").append(this.elapsedNanos / 1_000_000).append("ms)");
+            formatHeaders(builder, this.headers);
+        }
+    }
+
+    /**
+     * Type representing the log entry of a failed request.
+     */
+    private static final class ErrorEntry extends LogEntry {
+        private final LoggedUrl url;
+        private final Throwable error;
+        private final long elapsedNanos;
+
+        private ErrorEntry(LoggedUrl url, Throwable error, long elapsedNanos) {
+            this.url = url;
+            this.error = error;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        @Override
+        void formatTo(StringBuilder builder) {
+            builder.append("<-- FAILED ").append(this.url)
+                .append(" (").append(this.elapsedNanos / 1_000_000).append("ms): ").append(this.error);
+        }
+    }
+
+    /**
+     * Type representing the log entry of the prefix of a body.
+     */
+    private static final class BodyEntry extends LogEntry {
+        private final String kind;
+        private final LoggedUrl url;
+        private final BodyPrefix prefix;
+        private final SignalType signal;
+
+        private BodyEntry(String kind, LoggedUrl url, BodyPrefix prefix, SignalType signal) {
+            this.kind = kind;
+            this.url = url;
+            this.prefix = prefix;
+            this.signal = signal;
+        }
+
+        @Override
+        void formatTo(StringBuilder builder) {
+            builder.append(this.kind).append(" body ").append(this.url)
+                .append(" (").append(this.prefix.totalLength).append(" bytes");
+            if (this.signal != SignalType.ON_COMPLETE) {
+                builder.append(", ").append(this.signal == SignalType.CANCEL ? "cancelled" : "failed");
+            }
+            if (this.prefix.totalLength > this.prefix.length) {
+                builder.append(", first ").append(this.prefix.length).append(" shown");
+            }
+            builder.append("):").append(System.lineSeparator())
+                .append(new String(this.prefix.bytes, 0, this.prefix.length, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Type representing a response whose body is logged as it's read.
+     */
+    private final class LoggingResponse extends HttpResponse {
+        private final HttpResponse innerResponse;
+        private final LoggedUrl url;
+
+        private LoggingResponse(HttpResponse innerResponse, LoggedUrl url) {
+            this.innerResponse = innerResponse;
+            this.url = url;
+            this.withRequest(innerResponse.request());
+        }
+
+        @Override
+        public int statusCode() {
+            return this.innerResponse.statusCode();
+        }
+
+        @Override
+        public String headerValue(String headerName) {
+            return this.innerResponse.headerValue(headerName);
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return this.innerResponse.headers();
+        }
+
+        @Override
+        public Flux<ByteBuffer> body() {
+            return tee(this.innerResponse.body(), "Response", this.url);
+        }
+
+        @Override
+        public void close() {
+            this.innerResponse.close();
+        }
+
+        @Override
+        public void discard() {
+            this.innerResponse.discard();
+        }
+    }
+}
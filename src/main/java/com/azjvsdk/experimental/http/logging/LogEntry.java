@@ -0,0 +1,14 @@
+package com.azjvsdk.experimental.http.logging;
+
+/**
+ * Package private type representing an entry queued on the {@link AsyncLogAppender}, the entry
+ * holds the raw values captured on the request path and is formatted on the appender thread.
+ */
+abstract class LogEntry {
+    /**
+     * Formats the entry.
+     *
+     * @param builder the builder to append the message to
+     */
+    abstract void formatTo(StringBuilder builder);
+}
@@ -0,0 +1,41 @@
+package com.azjvsdk.experimental.http.paging;
+
+import com.azjvsdk.experimental.http.HttpRequest;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A type representing a single page of items retrieved from a paged api.
+ *
+ * @param <T> the type of items in the page
+ */
+public final class Page<T> {
+    private final List<T> items;
+    private final HttpRequest nextPageRequest;
+
+    /**
+     * Creates Page.
+     *
+     * @param items the items in the page
+     * @param nextPageRequest the request to retrieve the next page, null if this is the last page
+     */
+    public Page(List<T> items, HttpRequest nextPageRequest) {
+        this.items = Objects.requireNonNull(items);
+        this.nextPageRequest = nextPageRequest;
+    }
+
+    /**
+     * @return the items in the page.
+     */
+    public List<T> items() {
+        return this.items;
+    }
+
+    /**
+     * @return the request to retrieve the next page, null if this is the last page.
+     */
+    public HttpRequest nextPageRequest() {
+        return this.nextPageRequest;
+    }
+}
@@ -0,0 +1,23 @@
+package com.azjvsdk.experimental.http.paging;
+
+import com.azjvsdk.experimental.http.HttpRequest;
+import com.azjvsdk.experimental.http.HttpResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decodes a page response and builds the request for the next page
+ * (e.g. from continuation-token header or next-link in the body).
+ *
+ * @param <T> the type of items in the page
+ */
+@FunctionalInterface
+public interface PageDecoder<T> {
+    /**
+     * Decodes the response of a page request.
+     *
+     * @param request the request that retrieved the page
+     * @param response the response of the page request
+     * @return publisher that emits the decoded page.
+     */
+    Mono<Page<T>> decode(HttpRequest request, HttpResponse response);
+}
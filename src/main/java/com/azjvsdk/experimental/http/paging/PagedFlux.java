@@ -0,0 +1,219 @@
+package com.azjvsdk.experimental.http.paging;
+
+import com.azjvsdk.experimental.http.HttpRequest;
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A Flux that emits all items of a paged api, retrieving pages through the {@link HttpPipeline}.
+ *
+ * The request for page N+1 is built from the response of page N, the retrieval of page N+1 starts
+ * as soon as page N arrives so that the next page downloads while the current one is being processed.
+ * Up to {@code prefetchPages} retrieved pages wait for the consumer, the retrieval pauses once they
+ * are all waiting.
+ *
+ * @param <T> the type of items in the pages
+ */
+public final class PagedFlux<T> extends Flux<T> {
+    private final HttpPipeline pipeline;
+    private final HttpRequest firstPageRequest;
+    private final PageDecoder<T> pageDecoder;
+    private final int prefetchPages;
+
+    /**
+     * Creates PagedFlux that prefetch one page ahead of the consumer.
+     *
+     * @param pipeline the pipeline to send the page requests through
+     * @param firstPageRequest the request to retrieve the first page
+     * @param pageDecoder the decoder to decode a page response and build next page request
+     */
+    public PagedFlux(HttpPipeline pipeline, HttpRequest firstPageRequest, PageDecoder<T> pageDecoder) {
+        this(pipeline, firstPageRequest, pageDecoder, 1);
+    }
+
+    /**
+     * Creates PagedFlux.
+     *
+     * @param pipeline the pipeline to send the page requests through
+     * @param firstPageRequest the request to retrieve the first page
+     * @param pageDecoder the decoder to decode a page response and build next page request
+     * @param prefetchPages the maximum number of pages to retrieve ahead of the consumer
+     *
+     * @throws IllegalArgumentException if {@code prefetchPages} is less than 1
+     */
+    public PagedFlux(HttpPipeline pipeline, HttpRequest firstPageRequest, PageDecoder<T> pageDecoder, int prefetchPages) {
+        Objects.requireNonNull(pipeline);
+        Objects.requireNonNull(firstPageRequest);
+        Objects.requireNonNull(pageDecoder);
+        if (prefetchPages < 1) {
+            throw new IllegalArgumentException("prefetchPages must be greater than zero.");
+        }
+        this.pipeline = pipeline;
+        this.firstPageRequest = firstPageRequest;
+        this.pageDecoder = pageDecoder;
+        this.prefetchPages = prefetchPages;
+    }
+
+    /**
+     * @return a publisher that emits the pages, retrieving up to {@code prefetchPages} pages ahead of the consumer.
+     */
+    public Flux<Page<T>> byPage() {
+        return Flux.create(sink -> new PagePrefetcher<>(this, sink).start());
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        // The pages waiting for the consumer are held by the prefetcher, request one page at a time.
+        this.byPage()
+                .concatMapIterable(Page::items, 1)
+                .subscribe(actual);
+    }
+
+    /**
+     * Sends the page request through the pipeline and decodes the response.
+     *
+     * @param request the page request
+     * @return a publisher that emits the decoded page.
+     */
+    private Mono<Page<T>> retrievePage(HttpRequest request) {
+        return Mono.defer(() -> this.pipeline.sendRequest(this.pipeline.newContext(request)))
+                .flatMap(response -> this.pageDecoder.decode(request, response));
+    }
+
+    /**
+     * Type that retrieves the pages of a subscription, one page at a time, ahead of the consumer.
+     *
+     * The retrieved pages are queued and emitted in order as the consumer requests them, the next page
+     * request is sent as soon as a page arrives while the queue holds less than {@code prefetchPages}
+     * pages, and before a page is handed to the consumer.
+     *
+     * @param <T> the type of items in the pages
+     */
+    private static final class PagePrefetcher<T> {
+        private final PagedFlux<T> pagedFlux;
+        private final FluxSink<Page<T>> sink;
+        private final AtomicInteger wip = new AtomicInteger();
+        // Guarded by this.
+        private final Queue<Page<T>> pages = new ArrayDeque<>();
+        private HttpRequest nextPageRequest;
+        private boolean retrieving;
+        private boolean lastPageRetrieved;
+        private Throwable error;
+        //
+        private volatile boolean cancelled;
+        // The retrieval in flight, set upon subscription so that a page emitted synchronously cannot replace the next retrieval.
+        private final Disposable.Swap retrieval = Disposables.swap();
+
+        private PagePrefetcher(PagedFlux<T> pagedFlux, FluxSink<Page<T>> sink) {
+            this.pagedFlux = pagedFlux;
+            this.sink = sink;
+            this.nextPageRequest = pagedFlux.firstPageRequest;
+        }
+
+        private void start() {
+            this.sink.onRequest(n -> this.drain());
+            this.sink.onCancel(() -> {
+                this.cancelled = true;
+                this.retrieval.dispose();
+            });
+            this.retrieveNext();
+        }
+
+        /**
+         * Sends the next page request unless a page is being retrieved, the queue is full or there are no more pages.
+         */
+        private void retrieveNext() {
+            final HttpRequest request;
+            synchronized (this) {
+                if (this.cancelled || this.retrieving || this.nextPageRequest == null
+                    || this.pages.size() >= this.pagedFlux.prefetchPages) {
+                    return;
+                }
+                this.retrieving = true;
+                request = this.nextPageRequest;
+                this.nextPageRequest = null;
+            }
+            // Once the swap is disposed the subscription is cancelled as soon as it's set.
+            this.pagedFlux.retrievePage(request)
+                .switchIfEmpty(Mono.fromRunnable(this::onNoPage))
+                .doOnSubscribe(subscription -> this.retrieval.replace(subscription::cancel))
+                .subscribe(this::onPage, this::onError);
+        }
+
+        private void onPage(Page<T> page) {
+            synchronized (this) {
+                this.retrieving = false;
+                this.pages.add(page);
+                this.nextPageRequest = page.nextPageRequest();
+                this.lastPageRetrieved = this.nextPageRequest == null;
+            }
+            this.retrieveNext();
+            this.drain();
+        }
+
+        private void onError(Throwable throwable) {
+            synchronized (this) {
+                this.retrieving = false;
+                this.error = throwable;
+            }
+            this.drain();
+        }
+
+        /**
+         * Ends the pages, the decoder completed without a page.
+         */
+        private void onNoPage() {
+            synchronized (this) {
+                this.retrieving = false;
+                this.lastPageRetrieved = true;
+            }
+            this.drain();
+        }
+
+        /**
+         * Emits the queued pages the consumer requested, then the completion or error once the queue is empty.
+         */
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!this.cancelled) {
+                    final Page<T> page;
+                    final boolean terminated;
+                    synchronized (this) {
+                        page = this.sink.requestedFromDownstream() > 0 ? this.pages.poll() : null;
+                        terminated = this.pages.isEmpty() && (this.error != null || (this.lastPageRetrieved && !this.retrieving));
+                    }
+                    if (page != null) {
+                        // Start the next page before the consumer processes this one.
+                        this.retrieveNext();
+                        this.sink.next(page);
+                    } else {
+                        if (terminated) {
+                            if (this.error != null) {
+                                this.sink.error(this.error);
+                            } else {
+                                this.sink.complete();
+                            }
+                            this.cancelled = true;
+                        }
+                        break;
+                    }
+                }
+                missed = this.wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
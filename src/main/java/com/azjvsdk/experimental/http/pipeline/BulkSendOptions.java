@@ -0,0 +1,118 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+/**
+ * Options to configure {@link HttpPipeline#sendAll(org.reactivestreams.Publisher, BulkSendOptions)}.
+ */
+public class BulkSendOptions {
+    private int maxConcurrency = 64;
+    private int maxConcurrencyPerHost = 16;
+    private int maxPendingRequests = 256;
+    private boolean ordered;
+    private BulkSendStatistics statistics;
+
+    /**
+     * @return the maximum number of requests in flight across all hosts.
+     */
+    public int maxConcurrency() {
+        return this.maxConcurrency;
+    }
+
+    /**
+     * Sets the maximum number of requests in flight across all hosts.
+     *
+     * @param maxConcurrency the global concurrency
+     * @return BulkSendOptions
+     *
+     * @throws IllegalArgumentException if {@code maxConcurrency} is less than 1
+     */
+    public BulkSendOptions withMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be greater than zero.");
+        }
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of requests in flight to a single host.
+     */
+    public int maxConcurrencyPerHost() {
+        return this.maxConcurrencyPerHost;
+    }
+
+    /**
+     * Sets the maximum number of requests in flight to a single host.
+     *
+     * @param maxConcurrencyPerHost the per host concurrency
+     * @return BulkSendOptions
+     *
+     * @throws IllegalArgumentException if {@code maxConcurrencyPerHost} is less than 1
+     */
+    public BulkSendOptions withMaxConcurrencyPerHost(int maxConcurrencyPerHost) {
+        if (maxConcurrencyPerHost < 1) {
+            throw new IllegalArgumentException("maxConcurrencyPerHost must be greater than zero.");
+        }
+        this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of requests taken from the source and waiting to be sent.
+     */
+    public int maxPendingRequests() {
+        return this.maxPendingRequests;
+    }
+
+    /**
+     * Sets the maximum number of requests taken from the source and waiting to be sent,
+     * the source is not requested for more until some of them are sent.
+     *
+     * @param maxPendingRequests the maximum pending requests
+     * @return BulkSendOptions
+     *
+     * @throws IllegalArgumentException if {@code maxPendingRequests} is less than 1
+     */
+    public BulkSendOptions withMaxPendingRequests(int maxPendingRequests) {
+        if (maxPendingRequests < 1) {
+            throw new IllegalArgumentException("maxPendingRequests must be greater than zero.");
+        }
+        this.maxPendingRequests = maxPendingRequests;
+        return this;
+    }
+
+    /**
+     * @return true if responses are emitted in the order of requests, false if emitted as they arrive.
+     */
+    public boolean ordered() {
+        return this.ordered;
+    }
+
+    /**
+     * Sets whether responses are emitted in the order of requests or as they arrive.
+     *
+     * @param ordered true to emit the responses in the order of requests
+     * @return BulkSendOptions
+     */
+    public BulkSendOptions withOrdered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     * @return the statistics to update as the requests are sent, null if not set.
+     */
+    public BulkSendStatistics statistics() {
+        return this.statistics;
+    }
+
+    /**
+     * Sets the statistics to update as the requests are sent.
+     *
+     * @param statistics the statistics
+     * @return BulkSendOptions
+     */
+    public BulkSendOptions withStatistics(BulkSendStatistics statistics) {
+        this.statistics = statistics;
+        return this;
+    }
+}
@@ -0,0 +1,68 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregate statistics of a bulk send, can be read while the send is in progress.
+ */
+public final class BulkSendStatistics {
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    /**
+     * @return the number of requests sent so far.
+     */
+    public long sent() {
+        return this.sent.get();
+    }
+
+    /**
+     * @return the number of requests that received a response.
+     */
+    public long succeeded() {
+        return this.succeeded.get();
+    }
+
+    /**
+     * @return the number of requests that failed without a response.
+     */
+    public long failed() {
+        return this.failed.get();
+    }
+
+    /**
+     * @return the number of completed requests per second since the first request was sent,
+     * up to the end of the bulk send if it has ended.
+     */
+    public double throughput() {
+        long start = this.startNanos;
+        if (start == 0) {
+            return 0;
+        }
+        long end = this.endNanos == 0 ? System.nanoTime() : this.endNanos;
+        double elapsedSeconds = Math.max(1, end - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        return (this.succeeded.get() + this.failed.get()) / elapsedSeconds;
+    }
+
+    void onSent() {
+        if (this.sent.getAndIncrement() == 0) {
+            this.startNanos = System.nanoTime();
+        }
+    }
+
+    void onSucceeded() {
+        this.succeeded.incrementAndGet();
+    }
+
+    void onFailed() {
+        this.failed.incrementAndGet();
+    }
+
+    void onEnd() {
+        this.endNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,326 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+import com.azjvsdk.experimental.http.HttpRequest;
+import com.azjvsdk.experimental.http.HttpResponse;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Package private type that sends a stream of requests through the pipeline with a global
+ * concurrency limit and a per host concurrency limit.
+ *
+ * Requests taken from the source are queued per host and the hosts are served round-robin,
+ * a host at it's concurrency limit is skipped so that a slow host cannot hold the global
+ * permits needed by other hosts. All state changes are funneled through a single drain loop,
+ * the signals from the source, the responses and the downstream demand are handed to the loop
+ * through lock-free queues and counters.
+ */
+final class BulkSender {
+    private final HttpPipeline pipeline;
+    private final BulkSendOptions options;
+    private final BulkSendStatistics statistics;
+
+    /**
+     * Creates BulkSender.
+     *
+     * @param pipeline the pipeline to send the requests through
+     * @param options the bulk send options
+     */
+    BulkSender(HttpPipeline pipeline, BulkSendOptions options) {
+        this.pipeline = pipeline;
+        this.options = options;
+        this.statistics = options.statistics() == null ? new BulkSendStatistics() : options.statistics();
+    }
+
+    /**
+     * Sends the requests from the source.
+     *
+     * @param requests the source of requests
+     * @return a publisher upon subscription sends the requests and emits the responses.
+     */
+    Flux<HttpResponse> sendAll(Publisher<HttpRequest> requests) {
+        return Flux.create(sink -> new Dispatcher(sink).start(requests));
+    }
+
+    /**
+     * @param request the request
+     * @return the key identifying the host the request is sent to.
+     */
+    private static String hostKey(HttpRequest request) {
+        return request.requestUrl().authority();
+    }
+
+    /**
+     * Type representing a request taken from the source.
+     */
+    private static final class Item {
+        final long sequence;
+        final HttpRequest request;
+        final String host;
+
+        private Item(long sequence, HttpRequest request) {
+            this.sequence = sequence;
+            this.request = request;
+            this.host = hostKey(request);
+        }
+    }
+
+    /**
+     * Type representing the outcome of a sent request.
+     */
+    private static final class Completion {
+        final Item item;
+        final HttpResponse response;
+        final Throwable error;
+
+        private Completion(Item item, HttpResponse response, Throwable error) {
+            this.item = item;
+            this.response = response;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Per subscription state, fields not declared concurrent are accessed only from the drain loop.
+     */
+    private final class Dispatcher extends BaseSubscriber<HttpRequest> {
+        private final FluxSink<HttpResponse> sink;
+        private final AtomicInteger wip = new AtomicInteger();
+        private final Queue<HttpRequest> incoming = new ConcurrentLinkedQueue<>();
+        private final Queue<Completion> completions = new ConcurrentLinkedQueue<>();
+        private final Disposable.Composite inFlightSends = Disposables.composite();
+        private volatile boolean sourceDone;
+        private volatile Throwable sourceError;
+        //
+        private final Map<String, ArrayDeque<Item>> hostQueues = new HashMap<>();
+        private final Map<String, Integer> hostInFlight = new HashMap<>();
+        private final ArrayDeque<String> readyHosts = new ArrayDeque<>();
+        private final Map<Long, HttpResponse> outOfOrder = new HashMap<>();
+        private long nextSequence;
+        private long nextEmitSequence;
+        private long sourceOutstanding;
+        private int pending;
+        private int inFlight;
+        private boolean terminated;
+
+        private Dispatcher(FluxSink<HttpResponse> sink) {
+            this.sink = sink;
+        }
+
+        private void start(Publisher<HttpRequest> requests) {
+            this.sink.onRequest(n -> this.drain());
+            this.sink.onDispose(() -> {
+                this.dispose();
+                this.inFlightSends.dispose();
+            });
+            requests.subscribe(this);
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            this.drain();
+        }
+
+        @Override
+        protected void hookOnNext(HttpRequest request) {
+            this.incoming.offer(request);
+            this.drain();
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            this.sourceDone = true;
+            this.drain();
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            this.sourceError = throwable;
+            this.sourceDone = true;
+            this.drain();
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (!this.terminated) {
+                    this.drainIncoming();
+                    this.drainCompletions();
+                    if (!this.terminated) {
+                        this.dispatch();
+                        this.requestFromSource();
+                        this.checkTermination();
+                    }
+                }
+                missed = this.wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drainIncoming() {
+            HttpRequest request;
+            while ((request = this.incoming.poll()) != null) {
+                this.sourceOutstanding--;
+                Item item = new Item(this.nextSequence++, request);
+                ArrayDeque<Item> queue = this.hostQueues.get(item.host);
+                if (queue == null) {
+                    queue = new ArrayDeque<>();
+                    this.hostQueues.put(item.host, queue);
+                }
+                if (queue.isEmpty() && this.hostInFlight.getOrDefault(item.host, 0) < options.maxConcurrencyPerHost()) {
+                    this.readyHosts.offer(item.host);
+                }
+                queue.offer(item);
+                this.pending++;
+            }
+        }
+
+        private void drainCompletions() {
+            Completion completion;
+            while ((completion = this.completions.poll()) != null) {
+                this.inFlight--;
+                String host = completion.item.host;
+                int hostCount = this.hostInFlight.get(host) - 1;
+                ArrayDeque<Item> queue = this.hostQueues.get(host);
+                if (hostCount == 0) {
+                    this.hostInFlight.remove(host);
+                    if (queue.isEmpty()) {
+                        this.hostQueues.remove(host);
+                    }
+                } else {
+                    this.hostInFlight.put(host, hostCount);
+                }
+                if (hostCount == options.maxConcurrencyPerHost() - 1 && !queue.isEmpty()) {
+                    // The host was saturated and has requests waiting, make it eligible again.
+                    this.readyHosts.offer(host);
+                }
+                if (completion.error != null) {
+                    statistics.onFailed();
+                    this.terminate(completion.error);
+                    return;
+                }
+                statistics.onSucceeded();
+                if (!options.ordered()) {
+                    this.emit(completion.response);
+                } else {
+                    this.outOfOrder.put(completion.item.sequence, completion.response);
+                }
+            }
+            if (options.ordered()) {
+                HttpResponse response;
+                while ((response = this.outOfOrder.remove(this.nextEmitSequence)) != null) {
+                    this.nextEmitSequence++;
+                    this.emit(response);
+                }
+            }
+        }
+
+        private void dispatch() {
+            // Each request sent reserves a slot in the downstream demand, so that the
+            // responses never need to be buffered beyond what downstream requested.
+            while (this.inFlight < options.maxConcurrency() && !this.readyHosts.isEmpty()) {
+                String host;
+                if (this.inFlight + this.outOfOrder.size() < this.sink.requestedFromDownstream()) {
+                    host = this.readyHosts.poll();
+                } else {
+                    host = this.headHost();
+                    if (host == null) {
+                        break;
+                    }
+                    this.readyHosts.remove(host);
+                }
+                ArrayDeque<Item> queue = this.hostQueues.get(host);
+                Item item = queue.poll();
+                this.pending--;
+                this.inFlight++;
+                int hostCount = this.hostInFlight.getOrDefault(host, 0) + 1;
+                this.hostInFlight.put(host, hostCount);
+                if (hostCount < options.maxConcurrencyPerHost() && !queue.isEmpty()) {
+                    this.readyHosts.offer(host);
+                }
+                this.send(item);
+            }
+        }
+
+        /**
+         * In ordered mode the responses parked behind the next response to emit may reserve all
+         * of the demand, the request of that response is then sent regardless so that the parked
+         * responses can be emitted.
+         *
+         * @return the ready host whose next request is the next one to emit, null if there is none.
+         */
+        private String headHost() {
+            if (!options.ordered() || this.sink.requestedFromDownstream() == 0) {
+                return null;
+            }
+            for (String host : this.readyHosts) {
+                if (this.hostQueues.get(host).peek().sequence == this.nextEmitSequence) {
+                    return host;
+                }
+            }
+            return null;
+        }
+
+        private void send(Item item) {
+            statistics.onSent();
+            final Disposable.Swap send = Disposables.swap();
+            this.inFlightSends.add(send);
+            send.update(pipeline.sendRequest(pipeline.newContext(item.request))
+                .subscribe(response -> this.onCompletion(new Completion(item, response, null), send),
+                    error -> this.onCompletion(new Completion(item, null, error), send)));
+        }
+
+        private void onCompletion(Completion completion, Disposable send) {
+            this.inFlightSends.remove(send);
+            this.completions.offer(completion);
+            this.drain();
+        }
+
+        private void requestFromSource() {
+            if (this.sourceDone || this.upstream() == null) {
+                return;
+            }
+            long want = options.maxPendingRequests() - (this.pending + this.sourceOutstanding);
+            if (want > 0) {
+                this.sourceOutstanding += want;
+                this.request(want);
+            }
+        }
+
+        private void checkTermination() {
+            if (this.sourceDone && this.incoming.isEmpty() && this.pending == 0 && this.inFlight == 0) {
+                this.terminate(this.sourceError);
+            }
+        }
+
+        private void emit(HttpResponse response) {
+            this.sink.next(response);
+        }
+
+        private void terminate(Throwable error) {
+            this.terminated = true;
+            statistics.onEnd();
+            this.dispose();
+            this.inFlightSends.dispose();
+            if (error != null) {
+                this.sink.error(error);
+            } else {
+                this.sink.complete();
+            }
+        }
+    }
+}
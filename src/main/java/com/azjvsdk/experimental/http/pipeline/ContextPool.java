@@ -0,0 +1,71 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Package private type, a bounded striped pool of idle {@link PipelineCallContext}.
+ *
+ * The contexts are kept in a fixed array of slots, a thread starts probing at a stripe derived from
+ * it's id so that threads mostly touch different slots. A context is usually released on a different
+ * thread (the one completing the response) than the one acquiring it, hence a shared array instead of
+ * thread-local pools, the context is released back to the stripe it was acquired from so that it's
+ * found again by the acquiring thread. Acquire and release only swap slot values, so the pool itself
+ * does not allocate.
+ */
+final class ContextPool {
+    private static final int MAX_PROBES = 8;
+    //
+    private final AtomicReferenceArray<PipelineCallContext> slots;
+    private final int mask;
+
+    /**
+     * Creates ContextPool.
+     *
+     * @param capacity the maximum number of idle contexts, rounded up to a power of two
+     */
+    ContextPool(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return the stripe of the current thread.
+     */
+    int stripe() {
+        long id = Thread.currentThread().getId();
+        return (int) (id * 0x9E3779B97F4A7C15L >>> 32) & this.mask;
+    }
+
+    /**
+     * @param stripe the stripe to start probing at
+     * @return an idle context, null if none found.
+     */
+    PipelineCallContext acquire(int stripe) {
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int index = (stripe + i) & this.mask;
+            if (this.slots.get(index) != null) {
+                PipelineCallContext context = this.slots.getAndSet(index, null);
+                if (context != null) {
+                    return context;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the context to the pool, the context is dropped if no free slot is found.
+     *
+     * @param context the idle context
+     * @param stripe the stripe the context was acquired from
+     */
+    void release(PipelineCallContext context, int stripe) {
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int index = (stripe + i) & this.mask;
+            if (this.slots.get(index) == null && this.slots.compareAndSet(index, null, context)) {
+                return;
+            }
+        }
+    }
+}
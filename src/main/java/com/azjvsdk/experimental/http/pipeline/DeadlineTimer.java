@@ -0,0 +1,114 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+import io.netty.util.HashedWheelTimer;
+import io.reactivex.Single;
+import io.reactivex.disposables.CompositeDisposable;
+import io.netty.util.Timeout;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Package private type applying timeouts to the request flow using a single shared hashed
+ * timing wheel, so that the cost of a pending timeout is a slot in the wheel instead of a
+ * scheduled task per request.
+ */
+final class DeadlineTimer {
+    private static final HashedWheelTimer TIMER = new HashedWheelTimer(
+        new DefaultThreadFactory("http-pipeline-deadline", true), 10, TimeUnit.MILLISECONDS, 512);
+
+    private DeadlineTimer() {
+    }
+
+    /**
+     * Fails the source with {@link TimeoutException} if it does not emit within the timeout, on
+     * expiry the subscription to the source is cancelled, which propagates down the policies to
+     * the http client so that the connection can be aborted or returned to the pool.
+     *
+     * @param source the source
+     * @param timeoutNanos the timeout in nanoseconds
+     * @param message the message of the timeout exception
+     * @param <T> the type of the value emitted by source
+     * @return a publisher that emits the value from the source, or fails on timeout.
+     */
+    static <T> Mono<T> timeout(Mono<T> source, long timeoutNanos, String message) {
+        if (timeoutNanos <= 0) {
+            return Mono.error(new TimeoutException(message));
+        }
+        return Mono.create(sink -> {
+            final AtomicBoolean done = new AtomicBoolean();
+            final Disposable.Swap subscription = Disposables.swap();
+            final Timeout timeout = TIMER.newTimeout(t -> {
+                if (done.compareAndSet(false, true)) {
+                    subscription.dispose();
+                    sink.error(new TimeoutException(message));
+                }
+            }, timeoutNanos, TimeUnit.NANOSECONDS);
+            sink.onDispose(() -> {
+                timeout.cancel();
+                subscription.dispose();
+            });
+            subscription.update(source.subscribe(value -> {
+                if (done.compareAndSet(false, true)) {
+                    timeout.cancel();
+                    sink.success(value);
+                }
+            }, error -> {
+                if (done.compareAndSet(false, true)) {
+                    timeout.cancel();
+                    sink.error(error);
+                }
+            }, () -> {
+                if (done.compareAndSet(false, true)) {
+                    timeout.cancel();
+                    sink.success();
+                }
+            }));
+        });
+    }
+
+    /**
+     * The {@link Single} variant of {@link DeadlineTimer#timeout(Mono, long, String)}.
+     *
+     * @param source the source
+     * @param timeoutNanos the timeout in nanoseconds
+     * @param message the message of the timeout exception
+     * @param <T> the type of the value emitted by source
+     * @return a single that emits the value from the source, or fails on timeout.
+     */
+    static <T> Single<T> timeout(Single<T> source, long timeoutNanos, String message) {
+        if (timeoutNanos <= 0) {
+            return Single.error(new TimeoutException(message));
+        }
+        return Single.create(emitter -> {
+            final AtomicBoolean done = new AtomicBoolean();
+            final CompositeDisposable subscription = new CompositeDisposable();
+            final Timeout timeout = TIMER.newTimeout(t -> {
+                if (done.compareAndSet(false, true)) {
+                    subscription.dispose();
+                    emitter.tryOnError(new TimeoutException(message));
+                }
+            }, timeoutNanos, TimeUnit.NANOSECONDS);
+            emitter.setCancellable(() -> {
+                timeout.cancel();
+                subscription.dispose();
+            });
+            subscription.add(source.subscribe(value -> {
+                if (done.compareAndSet(false, true)) {
+                    timeout.cancel();
+                    emitter.onSuccess(value);
+                }
+            }, error -> {
+                if (done.compareAndSet(false, true)) {
+                    timeout.cancel();
+                    emitter.tryOnError(error);
+                }
+            }));
+        });
+    }
+}
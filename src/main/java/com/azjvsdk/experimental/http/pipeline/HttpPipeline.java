@@ -1,18 +1,45 @@
 package com.azjvsdk.experimental.http.pipeline;
 
+import com.azjvsdk.experimental.http.ByteBufferPool;
 import com.azjvsdk.experimental.http.HttpClient;
 import com.azjvsdk.experimental.http.HttpRequest;
 import com.azjvsdk.experimental.http.HttpResponse;
+import com.azjvsdk.experimental.http.MemoryBudget;
+import io.reactivex.Single;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.UnaryOperator;
 
 /**
  * The http pipeline.
+ *
+ * The global policies can be swapped on a live pipeline, each context takes the snapshot of the
+ * global policies current at it's creation and finishes on it, the contexts created afterwards
+ * use the new policies. Requests matching a {@link RouteRule} go through the rule's policy chain
+ * instead of the global policies, the chain is selected once when the context is created.
  */
 public final class HttpPipeline {
-    private final PolicyEntry[] requestPolicyEntries;
+    private volatile PolicyEntry[] requestPolicyEntries;
+    private volatile RouteMatcher routeMatcher;
     private final HttpClient httpClient;
+    private final HttpPipelineOptions options;
+    private final ByteBufferPool replayBufferPool;
+    private final ContextPool contextPool;
+    private final MemoryBudget memoryBudget;
+    private final SlowRequestLog slowRequestLog;
+    private final long slowRequestThresholdNanos;
+    private volatile boolean ready;
+    //
+    private static final int REPLAY_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_REPLAY_BUFFERS = 256;
+    private static final AtomicReferenceFieldUpdater<HttpPipeline, PolicyEntry[]> REQUEST_POLICY_ENTRIES =
+        AtomicReferenceFieldUpdater.newUpdater(HttpPipeline.class, PolicyEntry[].class, "requestPolicyEntries");
 
     /**
      * Creates a HttpPipeline holding array of global policies that gets applied
@@ -23,14 +50,7 @@ public final class HttpPipeline {
      * @param httpClient the http client to write request to wire and receive response from wire.
      */
     public HttpPipeline(RequestPolicy[] requestPolicies, HttpClient httpClient) {
-        Objects.requireNonNull(requestPolicies);
-        Objects.requireNonNull(httpClient);
-        this.requestPolicyEntries = new PolicyEntry[requestPolicies.length];
-        for (int i = 0; i < requestPolicies.length; i++) {
-            Objects.requireNonNull(requestPolicies[i]);
-            this.requestPolicyEntries[i] = new PolicyEntry(requestPolicies[i].getClass().getName(), requestPolicies[i]);
-        }
-        this.httpClient = httpClient;
+        this(toPolicyEntries(requestPolicies), httpClient, new HttpPipelineOptions());
     }
 
     /**
@@ -43,27 +63,139 @@ public final class HttpPipeline {
      * @param httpClient the http client to write request to wire and receive response from wire.
      */
     public HttpPipeline(PolicyEntry[] requestPolicyEntries, HttpClient httpClient) {
+        this(requestPolicyEntries, httpClient, new HttpPipelineOptions());
+    }
+
+    /**
+     * Creates a HttpPipeline holding array of global policies that gets applied
+     * to all request initiated through {@link HttpPipeline#sendRequest(PipelineCallContext)}
+     * and it's response.
+     *
+     * @param requestPolicyEntries request policy entries, each entry contains policy name and
+     *                             request policy. The policies get applied in the order of entries array.
+     * @param httpClient the http client to write request to wire and receive response from wire.
+     * @param options the pipeline options
+     *
+     * @throws IllegalArgumentException if there are multiple policies with same name
+     */
+    public HttpPipeline(PolicyEntry[] requestPolicyEntries, HttpClient httpClient, HttpPipelineOptions options) {
         Objects.requireNonNull(requestPolicyEntries);
         Objects.requireNonNull(httpClient);
-        this.requestPolicyEntries = requestPolicyEntries;
+        Objects.requireNonNull(options);
+        this.requestPolicyEntries = validatePolicyEntries(requestPolicyEntries.clone());
         this.httpClient = httpClient;
+        this.options = options;
+        this.replayBufferPool = new ByteBufferPool(Math.max(1, Math.min(REPLAY_BUFFER_SIZE, options.replayMemoryThreshold())),
+            MAX_POOLED_REPLAY_BUFFERS);
+        this.contextPool = options.maxPooledContexts() > 0 ? new ContextPool(options.maxPooledContexts()) : null;
+        this.memoryBudget = new MemoryBudget(options.maxBufferedBytes());
+        this.routeMatcher = compileRouteRules(options.routeRules());
+        if (options.slowRequestThreshold() == null) {
+            this.slowRequestLog = null;
+            this.slowRequestThresholdNanos = -1;
+        } else {
+            this.slowRequestLog = new SlowRequestLog(options.slowRequestLogCapacity(), options.slowRequestListener());
+            this.slowRequestThresholdNanos = options.slowRequestThreshold().toNanos();
+        }
+    }
+
+    /**
+     * Package private ctr.
+     *
+     * Creates a shadow of the pipeline sharing it's policies, route rules and options
+     * but sending the requests through the given http client. The shadow does not record
+     * request timelines.
+     *
+     * @param source the pipeline to shadow
+     * @param httpClient the http client of the shadow
+     */
+    HttpPipeline(HttpPipeline source, HttpClient httpClient) {
+        this.requestPolicyEntries = source.requestPolicyEntries;
+        this.routeMatcher = source.routeMatcher;
+        this.httpClient = Objects.requireNonNull(httpClient);
+        this.options = source.options;
+        this.replayBufferPool = source.replayBufferPool;
+        this.contextPool = source.contextPool == null ? null : new ContextPool(this.options.maxPooledContexts());
+        this.memoryBudget = source.memoryBudget;
+        this.slowRequestLog = null;
+        this.slowRequestThresholdNanos = -1;
     }
 
     /**
      * @return global request policy entries in the pipeline.
      */
     public PolicyEntry[] requestPolicyEntries() {
-        return this.requestPolicyEntries;
+        return this.requestPolicyEntries.clone();
+    }
+
+    /**
+     * Replaces the global policies, the contexts created afterwards use the new policies
+     * while the contexts already created finish with the policies they started with.
+     *
+     * @param requestPolicyEntries the new global policy entries in the order they need to be applied
+     *
+     * @throws IllegalArgumentException if there are multiple policies with same name
+     */
+    public void setRequestPolicyEntries(PolicyEntry[] requestPolicyEntries) {
+        Objects.requireNonNull(requestPolicyEntries);
+        this.requestPolicyEntries = validatePolicyEntries(requestPolicyEntries.clone());
+    }
+
+    /**
+     * Atomically updates the global policies with the result of the given function, the function
+     * is applied again if the policies were changed concurrently, so it should be side-effect free.
+     *
+     * @param updateFunction the function taking a copy of the current global policy entries
+     *                       and returning the new entries
+     *
+     * @throws IllegalArgumentException if there are multiple policies with same name in the new entries
+     */
+    public void updateRequestPolicyEntries(UnaryOperator<PolicyEntry[]> updateFunction) {
+        Objects.requireNonNull(updateFunction);
+        PolicyEntry[] current;
+        PolicyEntry[] updated;
+        do {
+            current = this.requestPolicyEntries;
+            updated = validatePolicyEntries(Objects.requireNonNull(updateFunction.apply(current.clone())).clone());
+        } while (!REQUEST_POLICY_ENTRIES.compareAndSet(this, current, updated));
+    }
+
+    /**
+     * Replaces the route rules, the contexts created afterwards are routed with the new rules.
+     *
+     * @param routeRules the new route rules
+     *
+     * @throws IllegalArgumentException if there are multiple policies with same name in a rule
+     */
+    public void setRouteRules(RouteRule... routeRules) {
+        Objects.requireNonNull(routeRules);
+        this.routeMatcher = compileRouteRules(routeRules);
     }
 
     /**
-     * Creates a new context local to the provided http request.
+     * Creates a new context local to the provided http request, the context is taken from
+     * the pool if context recycling is enabled by {@link HttpPipelineOptions#withMaxPooledContexts(int)}.
+     * The default headers of the pipeline are sent with the request unless it has static headers,
+     * they are not attached to the request.
      *
      * @param httpRequest the request for a context needs to be created
      * @return the request context
      */
     public PipelineCallContext newContext(HttpRequest httpRequest) {
-        return new PipelineCallContext(this.httpClient, httpRequest, this.requestPolicyEntries);
+        Objects.requireNonNull(httpRequest);
+        final PolicyEntry[] policySnapshot = this.selectPolicies(httpRequest);
+        if (this.contextPool == null) {
+            return new PipelineCallContext(this, httpRequest, policySnapshot);
+        }
+        final int stripe = this.contextPool.stripe();
+        PipelineCallContext context = this.contextPool.acquire(stripe);
+        if (context == null) {
+            context = new PipelineCallContext(this, httpRequest, policySnapshot);
+        } else {
+            context.reset(httpRequest, policySnapshot);
+        }
+        context.setPoolStripe(stripe);
+        return context;
     }
 
     /**
@@ -75,4 +207,209 @@ public final class HttpPipeline {
     public Mono<HttpResponse> sendRequest(PipelineCallContext context) {
         return context.process();
     }
+
+    /**
+     * Sends the request wrapped in the provided context through pipeline using RxJava2 types, the
+     * {@link RxRequestPolicy}s in the chain invoke each other without converting to Reactor.
+     *
+     * @param context the request context
+     * @return a single upon subscription flows the context through policies, sends the request and emits response upon completion.
+     */
+    public Single<HttpResponse> sendRequestRx(PipelineCallContext context) {
+        return context.processRx();
+    }
+
+    /**
+     * Sends the requests through pipeline with default {@link BulkSendOptions}, each request
+     * is sent with a new context.
+     *
+     * @param requests the source of requests
+     * @return a publisher upon subscription sends the requests and emits the responses as they arrive.
+     */
+    public Flux<HttpResponse> sendAll(Publisher<HttpRequest> requests) {
+        return this.sendAll(requests, new BulkSendOptions());
+    }
+
+    /**
+     * Sends the requests through pipeline, each request is sent with a new context.
+     *
+     * The number of requests in flight is bounded globally and per host, the hosts with requests
+     * waiting are served round-robin so that a slow host cannot starve the others. Requests are
+     * taken from the source only as they can be sent and responses can be emitted.
+     *
+     * @param requests the source of requests
+     * @param options the bulk send options
+     * @return a publisher upon subscription sends the requests and emits the responses, fails with
+     * the first error from the source or from sending a request.
+     */
+    public Flux<HttpResponse> sendAll(Publisher<HttpRequest> requests, BulkSendOptions options) {
+        Objects.requireNonNull(requests);
+        Objects.requireNonNull(options);
+        return new BulkSender(this, options).sendAll(requests);
+    }
+
+    /**
+     * @return the budget of bytes the requests and responses in flight hold in memory,
+     * reports the current usage and the high-water mark.
+     */
+    public MemoryBudget memoryBudget() {
+        return this.memoryBudget;
+    }
+
+    /**
+     * @return the log of the timelines of the slow requests, null if the pipeline does not record timelines.
+     */
+    public SlowRequestLog slowRequestLog() {
+        return this.slowRequestLog;
+    }
+
+    /**
+     * Warms up the pipeline by opening pooled connections to the known hosts, including the TLS
+     * handshake, and by sending synthetic requests through the policy chain so that it's hot
+     * paths get compiled before the real traffic arrives.
+     *
+     * @param options the warm up options
+     * @return a publisher upon subscription warms up the pipeline, completes once the warm up is
+     * done and {@link HttpPipeline#ready()} reports true, fails if a connection or a synthetic
+     * request fails.
+     */
+    public Mono<Void> warmUp(WarmUpOptions options) {
+        Objects.requireNonNull(options);
+        return new PipelineWarmUp(this, options).run()
+            .doOnSuccess(v -> this.ready = true);
+    }
+
+    /**
+     * @return true once a {@link HttpPipeline#warmUp(WarmUpOptions)} completed, false otherwise.
+     */
+    public boolean ready() {
+        return this.ready;
+    }
+
+    /**
+     * Package private method.
+     *
+     * @return the http client to write request to wire and receive response from wire.
+     */
+    HttpClient httpClient() {
+        return this.httpClient;
+    }
+
+    /**
+     * Package private method.
+     *
+     * @return the pipeline options.
+     */
+    HttpPipelineOptions options() {
+        return this.options;
+    }
+
+    /**
+     * Package private method.
+     *
+     * Stops the timeline of a completed request and copies it to the slow request log if the
+     * request took longer than the threshold.
+     *
+     * @param timeline the timeline
+     * @param request the request
+     */
+    void completeTimeline(RequestTimeline timeline, HttpRequest request) {
+        final long durationNanos = timeline.stop();
+        if (durationNanos >= 0 && durationNanos >= this.slowRequestThresholdNanos) {
+            this.slowRequestLog.record(timeline, request, durationNanos);
+        }
+    }
+
+    /**
+     * Package private method.
+     *
+     * @return true if the pipeline records request timelines.
+     */
+    boolean recordsTimelines() {
+        return this.slowRequestLog != null;
+    }
+
+    /**
+     * Package private method.
+     *
+     * Releases the context once it's response publisher terminated, the context is returned
+     * to the pool unless leak detection is enabled, in which case it's only marked released.
+     *
+     * @param context the context
+     */
+    void releaseContext(PipelineCallContext context) {
+        if (this.contextPool == null) {
+            return;
+        }
+        context.markReleased(this.options.leakDetection());
+        if (!this.options.leakDetection()) {
+            this.contextPool.release(context, context.poolStripe());
+        }
+    }
+
+    /**
+     * Package private method.
+     *
+     * @return the pool of buffers to hold the in-memory part of replayable request bodies.
+     */
+    ByteBufferPool replayBufferPool() {
+        return this.replayBufferPool;
+    }
+
+    /**
+     * @param httpRequest the request
+     * @return the policy chain of the route rule matching the request if any, the global policies otherwise.
+     */
+    private PolicyEntry[] selectPolicies(HttpRequest httpRequest) {
+        final RouteMatcher matcher = this.routeMatcher;
+        if (matcher != null) {
+            PolicyEntry[] routePolicies = matcher.match(httpRequest.httpMethod(), httpRequest.requestUrl());
+            if (routePolicies != null) {
+                return routePolicies;
+            }
+        }
+        return this.requestPolicyEntries;
+    }
+
+    /**
+     * @param routeRules the route rules
+     * @return the matcher for the rules, null if there are no rules.
+     */
+    private static RouteMatcher compileRouteRules(RouteRule[] routeRules) {
+        if (routeRules.length == 0) {
+            return null;
+        }
+        for (RouteRule rule : routeRules) {
+            Objects.requireNonNull(rule);
+        }
+        return new RouteMatcher(routeRules, HttpPipeline::validatePolicyEntries);
+    }
+
+    /**
+     * Validates the policy names are unique once, so that the contexts created from
+     * the pipeline need not to.
+     *
+     * @param requestPolicyEntries the global policy entries
+     * @return the validated policy entries.
+     */
+    private static PolicyEntry[] validatePolicyEntries(PolicyEntry[] requestPolicyEntries) {
+        Set<String> seenNames = new HashSet<>();
+        for (PolicyEntry entry : requestPolicyEntries) {
+            Objects.requireNonNull(entry);
+            if (!seenNames.add(entry.key())) {
+                throw new IllegalArgumentException("Policy name must be unique, found multiple policies with same name '" + entry.name() + "'.");
+            }
+        }
+        return requestPolicyEntries;
+    }
+
+    private static PolicyEntry[] toPolicyEntries(RequestPolicy[] requestPolicies) {
+        Objects.requireNonNull(requestPolicies);
+        PolicyEntry[] requestPolicyEntries = new PolicyEntry[requestPolicies.length];
+        for (int i = 0; i < requestPolicies.length; i++) {
+            Objects.requireNonNull(requestPolicies[i]);
+            requestPolicyEntries[i] = new PolicyEntry(requestPolicies[i].getClass().getName(), requestPolicies[i]);
+        }
+        return requestPolicyEntries;
+    }
 }
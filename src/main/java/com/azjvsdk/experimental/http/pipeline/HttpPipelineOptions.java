@@ -0,0 +1,300 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+import com.azjvsdk.experimental.http.StaticHeaders;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Options to configure {@link HttpPipeline}.
+ */
+public class HttpPipelineOptions {
+    private int replayMemoryThreshold = 1024 * 1024;
+    private PriorityRequestScheduler requestScheduler;
+    private int maxPooledContexts;
+    private boolean leakDetection;
+    private RouteRule[] routeRules = new RouteRule[0];
+    private long maxBufferedBytes = Long.MAX_VALUE;
+    private Duration bufferedBytesWaitTimeout = Duration.ZERO;
+    private StaticHeaders defaultHeaders;
+    private Duration slowRequestThreshold = Duration.ofSeconds(1);
+    private int slowRequestLogCapacity = 128;
+    private Consumer<TimelineSnapshot> slowRequestListener;
+    private long expectContinueThreshold = -1;
+
+    /**
+     * @return the number of bytes of a replayable request body to keep in memory, rest spills to temp file.
+     */
+    public int replayMemoryThreshold() {
+        return this.replayMemoryThreshold;
+    }
+
+    /**
+     * Sets the number of bytes of a replayable request body to keep in memory, rest spills to temp file.
+     *
+     * @param replayMemoryThreshold the memory threshold in bytes
+     * @return HttpPipelineOptions
+     *
+     * @throws IllegalArgumentException if {@code replayMemoryThreshold} is negative
+     */
+    public HttpPipelineOptions withReplayMemoryThreshold(int replayMemoryThreshold) {
+        if (replayMemoryThreshold < 0) {
+            throw new IllegalArgumentException("replayMemoryThreshold cannot be negative.");
+        }
+        this.replayMemoryThreshold = replayMemoryThreshold;
+        return this;
+    }
+
+    /**
+     * @return the scheduler admitting the requests to the http client, null if requests are not scheduled.
+     */
+    public PriorityRequestScheduler requestScheduler() {
+        return this.requestScheduler;
+    }
+
+    /**
+     * Sets the scheduler admitting the requests to the http client based on their {@link RequestPriority}.
+     *
+     * @param requestScheduler the scheduler
+     * @return HttpPipelineOptions
+     */
+    public HttpPipelineOptions withRequestScheduler(PriorityRequestScheduler requestScheduler) {
+        this.requestScheduler = requestScheduler;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of idle contexts kept for reuse, zero if contexts are not recycled.
+     */
+    public int maxPooledContexts() {
+        return this.maxPooledContexts;
+    }
+
+    /**
+     * Enables recycling of {@link PipelineCallContext}, the contexts are returned to a pool once
+     * the response publisher terminates or is cancelled and handed out again by
+     * {@link HttpPipeline#newContext(com.azjvsdk.experimental.http.HttpRequest)}. A recycled
+     * context must not be used after it's response publisher terminated.
+     *
+     * @param maxPooledContexts the maximum number of idle contexts kept for reuse, zero to disable recycling
+     * @return HttpPipelineOptions
+     *
+     * @throws IllegalArgumentException if {@code maxPooledContexts} is negative
+     */
+    public HttpPipelineOptions withMaxPooledContexts(int maxPooledContexts) {
+        if (maxPooledContexts < 0) {
+            throw new IllegalArgumentException("maxPooledContexts cannot be negative.");
+        }
+        this.maxPooledContexts = maxPooledContexts;
+        return this;
+    }
+
+    /**
+     * @return true if the use of recycled contexts after release is detected.
+     */
+    public boolean leakDetection() {
+        return this.leakDetection;
+    }
+
+    /**
+     * Sets whether to detect the use of recycled contexts after release, meant for debugging.
+     *
+     * When enabled, a released context is never handed out again and any later use of it fails
+     * with {@link IllegalStateException} carrying the stack trace of the release.
+     *
+     * @param leakDetection true to detect use after release
+     * @return HttpPipelineOptions
+     */
+    public HttpPipelineOptions withLeakDetection(boolean leakDetection) {
+        this.leakDetection = leakDetection;
+        return this;
+    }
+
+    /**
+     * @return the rules selecting a route specific policy chain for the requests.
+     */
+    public RouteRule[] routeRules() {
+        return this.routeRules.clone();
+    }
+
+    /**
+     * Sets the rules selecting a route specific policy chain for the requests, the requests
+     * matching no rule go through the global policies of the pipeline.
+     *
+     * @param routeRules the route rules
+     * @return HttpPipelineOptions
+     */
+    public HttpPipelineOptions withRouteRules(RouteRule... routeRules) {
+        Objects.requireNonNull(routeRules);
+        this.routeRules = routeRules.clone();
+        return this;
+    }
+
+    /**
+     * @return the budget of bytes the requests and responses in flight can hold in memory.
+     */
+    public long maxBufferedBytes() {
+        return this.maxBufferedBytes;
+    }
+
+    /**
+     * Sets the budget of bytes the requests and responses in flight can hold in memory, i.e. the
+     * recorded request bodies and the buffered response bodies. Once the budget is exhausted
+     * the bodies being buffered spill to temp file and the new requests wait for the budget,
+     * up to {@link HttpPipelineOptions#bufferedBytesWaitTimeout()}, before being rejected.
+     *
+     * @param maxBufferedBytes the budget in bytes
+     * @return HttpPipelineOptions
+     *
+     * @throws IllegalArgumentException if {@code maxBufferedBytes} is negative
+     */
+    public HttpPipelineOptions withMaxBufferedBytes(long maxBufferedBytes) {
+        if (maxBufferedBytes < 0) {
+            throw new IllegalArgumentException("maxBufferedBytes cannot be negative.");
+        }
+        this.maxBufferedBytes = maxBufferedBytes;
+        return this;
+    }
+
+    /**
+     * @return the time a new request waits for the buffered bytes budget before being rejected.
+     */
+    public Duration bufferedBytesWaitTimeout() {
+        return this.bufferedBytesWaitTimeout;
+    }
+
+    /**
+     * Sets the time a new request waits for the buffered bytes budget when it's exhausted, the
+     * request fails with {@link java.util.concurrent.RejectedExecutionException} if the budget
+     * is still exhausted after that time.
+     *
+     * @param bufferedBytesWaitTimeout the wait timeout, zero to reject right away
+     * @return HttpPipelineOptions
+     *
+     * @throws IllegalArgumentException if {@code bufferedBytesWaitTimeout} is negative
+     */
+    public HttpPipelineOptions withBufferedBytesWaitTimeout(Duration bufferedBytesWaitTimeout) {
+        Objects.requireNonNull(bufferedBytesWaitTimeout);
+        if (bufferedBytesWaitTimeout.isNegative()) {
+            throw new IllegalArgumentException("bufferedBytesWaitTimeout cannot be negative.");
+        }
+        this.bufferedBytesWaitTimeout = bufferedBytesWaitTimeout;
+        return this;
+    }
+
+    /**
+     * @return the headers sent with every request, null if there are none.
+     */
+    public StaticHeaders defaultHeaders() {
+        return this.defaultHeaders;
+    }
+
+    /**
+     * Sets the headers sent with every request, the headers are encoded once and sent with the
+     * requests without static headers of their own. A policy overrides a default header by setting
+     * the header on the request.
+     *
+     * @param defaultHeaders the default headers
+     * @return HttpPipelineOptions
+     */
+    public HttpPipelineOptions withDefaultHeaders(StaticHeaders defaultHeaders) {
+        this.defaultHeaders = defaultHeaders;
+        return this;
+    }
+
+    /**
+     * @return the latency above which the timeline of a request is kept, null if timelines are not recorded.
+     */
+    public Duration slowRequestThreshold() {
+        return this.slowRequestThreshold;
+    }
+
+    /**
+     * Sets the latency above which the {@link RequestTimeline} of a request is copied to the
+     * pipeline's {@link SlowRequestLog}. The timelines of all requests are recorded, the timelines
+     * of the requests completing within the threshold are discarded without being copied.
+     *
+     * @param slowRequestThreshold the threshold, null to not record timelines
+     * @return HttpPipelineOptions
+     *
+     * @throws IllegalArgumentException if {@code slowRequestThreshold} is negative
+     */
+    public HttpPipelineOptions withSlowRequestThreshold(Duration slowRequestThreshold) {
+        if (slowRequestThreshold != null && slowRequestThreshold.isNegative()) {
+            throw new IllegalArgumentException("slowRequestThreshold cannot be negative.");
+        }
+        this.slowRequestThreshold = slowRequestThreshold;
+        return this;
+    }
+
+    /**
+     * @return the number of slow request timelines kept by the {@link SlowRequestLog}.
+     */
+    public int slowRequestLogCapacity() {
+        return this.slowRequestLogCapacity;
+    }
+
+    /**
+     * Sets the number of slow request timelines kept by the {@link SlowRequestLog}, the oldest
+     * timeline is overwritten once the log is full.
+     *
+     * @param slowRequestLogCapacity the capacity, rounded up to a power of two
+     * @return HttpPipelineOptions
+     *
+     * @throws IllegalArgumentException if {@code slowRequestLogCapacity} is less than 1
+     */
+    public HttpPipelineOptions withSlowRequestLogCapacity(int slowRequestLogCapacity) {
+        if (slowRequestLogCapacity < 1 || slowRequestLogCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("slowRequestLogCapacity must be between 1 and 2^30.");
+        }
+        this.slowRequestLogCapacity = slowRequestLogCapacity;
+        return this;
+    }
+
+    /**
+     * @return the listener notified of each slow request, null if there is none.
+     */
+    public Consumer<TimelineSnapshot> slowRequestListener() {
+        return this.slowRequestListener;
+    }
+
+    /**
+     * Sets the listener notified of each slow request, e.g. to emit the timeline as a flight
+     * recorder event or a log entry. The listener is invoked on the thread completing the request
+     * and should not block.
+     *
+     * @param slowRequestListener the listener
+     * @return HttpPipelineOptions
+     */
+    public HttpPipelineOptions withSlowRequestListener(Consumer<TimelineSnapshot> slowRequestListener) {
+        this.slowRequestListener = slowRequestListener;
+        return this;
+    }
+
+    /**
+     * @return the body length from which requests are sent with Expect: 100-continue, -1 if disabled.
+     */
+    public long expectContinueThreshold() {
+        return this.expectContinueThreshold;
+    }
+
+    /**
+     * Sets the body length from which requests are sent with an Expect: 100-continue header, the
+     * http client then sends the headers first and streams the body only once the service accepts
+     * them, a request the service rejects right away completes without the body ever being read.
+     * A body of unknown length is considered to be over the threshold. Disabled by default.
+     *
+     * @param expectContinueThreshold the body length in bytes, -1 to disable
+     * @return HttpPipelineOptions
+     *
+     * @throws IllegalArgumentException if {@code expectContinueThreshold} is less than -1
+     */
+    public HttpPipelineOptions withExpectContinueThreshold(long expectContinueThreshold) {
+        if (expectContinueThreshold < -1) {
+            throw new IllegalArgumentException("expectContinueThreshold cannot be less than -1.");
+        }
+        this.expectContinueThreshold = expectContinueThreshold;
+        return this;
+    }
+}
@@ -1,13 +1,18 @@
 package com.azjvsdk.experimental.http.pipeline;
 
 import com.azjvsdk.experimental.http.HttpResponse;
+import io.reactivex.Single;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.Objects;
+
 /**
  * A type that invokes next policy in the pipeline.
  */
 public class NextPolicy {
     private final PipelineCallContext context;
+    private final PolicyRef policyRef;
 
     /**
      * Package Private ctr.
@@ -15,17 +20,51 @@ public class NextPolicy {
      * Creates NextPolicy.
      *
      * @param context the context to pass to the next {@link RequestPolicy}
+     * @param policyRef the policy that invokes the next policy through this instance
      */
-    NextPolicy(final PipelineCallContext context) {
+    NextPolicy(final PipelineCallContext context, final PolicyRef policyRef) {
         this.context = context;
+        this.policyRef = policyRef;
     }
 
     /**
-     * Invokes the next {@link RequestPolicy}.
+     * Invokes the next {@link RequestPolicy}, can be invoked multiple times
+     * to resend the request through the rest of the chain.
      *
      * @return a publisher upon subscription invokes next policy and emits response from the policy.
      */
     public Mono<HttpResponse> process() {
-        return this.context.nextPipelinePolicy().process(this.context, this);
+        return this.context.processNext(this.policyRef);
+    }
+
+    /**
+     * Invokes the next policy as a {@link Single}, can be invoked multiple times to resend the
+     * request through the rest of the chain. The next policy is invoked without conversion if it's
+     * a {@link RxRequestPolicy}, the response of a Reactor policy or http client is converted once.
+     *
+     * @return a single upon subscription invokes next policy and emits response from the policy.
+     */
+    public Single<HttpResponse> processRx() {
+        return this.context.processNextRx(this.policyRef);
+    }
+
+    /**
+     * Invokes the next {@link RequestPolicy} with a timeout for this attempt, the timeout is clamped
+     * to the remaining time of the context deadline. On expiry the rest of the chain is cancelled.
+     *
+     * @param attemptTimeout the timeout of this attempt
+     * @return a publisher upon subscription invokes next policy and emits response from the policy,
+     * or fails with {@link java.util.concurrent.TimeoutException} on expiry.
+     */
+    public Mono<HttpResponse> process(Duration attemptTimeout) {
+        Objects.requireNonNull(attemptTimeout);
+        return Mono.defer(() -> {
+            long timeoutNanos = attemptTimeout.toNanos();
+            Duration remaining = this.context.remainingTime();
+            if (remaining != null && remaining.toNanos() < timeoutNanos) {
+                timeoutNanos = remaining.toNanos();
+            }
+            return DeadlineTimer.timeout(this.process(), timeoutNanos, "The attempt did not complete within " + Duration.ofNanos(timeoutNanos) + ".");
+        });
     }
 }
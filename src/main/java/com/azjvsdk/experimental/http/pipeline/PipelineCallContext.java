@@ -3,28 +3,81 @@ package com.azjvsdk.experimental.http.pipeline;
 import com.azjvsdk.experimental.http.HttpClient;
 import com.azjvsdk.experimental.http.HttpRequest;
 import com.azjvsdk.experimental.http.HttpResponse;
+import com.azjvsdk.experimental.http.MemoryBudget;
+import com.azjvsdk.experimental.http.ReplayableBody;
+import com.azjvsdk.experimental.http.StaticHeaders;
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Type representing context local to a http request and response.
  */
 public final class PipelineCallContext {
-    private final HttpRequest httpRequest;
+    private final HttpPipeline pipeline;
     private final HttpClient httpClient;
+    private HttpRequest httpRequest;
+    // The snapshot of the global policies and it's nodes, the nodes are relinked
+    // when the context is recycled and rebuilt if the global policies were swapped.
+    private PolicyEntry[] policySnapshot;
+    private PolicyRef[] globalPolicyRefs;
     //
     private PolicyRef firstPolicyRef;
+    private PolicyRef lastPolicyRef;
     private PolicyRef currentPolicyRef;
+    // Policies by case folded name, built upon the first lookup by name.
+    private Map<String, PolicyRef> policyIndex;
+    private boolean policyIndexBuilt;
     //
-    private Map<String, Object> datas = new HashMap<>();
+    private boolean replayRequired;
+    private ReplayableBody replayableBody;
+    // The body of the caller's request replaced by the replayable body, restored once the flow ends.
+    private Flux<ByteBuffer> originalBody;
+    private Flux<ByteBuffer> replayableBodyFlux;
+    // The account of the bytes held by the request, created upon first use.
+    private MemoryBudget memoryBudget;
+    //
+    private RequestPriority priority = RequestPriority.DEFAULT;
+    private boolean hasDeadline;
+    private long deadlineNanos;
+    private boolean expectContinue;
+    //
+    private final Map<String, Object> datas = new HashMap<>();
+    // Created once per context, so that a recycled context does not allocate them per request.
+    private final Supplier<Mono<HttpResponse>> clientSend;
+    private final Mono<HttpResponse> clientFlow;
+    private final Mono<HttpResponse> flow;
+    private final RequestTimeline timeline;
+    private final Consumer<HttpResponse> onClientResponse;
+    // The RxJava2 variants of the flows, created upon first use.
+    private Single<HttpResponse> rxClientFlow;
+    private Single<HttpResponse> rxFlow;
+    //
+    private int poolStripe;
+    private volatile boolean released;
+    private Throwable releaseTrace;
+    // The last response received from the client, discarded if a resend supersedes it or the flow
+    // ends without emitting a response, FLOW_ENDED once the flow ends.
+    private volatile Object clientResponse;
+    //
+    private static final long ORDINAL_GAP = 1L << 20;
+    private static final Object FLOW_ENDED = new Object();
+    private static final AtomicReferenceFieldUpdater<PipelineCallContext, Object> CLIENT_RESPONSE =
+        AtomicReferenceFieldUpdater.newUpdater(PipelineCallContext.class, Object.class, "clientResponse");
 
     //<editor-fold defaultstate="collapsed" desc="Package internal methods">
     /**
@@ -32,56 +85,162 @@ public final class PipelineCallContext {
      *
      * Creates PipelineCallContext.
      *
-     * @param httpClient the http client to write the request to wire and read response from wire
+     * @param pipeline the pipeline creating the context
      * @param httpRequest the request for which context needs to be created
-     * @param requestPolicyEntries the global policies (name and policy) to be applied on the request-response
-     *
-     * @throws IllegalArgumentException if there are multiple policies with same name
+     * @param requestPolicyEntries the snapshot of the global policies (name and policy) to be applied on the
+     *                             request-response, the names are validated to be unique by the pipeline
      */
-    PipelineCallContext(HttpClient httpClient, HttpRequest httpRequest, PolicyEntry[] requestPolicyEntries) {
-        Objects.requireNonNull(httpClient);
+    PipelineCallContext(HttpPipeline pipeline, HttpRequest httpRequest, PolicyEntry[] requestPolicyEntries) {
+        Objects.requireNonNull(pipeline);
         Objects.requireNonNull(httpRequest);
         Objects.requireNonNull(requestPolicyEntries);
         //
-        this.httpClient = httpClient;
-        this.httpRequest = httpRequest;
-        //
-        int size = requestPolicyEntries.length;
-        if (size > 0) {
-            //
-            Objects.requireNonNull(requestPolicyEntries[0]);
-            Set<String> seenNames = new HashSet<String>();
-            seenNames.add(requestPolicyEntries[0].name().toLowerCase());
-            this.firstPolicyRef = new PolicyRef(requestPolicyEntries[0]);
-            //
-            PolicyRef ref = this.firstPolicyRef;
-            //
-            for (int i = 1; i < size; i++) {
-                PolicyEntry entry = Objects.requireNonNull(requestPolicyEntries[i]);
-                if (!seenNames.add(entry.name().toLowerCase())) {
-                    throw new IllegalArgumentException("Policy name must be unique, found multiple policies with same name '" + entry.name() + "'.");
-                }
-                PolicyRef newItem = new PolicyRef(entry);
-                PolicyRef.addAfter(newItem, ref);
-                ref = newItem;
+        this.pipeline = pipeline;
+        this.httpClient = pipeline.httpClient();
+        this.timeline = new RequestTimeline(pipeline);
+        this.onClientResponse = this::onClientResponse;
+        this.clientSend = () -> {
+            this.beforeClientSend();
+            return this.httpClient.sendRequestAsync(this);
+        };
+        // Defer so that the timeline records the time the request is actually queued or sent.
+        this.clientFlow = Mono.defer(() -> {
+            final PriorityRequestScheduler scheduler = this.pipeline.options().requestScheduler();
+            if (scheduler == null) {
+                return this.clientSend.get();
+            }
+            this.timeline.record(TimelineEvent.QUEUED);
+            return scheduler.schedule(this.priority, this.clientSend);
+        }).doOnNext(this.onClientResponse);
+        // Use defer to ensure policy execution happens only after subscription.
+        final Mono<HttpResponse> chainFlow = Mono.defer(() -> {
+            if (this.replayRequired) {
+                this.ensureReplayableBody();
             }
+            if (this.firstPolicyRef == null) {
+                return this.sendToClient();
+            } else {
+                this.currentPolicyRef = this.firstPolicyRef;
+                return this.invoke(this.firstPolicyRef);
+            }
+        });
+        final Mono<HttpResponse> policyFlow = Mono.defer(() -> this.pipeline.memoryBudget().exhausted()
+            ? this.awaitMemoryBudget().then(chainFlow)
+            : chainFlow);
+        this.flow = Mono.defer(() -> {
+            this.ensureNotReleased();
+            this.startTimeline();
+            return this.hasDeadline
+                ? DeadlineTimer.timeout(policyFlow, this.remainingTime().toNanos(), "The request did not complete within it's deadline.")
+                : policyFlow;
+        }).doOnSuccessOrError(this::onFlowTerminated).doFinally(signal -> {
+            this.completeTimeline(false);
+            this.discardClientResponse();
+            this.closeReplayableBody();
+            this.pipeline.releaseContext(this);
+        });
+        this.reset(httpRequest, requestPolicyEntries);
+    }
+
+    /**
+     * Package private method.
+     *
+     * Prepares the context for the given request, relinks the global policies and
+     * clears the state left by the previous request if the context is recycled.
+     *
+     * @param httpRequest the request
+     * @param requestPolicyEntries the snapshot of the global policies
+     */
+    void reset(HttpRequest httpRequest, PolicyEntry[] requestPolicyEntries) {
+        this.httpRequest = Objects.requireNonNull(httpRequest);
+        this.clientResponse = null;
+        if (this.policySnapshot != requestPolicyEntries) {
+            this.globalPolicyRefs = new PolicyRef[requestPolicyEntries.length];
+            for (int i = 0; i < requestPolicyEntries.length; i++) {
+                this.globalPolicyRefs[i] = new PolicyRef(requestPolicyEntries[i]);
+            }
+            this.policySnapshot = requestPolicyEntries;
+        }
+        this.firstPolicyRef = null;
+        this.replayRequired = false;
+        PolicyRef ref = null;
+        for (int i = 0; i < this.globalPolicyRefs.length; i++) {
+            PolicyRef item = this.globalPolicyRefs[i];
+            item.previous = ref;
+            item.next = null;
+            item.ordinal = i * ORDINAL_GAP;
+            if (ref == null) {
+                this.firstPolicyRef = item;
+            } else {
+                ref.next = item;
+            }
+            this.onPolicyAdded(item.policy);
+            ref = item;
         }
+        this.lastPolicyRef = ref;
         this.currentPolicyRef = null;
+        if (this.policyIndexBuilt) {
+            this.policyIndex.clear();
+            this.policyIndexBuilt = false;
+        }
+        this.replayableBody = null;
+        this.originalBody = null;
+        this.replayableBodyFlux = null;
+        this.memoryBudget = null;
+        this.priority = RequestPriority.DEFAULT;
+        this.hasDeadline = false;
+        this.expectContinue = false;
+        this.datas.clear();
+        this.releaseTrace = null;
+        this.released = false;
     }
 
     /**
      * Package private method.
      *
-     * Gets next {@link RequestPolicy} in the pipeline.
+     * Marks the context as released to the pool, any later use fails until it's reset.
+     *
+     * @param recordTrace true to record the stack trace of the release to report a later use
+     */
+    void markReleased(boolean recordTrace) {
+        this.releaseTrace = recordTrace ? new Throwable("The context was released here.") : null;
+        this.released = true;
+    }
+
+    /**
+     * Package private method.
      *
-     * @return next policy in the pipeline
+     * @return the stripe of the pool the context was acquired from.
      */
-    RequestPolicy nextPipelinePolicy() {
-        this.currentPolicyRef = this.currentPolicyRef.next;
+    int poolStripe() {
+        return this.poolStripe;
+    }
+
+    /**
+     * Package private method.
+     *
+     * @param poolStripe the stripe of the pool the context was acquired from
+     */
+    void setPoolStripe(int poolStripe) {
+        this.poolStripe = poolStripe;
+    }
+
+    /**
+     * Package private method.
+     *
+     * Invokes the {@link RequestPolicy} next to the given policy in the pipeline,
+     * the http client if the given policy is the last one.
+     *
+     * @param policyRef the policy invoking it's next policy
+     * @return a publisher upon subscription invokes next policy and emits response from the policy.
+     */
+    Mono<HttpResponse> processNext(PolicyRef policyRef) {
+        this.ensureNotReleased();
+        this.currentPolicyRef = policyRef.next;
         if (this.currentPolicyRef == null) {
-            return (context, next) -> httpClient.sendRequestAsync(context);
+            return this.sendToClient();
         } else {
-            return this.currentPolicyRef.policy;
+            return this.invoke(this.currentPolicyRef);
         }
     }
 
@@ -93,15 +252,66 @@ public final class PipelineCallContext {
      * @return a publisher upon subscription flows the context through policies, sends the request and emits response upon completion.
      */
     Mono<HttpResponse> process() {
-        // Use defer to ensure policy execution happens only after subscription.
-        return Mono.defer(() -> {
-            if (this.firstPolicyRef == null) {
-                return this.httpClient.sendRequestAsync(this);
-            } else {
-                this.currentPolicyRef = this.firstPolicyRef;
-                return this.firstPolicyRef.policy.process(this, new NextPolicy(this));
-            }
-        });
+        return this.flow;
+    }
+
+    /**
+     * Package private method.
+     *
+     * Invokes the policy next to the given policy in the pipeline as a {@link Single},
+     * the http client if the given policy is the last one.
+     *
+     * @param policyRef the policy invoking it's next policy
+     * @return a single upon subscription invokes next policy and emits response from the policy.
+     */
+    Single<HttpResponse> processNextRx(PolicyRef policyRef) {
+        this.ensureNotReleased();
+        this.currentPolicyRef = policyRef.next;
+        if (this.currentPolicyRef == null) {
+            return this.sendToClientRx();
+        } else {
+            return this.invokeRx(this.currentPolicyRef);
+        }
+    }
+
+    /**
+     * Package private method.
+     *
+     * Start processing the context as a {@link Single}, the chain runs on RxJava2 types
+     * up to the first Reactor policy.
+     *
+     * @return a single upon subscription flows the context through policies, sends the request and emits response upon completion.
+     */
+    Single<HttpResponse> processRx() {
+        if (this.rxFlow == null) {
+            final Single<HttpResponse> chainFlow = Single.defer(() -> {
+                if (this.replayRequired) {
+                    this.ensureReplayableBody();
+                }
+                if (this.firstPolicyRef == null) {
+                    return this.sendToClientRx();
+                } else {
+                    this.currentPolicyRef = this.firstPolicyRef;
+                    return this.invokeRx(this.firstPolicyRef);
+                }
+            });
+            this.rxFlow = Single.defer(() -> {
+                this.ensureNotReleased();
+                this.startTimeline();
+                final Single<HttpResponse> policyFlow = this.pipeline.memoryBudget().exhausted()
+                    ? Completable.fromPublisher(this.awaitMemoryBudget()).andThen(chainFlow)
+                    : chainFlow;
+                return this.hasDeadline
+                    ? DeadlineTimer.timeout(policyFlow, this.remainingTime().toNanos(), "The request did not complete within it's deadline.")
+                    : policyFlow;
+            }).doOnEvent(this::onFlowTerminated).doFinally(() -> {
+                this.completeTimeline(false);
+                this.discardClientResponse();
+                this.closeReplayableBody();
+                this.pipeline.releaseContext(this);
+            });
+        }
+        return this.rxFlow;
     }
     //</editor-fold>
 
@@ -111,6 +321,7 @@ public final class PipelineCallContext {
      * @return global and local request policy entries.
      */
     public PolicyEntry[] requestPolicyEntries() {
+        this.ensureNotReleased();
         List<PolicyEntry> policies = new ArrayList<PolicyEntry>();
         PolicyRef current = this.firstPolicyRef;
         while (current != null) {
@@ -127,6 +338,7 @@ public final class PipelineCallContext {
      * @param value the value
      */
     public void setData(String key, Object value) {
+        this.ensureNotReleased();
         this.datas.put(key, value);
     }
 
@@ -137,6 +349,7 @@ public final class PipelineCallContext {
      * @return the value if exists else null
      */
     public Object getData(String key) {
+        this.ensureNotReleased();
         return this.datas.get(key);
     }
 
@@ -147,13 +360,98 @@ public final class PipelineCallContext {
      * @return true if key exists, false otherwise.
      */
     public boolean dataExists(String key) {
+        this.ensureNotReleased();
         return datas.containsKey(key);
     }
 
+    /**
+     * @return the priority class of the request.
+     */
+    public RequestPriority priority() {
+        this.ensureNotReleased();
+        return this.priority;
+    }
+
+    /**
+     * Sets the priority class of the request, used to admit the request to the http client
+     * when the pipeline is configured with a {@link PriorityRequestScheduler}.
+     *
+     * @param priority the priority class
+     */
+    public void setPriority(RequestPriority priority) {
+        this.ensureNotReleased();
+        this.priority = Objects.requireNonNull(priority);
+    }
+
+    /**
+     * Sets the deadline of the request to the given time from now, the request flow through
+     * all attempts is cancelled and fails with {@link java.util.concurrent.TimeoutException}
+     * once the deadline is reached.
+     *
+     * @param timeout the time from now to the deadline
+     */
+    public void setDeadline(Duration timeout) {
+        this.ensureNotReleased();
+        Objects.requireNonNull(timeout);
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+        this.hasDeadline = true;
+    }
+
+    /**
+     * @return the time remaining until the deadline, {@link Duration#ZERO} if the deadline
+     * has passed, null if there is no deadline.
+     */
+    public Duration remainingTime() {
+        this.ensureNotReleased();
+        if (!this.hasDeadline) {
+            return null;
+        }
+        long remaining = this.deadlineNanos - System.nanoTime();
+        return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+    }
+
+    /**
+     * @return the account of the bytes held in memory by the request and it's response, the
+     * policies buffering data should reserve the bytes on it.
+     */
+    public MemoryBudget memoryBudget() {
+        this.ensureNotReleased();
+        return this.requestMemoryBudget();
+    }
+
+    /**
+     * @return the timeline of the request, the http client records the connection and
+     * response events on it.
+     */
+    public RequestTimeline timeline() {
+        this.ensureNotReleased();
+        return this.timeline;
+    }
+
+    /**
+     * @return true if the http client should send the request with an Expect: 100-continue header,
+     * the header is not added to the request so that the request can be sent again without it.
+     */
+    public boolean expectContinue() {
+        this.ensureNotReleased();
+        return this.expectContinue;
+    }
+
+    /**
+     * @return the static headers the http client should send with the request, those of the request
+     * if it has any, the default headers of the pipeline otherwise. Null if there are none.
+     */
+    public StaticHeaders staticHeaders() {
+        this.ensureNotReleased();
+        final StaticHeaders staticHeaders = this.httpRequest.staticHeaders();
+        return staticHeaders != null ? staticHeaders : this.pipeline.options().defaultHeaders();
+    }
+
     /**
      * @return the http request.
      */
     public HttpRequest httpRequest() {
+        this.ensureNotReleased();
         return this.httpRequest;
     }
 
@@ -171,17 +469,23 @@ public final class PipelineCallContext {
      *         if the specified {@code policy} cannot be added because request flow already started
      */
     public void addPolicyFirst(String name, RequestPolicy policy) {
+        this.ensureNotReleased();
         Objects.requireNonNull(name);
         Objects.requireNonNull(policy);
         if (pipelineFlowStarted()) {
             throw new IllegalStateException("Cannot add policy in the beginning, request already went through existing first policy.");
         } else {
             PolicyRef newPolicyRef = new PolicyRef(name, policy);
+            this.validateNameNotExists(newPolicyRef.key, name);
             if (this.firstPolicyRef != null) {
                 PolicyRef.addBefore(newPolicyRef, this.firstPolicyRef);
+            } else {
+                this.lastPolicyRef = newPolicyRef;
             }
             this.firstPolicyRef = newPolicyRef;
+            this.onPolicyLinked(newPolicyRef);
         }
+        this.onPolicyAdded(policy);
     }
 
     /**
@@ -196,23 +500,20 @@ public final class PipelineCallContext {
      *         if there is already a policy with the same {@code name}
      */
     public void addPolicyLast(String name, RequestPolicy policy) {
+        this.ensureNotReleased();
         Objects.requireNonNull(name);
         Objects.requireNonNull(policy);
         //
-        PolicyRef current = this.firstPolicyRef;
-        PolicyRef prev = null;
-        while (current != null) {
-            if (current.name.equalsIgnoreCase(name)) {
-                throw new IllegalArgumentException("A policy with the name '" + name + "' already exists.");
-            }
-            prev = current;
-            current = current.next;
-        }
-        if (prev == null) {
-            this.firstPolicyRef = new PolicyRef(name, policy);
+        PolicyRef newPolicyRef = new PolicyRef(name, policy);
+        this.validateNameNotExists(newPolicyRef.key, name);
+        if (this.lastPolicyRef == null) {
+            this.firstPolicyRef = newPolicyRef;
         } else {
-            PolicyRef.addAfter(new PolicyRef(name, policy), prev);
+            PolicyRef.addAfter(newPolicyRef, this.lastPolicyRef);
         }
+        this.lastPolicyRef = newPolicyRef;
+        this.onPolicyLinked(newPolicyRef);
+        this.onPolicyAdded(policy);
     }
 
     /**
@@ -232,20 +533,22 @@ public final class PipelineCallContext {
      *         if {@code policy} cannot be inserted because request already went through base policy and it's next policy
      */
     public void addPolicyAfter(String baseName, String name, RequestPolicy policy) {
+        this.ensureNotReleased();
         Objects.requireNonNull(baseName);
         Objects.requireNonNull(name);
         Objects.requireNonNull(policy);
         //
         LookUpResult result = this.lookupPolicyAndValidate(baseName, name);
-        if (!pipelineFlowStarted()) {
-            PolicyRef.addAfter(new PolicyRef(name, policy), result.basePolicy);
-        } else {
-            if (result.currentIsBeforeBasePolicy) {
-                PolicyRef.addAfter(new PolicyRef(name, policy), result.basePolicy);
-            } else {
-                throw new IllegalStateException("Cannot add the policy '" + name + "' after '" + baseName + "', the request already went through the policy '" + baseName + "' and it's next policy.");
-            }
+        if (pipelineFlowStarted() && !result.currentIsBeforeBasePolicy) {
+            throw new IllegalStateException("Cannot add the policy '" + name + "' after '" + baseName + "', the request already went through the policy '" + baseName + "' and it's next policy.");
+        }
+        PolicyRef newPolicyRef = new PolicyRef(name, policy);
+        PolicyRef.addAfter(newPolicyRef, result.basePolicy);
+        if (result.basePolicy == this.lastPolicyRef) {
+            this.lastPolicyRef = newPolicyRef;
         }
+        this.onPolicyLinked(newPolicyRef);
+        this.onPolicyAdded(policy);
     }
 
     /**
@@ -265,24 +568,22 @@ public final class PipelineCallContext {
      *         if {@code policy} cannot be inserted because request already went through base policy
      */
     public void addPolicyBefore(String baseName, String name, RequestPolicy policy) {
+        this.ensureNotReleased();
         Objects.requireNonNull(baseName);
         Objects.requireNonNull(name);
         Objects.requireNonNull(policy);
         //
         LookUpResult result = this.lookupPolicyAndValidate(baseName, name);
-        if (!pipelineFlowStarted()) {
-            PolicyRef newPolicyRef = new PolicyRef(name, policy);
-            PolicyRef.addBefore(newPolicyRef, result.basePolicy);
-            if (result.basePolicy == this.firstPolicyRef) {
-                this.firstPolicyRef = newPolicyRef;
-            }
-        } else {
-            if (result.currentIsBeforeBasePolicy && result.basePolicy != this.currentPolicyRef) {
-                PolicyRef.addBefore(new PolicyRef(name, policy), result.basePolicy);
-            } else {
-                throw new IllegalStateException("Cannot add the policy '" + name + "' before '" + baseName + "', the request already went through the policy '" + baseName + "'.");
-            }
+        if (pipelineFlowStarted() && !(result.currentIsBeforeBasePolicy && result.basePolicy != this.currentPolicyRef)) {
+            throw new IllegalStateException("Cannot add the policy '" + name + "' before '" + baseName + "', the request already went through the policy '" + baseName + "'.");
+        }
+        PolicyRef newPolicyRef = new PolicyRef(name, policy);
+        PolicyRef.addBefore(newPolicyRef, result.basePolicy);
+        if (result.basePolicy == this.firstPolicyRef) {
+            this.firstPolicyRef = newPolicyRef;
         }
+        this.onPolicyLinked(newPolicyRef);
+        this.onPolicyAdded(policy);
     }
 
     /**
@@ -302,6 +603,7 @@ public final class PipelineCallContext {
      *         if {@code policy} cannot be inserted because request already went through base policy
      */
     public void replacePolicy(String baseName, String name, RequestPolicy policy) {
+        this.ensureNotReleased();
         Objects.requireNonNull(baseName);
         Objects.requireNonNull(name);
         Objects.requireNonNull(policy);
@@ -310,22 +612,24 @@ public final class PipelineCallContext {
         if (result.basePolicy == null) {
             throw new NoSuchElementException("There is no policy with the name '" + baseName + "'.");
         }
-        if (result.nameExists && !baseName.equalsIgnoreCase(name)) {
+        PolicyRef newPolicyRef = new PolicyRef(name, policy);
+        if (result.nameExists && !result.basePolicy.key.equals(newPolicyRef.key)) {
             throw new IllegalArgumentException("A policy with the name '" + name + "' already exists.");
         }
-        if (!pipelineFlowStarted()) {
-            PolicyRef newPolicyRef = new PolicyRef(name, policy);
-            PolicyRef.replace(newPolicyRef, result.basePolicy);
-            if (result.basePolicy == this.firstPolicyRef) {
-                this.firstPolicyRef = newPolicyRef;
-            }
-        } else {
-            if (result.currentIsBeforeBasePolicy && result.basePolicy != this.currentPolicyRef) {
-                PolicyRef.replace(new PolicyRef(name, policy), result.basePolicy);
-            } else {
-                throw new IllegalStateException("Cannot replace the policy '" + baseName + ", the request already went through the policy '" + baseName + "'.");
-            }
+        if (pipelineFlowStarted() && !(result.currentIsBeforeBasePolicy && result.basePolicy != this.currentPolicyRef)) {
+            throw new IllegalStateException("Cannot replace the policy '" + baseName + ", the request already went through the policy '" + baseName + "'.");
         }
+        PolicyRef.replace(newPolicyRef, result.basePolicy);
+        newPolicyRef.ordinal = result.basePolicy.ordinal;
+        if (result.basePolicy == this.firstPolicyRef) {
+            this.firstPolicyRef = newPolicyRef;
+        }
+        if (result.basePolicy == this.lastPolicyRef) {
+            this.lastPolicyRef = newPolicyRef;
+        }
+        this.policyIndex.remove(result.basePolicy.key);
+        this.policyIndex.put(newPolicyRef.key, newPolicyRef);
+        this.onPolicyAdded(policy);
     }
     //</editor-fold>
 
@@ -338,6 +642,253 @@ public final class PipelineCallContext {
         return this.currentPolicyRef != null;
     }
 
+    /**
+     * Sends the request through the http client, through the pipeline's request scheduler if configured.
+     *
+     * @return a publisher upon subscription sends the request and emits the response.
+     */
+    private Mono<HttpResponse> sendToClient() {
+        return this.clientFlow;
+    }
+
+    /**
+     * Sends the request through the http client as a {@link Single}, the request scheduler
+     * is Reactor based so a scheduled request is converted once.
+     *
+     * @return a single upon subscription sends the request and emits the response.
+     */
+    private Single<HttpResponse> sendToClientRx() {
+        if (this.rxClientFlow == null) {
+            this.rxClientFlow = Single.defer(() -> {
+                if (this.pipeline.options().requestScheduler() == null) {
+                    this.beforeClientSend();
+                    return this.httpClient.sendRequestRx(this).doOnSuccess(this.onClientResponse::accept);
+                }
+                return Single.fromPublisher(this.clientFlow);
+            });
+        }
+        return this.rxClientFlow;
+    }
+
+    /**
+     * @param policyRef the policy to invoke
+     * @return a single upon subscription invokes the policy, the response of a Reactor policy is converted once.
+     * Records the policy's entry and exit on the timeline.
+     */
+    private Single<HttpResponse> invokeRx(PolicyRef policyRef) {
+        if (!(policyRef.policy instanceof RxRequestPolicy)) {
+            return Single.fromPublisher(this.invoke(policyRef));
+        }
+        this.timeline.record(TimelineEvent.POLICY_ENTER, policyRef.name);
+        final Single<HttpResponse> response = ((RxRequestPolicy) policyRef.policy).processRx(this, this.nextPolicy(policyRef));
+        return this.pipeline.recordsTimelines() ? response.doOnEvent(this.exitMark(policyRef)) : response;
+    }
+
+    /**
+     * @param policyRef the policy to invoke
+     * @return a publisher upon subscription invokes the policy, records the policy's entry and exit on the timeline.
+     */
+    private Mono<HttpResponse> invoke(PolicyRef policyRef) {
+        this.timeline.record(TimelineEvent.POLICY_ENTER, policyRef.name);
+        final Mono<HttpResponse> response = policyRef.policy.process(this, this.nextPolicy(policyRef));
+        return this.pipeline.recordsTimelines() ? response.doOnSuccessOrError(this.exitMark(policyRef)) : response;
+    }
+
+    /**
+     * @param policyRef the policy
+     * @return the callback recording the exit of the policy, created once per node.
+     */
+    private RequestTimeline.Mark exitMark(PolicyRef policyRef) {
+        if (policyRef.exitMark == null) {
+            policyRef.exitMark = new RequestTimeline.Mark(this.timeline, TimelineEvent.POLICY_EXIT, policyRef.name);
+        }
+        return policyRef.exitMark;
+    }
+
+    /**
+     * Starts recording the timeline of the request if the pipeline records timelines.
+     */
+    private void startTimeline() {
+        if (this.pipeline.recordsTimelines()) {
+            this.timeline.start(this.httpRequest);
+        }
+    }
+
+    /**
+     * Records the send on the timeline and asks the client to wait for 100 Continue before
+     * sending a body over the pipeline's threshold.
+     */
+    private void beforeClientSend() {
+        this.timeline.record(TimelineEvent.CLIENT_SEND);
+        final long threshold = this.pipeline.options().expectContinueThreshold();
+        this.expectContinue = threshold >= 0
+            && this.httpRequest.body() != null
+            && contentLength(this.httpRequest) >= threshold;
+    }
+
+    /**
+     * @param request the request
+     * @return the length of the request body, Long.MAX_VALUE if the length is not known or the
+     * Content-Length header is malformed.
+     */
+    private static long contentLength(HttpRequest request) {
+        final String value = request.headers().value("Content-Length");
+        if (value == null) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException nfe) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Takes the ownership of a response received from the client, the response it supersedes is
+     * discarded, so is the response received after the flow ended.
+     *
+     * @param response the response
+     */
+    private void onClientResponse(HttpResponse response) {
+        final Object previous = CLIENT_RESPONSE.getAndSet(this, response);
+        if (previous == FLOW_ENDED) {
+            this.clientResponse = FLOW_ENDED;
+            response.discard();
+        } else if (previous != null && previous != response) {
+            ((HttpResponse) previous).discard();
+        }
+    }
+
+    /**
+     * Completes the timeline and settles the ownership of the client response before the
+     * terminal signal reaches the subscriber. The emitted response is owned by the subscriber,
+     * the client response of a flow that failed is discarded.
+     *
+     * @param response the response emitted, null if the flow failed or completed empty
+     * @param error the error, null if the flow succeeded
+     */
+    private void onFlowTerminated(HttpResponse response, Throwable error) {
+        this.completeTimeline(response != null);
+        if (response != null) {
+            this.clientResponse = FLOW_ENDED;
+        } else {
+            this.discardClientResponse();
+        }
+    }
+
+    /**
+     * Discards the client response that is not yet handed to the subscriber.
+     */
+    private void discardClientResponse() {
+        final Object pending = CLIENT_RESPONSE.getAndSet(this, FLOW_ENDED);
+        if (pending != null && pending != FLOW_ENDED) {
+            ((HttpResponse) pending).discard();
+        }
+    }
+
+    /**
+     * Stops recording the timeline, the pipeline keeps it if the request was slow. Invoked before
+     * the response is emitted and again upon release to cover the cancellation, the timeline is
+     * stopped only once, and not before the end of the response body if the client asked so.
+     *
+     * @param responseEmitted true if the flow emitted a response
+     */
+    private void completeTimeline(boolean responseEmitted) {
+        if (this.pipeline.recordsTimelines()) {
+            this.timeline.flowEnded(responseEmitted);
+        }
+    }
+
+    /**
+     * @param policyRef the policy
+     * @return the {@link NextPolicy} the policy uses to invoke it's next policy, created once per node.
+     */
+    private NextPolicy nextPolicy(PolicyRef policyRef) {
+        if (policyRef.nextPolicy == null) {
+            policyRef.nextPolicy = new NextPolicy(this, policyRef);
+        }
+        return policyRef.nextPolicy;
+    }
+
+    /**
+     * @throws IllegalStateException if the context was released to the pool
+     */
+    private void ensureNotReleased() {
+        if (this.released) {
+            throw new IllegalStateException("The context is used after it's response completed and the context was released for reuse.", this.releaseTrace);
+        }
+    }
+
+    /**
+     * Records that the body must be replayable if the policy may resend the request,
+     * wraps the body right away if the request flow already started.
+     *
+     * @param policy the policy added to the chain
+     */
+    private void onPolicyAdded(RequestPolicy policy) {
+        if (policy instanceof ReplayingRequestPolicy) {
+            this.replayRequired = true;
+            if (pipelineFlowStarted()) {
+                this.ensureReplayableBody();
+            }
+        }
+    }
+
+    /**
+     * Wraps the request body with {@link ReplayableBody} unless it's already replayable.
+     */
+    private void ensureReplayableBody() {
+        if (this.replayableBody == null && !this.httpRequest.isBodyReplayable()) {
+            this.replayableBody = new ReplayableBody(this.httpRequest.body(),
+                this.pipeline.replayBufferPool(),
+                this.pipeline.options().replayMemoryThreshold(),
+                this.requestMemoryBudget());
+            this.originalBody = this.httpRequest.body();
+            this.replayableBodyFlux = this.replayableBody.toFlux();
+            this.httpRequest.withReplayableBody(this.replayableBodyFlux);
+        }
+    }
+
+    /**
+     * @return the account of the bytes held by the request, created upon first use.
+     */
+    private MemoryBudget requestMemoryBudget() {
+        if (this.memoryBudget == null) {
+            this.memoryBudget = new MemoryBudget(this.pipeline.memoryBudget());
+        }
+        return this.memoryBudget;
+    }
+
+    /**
+     * @return a publisher that completes once the buffered bytes budget of the pipeline is available,
+     * fails with {@link RejectedExecutionException} if it's not within the wait timeout.
+     */
+    private Mono<Void> awaitMemoryBudget() {
+        final Duration timeout = this.pipeline.options().bufferedBytesWaitTimeout();
+        // The exception is created only if the request is rejected.
+        final Mono<Void> rejected = Mono.defer(() -> Mono.error(new RejectedExecutionException("The buffered bytes budget of the pipeline is exhausted.")));
+        if (timeout.isZero()) {
+            return rejected;
+        }
+        return this.pipeline.memoryBudget().whenAvailable().timeout(timeout, rejected);
+    }
+
+    /**
+     * Discards the recorded request body once the final response is emitted, and gives the caller's
+     * request it's original body back unless a policy replaced the body.
+     */
+    private void closeReplayableBody() {
+        if (this.replayableBody != null) {
+            if (this.httpRequest.body() == this.replayableBodyFlux) {
+                this.httpRequest.withBody(this.originalBody);
+            }
+            this.replayableBody.close();
+            this.replayableBody = null;
+            this.originalBody = null;
+            this.replayableBodyFlux = null;
+        }
+    }
+
     /**
      * Helper method to perform following:
      *
@@ -375,29 +926,66 @@ public final class PipelineCallContext {
      * @return the lookup result.
      */
     private LookUpResult lookupPolicy(String baseName, String name) {
-        PolicyRef basePolicy = null;
-        boolean nameExists = false;
-        boolean currentIsBeforeBasePolicy = false;
-        //
-        PolicyRef ref = this.firstPolicyRef;
-        while (ref != null) {
-            if (basePolicy != null && nameExists) {
-                break;
+        Map<String, PolicyRef> index = this.policyIndex();
+        PolicyRef basePolicy = index.get(PolicyRef.key(baseName));
+        boolean nameExists = index.containsKey(PolicyRef.key(name));
+        boolean currentIsBeforeBasePolicy = basePolicy != null
+            && this.currentPolicyRef != null
+            && this.currentPolicyRef.ordinal <= basePolicy.ordinal;
+        return new LookUpResult(basePolicy, nameExists, currentIsBeforeBasePolicy);
+    }
+
+    /**
+     * @param key the case folded name of the policy to add
+     * @param name the name of the policy to add
+     *
+     * @throws IllegalArgumentException if a policy with name {@code name} exists
+     */
+    private void validateNameNotExists(String key, String name) {
+        if (this.policyIndex().containsKey(key)) {
+            throw new IllegalArgumentException("A policy with the name '" + name + "' already exists.");
+        }
+    }
+
+    /**
+     * @return the policies by case folded name, built upon the first call.
+     */
+    private Map<String, PolicyRef> policyIndex() {
+        if (!this.policyIndexBuilt) {
+            if (this.policyIndex == null) {
+                this.policyIndex = new HashMap<>();
             }
-            if (basePolicy == null) {
-                if (this.currentPolicyRef == ref) {
-                    currentIsBeforeBasePolicy = true;
-                }
-                if (ref.name.equalsIgnoreCase(baseName)) {
-                    basePolicy = ref;
-                }
+            for (PolicyRef ref = this.firstPolicyRef; ref != null; ref = ref.next) {
+                this.policyIndex.put(ref.key, ref);
             }
-            if (!nameExists && ref.name.equalsIgnoreCase(name)) {
-                nameExists = true;
+            this.policyIndexBuilt = true;
+        }
+        return this.policyIndex;
+    }
+
+    /**
+     * Indexes the policy just linked to the list and gives it an ordinal between it's neighbours,
+     * the ordinals are reassigned when there is no gap left between the neighbours.
+     *
+     * @param ref the policy linked to the list
+     */
+    private void onPolicyLinked(PolicyRef ref) {
+        this.policyIndex().put(ref.key, ref);
+        if (ref.previous == null && ref.next == null) {
+            ref.ordinal = 0;
+        } else if (ref.previous == null) {
+            ref.ordinal = ref.next.ordinal - ORDINAL_GAP;
+        } else if (ref.next == null) {
+            ref.ordinal = ref.previous.ordinal + ORDINAL_GAP;
+        } else if (ref.next.ordinal - ref.previous.ordinal > 1) {
+            ref.ordinal = ref.previous.ordinal + (ref.next.ordinal - ref.previous.ordinal) / 2;
+        } else {
+            long ordinal = 0;
+            for (PolicyRef current = this.firstPolicyRef; current != null; current = current.next) {
+                current.ordinal = ordinal;
+                ordinal += ORDINAL_GAP;
             }
-            ref = ref.next;
         }
-        return new LookUpResult(basePolicy, nameExists, currentIsBeforeBasePolicy);
     }
 
     /**
@@ -0,0 +1,107 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+import com.azjvsdk.experimental.http.HttpClient;
+import com.azjvsdk.experimental.http.HttpHeaders;
+import com.azjvsdk.experimental.http.HttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Package private type that warms up a {@link HttpPipeline}.
+ *
+ * The connections to the hosts are opened through the pipeline's http client so that they land in
+ * it's pool. The synthetic requests are sent one after the other through a shadow pipeline sharing
+ * the policies, route rules and options of the pipeline but with a stand-in http client, so they
+ * exercise the same policy chain and context code paths without touching the wire.
+ */
+final class PipelineWarmUp {
+    private final HttpPipeline pipeline;
+    private final WarmUpOptions options;
+
+    /**
+     * Creates PipelineWarmUp.
+     *
+     * @param pipeline the pipeline to warm up
+     * @param options the warm up options
+     */
+    PipelineWarmUp(HttpPipeline pipeline, WarmUpOptions options) {
+        this.pipeline = pipeline;
+        this.options = options;
+    }
+
+    /**
+     * @return a publisher upon subscription opens the connections and sends the synthetic requests,
+     * completes once both are done.
+     */
+    Mono<Void> run() {
+        return Mono.when(this.openConnections(), this.sendSyntheticRequests());
+    }
+
+    private Mono<Void> openConnections() {
+        final HttpClient httpClient = this.pipeline.httpClient();
+        return Flux.fromIterable(this.options.targets())
+            .flatMap(target -> httpClient.warmUp(target.url(), target.connections()))
+            .then();
+    }
+
+    private Mono<Void> sendSyntheticRequests() {
+        final int count = this.options.syntheticRequestCount();
+        if (count == 0) {
+            return Mono.empty();
+        }
+        final HttpPipeline shadow = new HttpPipeline(this.pipeline, new StandInHttpClient(this.options.syntheticResponseStatusCode()));
+        return Flux.range(0, count)
+            .concatMap(i -> shadow.sendRequest(shadow.newContext(this.options.syntheticRequestSupplier().get()))
+                .flatMap(response -> response.body().then()))
+            .then();
+    }
+
+    /**
+     * The http client answering the synthetic requests with an empty response.
+     */
+    private static final class StandInHttpClient extends HttpClient {
+        private final int statusCode;
+
+        private StandInHttpClient(int statusCode) {
+            this.statusCode = statusCode;
+        }
+
+        @Override
+        public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+            return Mono.fromSupplier(() -> new SyntheticResponse(this.statusCode).withRequest(context.httpRequest()));
+        }
+    }
+
+    /**
+     * The empty response to a synthetic request.
+     */
+    private static final class SyntheticResponse extends HttpResponse {
+        private final int statusCode;
+
+        private SyntheticResponse(int statusCode) {
+            this.statusCode = statusCode;
+        }
+
+        @Override
+        public int statusCode() {
+            return this.statusCode;
+        }
+
+        @Override
+        public String headerValue(String headerName) {
+            return null;
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return new HttpHeaders();
+        }
+
+        @Override
+        public Flux<ByteBuffer> body() {
+            return Flux.empty();
+        }
+    }
+}
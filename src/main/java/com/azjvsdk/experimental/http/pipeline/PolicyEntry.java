@@ -8,6 +8,7 @@ import java.util.Objects;
 public class PolicyEntry {
     private final String name;
     private final RequestPolicy policy;
+    private final String key;
 
     /**
      * Creates PolicyEntry.
@@ -21,6 +22,7 @@ public class PolicyEntry {
         //
         this.name = name;
         this.policy = policy;
+        this.key = PolicyRef.key(name);
     }
 
     /**
@@ -36,4 +38,13 @@ public class PolicyEntry {
     public RequestPolicy policy() {
         return this.policy;
     }
+
+    /**
+     * Package private method.
+     *
+     * @return the case folded name, computed once to index the policy in the contexts.
+     */
+    String key() {
+        return this.key;
+    }
 }
@@ -1,29 +1,49 @@
 package com.azjvsdk.experimental.http.pipeline;
 
+import java.util.Locale;
 import java.util.Objects;
 
 /**
  * Package private type representing a node in the list, where each
  * node holds policy name, reference to the policy and reference to
  * next node.
+ *
+ * The ordinal increases along the list, so comparing the ordinals of
+ * two nodes tells which one comes first without walking the list.
  */
 class PolicyRef {
     final String name;
+    final String key;
     final RequestPolicy policy;
+    long ordinal;
     PolicyRef previous;
     PolicyRef next;
+    // Created upon first use, the node is bound to one context.
+    NextPolicy nextPolicy;
+    // Records the exit of the policy on the context's timeline, created upon first use.
+    RequestTimeline.Mark exitMark;
 
     PolicyRef(PolicyEntry nameAndPolicy) {
         Objects.requireNonNull(nameAndPolicy);
         this.name = Objects.requireNonNull(nameAndPolicy.name());
+        this.key = nameAndPolicy.key();
         this.policy = Objects.requireNonNull(nameAndPolicy.policy());
     }
 
     PolicyRef(String name, RequestPolicy policy) {
         this.name = Objects.requireNonNull(name);
+        this.key = key(name);
         this.policy = Objects.requireNonNull(policy);
     }
 
+    /**
+     * @param name the policy name
+     * @return the case folded name used to look up policies by name.
+     */
+    static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
     static void addAfter(PolicyRef newItem, PolicyRef existingItem) {
         Objects.requireNonNull(newItem);
         Objects.requireNonNull(existingItem);
@@ -0,0 +1,277 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+import com.azjvsdk.experimental.http.HttpResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Supplier;
+
+/**
+ * Admits the requests to the {@link com.azjvsdk.experimental.http.HttpClient} with a bounded
+ * concurrency, sharing the permits between the {@link RequestPriority} classes by weighted
+ * fair queuing.
+ *
+ * Each class has it's own bounded lock-free queue, when permits are scarce the class with the
+ * lowest virtual finish time (advanced by 1/weight per admitted request) is served next, so a
+ * class with weight 8 gets 8 permits for every permit of a class with weight 1. A request waiting
+ * longer than the max queue wait is admitted ahead of the weighted order to protect low weight
+ * classes from starvation. A scheduler can be shared across pipelines that share a connection pool.
+ */
+public final class PriorityRequestScheduler {
+    private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+    private static final int QUEUED = 0;
+    private static final int STARTED = 1;
+    private static final int CANCELLED = 2;
+    private static final AtomicIntegerFieldUpdater<Waiter> WAITER_STATE =
+        AtomicIntegerFieldUpdater.newUpdater(Waiter.class, "state");
+    //
+    private final int maxConcurrentRequests;
+    private final int maxQueuedPerPriority;
+    private final long maxQueueWaitNanos;
+    private final double[] costs = new double[PRIORITIES.length];
+    private final ClassQueue[] queues = new ClassQueue[PRIORITIES.length];
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger wip = new AtomicInteger();
+    // Accessed only from the drain loop.
+    private final double[] virtualFinishTimes = new double[PRIORITIES.length];
+    private double virtualTime;
+
+    /**
+     * Creates PriorityRequestScheduler with weights INTERACTIVE=8, DEFAULT=4, BACKGROUND=1,
+     * 1024 queued requests per class and 1 second max queue wait.
+     *
+     * @param maxConcurrentRequests the maximum number of requests in flight
+     */
+    public PriorityRequestScheduler(int maxConcurrentRequests) {
+        this(maxConcurrentRequests, defaultWeights(), 1024, Duration.ofSeconds(1));
+    }
+
+    /**
+     * Creates PriorityRequestScheduler.
+     *
+     * @param maxConcurrentRequests the maximum number of requests in flight
+     * @param weights the weight of each priority class, classes with no weight get weight 1
+     * @param maxQueuedPerPriority the maximum number of requests waiting in each class
+     * @param maxQueueWait the wait after which a request is admitted ahead of the weighted order
+     *
+     * @throws IllegalArgumentException if {@code maxConcurrentRequests}, {@code maxQueuedPerPriority} or a weight is less than 1
+     */
+    public PriorityRequestScheduler(int maxConcurrentRequests, Map<RequestPriority, Integer> weights, int maxQueuedPerPriority, Duration maxQueueWait) {
+        Objects.requireNonNull(weights);
+        Objects.requireNonNull(maxQueueWait);
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("maxConcurrentRequests must be greater than zero.");
+        }
+        if (maxQueuedPerPriority < 1) {
+            throw new IllegalArgumentException("maxQueuedPerPriority must be greater than zero.");
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.maxQueuedPerPriority = maxQueuedPerPriority;
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+        for (RequestPriority priority : PRIORITIES) {
+            int weight = weights.getOrDefault(priority, 1);
+            if (weight < 1) {
+                throw new IllegalArgumentException("The weight of '" + priority + "' must be greater than zero.");
+            }
+            this.costs[priority.ordinal()] = 1.0 / weight;
+            this.queues[priority.ordinal()] = new ClassQueue();
+        }
+    }
+
+    /**
+     * @return the number of admitted requests in flight.
+     */
+    public int inFlight() {
+        return this.inFlight.get();
+    }
+
+    /**
+     * @param priority the priority class
+     * @return the number of requests of the class waiting to be admitted.
+     */
+    public int queued(RequestPriority priority) {
+        return this.queues[priority.ordinal()].size.get();
+    }
+
+    /**
+     * Package private method.
+     *
+     * Admits the send once a permit is available for the priority class, the permit is
+     * released when the send terminates or is cancelled.
+     *
+     * @param priority the priority class of the request
+     * @param send the supplier of the publisher that sends the request
+     * @return a publisher upon subscription queues the send and emits the response once admitted and completed,
+     * fails with {@link RejectedExecutionException} if the queue of the class is full.
+     */
+    Mono<HttpResponse> schedule(RequestPriority priority, Supplier<Mono<HttpResponse>> send) {
+        return Mono.create(sink -> {
+            ClassQueue queue = this.queues[priority.ordinal()];
+            if (queue.size.incrementAndGet() > this.maxQueuedPerPriority) {
+                queue.size.decrementAndGet();
+                sink.error(new RejectedExecutionException("The queue for the priority '" + priority + "' is full."));
+                return;
+            }
+            Waiter waiter = new Waiter(queue, sink, send);
+            sink.onCancel(waiter::cancel);
+            queue.waiters.offer(waiter);
+            this.drain();
+        });
+    }
+
+    private void drain() {
+        if (this.wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (this.inFlight.get() < this.maxConcurrentRequests) {
+                Waiter waiter = this.pollNext();
+                if (waiter == null) {
+                    break;
+                }
+                // The waiter may be cancelled after it was picked, it is then skipped.
+                if (waiter.claim()) {
+                    this.inFlight.incrementAndGet();
+                    waiter.start();
+                }
+            }
+            missed = this.wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Picks the next waiter to admit, the oldest waiter exceeding the max queue wait
+     * if any, else the head of the class with lowest virtual finish time.
+     *
+     * @return the waiter to admit, null if no waiter.
+     */
+    private Waiter pollNext() {
+        final long now = System.nanoTime();
+        int selected = -1;
+        long oldestEnqueued = Long.MAX_VALUE;
+        double lowestFinish = Double.MAX_VALUE;
+        boolean starving = false;
+        for (int i = 0; i < this.queues.length; i++) {
+            Waiter head = this.queues[i].peekLive();
+            if (head == null) {
+                continue;
+            }
+            if (now - head.enqueuedNanos > this.maxQueueWaitNanos) {
+                if (!starving || head.enqueuedNanos - oldestEnqueued < 0) {
+                    starving = true;
+                    oldestEnqueued = head.enqueuedNanos;
+                    selected = i;
+                }
+            } else if (!starving) {
+                double finish = Math.max(this.virtualFinishTimes[i], this.virtualTime) + this.costs[i];
+                if (finish < lowestFinish) {
+                    lowestFinish = finish;
+                    selected = i;
+                }
+            }
+        }
+        if (selected < 0) {
+            return null;
+        }
+        // A class idle for a while starts from the current virtual time, it cannot bank credit.
+        final double start = Math.max(this.virtualFinishTimes[selected], this.virtualTime);
+        this.virtualFinishTimes[selected] = start + this.costs[selected];
+        this.virtualTime = start;
+        return this.queues[selected].waiters.poll();
+    }
+
+    private void release() {
+        this.inFlight.decrementAndGet();
+        this.drain();
+    }
+
+    private static Map<RequestPriority, Integer> defaultWeights() {
+        Map<RequestPriority, Integer> weights = new EnumMap<>(RequestPriority.class);
+        weights.put(RequestPriority.INTERACTIVE, 8);
+        weights.put(RequestPriority.DEFAULT, 4);
+        weights.put(RequestPriority.BACKGROUND, 1);
+        return weights;
+    }
+
+    /**
+     * Type representing the waiters of a priority class, the size counts only the waiters
+     * neither started nor cancelled.
+     */
+    private static final class ClassQueue {
+        final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+        final AtomicInteger size = new AtomicInteger();
+
+        /**
+         * @return the head waiter after dropping the cancelled ones, null if no waiter.
+         */
+        Waiter peekLive() {
+            Waiter head;
+            while ((head = this.waiters.peek()) != null && head.state == CANCELLED) {
+                this.waiters.poll();
+            }
+            return head;
+        }
+    }
+
+    /**
+     * Type representing a send waiting for a permit.
+     */
+    private final class Waiter {
+        final ClassQueue queue;
+        final MonoSink<HttpResponse> sink;
+        final Supplier<Mono<HttpResponse>> send;
+        final long enqueuedNanos = System.nanoTime();
+        volatile int state;
+
+        private Waiter(ClassQueue queue, MonoSink<HttpResponse> sink, Supplier<Mono<HttpResponse>> send) {
+            this.queue = queue;
+            this.sink = sink;
+            this.send = send;
+        }
+
+        /**
+         * Frees the queue slot of a waiter cancelled before it was admitted, the waiter itself
+         * is dropped once it reaches the head of the queue.
+         */
+        private void cancel() {
+            if (WAITER_STATE.compareAndSet(this, QUEUED, CANCELLED)) {
+                this.queue.size.decrementAndGet();
+            }
+        }
+
+        /**
+         * @return true if the waiter was not cancelled and can be started.
+         */
+        private boolean claim() {
+            if (WAITER_STATE.compareAndSet(this, QUEUED, STARTED)) {
+                this.queue.size.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        private void start() {
+            Mono<HttpResponse> response;
+            try {
+                response = this.send.get();
+            } catch (RuntimeException e) {
+                release();
+                this.sink.error(e);
+                return;
+            }
+            this.sink.onDispose(response
+                .doFinally(signal -> release())
+                .subscribe(this.sink::success, this.sink::error, () -> this.sink.success()));
+        }
+    }
+}
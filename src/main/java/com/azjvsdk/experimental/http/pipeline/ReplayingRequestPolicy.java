@@ -0,0 +1,12 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+/**
+ * A {@link RequestPolicy} that may send the request more than once (e.g. retry, redirect,
+ * auth challenge).
+ *
+ * When such a policy is in the chain of a context, the pipeline wraps a one-shot request body
+ * with a {@link com.azjvsdk.experimental.http.ReplayableBody} so that each
+ * {@link NextPolicy#process()} call from the policy can read the body again.
+ */
+public interface ReplayingRequestPolicy extends RequestPolicy {
+}
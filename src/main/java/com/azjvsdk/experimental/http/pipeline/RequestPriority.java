@@ -0,0 +1,20 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+/**
+ * The priority class of a request, used by {@link PriorityRequestScheduler} to share
+ * the concurrency permits between classes.
+ */
+public enum RequestPriority {
+    /**
+     * Latency sensitive requests e.g. on behalf of a waiting user.
+     */
+    INTERACTIVE,
+    /**
+     * Requests with no specific priority.
+     */
+    DEFAULT,
+    /**
+     * Throughput oriented requests e.g. batch and sync jobs.
+     */
+    BACKGROUND
+}
@@ -0,0 +1,235 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+import com.azjvsdk.experimental.http.HttpRequest;
+import com.azjvsdk.experimental.http.HttpResponse;
+
+/**
+ * The timeline of the events of a request, recorded by the pipeline and the http client
+ * while the request is in flight.
+ *
+ * The events are kept in preallocated primitive arrays owned by the context, recording an
+ * event is a clock read and three array stores. The timeline is copied to the pipeline's
+ * {@link SlowRequestLog} only if the request took longer than the slow request threshold.
+ * Events past the capacity of the timeline are counted but not recorded.
+ *
+ * The events of a request are recorded in the order of the reactive signals of it's flow,
+ * the timeline is not meant to be recorded from threads racing with the flow.
+ *
+ * The request ends when it's flow ends, unless the http client asked the timeline to end with the
+ * body of the emitted response, in which case the request ends once the body is read, closed or
+ * discarded, or when the context starts the next request.
+ */
+public final class RequestTimeline {
+    private static final int CAPACITY = 64;
+    private static final TimelineEvent[] EVENTS = TimelineEvent.values();
+    //
+    private final HttpPipeline pipeline;
+    private final long[] times = new long[CAPACITY];
+    private final byte[] events = new byte[CAPACITY];
+    private final String[] labels = new String[CAPACITY];
+    private int count;
+    private int dropped;
+    private long startNanos;
+    private int generation;
+    private volatile boolean recording;
+    // Guarded by this.
+    private HttpRequest request;
+    private Object bodyOwner;
+    private boolean flowEnded;
+
+    /**
+     * Package private ctr.
+     *
+     * @param pipeline the pipeline keeping the timelines of the slow requests
+     */
+    RequestTimeline(HttpPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * Records an event if the timeline is recording.
+     *
+     * @param event the event
+     */
+    public void record(TimelineEvent event) {
+        this.record(event, null);
+    }
+
+    /**
+     * Records a labelled event if the timeline is recording.
+     *
+     * @param event the event
+     * @param label the label of the event e.g. the policy name
+     */
+    public void record(TimelineEvent event, String label) {
+        if (!this.recording) {
+            return;
+        }
+        final int index = this.count;
+        if (index == CAPACITY) {
+            this.dropped++;
+            return;
+        }
+        this.times[index] = System.nanoTime();
+        this.events[index] = (byte) event.ordinal();
+        this.labels[index] = label;
+        this.count = index + 1;
+    }
+
+    /**
+     * Records an event only if the timeline is still recording the request of the given generation,
+     * used for the events that may arrive after the response was emitted e.g. the last byte of the body.
+     *
+     * @param generation the generation of the request, obtained from {@link RequestTimeline#generation()}
+     * @param event the event
+     */
+    public void record(int generation, TimelineEvent event) {
+        if (this.generation == generation) {
+            this.record(event, null);
+        }
+    }
+
+    /**
+     * Makes the request end with the body of the response instead of upon emission of the response,
+     * called by the http client for a response whose body is read after emission. The last response
+     * received owns the end of the request.
+     *
+     * @param generation the generation of the request, obtained from {@link RequestTimeline#generation()}
+     * @param response the response
+     */
+    public synchronized void endWithBody(int generation, HttpResponse response) {
+        if (this.generation == generation && this.recording) {
+            this.bodyOwner = response;
+        }
+    }
+
+    /**
+     * Ends the request if it ends with the body of the response, called by the http client once the
+     * body is read, closed or discarded.
+     *
+     * @param generation the generation of the request, obtained from {@link RequestTimeline#generation()}
+     * @param response the response
+     */
+    public synchronized void bodyEnded(int generation, HttpResponse response) {
+        if (this.generation == generation && this.bodyOwner == response && response != null) {
+            this.bodyOwner = null;
+            if (this.flowEnded) {
+                this.complete();
+            }
+        }
+    }
+
+    /**
+     * @return the generation of the request being recorded, changes as a recycled context
+     * records the next request.
+     */
+    public int generation() {
+        return this.generation;
+    }
+
+    /**
+     * Package private method.
+     *
+     * Starts recording a request, clears the events of the previous request. The previous request
+     * still waiting for the end of it's response body ends first.
+     *
+     * @param request the request
+     */
+    synchronized void start(HttpRequest request) {
+        if (this.recording && this.flowEnded) {
+            this.complete();
+        }
+        this.request = request;
+        this.bodyOwner = null;
+        this.flowEnded = false;
+        this.generation++;
+        this.count = 0;
+        this.dropped = 0;
+        this.startNanos = System.nanoTime();
+        this.recording = true;
+        this.record(TimelineEvent.REQUEST_START, null);
+    }
+
+    /**
+     * Package private method.
+     *
+     * Ends the request upon the end of it's flow, unless the request ends with the body of the emitted
+     * response. Only the first call has an effect.
+     *
+     * @param responseEmitted true if the flow emitted a response
+     */
+    synchronized void flowEnded(boolean responseEmitted) {
+        if (!this.recording || this.flowEnded) {
+            return;
+        }
+        this.flowEnded = true;
+        if (!responseEmitted || this.bodyOwner == null) {
+            this.bodyOwner = null;
+            this.complete();
+        }
+    }
+
+    private void complete() {
+        this.pipeline.completeTimeline(this, this.request);
+    }
+
+    /**
+     * Package private method.
+     *
+     * Stops recording the request.
+     *
+     * @return the nanoseconds elapsed since the request started, -1 if the timeline was not recording.
+     */
+    long stop() {
+        if (!this.recording) {
+            return -1;
+        }
+        this.record(TimelineEvent.REQUEST_END, null);
+        this.recording = false;
+        return System.nanoTime() - this.startNanos;
+    }
+
+    /**
+     * Package private method.
+     *
+     * @param sequence the sequence number of the snapshot in the log
+     * @param request the request
+     * @param durationNanos the duration of the request
+     * @return the copy of the events.
+     */
+    TimelineSnapshot snapshot(long sequence, HttpRequest request, long durationNanos) {
+        final int size = this.count;
+        final long[] offsets = new long[size];
+        final TimelineEvent[] events = new TimelineEvent[size];
+        final String[] labels = new String[size];
+        for (int i = 0; i < size; i++) {
+            offsets[i] = this.times[i] - this.startNanos;
+            events[i] = EVENTS[this.events[i]];
+            labels[i] = this.labels[i];
+        }
+        return new TimelineSnapshot(sequence, request.httpMethod(), request.requestUrl().toString(),
+            durationNanos, offsets, events, labels, this.dropped);
+    }
+
+    /**
+     * Package private type, records a labelled event upon the termination of a publisher, an
+     * instance is created once per policy node and used as the Reactor and RxJava2 callback.
+     */
+    static final class Mark implements java.util.function.BiConsumer<HttpResponse, Throwable>,
+        io.reactivex.functions.BiConsumer<HttpResponse, Throwable> {
+        private final RequestTimeline timeline;
+        private final TimelineEvent event;
+        private final String label;
+
+        Mark(RequestTimeline timeline, TimelineEvent event, String label) {
+            this.timeline = timeline;
+            this.event = event;
+            this.label = label;
+        }
+
+        @Override
+        public void accept(HttpResponse response, Throwable error) {
+            this.timeline.record(this.event, this.label);
+        }
+    }
+}
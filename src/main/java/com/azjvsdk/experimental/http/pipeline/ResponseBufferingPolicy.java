@@ -0,0 +1,105 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+import com.azjvsdk.experimental.http.BufferedHttpResponse;
+import com.azjvsdk.experimental.http.ByteBufferPool;
+import com.azjvsdk.experimental.http.HttpResponse;
+import com.azjvsdk.experimental.http.HttpResponseException;
+import com.azjvsdk.experimental.http.MemoryBudget;
+import com.azjvsdk.experimental.http.ReplayableBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Request policy that reads the whole response body before emitting the response, so that
+ * the policies before it and the caller can read the body any number of times.
+ *
+ * Up to {@code memoryThreshold} bytes of a body are kept in pooled buffers, the rest is streamed
+ * to a temp file and read back with positional reads. A body larger than {@code maxLength} fails
+ * the response with {@link HttpResponseException}, either right away if the Content-Length says
+ * so or as soon as the bytes read exceed it. The buffers kept in memory are reserved on the
+ * {@link PipelineCallContext#memoryBudget()}, the body spills to temp file early once the
+ * buffered bytes budget of the pipeline is exhausted. The emitted response is a {@link BufferedHttpResponse}
+ * that must be closed to release the buffers and delete the temp file.
+ */
+public final class ResponseBufferingPolicy implements RequestPolicy {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 256;
+    //
+    private final long memoryThreshold;
+    private final long maxLength;
+    private final ByteBufferPool pool;
+
+    /**
+     * Creates ResponseBufferingPolicy.
+     *
+     * @param memoryThreshold the number of bytes of a body to keep in memory before spilling to temp file
+     * @param maxLength the maximum length of a body
+     *
+     * @throws IllegalArgumentException if {@code memoryThreshold} is negative or {@code maxLength} is less than it
+     */
+    public ResponseBufferingPolicy(long memoryThreshold, long maxLength) {
+        if (memoryThreshold < 0) {
+            throw new IllegalArgumentException("memoryThreshold cannot be negative.");
+        }
+        if (maxLength < memoryThreshold) {
+            throw new IllegalArgumentException("maxLength cannot be less than memoryThreshold.");
+        }
+        this.memoryThreshold = memoryThreshold;
+        this.maxLength = maxLength;
+        this.pool = new ByteBufferPool((int) Math.max(1, Math.min(BUFFER_SIZE, memoryThreshold)), MAX_POOLED_BUFFERS);
+    }
+
+    @Override
+    public Mono<HttpResponse> process(PipelineCallContext context, NextPolicy next) {
+        return next.process().flatMap(response -> this.buffer(response, context.memoryBudget()));
+    }
+
+    /**
+     * @param response the response to buffer
+     * @param memoryBudget the account to reserve the buffers kept in memory on
+     * @return a publisher that emits the buffered response once the body is fully read.
+     */
+    private Mono<HttpResponse> buffer(HttpResponse response, MemoryBudget memoryBudget) {
+        final String contentLength = response.headerValue("Content-Length");
+        if (contentLength != null) {
+            long length;
+            try {
+                length = Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException nfe) {
+                length = -1;
+            }
+            if (length > this.maxLength) {
+                response.close();
+                return Mono.error(this.tooLarge(response));
+            }
+        }
+        final BufferedHttpResponse bufferedResponse = new BufferedHttpResponse(response,
+            new ReplayableBody(this.limit(response), this.pool, this.memoryThreshold, memoryBudget));
+        return bufferedResponse.body()
+            .then(Mono.<HttpResponse>just(bufferedResponse))
+            .doOnError(e -> bufferedResponse.close())
+            .doOnCancel(bufferedResponse::close);
+    }
+
+    /**
+     * @param response the response
+     * @return the body of the response failing once more than {@code maxLength} bytes are read.
+     */
+    private Flux<ByteBuffer> limit(HttpResponse response) {
+        return Flux.defer(() -> {
+            final long[] length = new long[1];
+            return response.body().doOnNext(buffer -> {
+                length[0] += buffer.remaining();
+                if (length[0] > this.maxLength) {
+                    throw this.tooLarge(response);
+                }
+            });
+        });
+    }
+
+    private HttpResponseException tooLarge(HttpResponse response) {
+        return new HttpResponseException("The response body exceeds the maximum length of " + this.maxLength + " bytes.", response);
+    }
+}
@@ -0,0 +1,180 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+import com.azjvsdk.experimental.http.HttpMethod;
+import com.azjvsdk.experimental.http.RequestUrl;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Package private type that selects the policy chain of a request from the {@link RouteRule}s.
+ *
+ * The rules are compiled once into a path segment trie per host, the hosts are looked up in a hash
+ * map. A request is matched against the trie of it's host first and then against the trie of the
+ * rules with no host, the rule with the longest matching path prefix wins and rules on the same
+ * prefix are tried in the order they were declared. Matching walks the path in place without
+ * allocating the segments.
+ */
+final class RouteMatcher {
+    private final Map<String, Node> hostRoots = new HashMap<>();
+    private final Node anyHostRoot = new Node(null);
+
+    /**
+     * Creates RouteMatcher.
+     *
+     * @param routeRules the rules
+     * @param validator the function validating the policy chain of a rule and returning it's snapshot
+     */
+    RouteMatcher(RouteRule[] routeRules, UnaryOperator<PolicyEntry[]> validator) {
+        for (RouteRule rule : routeRules) {
+            Node node;
+            if (rule.host() == null) {
+                node = this.anyHostRoot;
+            } else {
+                node = this.hostRoots.computeIfAbsent(rule.host().toLowerCase(Locale.ROOT), host -> new Node(null));
+            }
+            if (rule.pathPrefix() != null) {
+                for (String segment : rule.pathPrefix().split("/")) {
+                    if (!segment.isEmpty()) {
+                        node = node.childOrCreate(segment);
+                    }
+                }
+            }
+            Set<HttpMethod> methods = rule.methods();
+            node.addRoute(new Route(methods == null ? null : EnumSet.copyOf(methods), validator.apply(rule.requestPolicyEntries())));
+        }
+    }
+
+    /**
+     * @param method the request method
+     * @param url the request url
+     * @return the policy chain of the matching rule, null if no rule matches.
+     */
+    PolicyEntry[] match(HttpMethod method, RequestUrl url) {
+        final String path = url.path();
+        if (!this.hostRoots.isEmpty()) {
+            Node root = this.hostRoots.get(url.host());
+            if (root != null) {
+                PolicyEntry[] entries = root.match(method, path);
+                if (entries != null) {
+                    return entries;
+                }
+            }
+        }
+        return this.anyHostRoot.match(method, path);
+    }
+
+    /**
+     * Type representing a rule compiled into a trie node.
+     */
+    private static final class Route {
+        final Set<HttpMethod> methods;
+        final PolicyEntry[] requestPolicyEntries;
+
+        private Route(Set<HttpMethod> methods, PolicyEntry[] requestPolicyEntries) {
+            this.methods = methods;
+            this.requestPolicyEntries = requestPolicyEntries;
+        }
+    }
+
+    /**
+     * Type representing a path segment in the trie.
+     */
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Route[] NO_ROUTES = new Route[0];
+        //
+        final String segment;
+        Node[] children = NO_CHILDREN;
+        Route[] routes = NO_ROUTES;
+
+        private Node(String segment) {
+            this.segment = segment;
+        }
+
+        private Node childOrCreate(String segment) {
+            for (Node child : this.children) {
+                if (child.segment.equals(segment)) {
+                    return child;
+                }
+            }
+            Node child = new Node(segment);
+            this.children = Arrays.copyOf(this.children, this.children.length + 1);
+            this.children[this.children.length - 1] = child;
+            return child;
+        }
+
+        private void addRoute(Route route) {
+            this.routes = Arrays.copyOf(this.routes, this.routes.length + 1);
+            this.routes[this.routes.length - 1] = route;
+        }
+
+        /**
+         * @param path the path
+         * @param start the start index of the segment in the path
+         * @param end the end index of the segment in the path
+         * @return the child for the segment, null if there is none.
+         */
+        private Node child(String path, int start, int end) {
+            final int length = end - start;
+            for (Node child : this.children) {
+                if (child.segment.length() == length && path.regionMatches(start, child.segment, 0, length)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @param method the request method
+         * @return the policy chain of the first route on this node matching the method, null if none.
+         */
+        private PolicyEntry[] routeFor(HttpMethod method) {
+            for (Route route : this.routes) {
+                if (route.methods == null || route.methods.contains(method)) {
+                    return route.requestPolicyEntries;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @param method the request method
+         * @param path the request path
+         * @return the policy chain of the route with the longest prefix of the path, null if none.
+         */
+        private PolicyEntry[] match(HttpMethod method, String path) {
+            PolicyEntry[] best = this.routeFor(method);
+            Node node = this;
+            int index = 0;
+            final int length = path.length();
+            while (true) {
+                while (index < length && path.charAt(index) == '/') {
+                    index++;
+                }
+                if (index >= length) {
+                    break;
+                }
+                int end = path.indexOf('/', index);
+                if (end < 0) {
+                    end = length;
+                }
+                node = node.child(path, index, end);
+                if (node == null) {
+                    break;
+                }
+                PolicyEntry[] entries = node.routeFor(method);
+                if (entries != null) {
+                    best = entries;
+                }
+                index = end;
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+import com.azjvsdk.experimental.http.HttpMethod;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A rule mapping the requests matching a host, a path prefix and http methods to a policy chain,
+ * the chain is used in place of the global policies of the {@link HttpPipeline} for those requests.
+ *
+ * A criteria not set matches any request. The host is matched ignoring case and port, the path
+ * prefix is matched segment-wise, i.e. "/api/v1" matches "/api/v1" and "/api/v1/items" but
+ * not "/api/v10".
+ */
+public final class RouteRule {
+    private final PolicyEntry[] requestPolicyEntries;
+    private String host;
+    private String pathPrefix;
+    private Set<HttpMethod> methods;
+
+    /**
+     * Creates RouteRule.
+     *
+     * @param requestPolicyEntries the policy chain for the requests matching the rule
+     */
+    public RouteRule(PolicyEntry[] requestPolicyEntries) {
+        this.requestPolicyEntries = Objects.requireNonNull(requestPolicyEntries).clone();
+    }
+
+    /**
+     * @return the policy chain for the requests matching the rule.
+     */
+    public PolicyEntry[] requestPolicyEntries() {
+        return this.requestPolicyEntries.clone();
+    }
+
+    /**
+     * @return the host to match, null if any host matches.
+     */
+    public String host() {
+        return this.host;
+    }
+
+    /**
+     * Sets the host to match.
+     *
+     * @param host the host name
+     * @return RouteRule
+     */
+    public RouteRule withHost(String host) {
+        this.host = host;
+        return this;
+    }
+
+    /**
+     * @return the path prefix to match, null if any path matches.
+     */
+    public String pathPrefix() {
+        return this.pathPrefix;
+    }
+
+    /**
+     * Sets the path prefix to match.
+     *
+     * @param pathPrefix the path prefix
+     * @return RouteRule
+     */
+    public RouteRule withPathPrefix(String pathPrefix) {
+        this.pathPrefix = pathPrefix;
+        return this;
+    }
+
+    /**
+     * @return the http methods to match, null if any method matches.
+     */
+    public Set<HttpMethod> methods() {
+        return this.methods == null ? null : Collections.unmodifiableSet(this.methods);
+    }
+
+    /**
+     * Sets the http methods to match.
+     *
+     * @param methods the http methods
+     * @return RouteRule
+     *
+     * @throws IllegalArgumentException if {@code methods} is empty
+     */
+    public RouteRule withMethods(HttpMethod... methods) {
+        Objects.requireNonNull(methods);
+        if (methods.length == 0) {
+            throw new IllegalArgumentException("At least one method is required.");
+        }
+        Set<HttpMethod> set = EnumSet.noneOf(HttpMethod.class);
+        for (HttpMethod method : methods) {
+            set.add(Objects.requireNonNull(method));
+        }
+        this.methods = set;
+        return this;
+    }
+}
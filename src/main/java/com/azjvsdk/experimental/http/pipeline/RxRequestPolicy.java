@@ -0,0 +1,32 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+import com.azjvsdk.experimental.http.HttpResponse;
+import io.reactivex.Single;
+import reactor.core.publisher.Mono;
+
+/**
+ * Request policy written with RxJava2 types.
+ *
+ * When the request is sent with {@link HttpPipeline#sendRequestRx(PipelineCallContext)}, consecutive
+ * Rx policies invoke each other through {@link NextPolicy#processRx()} without any conversion, the
+ * response is converted only where the chain crosses between an Rx and a Reactor policy.
+ */
+@FunctionalInterface
+public interface RxRequestPolicy extends RequestPolicy {
+    /**
+     * Process provided request context and invokes the next policy.
+     *
+     * @param context request context
+     * @param next the next policy to invoke
+     * @return single that initiate the request upon subscription and emits response on completion.
+     */
+    Single<HttpResponse> processRx(PipelineCallContext context, NextPolicy next);
+
+    /**
+     * Invokes the policy from a Reactor policy, converts the response once.
+     */
+    @Override
+    default Mono<HttpResponse> process(PipelineCallContext context, NextPolicy next) {
+        return Mono.from(this.processRx(context, next).toFlowable());
+    }
+}
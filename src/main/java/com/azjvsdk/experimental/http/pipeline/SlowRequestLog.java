@@ -0,0 +1,80 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+import com.azjvsdk.experimental.http.HttpRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * The lock-free ring buffer of the timelines of the most recent slow requests.
+ *
+ * A completing request claims a slot by incrementing the sequence and publishes the copy of it's
+ * timeline to the slot, overwriting the oldest timeline once the ring is full.
+ */
+public final class SlowRequestLog {
+    private final AtomicReferenceArray<TimelineSnapshot> slots;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Consumer<TimelineSnapshot> listener;
+
+    /**
+     * Package private ctr.
+     *
+     * @param capacity the number of timelines to keep, rounded up to a power of two
+     * @param listener the listener notified of each slow request, null if there is none
+     */
+    SlowRequestLog(int capacity, Consumer<TimelineSnapshot> listener) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = this.slots.length() - 1;
+        this.listener = listener;
+    }
+
+    /**
+     * @return the number of slow requests recorded since the pipeline was created.
+     */
+    public long count() {
+        return this.sequence.get();
+    }
+
+    /**
+     * @return the timelines of the most recent slow requests in the order they completed.
+     */
+    public List<TimelineSnapshot> dump() {
+        final long end = this.sequence.get();
+        final long start = Math.max(0, end - this.slots.length());
+        final List<TimelineSnapshot> snapshots = new ArrayList<>((int) (end - start));
+        for (long seq = start; seq < end; seq++) {
+            TimelineSnapshot snapshot = this.slots.get((int) (seq & this.mask));
+            // Skip a slot still being written, or already overwritten by a later request.
+            if (snapshot != null && snapshot.sequence() == seq) {
+                snapshots.add(snapshot);
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Package private method.
+     *
+     * Copies the timeline of a slow request to the ring and notifies the listener.
+     *
+     * @param timeline the timeline
+     * @param request the request
+     * @param durationNanos the duration of the request
+     */
+    void record(RequestTimeline timeline, HttpRequest request, long durationNanos) {
+        final long seq = this.sequence.getAndIncrement();
+        final TimelineSnapshot snapshot = timeline.snapshot(seq, request, durationNanos);
+        this.slots.set((int) (seq & this.mask), snapshot);
+        if (this.listener != null) {
+            this.listener.accept(snapshot);
+        }
+    }
+}
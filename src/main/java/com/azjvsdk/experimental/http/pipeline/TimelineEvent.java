@@ -0,0 +1,44 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+/**
+ * The events recorded in a {@link RequestTimeline}.
+ */
+public enum TimelineEvent {
+    /**
+     * The request flow was subscribed.
+     */
+    REQUEST_START,
+    /**
+     * A policy was invoked, labelled with the policy name.
+     */
+    POLICY_ENTER,
+    /**
+     * The response publisher of a policy terminated, labelled with the policy name.
+     */
+    POLICY_EXIT,
+    /**
+     * The request was queued on the {@link PriorityRequestScheduler}.
+     */
+    QUEUED,
+    /**
+     * The request was handed to the http client.
+     */
+    CLIENT_SEND,
+    /**
+     * The http client acquired the connection for the request.
+     */
+    CONNECTION_ACQUIRED,
+    /**
+     * The status line and headers of the response were received.
+     */
+    FIRST_BYTE,
+    /**
+     * The response body was read to the end.
+     */
+    LAST_BYTE,
+    /**
+     * The request flow terminated or was cancelled, or the body of the response ended if the
+     * request ends with the body.
+     */
+    REQUEST_END
+}
@@ -0,0 +1,121 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+import com.azjvsdk.experimental.http.HttpMethod;
+
+import java.util.Locale;
+
+/**
+ * The immutable copy of the {@link RequestTimeline} of a slow request.
+ */
+public final class TimelineSnapshot {
+    private final long sequence;
+    private final HttpMethod httpMethod;
+    private final String url;
+    private final long durationNanos;
+    private final long[] offsetNanos;
+    private final TimelineEvent[] events;
+    private final String[] labels;
+    private final int droppedEvents;
+
+    /**
+     * Package private ctr.
+     */
+    TimelineSnapshot(long sequence, HttpMethod httpMethod, String url, long durationNanos,
+                     long[] offsetNanos, TimelineEvent[] events, String[] labels, int droppedEvents) {
+        this.sequence = sequence;
+        this.httpMethod = httpMethod;
+        this.url = url;
+        this.durationNanos = durationNanos;
+        this.offsetNanos = offsetNanos;
+        this.events = events;
+        this.labels = labels;
+        this.droppedEvents = droppedEvents;
+    }
+
+    /**
+     * @return the sequence number of the snapshot in the {@link SlowRequestLog}.
+     */
+    public long sequence() {
+        return this.sequence;
+    }
+
+    /**
+     * @return the http method of the request.
+     */
+    public HttpMethod httpMethod() {
+        return this.httpMethod;
+    }
+
+    /**
+     * @return the url of the request.
+     */
+    public String url() {
+        return this.url;
+    }
+
+    /**
+     * @return the nanoseconds from the start of the request to the end of it's flow.
+     */
+    public long durationNanos() {
+        return this.durationNanos;
+    }
+
+    /**
+     * @return the number of recorded events.
+     */
+    public int size() {
+        return this.events.length;
+    }
+
+    /**
+     * @param index the index of the event
+     * @return the event.
+     */
+    public TimelineEvent event(int index) {
+        return this.events[index];
+    }
+
+    /**
+     * @param index the index of the event
+     * @return the label of the event, null if the event has no label.
+     */
+    public String label(int index) {
+        return this.labels[index];
+    }
+
+    /**
+     * @param index the index of the event
+     * @return the nanoseconds from the start of the request to the event.
+     */
+    public long offsetNanos(int index) {
+        return this.offsetNanos[index];
+    }
+
+    /**
+     * @return the number of events not recorded because the timeline was full.
+     */
+    public int droppedEvents() {
+        return this.droppedEvents;
+    }
+
+    /**
+     * @return the timeline, one event per line.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(this.httpMethod).append(' ').append(this.url)
+            .append(String.format(Locale.ROOT, " took %.3fms", this.durationNanos / 1e6));
+        if (this.droppedEvents > 0) {
+            builder.append(" (").append(this.droppedEvents).append(" events dropped)");
+        }
+        for (int i = 0; i < this.events.length; i++) {
+            builder.append(System.lineSeparator())
+                .append(String.format(Locale.ROOT, "  +%.3fms %s", this.offsetNanos[i] / 1e6, this.events[i]));
+            if (this.labels[i] != null) {
+                builder.append(' ').append(this.labels[i]);
+            }
+        }
+        return builder.toString();
+    }
+}
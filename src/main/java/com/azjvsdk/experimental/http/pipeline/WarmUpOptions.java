@@ -0,0 +1,125 @@
+package com.azjvsdk.experimental.http.pipeline;
+
+import com.azjvsdk.experimental.http.HttpRequest;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Options to configure {@link HttpPipeline#warmUp(WarmUpOptions)}.
+ */
+public class WarmUpOptions {
+    private final List<Target> targets = new ArrayList<>();
+    private int syntheticRequestCount;
+    private Supplier<HttpRequest> syntheticRequestSupplier;
+    private int syntheticResponseStatusCode = 200;
+
+    /**
+     * @return the hosts to open connections to.
+     */
+    public List<Target> targets() {
+        return Collections.unmodifiableList(this.targets);
+    }
+
+    /**
+     * Adds a host to open pooled connections to, the connections are opened by sending
+     * requests to the url so it should be cheap for the host to serve.
+     *
+     * @param url the url on the host
+     * @param connections the number of connections to open
+     * @return WarmUpOptions
+     *
+     * @throws IllegalArgumentException if {@code connections} is less than 1
+     */
+    public WarmUpOptions withConnections(URL url, int connections) {
+        this.targets.add(new Target(url, connections));
+        return this;
+    }
+
+    /**
+     * @return the number of synthetic requests to send through the policy chain.
+     */
+    public int syntheticRequestCount() {
+        return this.syntheticRequestCount;
+    }
+
+    /**
+     * @return the supplier of the synthetic requests, null if none.
+     */
+    public Supplier<HttpRequest> syntheticRequestSupplier() {
+        return this.syntheticRequestSupplier;
+    }
+
+    /**
+     * Sets the synthetic requests to send through the policy chain so that it's hot paths get
+     * compiled. The synthetic requests never reach the wire, they are answered by a local
+     * stand-in for the http client with an empty response.
+     *
+     * @param count the number of synthetic requests
+     * @param requestSupplier the supplier of the synthetic requests
+     * @return WarmUpOptions
+     *
+     * @throws IllegalArgumentException if {@code count} is negative
+     */
+    public WarmUpOptions withSyntheticRequests(int count, Supplier<HttpRequest> requestSupplier) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count cannot be negative.");
+        }
+        this.syntheticRequestCount = count;
+        this.syntheticRequestSupplier = Objects.requireNonNull(requestSupplier);
+        return this;
+    }
+
+    /**
+     * @return the status code of the responses to the synthetic requests.
+     */
+    public int syntheticResponseStatusCode() {
+        return this.syntheticResponseStatusCode;
+    }
+
+    /**
+     * Sets the status code of the responses to the synthetic requests.
+     *
+     * @param statusCode the status code
+     * @return WarmUpOptions
+     */
+    public WarmUpOptions withSyntheticResponseStatusCode(int statusCode) {
+        this.syntheticResponseStatusCode = statusCode;
+        return this;
+    }
+
+    /**
+     * Type representing a host to open connections to.
+     */
+    public static final class Target {
+        private final URL url;
+        private final int connections;
+
+        private Target(URL url, int connections) {
+            Objects.requireNonNull(url);
+            if (connections < 1) {
+                throw new IllegalArgumentException("connections must be greater than zero.");
+            }
+            this.url = url;
+            this.connections = connections;
+        }
+
+        /**
+         * @return the url on the host.
+         */
+        public URL url() {
+            return this.url;
+        }
+
+        /**
+         * @return the number of connections to open.
+         */
+        public int connections() {
+            return this.connections;
+        }
+    }
+}
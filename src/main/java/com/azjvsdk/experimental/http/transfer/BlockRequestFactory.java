@@ -0,0 +1,27 @@
+package com.azjvsdk.experimental.http.transfer;
+
+import com.azjvsdk.experimental.http.HttpRequest;
+
+/**
+ * Creates the requests of a block based upload, the store specific part of {@link ParallelUploader}.
+ */
+public interface BlockRequestFactory {
+    /**
+     * Creates the request to stage a block, the uploader sets the body and Content-Length.
+     *
+     * @param blockIndex the zero based index of the block
+     * @param offset the offset of the block in the content
+     * @param length the number of bytes in the block
+     * @return the block request
+     */
+    HttpRequest createBlockRequest(long blockIndex, long offset, int length);
+
+    /**
+     * Creates the request to commit the staged blocks in the order of their index.
+     *
+     * @param blockCount the number of staged blocks
+     * @param contentLength the total number of bytes in the staged blocks
+     * @return the commit request
+     */
+    HttpRequest createCommitRequest(long blockCount, long contentLength);
+}
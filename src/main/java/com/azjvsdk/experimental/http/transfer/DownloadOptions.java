@@ -0,0 +1,79 @@
+package com.azjvsdk.experimental.http.transfer;
+
+/**
+ * Options to configure {@link ParallelDownloader}.
+ */
+public class DownloadOptions {
+    private long chunkSize = 4 * 1024 * 1024;
+    private int parallelism = 4;
+    private int maxRetriesPerChunk = 3;
+
+    /**
+     * @return the number of bytes to retrieve in a single range request.
+     */
+    public long chunkSize() {
+        return this.chunkSize;
+    }
+
+    /**
+     * Sets the number of bytes to retrieve in a single range request.
+     *
+     * @param chunkSize the chunk size
+     * @return DownloadOptions
+     *
+     * @throws IllegalArgumentException if {@code chunkSize} is less than 1
+     */
+    public DownloadOptions withChunkSize(long chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be greater than zero.");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of range requests in flight.
+     */
+    public int parallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Sets the maximum number of range requests in flight.
+     *
+     * @param parallelism the parallelism
+     * @return DownloadOptions
+     *
+     * @throws IllegalArgumentException if {@code parallelism} is less than 1
+     */
+    public DownloadOptions withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than zero.");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @return the number of times a chunk failed with a transient error is retried before failing the transfer.
+     */
+    public int maxRetriesPerChunk() {
+        return this.maxRetriesPerChunk;
+    }
+
+    /**
+     * Sets the number of times a chunk failed with a transient error is retried before failing the transfer.
+     *
+     * @param maxRetriesPerChunk the retry count
+     * @return DownloadOptions
+     *
+     * @throws IllegalArgumentException if {@code maxRetriesPerChunk} is negative
+     */
+    public DownloadOptions withMaxRetriesPerChunk(int maxRetriesPerChunk) {
+        if (maxRetriesPerChunk < 0) {
+            throw new IllegalArgumentException("maxRetriesPerChunk cannot be negative.");
+        }
+        this.maxRetriesPerChunk = maxRetriesPerChunk;
+        return this;
+    }
+}
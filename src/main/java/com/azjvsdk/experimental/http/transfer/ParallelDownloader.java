@@ -0,0 +1,185 @@
+package com.azjvsdk.experimental.http.transfer;
+
+import com.azjvsdk.experimental.http.HttpMethod;
+import com.azjvsdk.experimental.http.HttpRequest;
+import com.azjvsdk.experimental.http.HttpResponseException;
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Downloads a large object by issuing concurrent range requests through the {@link HttpPipeline}.
+ *
+ * The object size and ETag are probed with a HEAD request, then the object is retrieved in
+ * chunks, each chunk with it's own {@link com.azjvsdk.experimental.http.pipeline.PipelineCallContext}
+ * so that every range request flows through the policy chain. The chunks are written positionally
+ * into the target {@link FileChannel} as they arrive, the memory held is bounded by the network
+ * buffers of at most {@link DownloadOptions#parallelism()} chunks in flight. A chunk failed with
+ * a 5xx, 408 or 429 status code or a connection error is retried on it's own, without restarting
+ * the whole transfer, other failures, e.g. a precondition failure once the object changed since
+ * the probe, fail the transfer right away.
+ */
+public final class ParallelDownloader {
+    private final HttpPipeline pipeline;
+    private final DownloadOptions options;
+
+    /**
+     * Creates ParallelDownloader.
+     *
+     * @param pipeline the pipeline to send the probe and range requests through
+     * @param options the download options
+     */
+    public ParallelDownloader(HttpPipeline pipeline, DownloadOptions options) {
+        this.pipeline = Objects.requireNonNull(pipeline);
+        this.options = Objects.requireNonNull(options);
+    }
+
+    /**
+     * Downloads the object into the given file, the file is created if not exists and truncated if it does.
+     *
+     * @param url the object url
+     * @param file the target file
+     * @return a publisher upon subscription downloads the object and emits the object size on completion.
+     */
+    public Mono<Long> download(URL url, Path file) {
+        Objects.requireNonNull(url);
+        Objects.requireNonNull(file);
+        return Mono.using(() -> FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING),
+            channel -> this.download(url, channel),
+            channel -> {
+                try {
+                    channel.close();
+                } catch (IOException ioe) {
+                    throw new UncheckedIOException(ioe);
+                }
+            });
+    }
+
+    /**
+     * Downloads the object into the given channel, the bytes of the object are written
+     * at the same position in the channel as their offset in the object.
+     *
+     * @param url the object url
+     * @param channel the target channel
+     * @return a publisher upon subscription downloads the object and emits the object size on completion.
+     */
+    public Mono<Long> download(URL url, FileChannel channel) {
+        Objects.requireNonNull(url);
+        Objects.requireNonNull(channel);
+        return this.probe(url).flatMap(objectInfo -> {
+            final long chunkSize = this.options.chunkSize();
+            final long chunkCount = (objectInfo.size + chunkSize - 1) / chunkSize;
+            return Flux.<Long, Long>generate(() -> 0L, (index, sink) -> {
+                if (index < chunkCount) {
+                    sink.next(index);
+                } else {
+                    sink.complete();
+                }
+                return index + 1;
+            })
+            .flatMap(index -> {
+                final long offset = index * chunkSize;
+                final long length = Math.min(chunkSize, objectInfo.size - offset);
+                return this.downloadChunk(url, objectInfo, offset, length, channel)
+                    .retry(this.options.maxRetriesPerChunk(), TransientErrors::isTransient);
+            }, this.options.parallelism())
+            .then(Mono.just(objectInfo.size));
+        });
+    }
+
+    /**
+     * Sends a HEAD request to retrieve the size and ETag of the object.
+     *
+     * @param url the object url
+     * @return a publisher that emits the object size and ETag.
+     */
+    private Mono<ObjectInfo> probe(URL url) {
+        return Mono.defer(() -> this.pipeline.sendRequest(this.pipeline.newContext(new HttpRequest("download", HttpMethod.HEAD, url))))
+            .map(response -> {
+                if (response.statusCode() != 200) {
+                    throw new HttpResponseException("Unexpected status code " + response.statusCode() + " when probing the object size.", response);
+                }
+                String contentLength = response.headerValue("Content-Length");
+                if (contentLength == null) {
+                    throw new HttpResponseException("The object size is unknown, the response has no Content-Length header.", response);
+                }
+                return new ObjectInfo(Long.parseLong(contentLength), response.headerValue("ETag"));
+            });
+    }
+
+    /**
+     * Retrieves a range of the object and writes it into the channel.
+     *
+     * @param url the object url
+     * @param objectInfo the size and ETag of the object
+     * @param offset the offset of the range in the object
+     * @param length the length of the range
+     * @param channel the target channel
+     * @return a publisher upon subscription retrieves and writes the range, emits completion signal once all bytes are written.
+     */
+    private Mono<Void> downloadChunk(URL url, ObjectInfo objectInfo, long offset, long length, FileChannel channel) {
+        return Mono.defer(() -> {
+            HttpRequest request = new HttpRequest("download", HttpMethod.GET, url)
+                .withHeader("Range", "bytes=" + offset + "-" + (offset + length - 1));
+            if (objectInfo.eTag != null) {
+                request.withHeader("If-Match", objectInfo.eTag);
+            }
+            return this.pipeline.sendRequest(this.pipeline.newContext(request));
+        }).flatMap(response -> {
+            if (response.statusCode() != 206 && !(response.statusCode() == 200 && offset == 0 && length == objectInfo.size)) {
+                return Mono.error(new HttpResponseException("Unexpected status code " + response.statusCode() + " for the range starting at " + offset + ".", response));
+            }
+            final long[] position = new long[] { offset };
+            return response.body()
+                .concatMap(buffer -> Mono.fromCallable(() -> {
+                    position[0] += write(channel, buffer, position[0]);
+                    return position[0];
+                }))
+                .then(Mono.defer(() -> {
+                    if (position[0] != offset + length) {
+                        return Mono.error(new IOException("Range starting at " + offset + " ended after " + (position[0] - offset) + " bytes, expected " + length + " bytes."));
+                    }
+                    return Mono.empty();
+                }));
+        });
+    }
+
+    /**
+     * Writes the buffer into the channel at the given position.
+     *
+     * @param channel the target channel
+     * @param buffer the buffer to write
+     * @param position the position in the channel
+     * @return the number of bytes written.
+     * @throws IOException if the write fails
+     */
+    private static int write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    /**
+     * Type representing result of {@link this#probe(URL)}.
+     */
+    private static class ObjectInfo {
+        final long size;
+        final String eTag;
+
+        private ObjectInfo(long size, String eTag) {
+            this.size = size;
+            this.eTag = eTag;
+        }
+    }
+}
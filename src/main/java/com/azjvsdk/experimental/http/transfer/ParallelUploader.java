@@ -0,0 +1,248 @@
+package com.azjvsdk.experimental.http.transfer;
+
+import com.azjvsdk.experimental.http.ByteBufferPool;
+import com.azjvsdk.experimental.http.HttpRequest;
+import com.azjvsdk.experimental.http.HttpResponse;
+import com.azjvsdk.experimental.http.HttpResponseException;
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Uploads a large content to a block based store by staging fixed size blocks concurrently
+ * through the {@link HttpPipeline} and then committing them.
+ *
+ * The content is copied into pooled block buffers only as blocks are demanded, at most
+ * {@link UploadOptions#concurrency()} blocks are in flight plus the one being filled, so the
+ * memory held stays at about (concurrency x block size) regardless of the content size. A block
+ * failed with a 5xx, 408 or 429 status code or a connection error is retried on it's own, without
+ * restarting the whole transfer, other failures fail the transfer right away.
+ */
+public final class ParallelUploader {
+    private final HttpPipeline pipeline;
+    private final BlockRequestFactory requestFactory;
+    private final UploadOptions options;
+    private final ByteBufferPool blockPool;
+
+    /**
+     * Creates ParallelUploader.
+     *
+     * @param pipeline the pipeline to send the block and commit requests through
+     * @param requestFactory the factory to create the store specific block and commit requests
+     * @param options the upload options
+     */
+    public ParallelUploader(HttpPipeline pipeline, BlockRequestFactory requestFactory, UploadOptions options) {
+        this.pipeline = Objects.requireNonNull(pipeline);
+        this.requestFactory = Objects.requireNonNull(requestFactory);
+        this.options = Objects.requireNonNull(options);
+        this.blockPool = new ByteBufferPool(options.blockSize(), options.concurrency() + 1);
+    }
+
+    /**
+     * Uploads the content.
+     *
+     * @param content the content to upload
+     * @return a publisher upon subscription uploads the blocks, commits them and emits the commit response.
+     */
+    public Mono<HttpResponse> upload(Flux<ByteBuffer> content) {
+        Objects.requireNonNull(content);
+        return this.uploadBlocks(Flux.defer(() -> {
+            final BlockSplitter splitter = new BlockSplitter(this.blockPool);
+            return content
+                .concatMap(splitter::split, 1)
+                .concatWith(Mono.fromCallable(splitter::remaining));
+        }));
+    }
+
+    /**
+     * Uploads the content of a file, blocks are read from the file positionally as they are demanded.
+     *
+     * @param file the file to upload
+     * @return a publisher upon subscription uploads the blocks, commits them and emits the commit response.
+     */
+    public Mono<HttpResponse> upload(Path file) {
+        Objects.requireNonNull(file);
+        return this.uploadBlocks(Flux.using(() -> FileChannel.open(file, StandardOpenOption.READ),
+            channel -> Flux.<Block, Long>generate(() -> 0L, (index, sink) -> {
+                ByteBuffer buffer = this.blockPool.acquire();
+                long offset = index * this.options.blockSize();
+                try {
+                    while (buffer.hasRemaining()) {
+                        if (channel.read(buffer, offset + buffer.position()) < 0) {
+                            break;
+                        }
+                    }
+                } catch (IOException ioe) {
+                    this.blockPool.release(buffer);
+                    sink.error(ioe);
+                    return index;
+                }
+                if (buffer.position() == 0) {
+                    this.blockPool.release(buffer);
+                    sink.complete();
+                } else {
+                    sink.next(new Block(index, offset, buffer));
+                }
+                return index + 1;
+            }),
+            channel -> {
+                try {
+                    channel.close();
+                } catch (IOException ioe) {
+                    throw new UncheckedIOException(ioe);
+                }
+            }));
+    }
+
+    /**
+     * Uploads the blocks with bounded concurrency and then commits them.
+     *
+     * @param blocks the blocks to upload
+     * @return a publisher upon subscription uploads the blocks, commits them and emits the commit response.
+     */
+    private Mono<HttpResponse> uploadBlocks(Flux<Block> blocks) {
+        return Mono.defer(() -> {
+            final AtomicLong bytesTransferred = new AtomicLong();
+            return blocks
+                .flatMap(block -> this.uploadBlock(block, bytesTransferred), this.options.concurrency(), 1)
+                .reduce(new long[2], (totals, length) -> {
+                    totals[0]++;
+                    totals[1] += length;
+                    return totals;
+                })
+                .flatMap(totals -> this.send(this.requestFactory.createCommitRequest(totals[0], totals[1])));
+        });
+    }
+
+    /**
+     * Stages a block and releases it's buffer to the pool once the block is uploaded or failed.
+     *
+     * @param block the block to stage
+     * @param bytesTransferred the counter of bytes uploaded so far
+     * @return a publisher upon subscription uploads the block and emits the block length.
+     */
+    private Mono<Integer> uploadBlock(Block block, AtomicLong bytesTransferred) {
+        final int length = block.buffer.position();
+        return Mono.defer(() -> {
+            ByteBuffer data = block.buffer.duplicate();
+            data.flip();
+            HttpRequest request = this.requestFactory.createBlockRequest(block.index, block.offset, length)
+                .withHeader("Content-Length", String.valueOf(length))
+                .withBody(Flux.just(data));
+            return this.send(request);
+        })
+        .retry(this.options.maxRetriesPerBlock(), TransientErrors::isTransient)
+        .map(response -> {
+            long transferred = bytesTransferred.addAndGet(length);
+            if (this.options.progressListener() != null) {
+                this.options.progressListener().onProgress(transferred);
+            }
+            return length;
+        })
+        .doFinally(signal -> this.blockPool.release(block.buffer));
+    }
+
+    /**
+     * Sends the request through the pipeline.
+     *
+     * @param request the request
+     * @return a publisher that emits the response if the status code indicates success, error otherwise.
+     */
+    private Mono<HttpResponse> send(HttpRequest request) {
+        return this.pipeline.sendRequest(this.pipeline.newContext(request))
+            .flatMap(response -> {
+                if (response.statusCode() / 100 != 2) {
+                    return Mono.error(new HttpResponseException("Unexpected status code " + response.statusCode() + " for the request '" + request.url() + "'.", response));
+                }
+                return Mono.just(response);
+            });
+    }
+
+    /**
+     * Package private type representing a block, the block data is in {@code buffer}
+     * from position zero to the current position.
+     */
+    static final class Block {
+        final long index;
+        final long offset;
+        final ByteBuffer buffer;
+
+        Block(long index, long offset, ByteBuffer buffer) {
+            this.index = index;
+            this.offset = offset;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Package private type that copies the content buffers into pooled block buffers,
+     * a block is filled only when it is demanded.
+     */
+    static final class BlockSplitter {
+        private final ByteBufferPool pool;
+        private ByteBuffer current;
+        private long nextIndex;
+        private long nextOffset;
+
+        BlockSplitter(ByteBufferPool pool) {
+            this.pool = pool;
+        }
+
+        /**
+         * Copies the content buffer into blocks.
+         *
+         * @param content the content buffer
+         * @return a publisher that emits the blocks filled by the content buffer, the partially
+         * filled last block is retained to be filled by the next content buffer.
+         */
+        Flux<Block> split(ByteBuffer content) {
+            final ByteBuffer source = content.duplicate();
+            return Flux.generate(sink -> {
+                if (!source.hasRemaining()) {
+                    sink.complete();
+                    return;
+                }
+                if (this.current == null) {
+                    this.current = this.pool.acquire();
+                }
+                int length = Math.min(source.remaining(), this.current.remaining());
+                ByteBuffer slice = source.duplicate();
+                slice.limit(slice.position() + length);
+                this.current.put(slice);
+                source.position(source.position() + length);
+                if (this.current.hasRemaining()) {
+                    sink.complete();
+                } else {
+                    sink.next(this.takeCurrent());
+                }
+            });
+        }
+
+        /**
+         * @return the partially filled last block, null if there is none.
+         */
+        Block remaining() {
+            if (this.current == null) {
+                return null;
+            }
+            return this.takeCurrent();
+        }
+
+        private Block takeCurrent() {
+            Block block = new Block(this.nextIndex, this.nextOffset, this.current);
+            this.nextIndex++;
+            this.nextOffset += this.current.position();
+            this.current = null;
+            return block;
+        }
+    }
+}
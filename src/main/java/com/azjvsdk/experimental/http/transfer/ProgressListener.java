@@ -0,0 +1,14 @@
+package com.azjvsdk.experimental.http.transfer;
+
+/**
+ * Listener notified as a transfer makes progress.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+    /**
+     * Invoked each time a portion of the transfer completes, may be invoked concurrently.
+     *
+     * @param bytesTransferred the total number of bytes transferred so far
+     */
+    void onProgress(long bytesTransferred);
+}
@@ -0,0 +1,35 @@
+package com.azjvsdk.experimental.http.transfer;
+
+import com.azjvsdk.experimental.http.HttpResponse;
+import com.azjvsdk.experimental.http.HttpResponseException;
+import reactor.core.Exceptions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Package private type classifying the errors of the block and range requests, only a transient
+ * error is worth sending the request again.
+ */
+final class TransientErrors {
+    private TransientErrors() {
+    }
+
+    /**
+     * @param throwable the error of a request
+     * @return true if the error is a 5xx, 408 or 429 response or a connection error.
+     */
+    static boolean isTransient(Throwable throwable) {
+        if (throwable instanceof HttpResponseException) {
+            HttpResponse response = ((HttpResponseException) throwable).response();
+            if (response == null) {
+                return false;
+            }
+            int statusCode = response.statusCode();
+            return statusCode / 100 == 5 || statusCode == 408 || statusCode == 429;
+        }
+        final Throwable error = Exceptions.unwrap(throwable);
+        return error instanceof IOException || error instanceof UncheckedIOException || error instanceof TimeoutException;
+    }
+}
@@ -0,0 +1,98 @@
+package com.azjvsdk.experimental.http.transfer;
+
+/**
+ * Options to configure {@link ParallelUploader}.
+ */
+public class UploadOptions {
+    private int blockSize = 4 * 1024 * 1024;
+    private int concurrency = 4;
+    private int maxRetriesPerBlock = 3;
+    private ProgressListener progressListener;
+
+    /**
+     * @return the number of bytes in a block.
+     */
+    public int blockSize() {
+        return this.blockSize;
+    }
+
+    /**
+     * Sets the number of bytes in a block.
+     *
+     * @param blockSize the block size
+     * @return UploadOptions
+     *
+     * @throws IllegalArgumentException if {@code blockSize} is less than 1
+     */
+    public UploadOptions withBlockSize(int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be greater than zero.");
+        }
+        this.blockSize = blockSize;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of block uploads in flight.
+     */
+    public int concurrency() {
+        return this.concurrency;
+    }
+
+    /**
+     * Sets the maximum number of block uploads in flight.
+     *
+     * @param concurrency the concurrency
+     * @return UploadOptions
+     *
+     * @throws IllegalArgumentException if {@code concurrency} is less than 1
+     */
+    public UploadOptions withConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be greater than zero.");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * @return the number of times a block failed with a transient error is retried before failing the transfer.
+     */
+    public int maxRetriesPerBlock() {
+        return this.maxRetriesPerBlock;
+    }
+
+    /**
+     * Sets the number of times a block failed with a transient error is retried before failing the transfer.
+     *
+     * @param maxRetriesPerBlock the retry count
+     * @return UploadOptions
+     *
+     * @throws IllegalArgumentException if {@code maxRetriesPerBlock} is negative
+     */
+    public UploadOptions withMaxRetriesPerBlock(int maxRetriesPerBlock) {
+        if (maxRetriesPerBlock < 0) {
+            throw new IllegalArgumentException("maxRetriesPerBlock cannot be negative.");
+        }
+        this.maxRetriesPerBlock = maxRetriesPerBlock;
+        return this;
+    }
+
+    /**
+     * @return the listener to notify as blocks are uploaded, null if not set.
+     */
+    public ProgressListener progressListener() {
+        return this.progressListener;
+    }
+
+    /**
+     * Sets the listener to notify as blocks are uploaded.
+     *
+     * @param progressListener the listener
+     * @return UploadOptions
+     */
+    public UploadOptions withProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+}
@@ -0,0 +1,171 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.auth.AccessToken;
+import com.azjvsdk.experimental.http.auth.BearerTokenPolicy;
+import com.azjvsdk.experimental.http.auth.TokenCache;
+import com.azjvsdk.experimental.http.auth.TokenCredential;
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+public class BearerTokenPolicyTests {
+    private static final String SCOPE = "https://storage.contoso.com/.default";
+
+    @Test
+    public void concurrentRequestsShareOneAcquisition() {
+        AtomicInteger acquisitions = new AtomicInteger();
+        TokenCredential credential = scope -> Mono.delay(Duration.ofMillis(50))
+            .map(i -> new AccessToken("token-" + acquisitions.incrementAndGet(), Instant.now().plus(Duration.ofHours(1))));
+        List<String> authorizations = new CopyOnWriteArrayList<>();
+        HttpPipeline pipeline = createPipeline(new BearerTokenPolicy(credential, SCOPE), authorizations, authorization -> true);
+        //
+        Flux.range(0, 50).flatMap(i -> send(pipeline)).blockLast();
+        Assert.assertEquals(1, acquisitions.get());
+        Assert.assertEquals(50, authorizations.size());
+        for (String authorization : authorizations) {
+            Assert.assertEquals("Bearer token-1", authorization);
+        }
+    }
+
+    @Test
+    public void tokenIsRefreshedInBackgroundBeforeExpiry() throws InterruptedException {
+        AtomicInteger acquisitions = new AtomicInteger();
+        MonoProcessor<Void> refreshGate = MonoProcessor.create();
+        TokenCredential credential = scope -> {
+            final int n = acquisitions.incrementAndGet();
+            Mono<Void> gate = n == 1 ? Mono.empty() : refreshGate;
+            return gate.then(Mono.fromCallable(() -> new AccessToken("token-" + n, Instant.now().plus(Duration.ofSeconds(30)))));
+        };
+        List<String> authorizations = new CopyOnWriteArrayList<>();
+        HttpPipeline pipeline = createPipeline(new BearerTokenPolicy(new TokenCache(credential, Duration.ofMillis(29_800)), SCOPE),
+            authorizations, authorization -> true);
+        //
+        send(pipeline).block();
+        // Wait for the token to enter the refresh window
+        Thread.sleep(300);
+        // The readers get the current token while the refresh is in flight
+        send(pipeline).block(Duration.ofSeconds(5));
+        send(pipeline).block(Duration.ofSeconds(5));
+        Assert.assertEquals(2, acquisitions.get());
+        refreshGate.onComplete();
+        send(pipeline).block();
+        Assert.assertEquals("Bearer token-1", authorizations.get(0));
+        Assert.assertEquals("Bearer token-1", authorizations.get(1));
+        Assert.assertEquals("Bearer token-1", authorizations.get(2));
+        Assert.assertEquals("Bearer token-2", authorizations.get(3));
+    }
+
+    @Test
+    public void tokenWithLifetimeShorterThanRefreshWindowIsNotRefreshedOnEveryUse() {
+        AtomicInteger acquisitions = new AtomicInteger();
+        TokenCredential credential = scope -> Mono.fromCallable(() ->
+            new AccessToken("token-" + acquisitions.incrementAndGet(), Instant.now().plus(Duration.ofMinutes(5))));
+        List<String> authorizations = new CopyOnWriteArrayList<>();
+        // The token is refreshed half way through it's lifetime rather than right away
+        HttpPipeline pipeline = createPipeline(new BearerTokenPolicy(new TokenCache(credential, Duration.ofMinutes(10)), SCOPE),
+            authorizations, authorization -> true);
+        for (int i = 0; i < 5; i++) {
+            send(pipeline).block();
+        }
+        Assert.assertEquals(1, acquisitions.get());
+        Assert.assertEquals(5, authorizations.size());
+    }
+
+    @Test
+    public void unauthorizedResponseTriggersOneReplay() {
+        AtomicInteger acquisitions = new AtomicInteger();
+        TokenCredential credential = scope -> Mono.fromCallable(() ->
+            new AccessToken("token-" + acquisitions.incrementAndGet(), Instant.now().plus(Duration.ofHours(1))));
+        List<String> authorizations = new CopyOnWriteArrayList<>();
+        // The service revoked the first token
+        HttpPipeline pipeline = createPipeline(new BearerTokenPolicy(credential, SCOPE), authorizations,
+            authorization -> !authorization.equals("Bearer token-1"));
+        Assert.assertEquals(200, send(pipeline).block().statusCode());
+        Assert.assertEquals(2, authorizations.size());
+        Assert.assertEquals("Bearer token-2", authorizations.get(1));
+        // A token rejected again is not replayed more than once
+        authorizations.clear();
+        HttpPipeline rejectingPipeline = createPipeline(new BearerTokenPolicy(credential, SCOPE), authorizations, authorization -> false);
+        Assert.assertEquals(401, send(rejectingPipeline).block().statusCode());
+        Assert.assertEquals(2, authorizations.size());
+    }
+
+    @Test
+    public void credentialThrowingDoesNotBlockLaterAcquisitions() {
+        AtomicInteger acquisitions = new AtomicInteger();
+        TokenCredential credential = scope -> {
+            if (acquisitions.incrementAndGet() == 1) {
+                throw new IllegalStateException("The credential is not configured.");
+            }
+            return Mono.just(new AccessToken("token-" + acquisitions.get(), Instant.now().plus(Duration.ofHours(1))));
+        };
+        TokenCache cache = new TokenCache(credential);
+        try {
+            cache.getToken(SCOPE).block(Duration.ofSeconds(5));
+            Assert.fail("The acquisition must fail with the error thrown by the credential.");
+        } catch (IllegalStateException expected) {
+            Assert.assertEquals("The credential is not configured.", expected.getMessage());
+        }
+        Assert.assertEquals("token-2", cache.getToken(SCOPE).block(Duration.ofSeconds(5)).token());
+    }
+
+    private static HttpPipeline createPipeline(BearerTokenPolicy policy, List<String> authorizations, Predicate<String> authorized) {
+        return new HttpPipeline(new PolicyEntry[] { new PolicyEntry("auth", policy) },
+            createHttpClient(authorizations, authorized));
+    }
+
+    private static Mono<HttpResponse> send(HttpPipeline pipeline) {
+        try {
+            return pipeline.sendRequest(pipeline.newContext(new HttpRequest("", HttpMethod.GET, new URL("http://storage.contoso.com/c/b"))));
+        } catch (MalformedURLException mue) {
+            throw new RuntimeException(mue);
+        }
+    }
+
+    private static HttpClient createHttpClient(List<String> authorizations, Predicate<String> authorized) {
+        return new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                final String authorization = context.httpRequest().headers().value("Authorization");
+                authorizations.add(authorization);
+                final int statusCode = authorized.test(authorization) ? 200 : 401;
+                return Mono.just(new HttpResponse() {
+                    @Override
+                    public int statusCode() {
+                        return statusCode;
+                    }
+
+                    @Override
+                    public String headerValue(String headerName) {
+                        return null;
+                    }
+
+                    @Override
+                    public HttpHeaders headers() {
+                        return new HttpHeaders();
+                    }
+
+                    @Override
+                    public Flux<ByteBuffer> body() {
+                        return Flux.empty();
+                    }
+                }.withRequest(context.httpRequest()));
+            }
+        };
+    }
+}
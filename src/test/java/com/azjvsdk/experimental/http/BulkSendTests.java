@@ -0,0 +1,162 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.BulkSendOptions;
+import com.azjvsdk.experimental.http.pipeline.BulkSendStatistics;
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.RequestPolicy;
+import org.junit.Assert;
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class BulkSendTests {
+    @Test
+    public void slowHostDoesNotStarveOtherHosts() {
+        Map<String, AtomicInteger> inFlightPerHost = new ConcurrentHashMap<>();
+        AtomicInteger maxSlowInFlight = new AtomicInteger();
+        HttpPipeline pipeline = new HttpPipeline(new RequestPolicy[0], createHttpClient(inFlightPerHost, maxSlowInFlight));
+        // The first 20 requests target the slow host, followed by 20 to a fast host.
+        Flux<HttpRequest> requests = Flux.range(0, 40)
+            .map(i -> createHttpRequest((i < 20 ? "http://slow.contoso.com/" : "http://fast.contoso.com/") + i));
+        BulkSendStatistics statistics = new BulkSendStatistics();
+        //
+        List<String> completed = pipeline.sendAll(requests, new BulkSendOptions()
+                .withMaxConcurrency(8)
+                .withMaxConcurrencyPerHost(2)
+                .withStatistics(statistics))
+            .map(response -> response.headerValue("x-path"))
+            .collectList()
+            .block();
+        //
+        Assert.assertEquals(40, completed.size());
+        Assert.assertTrue(maxSlowInFlight.get() <= 2);
+        // All fast requests complete while the slow host is held at it's limit
+        int lastFast = completed.lastIndexOf("/39");
+        Assert.assertTrue(lastFast < 30);
+        Assert.assertEquals(40, statistics.succeeded());
+        Assert.assertTrue(statistics.throughput() > 0);
+    }
+
+    @Test
+    public void orderedSendEmitsResponsesInRequestOrder() {
+        HttpPipeline pipeline = new HttpPipeline(new RequestPolicy[0], createHttpClient(new ConcurrentHashMap<>(), new AtomicInteger()));
+        Flux<HttpRequest> requests = Flux.range(0, 10)
+            .map(i -> createHttpRequest((i % 2 == 0 ? "http://slow.contoso.com/" : "http://fast.contoso.com/") + i));
+        //
+        List<String> completed = pipeline.sendAll(requests, new BulkSendOptions().withOrdered(true))
+            .map(response -> response.headerValue("x-path"))
+            .collectList()
+            .block();
+        Assert.assertEquals(IntStream.range(0, 10).mapToObj(i -> "/" + i).collect(Collectors.toList()), completed);
+    }
+
+    @Test
+    public void orderedSendCompletesWithBoundedDemand() throws InterruptedException {
+        HttpPipeline pipeline = new HttpPipeline(new RequestPolicy[0], createHttpClient(new ConcurrentHashMap<>(), new AtomicInteger()));
+        // The responses of the fast host arrive first and wait for the second request to the slow host
+        Flux<HttpRequest> requests = Flux.just("http://slow.contoso.com/0", "http://slow.contoso.com/1", "http://fast.contoso.com/2", "http://fast.contoso.com/3")
+            .map(BulkSendTests::createHttpRequest);
+        List<String> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        pipeline.sendAll(requests, new BulkSendOptions().withOrdered(true).withMaxConcurrencyPerHost(1))
+            .subscribe(new BaseSubscriber<HttpResponse>() {
+                @Override
+                protected void hookOnSubscribe(Subscription subscription) {
+                    subscription.request(3);
+                }
+
+                @Override
+                protected void hookOnNext(HttpResponse response) {
+                    received.add(response.headerValue("x-path"));
+                    latch.countDown();
+                }
+            });
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList("/0", "/1", "/2"), received);
+    }
+
+    @Test
+    public void sourceIsRequestedOnlyAsRequestsCanBeSent() {
+        AtomicInteger requestedFromSource = new AtomicInteger();
+        HttpPipeline pipeline = new HttpPipeline(new RequestPolicy[0], createHttpClient(new ConcurrentHashMap<>(), new AtomicInteger()));
+        Flux<HttpRequest> requests = Flux.range(0, 1000)
+            .doOnRequest(n -> requestedFromSource.addAndGet((int) Math.min(n, Integer.MAX_VALUE)))
+            .map(i -> createHttpRequest("http://fast.contoso.com/" + i));
+        //
+        pipeline.sendAll(requests, new BulkSendOptions().withMaxPendingRequests(16))
+            .take(5)
+            .blockLast();
+        Assert.assertTrue(requestedFromSource.get() < 100);
+    }
+
+    private HttpClient createHttpClient(Map<String, AtomicInteger> inFlightPerHost, AtomicInteger maxSlowInFlight) {
+        return new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                URL url = context.httpRequest().url();
+                boolean slow = url.getHost().startsWith("slow");
+                return Mono.defer(() -> {
+                    int inFlight = inFlightPerHost.computeIfAbsent(url.getHost(), h -> new AtomicInteger()).incrementAndGet();
+                    if (slow) {
+                        maxSlowInFlight.accumulateAndGet(inFlight, Math::max);
+                    }
+                    return Mono.delay(Duration.ofMillis(slow ? 50 : 1));
+                }).map(ignored -> {
+                    inFlightPerHost.get(url.getHost()).decrementAndGet();
+                    HttpHeaders headers = new HttpHeaders().set("x-path", url.getPath());
+                    return createResponse(headers);
+                });
+            }
+        };
+    }
+
+    private static HttpResponse createResponse(HttpHeaders headers) {
+        return new HttpResponse() {
+            @Override
+            public int statusCode() {
+                return 200;
+            }
+
+            @Override
+            public String headerValue(String headerName) {
+                return headers.value(headerName);
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return headers;
+            }
+
+            @Override
+            public Flux<ByteBuffer> body() {
+                return Flux.empty();
+            }
+        };
+    }
+
+    private static HttpRequest createHttpRequest(String url) {
+        try {
+            return new HttpRequest("", HttpMethod.GET, new URL(url));
+        } catch (MalformedURLException mue) {
+            throw new RuntimeException(mue);
+        }
+    }
+}
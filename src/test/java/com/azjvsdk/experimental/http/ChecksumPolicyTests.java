@@ -0,0 +1,207 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.checksum.ChecksumAlgorithm;
+import com.azjvsdk.experimental.http.checksum.ChecksumPolicy;
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+public class ChecksumPolicyTests {
+    @Test
+    public void checksumOfReplayableBodyIsSentInHeader() {
+        final byte[] check = "123456789".getBytes(StandardCharsets.US_ASCII);
+        Assert.assertEquals("JfnnlDI7RTiF9RgfG2JNCw==", sentChecksum(ChecksumAlgorithm.MD5, check));
+        Assert.assertEquals(base64(0xE3, 0x06, 0x92, 0x83), sentChecksum(ChecksumAlgorithm.CRC32C, check));
+        Assert.assertEquals(base64(0x88, 0x98, 0x79, 0x0A, 0x86, 0x14, 0x8B, 0xAE), sentChecksum(ChecksumAlgorithm.CRC64, check));
+    }
+
+    @Test
+    public void checksumOfOneShotBodyIsVerifiedAgainstEcho() {
+        byte[] content = new byte[100_003];
+        new Random(7).nextBytes(content);
+        for (ChecksumAlgorithm algorithm : ChecksumAlgorithm.values()) {
+            final String expected = sentChecksum(algorithm, content);
+            // The direct buffers of the one-shot body are hashed in place as they are sent
+            HttpPipeline pipeline = createPipeline(algorithm, request -> response(200, algorithm.headerName(), expected, new byte[0]));
+            Assert.assertEquals(200, send(pipeline, createHttpRequest().withBody(directChunks(content))).block().statusCode());
+            //
+            HttpPipeline corrupting = createPipeline(algorithm, request -> response(200, algorithm.headerName(), base64(1, 2, 3, 4), new byte[0]));
+            try {
+                send(corrupting, createHttpRequest().withBody(directChunks(content))).block();
+                Assert.fail("A mismatching checksum must fail.");
+            } catch (HttpResponseException expectedException) {
+            }
+        }
+    }
+
+    @Test
+    public void echoedChecksumIsNotUsedToVerifyResponseBody() {
+        byte[] content = new byte[5_000];
+        new Random(17).nextBytes(content);
+        final String expected = sentChecksum(ChecksumAlgorithm.CRC64, content);
+        HttpPipeline pipeline = createPipeline(ChecksumAlgorithm.CRC64, request -> response(201, "x-ms-content-crc64", expected, new byte[0]));
+        // Replayable and one-shot uploads, the empty body of the response is read without error
+        HttpResponse response = send(pipeline, createHttpRequest().withBody(content)).block();
+        Assert.assertEquals(0, read(response.body()).length);
+        response = send(pipeline, createHttpRequest().withBody(directChunks(content))).block();
+        Assert.assertEquals(0, read(response.body()).length);
+        // A caller supplied checksum is verified against the echo as well
+        HttpRequest request = createHttpRequest().withHeader("x-ms-content-crc64", base64(1, 2, 3, 4, 5, 6, 7, 8)).withBody(content);
+        try {
+            send(pipeline, request).block();
+            Assert.fail("A mismatching echo must fail.");
+        } catch (HttpResponseException expectedException) {
+        }
+    }
+
+    @Test
+    public void responseBodyIsVerifiedAtEndOfStream() {
+        byte[] content = new byte[50_000];
+        new Random(11).nextBytes(content);
+        final String expected = sentChecksum(ChecksumAlgorithm.CRC64, content);
+        HttpPipeline pipeline = createPipeline(ChecksumAlgorithm.CRC64, request -> response(200, "x-ms-content-crc64", expected, content));
+        Assert.assertArrayEquals(content, read(send(pipeline, createHttpRequest()).block().body()));
+        //
+        byte[] corrupted = content.clone();
+        corrupted[40_000] ^= 1;
+        HttpPipeline corrupting = createPipeline(ChecksumAlgorithm.CRC64, request -> response(200, "x-ms-content-crc64", expected, corrupted));
+        try {
+            read(send(corrupting, createHttpRequest()).block().body());
+            Assert.fail("A corrupted body must fail.");
+        } catch (HttpResponseException expectedException) {
+        }
+    }
+
+    @Test
+    public void resentOneShotBodyIsWrappedOnce() {
+        byte[] content = new byte[10_000];
+        new Random(13).nextBytes(content);
+        final String expected = sentChecksum(ChecksumAlgorithm.CRC64, content);
+        final List<Flux<ByteBuffer>> sentBodies = new ArrayList<>();
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[] {
+            new PolicyEntry("resend", (context, next) -> next.process().then(Mono.defer(next::process))),
+            new PolicyEntry("checksum", new ChecksumPolicy(ChecksumAlgorithm.CRC64))
+        }, new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                final HttpRequest request = context.httpRequest();
+                sentBodies.add(request.body());
+                return request.body().then(Mono.fromCallable(() -> response(200, "x-ms-content-crc64", expected, new byte[0]).withRequest(request)));
+            }
+        });
+        final Flux<ByteBuffer> body = Flux.defer(() -> Flux.just(ByteBuffer.wrap(content)));
+        HttpRequest request = createHttpRequest().withBody(body);
+        Assert.assertEquals(200, send(pipeline, request).block().statusCode());
+        // Both attempts send the same wrapper, the caller's request gets it's body back
+        Assert.assertEquals(2, sentBodies.size());
+        Assert.assertSame(sentBodies.get(0), sentBodies.get(1));
+        Assert.assertNotSame(body, sentBodies.get(0));
+        Assert.assertSame(body, request.body());
+    }
+
+    private static String sentChecksum(ChecksumAlgorithm algorithm, byte[] content) {
+        List<String> sent = new ArrayList<>();
+        HttpPipeline pipeline = createPipeline(algorithm, request -> {
+            sent.add(request.headers().value(algorithm.headerName()));
+            return response(201, null, null, new byte[0]);
+        });
+        send(pipeline, createHttpRequest().withBody(content)).block();
+        return sent.get(0);
+    }
+
+    private static Flux<ByteBuffer> directChunks(byte[] content) {
+        List<ByteBuffer> chunks = new ArrayList<>();
+        int offset = 0;
+        for (int i = 0; offset < content.length; i++) {
+            // Odd sizes, so that the buffers do not line up with the 8 byte strides.
+            int length = Math.min((i * 7919) % 8192 + 1, content.length - offset);
+            ByteBuffer chunk = ByteBuffer.allocateDirect(length);
+            chunk.put(content, offset, length).flip();
+            chunks.add(chunk);
+            offset += length;
+        }
+        return Flux.fromIterable(chunks);
+    }
+
+    private static String base64(int... bytes) {
+        byte[] b = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            b[i] = (byte) bytes[i];
+        }
+        return Base64.getEncoder().encodeToString(b);
+    }
+
+    private static byte[] read(Flux<ByteBuffer> body) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        body.doOnNext(buffer -> {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            stream.write(bytes, 0, bytes.length);
+        }).blockLast();
+        return stream.toByteArray();
+    }
+
+    private static HttpPipeline createPipeline(ChecksumAlgorithm algorithm, Function<HttpRequest, HttpResponse> responder) {
+        return new HttpPipeline(new PolicyEntry[] { new PolicyEntry("checksum", new ChecksumPolicy(algorithm)) },
+            new HttpClient() {
+                @Override
+                public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                    final HttpRequest request = context.httpRequest();
+                    // Consume the request body as the wire would.
+                    final Flux<ByteBuffer> body = request.body() == null ? Flux.empty() : request.body();
+                    return body.then(Mono.fromCallable(() -> responder.apply(request).withRequest(request)));
+                }
+            });
+    }
+
+    private static Mono<HttpResponse> send(HttpPipeline pipeline, HttpRequest request) {
+        return pipeline.sendRequest(pipeline.newContext(request));
+    }
+
+    private static HttpRequest createHttpRequest() {
+        try {
+            return new HttpRequest("", HttpMethod.PUT, new URL("http://blob.contoso.com/c/b"));
+        } catch (MalformedURLException mue) {
+            throw new RuntimeException(mue);
+        }
+    }
+
+    private static HttpResponse response(int statusCode, String headerName, String headerValue, byte[] content) {
+        return new HttpResponse() {
+            @Override
+            public int statusCode() {
+                return statusCode;
+            }
+
+            @Override
+            public String headerValue(String name) {
+                return headerName != null && headerName.equalsIgnoreCase(name) ? headerValue : null;
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return new HttpHeaders();
+            }
+
+            @Override
+            public Flux<ByteBuffer> body() {
+                return Flux.just(ByteBuffer.wrap(content, 0, content.length / 2), ByteBuffer.wrap(content, content.length / 2, content.length - content.length / 2));
+            }
+        };
+    }
+}
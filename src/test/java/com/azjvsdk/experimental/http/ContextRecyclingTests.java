@@ -0,0 +1,98 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.HttpPipelineOptions;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import com.azjvsdk.experimental.http.pipeline.RequestPriority;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+
+public class ContextRecyclingTests {
+    @Test
+    public void recycledContextIsResetForTheNextRequest() {
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[] {
+            new PolicyEntry("gPolicyA", (context, next) -> next.process())
+        }, createHttpClient(), new HttpPipelineOptions().withMaxPooledContexts(16));
+        //
+        PipelineCallContext cxt = pipeline.newContext(createHttpRequest("/first"));
+        cxt.setData("foo", "bar");
+        cxt.setPriority(RequestPriority.BACKGROUND);
+        cxt.addPolicyLast("lPolicyA", (context, next) -> next.process());
+        Assert.assertEquals(200, pipeline.sendRequest(cxt).block().statusCode());
+        //
+        HttpRequest secondRequest = createHttpRequest("/second");
+        PipelineCallContext recycled = pipeline.newContext(secondRequest);
+        Assert.assertSame(cxt, recycled);
+        Assert.assertSame(secondRequest, recycled.httpRequest());
+        Assert.assertFalse(recycled.dataExists("foo"));
+        Assert.assertEquals(RequestPriority.DEFAULT, recycled.priority());
+        Assert.assertEquals(1, recycled.requestPolicyEntries().length);
+        // The name of the local policy of the previous request is free again
+        recycled.addPolicyAfter("gPolicyA", "lPolicyA", (context, next) -> next.process());
+        Assert.assertEquals("/second", pipeline.sendRequest(recycled).block().request().url().getPath());
+    }
+
+    @Test
+    public void useAfterReleaseIsDetected() {
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[0], createHttpClient(),
+            new HttpPipelineOptions().withMaxPooledContexts(16).withLeakDetection(true));
+        PipelineCallContext cxt = pipeline.newContext(createHttpRequest("/first"));
+        pipeline.sendRequest(cxt).block();
+        try {
+            cxt.getData("foo");
+            Assert.fail("Using a released context must fail.");
+        } catch (IllegalStateException expected) {
+            Assert.assertNotNull(expected.getCause());
+        }
+        try {
+            pipeline.sendRequest(cxt).block();
+            Assert.fail("Sending a released context must fail.");
+        } catch (IllegalStateException expected) {
+        }
+        Assert.assertNotSame(cxt, pipeline.newContext(createHttpRequest("/second")));
+    }
+
+    private static HttpClient createHttpClient() {
+        return new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                return Mono.just(new HttpResponse() {
+                    @Override
+                    public int statusCode() {
+                        return 200;
+                    }
+
+                    @Override
+                    public String headerValue(String headerName) {
+                        return null;
+                    }
+
+                    @Override
+                    public HttpHeaders headers() {
+                        return new HttpHeaders();
+                    }
+
+                    @Override
+                    public Flux<ByteBuffer> body() {
+                        return Flux.empty();
+                    }
+                }.withRequest(context.httpRequest()));
+            }
+        };
+    }
+
+    private static HttpRequest createHttpRequest(String path) {
+        try {
+            return new HttpRequest("", HttpMethod.GET, new URL("http://contoso.com" + path));
+        } catch (MalformedURLException mue) {
+            throw new RuntimeException(mue);
+        }
+    }
+}
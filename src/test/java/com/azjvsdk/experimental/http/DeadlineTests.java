@@ -0,0 +1,118 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import com.azjvsdk.experimental.http.pipeline.RequestPolicy;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DeadlineTests {
+    @Test
+    public void deadlineCancelsTheHttpClient() {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        HttpPipeline pipeline = new HttpPipeline(new RequestPolicy[0], createHttpClient(attempts, cancelled, Integer.MAX_VALUE));
+        PipelineCallContext cxt = pipeline.newContext(createHttpRequest());
+        cxt.setDeadline(Duration.ofMillis(500));
+        //
+        try {
+            pipeline.sendRequest(cxt).block();
+            Assert.fail("The request must fail once the deadline is reached.");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        Assert.assertEquals(1, cancelled.get());
+        Assert.assertEquals(Duration.ZERO, cxt.remainingTime());
+    }
+
+    @Test
+    public void attemptTimeoutRetriesWithinDeadline() {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        // The first attempt hangs, the second one responds.
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[] { new PolicyEntry("retry", createAttemptTimeoutPolicy(Duration.ofMillis(30))) },
+            createHttpClient(attempts, cancelled, 1));
+        PipelineCallContext cxt = pipeline.newContext(createHttpRequest());
+        cxt.setDeadline(Duration.ofSeconds(5));
+        //
+        HttpResponse response = pipeline.sendRequest(cxt).block();
+        Assert.assertEquals(200, response.statusCode());
+        Assert.assertEquals(2, attempts.get());
+        Assert.assertEquals(1, cancelled.get());
+    }
+
+    @Test
+    public void attemptTimeoutIsClampedToDeadline() {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[] { new PolicyEntry("attempt", (context, next) -> next.process(Duration.ofMinutes(1))) },
+            createHttpClient(attempts, cancelled, Integer.MAX_VALUE));
+        PipelineCallContext cxt = pipeline.newContext(createHttpRequest());
+        cxt.setDeadline(Duration.ofMillis(500));
+        //
+        long start = System.nanoTime();
+        try {
+            pipeline.sendRequest(cxt).block();
+            Assert.fail("The request must fail once the deadline is reached.");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        Assert.assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+        Assert.assertEquals(1, cancelled.get());
+    }
+
+    private static RequestPolicy createAttemptTimeoutPolicy(Duration attemptTimeout) {
+        return (context, next) -> next.process(attemptTimeout)
+            .onErrorResume(TimeoutException.class, e -> next.process(attemptTimeout));
+    }
+
+    private static HttpClient createHttpClient(AtomicInteger attempts, AtomicInteger cancelled, int hangingAttempts) {
+        return new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                if (attempts.incrementAndGet() <= hangingAttempts) {
+                    return Mono.<HttpResponse>never().doOnCancel(cancelled::incrementAndGet);
+                }
+                return Mono.just(new HttpResponse() {
+                    @Override
+                    public int statusCode() {
+                        return 200;
+                    }
+
+                    @Override
+                    public String headerValue(String headerName) {
+                        return null;
+                    }
+
+                    @Override
+                    public HttpHeaders headers() {
+                        return new HttpHeaders();
+                    }
+
+                    @Override
+                    public Flux<ByteBuffer> body() {
+                        return Flux.empty();
+                    }
+                });
+            }
+        };
+    }
+
+    private static HttpRequest createHttpRequest() {
+        try {
+            return new HttpRequest("", HttpMethod.GET, new URL("http://contoso.com"));
+        } catch (MalformedURLException mue) {
+            throw new RuntimeException(mue);
+        }
+    }
+}
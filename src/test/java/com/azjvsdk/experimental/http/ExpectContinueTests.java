@@ -0,0 +1,240 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.HttpPipelineOptions;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.MalformedURLException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ExpectContinueTests {
+    private static final int BODY_LENGTH = 64 * 1024;
+
+    @Test
+    public void bodyIsSentAfterContinueAndNotSentOnRejection() throws IOException {
+        try (ContinueServer server = new ContinueServer();
+             ReactorNettyClientFactory clientFactory = new ReactorNettyClientFactory(4)) {
+            HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[0], clientFactory.create(new HttpClientConfiguration(null)
+                .withExpectContinueTimeout(Duration.ofMinutes(1))));
+            // The body is streamed once the service answers with 100 Continue
+            AtomicInteger subscriptions = new AtomicInteger();
+            HttpResponse response = pipeline.sendRequest(pipeline.newContext(upload(server.url("/continue"), subscriptions)
+                .withHeader("Expect", "100-continue"))).block(Duration.ofSeconds(10));
+            Assert.assertEquals(201, response.statusCode());
+            Assert.assertEquals(1, subscriptions.get());
+            Assert.assertEquals(BODY_LENGTH, server.bodyLengths.get(0).intValue());
+            // A rejection short-circuits without reading the body source
+            response = pipeline.sendRequest(pipeline.newContext(upload(server.url("/reject"), subscriptions)
+                .withHeader("Expect", "100-continue"))).block(Duration.ofSeconds(10));
+            Assert.assertEquals(412, response.statusCode());
+            Assert.assertEquals(1, subscriptions.get());
+            // The connection of the rejected request, which may still expect the body, is not reused
+            response = pipeline.sendRequest(pipeline.newContext(upload(server.url("/continue"), subscriptions)
+                .withHeader("Expect", "100-continue"))).block(Duration.ofSeconds(10));
+            Assert.assertEquals(201, response.statusCode());
+            Assert.assertEquals(2, subscriptions.get());
+        }
+    }
+
+    @Test
+    public void bodyIsSentAfterTimeoutWhenServiceIgnoresExpect() throws IOException {
+        try (ContinueServer server = new ContinueServer();
+             ReactorNettyClientFactory clientFactory = new ReactorNettyClientFactory(4)) {
+            HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[0], clientFactory.create(new HttpClientConfiguration(null)
+                .withExpectContinueTimeout(Duration.ofMillis(100))));
+            AtomicInteger subscriptions = new AtomicInteger();
+            HttpResponse response = pipeline.sendRequest(pipeline.newContext(upload(server.url("/ignore"), subscriptions)
+                .withHeader("Expect", "100-continue"))).block(Duration.ofSeconds(10));
+            Assert.assertEquals(201, response.statusCode());
+            Assert.assertEquals(1, subscriptions.get());
+            Assert.assertEquals(BODY_LENGTH, server.bodyLengths.get(0).intValue());
+        }
+    }
+
+    @Test
+    public void pipelineExpectsContinueForBodiesOverThreshold() throws IOException {
+        try (ContinueServer server = new ContinueServer();
+             ReactorNettyClientFactory clientFactory = new ReactorNettyClientFactory(4)) {
+            HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[0], clientFactory.create(new HttpClientConfiguration(null)
+                .withExpectContinueTimeout(Duration.ofMinutes(1))), new HttpPipelineOptions().withExpectContinueThreshold(1024));
+            pipeline.sendRequest(pipeline.newContext(new HttpRequest("small", HttpMethod.PUT, server.url("/continue")).withBody(new byte[100])))
+                .block(Duration.ofSeconds(10));
+            HttpRequest request = upload(server.url("/continue"), new AtomicInteger());
+            pipeline.sendRequest(pipeline.newContext(request))
+                .block(Duration.ofSeconds(10));
+            Assert.assertEquals(null, server.expectHeaders.get(0));
+            Assert.assertEquals("100-continue", server.expectHeaders.get(1));
+            // The header is not added to the request, which is sent without it by a pipeline with the threshold disabled
+            Assert.assertNull(request.headers().value("Expect"));
+            HttpPipeline otherPipeline = new HttpPipeline(new PolicyEntry[0], clientFactory.create(new HttpClientConfiguration(null)));
+            otherPipeline.sendRequest(otherPipeline.newContext(request)).block(Duration.ofSeconds(10));
+            Assert.assertEquals(null, server.expectHeaders.get(2));
+        }
+    }
+
+    @Test
+    public void malformedContentLengthIsTreatedAsUnknown() throws MalformedURLException {
+        List<Boolean> expectContinue = new CopyOnWriteArrayList<>();
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[0], new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                expectContinue.add(context.expectContinue());
+                return Mono.just(new HttpResponse() {
+                    @Override
+                    public int statusCode() {
+                        return 201;
+                    }
+
+                    @Override
+                    public String headerValue(String headerName) {
+                        return null;
+                    }
+
+                    @Override
+                    public HttpHeaders headers() {
+                        return new HttpHeaders();
+                    }
+
+                    @Override
+                    public Flux<ByteBuffer> body() {
+                        return Flux.empty();
+                    }
+                });
+            }
+        }, new HttpPipelineOptions().withExpectContinueThreshold(1024));
+        HttpRequest request = new HttpRequest("malformed", HttpMethod.PUT, new URL("http://localhost/"))
+            .withHeader("Content-Length", "1O")
+            .withBody(Flux.just(ByteBuffer.wrap(new byte[10])));
+        Assert.assertEquals(201, pipeline.sendRequest(pipeline.newContext(request)).block().statusCode());
+        Assert.assertEquals(Arrays.asList(true), expectContinue);
+    }
+
+    private static HttpRequest upload(URL url, AtomicInteger subscriptions) {
+        return new HttpRequest("upload", HttpMethod.PUT, url)
+            .withHeader("Content-Length", String.valueOf(BODY_LENGTH))
+            .withBody(Flux.defer(() -> {
+                subscriptions.incrementAndGet();
+                return Flux.range(0, BODY_LENGTH / 1024).map(i -> ByteBuffer.wrap(new byte[1024]));
+            }));
+    }
+
+    /**
+     * Blocking http server that answers "/continue" with 100 Continue before reading the body,
+     * "/reject" with 412 without reading the body and "/ignore" by reading the body right away.
+     */
+    private static final class ContinueServer implements Closeable {
+        private final ServerSocket serverSocket;
+        private final List<Integer> bodyLengths = new CopyOnWriteArrayList<>();
+        private final List<String> expectHeaders = new CopyOnWriteArrayList<>();
+
+        private ContinueServer() throws IOException {
+            this.serverSocket = new ServerSocket(0, 16, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(() -> {
+                while (!this.serverSocket.isClosed()) {
+                    try {
+                        Socket socket = this.serverSocket.accept();
+                        Thread handler = new Thread(() -> this.serve(socket));
+                        handler.setDaemon(true);
+                        handler.start();
+                    } catch (IOException closed) {
+                        return;
+                    }
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private URL url(String path) {
+            try {
+                return new URL("http://127.0.0.1:" + this.serverSocket.getLocalPort() + path);
+            } catch (MalformedURLException mue) {
+                throw new IllegalArgumentException(mue);
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (Socket s = socket) {
+                final InputStream in = s.getInputStream();
+                final OutputStream out = s.getOutputStream();
+                while (true) {
+                    final String requestLine = readLine(in);
+                    if (requestLine == null) {
+                        return;
+                    }
+                    final Map<String, String> headers = new HashMap<>();
+                    String line;
+                    while ((line = readLine(in)) != null && !line.isEmpty()) {
+                        int colon = line.indexOf(':');
+                        headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+                    }
+                    this.expectHeaders.add(headers.get("expect"));
+                    final int length = Integer.parseInt(headers.getOrDefault("content-length", "0"));
+                    if (requestLine.contains("/reject")) {
+                        out.write("HTTP/1.1 412 Precondition Failed\r\nContent-Length: 0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                        out.flush();
+                        continue;
+                    }
+                    if (requestLine.contains("/continue") && headers.containsKey("expect")) {
+                        out.write("HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                        out.flush();
+                    }
+                    int read = 0;
+                    final byte[] buffer = new byte[8192];
+                    while (read < length) {
+                        int n = in.read(buffer, 0, Math.min(buffer.length, length - read));
+                        if (n < 0) {
+                            return;
+                        }
+                        read += n;
+                    }
+                    this.bodyLengths.add(read);
+                    out.write("HTTP/1.1 201 Created\r\nContent-Length: 0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                }
+            } catch (IOException ioe) {
+                // The client closed the connection
+            }
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            final ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) >= 0) {
+                if (b == '\n') {
+                    return line.toString("US-ASCII").trim();
+                }
+                line.write(b);
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.logging.AsyncLogAppender;
+import com.azjvsdk.experimental.http.logging.HttpLoggingOptions;
+import com.azjvsdk.experimental.http.logging.HttpLoggingPolicy;
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.Loggers;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+public class HttpLoggingPolicyTests {
+    @BeforeClass
+    public static void setup() {
+        Loggers.useJdkLoggers();
+    }
+
+    @Test
+    public void headersAreRedactedAndBodyPrefixIsLogged() {
+        final List<String> messages = captureMessages("HttpLoggingPolicyTests.sampled", Level.INFO);
+        final AsyncLogAppender appender = new AsyncLogAppender(Loggers.getLogger("HttpLoggingPolicyTests.sampled"), 16);
+        HttpPipeline pipeline = createPipeline(new HttpLoggingPolicy(new HttpLoggingOptions()
+            .withAppender(appender)
+            .withBodySampleRate(1)
+            .withMaxLoggedBodyBytes(8)));
+        //
+        HttpRequest request = newRequest()
+            .withHeader("Authorization", "Bearer secret")
+            .withHeader("Content-Type", "text/plain")
+            .withBody("hello world!");
+        HttpResponse response = pipeline.sendRequest(pipeline.newContext(request)).block();
+        String body = new String(collect(response.body()), StandardCharsets.UTF_8);
+        Assert.assertEquals("response-body", body);
+        appender.close();
+        //
+        Assert.assertEquals(4, messages.size());
+        String all = String.join("\n", messages);
+        Assert.assertFalse(all.contains("secret"));
+        Assert.assertFalse(all.contains("session"));
+        Assert.assertTrue(messages.get(0).startsWith("--> GET http://localhost/logging"));
+        Assert.assertTrue(messages.get(0).contains("Authorization: REDACTED"));
+        Assert.assertTrue(messages.get(0).contains("Content-Type: text/plain"));
+        Assert.assertTrue(all.contains("Request body http://localhost/logging (12 bytes, first 8 shown):" + System.lineSeparator() + "hello wo"));
+        Assert.assertTrue(all.contains("<-- 200 http://localhost/logging"));
+        Assert.assertTrue(all.contains("x-ms-request-id: r1"));
+        Assert.assertTrue(all.contains("Response body http://localhost/logging (13 bytes, first 8 shown):" + System.lineSeparator() + "response"));
+        Assert.assertEquals(0, appender.droppedCount());
+    }
+
+    @Test
+    public void queryParameterValuesAreRedacted() throws MalformedURLException {
+        final List<String> messages = captureMessages("HttpLoggingPolicyTests.query", Level.INFO);
+        final AsyncLogAppender appender = new AsyncLogAppender(Loggers.getLogger("HttpLoggingPolicyTests.query"), 16);
+        HttpPipeline pipeline = createPipeline(new HttpLoggingPolicy(new HttpLoggingOptions()
+            .withAppender(appender)
+            .withBodySampleRate(1)));
+        //
+        HttpRequest request = new HttpRequest("", HttpMethod.GET,
+            new URL("http://localhost/logging?comp=list&sv=2018-03-28&sig=secret%2Bsignature&flag"));
+        collect(pipeline.sendRequest(pipeline.newContext(request)).block().body());
+        appender.close();
+        //
+        Assert.assertEquals(3, messages.size());
+        String all = String.join("\n", messages);
+        Assert.assertFalse(all.contains("secret"));
+        final String url = "http://localhost/logging?comp=list&sv=REDACTED&sig=REDACTED&flag";
+        Assert.assertTrue(messages.get(0).startsWith("--> GET " + url));
+        Assert.assertTrue(all.contains("<-- 200 " + url));
+        Assert.assertTrue(all.contains("Response body " + url));
+    }
+
+    @Test
+    public void nothingIsDoneWhenLoggingIsDisabled() {
+        final List<String> messages = captureMessages("HttpLoggingPolicyTests.disabled", Level.WARNING);
+        final AsyncLogAppender appender = new AsyncLogAppender(Loggers.getLogger("HttpLoggingPolicyTests.disabled"), 16);
+        HttpPipeline pipeline = createPipeline(new HttpLoggingPolicy(new HttpLoggingOptions()
+            .withAppender(appender)
+            .withBodySampleRate(1)));
+        //
+        HttpRequest request = newRequest().withBody("hello world!");
+        final Flux<ByteBuffer> body = request.body();
+        HttpResponse response = pipeline.sendRequest(pipeline.newContext(request)).block();
+        Assert.assertSame(body, request.body());
+        Assert.assertNotEquals(HttpLoggingPolicy.class, response.getClass().getEnclosingClass());
+        appender.close();
+        Assert.assertEquals(0, messages.size());
+    }
+
+    @Test
+    public void unsampledBodiesPassThrough() {
+        final List<String> messages = captureMessages("HttpLoggingPolicyTests.unsampled", Level.INFO);
+        final AsyncLogAppender appender = new AsyncLogAppender(Loggers.getLogger("HttpLoggingPolicyTests.unsampled"), 16);
+        HttpPipeline pipeline = createPipeline(new HttpLoggingPolicy(new HttpLoggingOptions()
+            .withAppender(appender)));
+        //
+        HttpRequest request = newRequest().withBody("hello world!");
+        final Flux<ByteBuffer> body = request.body();
+        pipeline.sendRequest(pipeline.newContext(request)).block();
+        Assert.assertSame(body, request.body());
+        appender.close();
+        Assert.assertEquals(2, messages.size());
+    }
+
+    @Test
+    public void resentRequestBodyIsTeedOnce() {
+        final List<String> messages = captureMessages("HttpLoggingPolicyTests.resent", Level.INFO);
+        final AsyncLogAppender appender = new AsyncLogAppender(Loggers.getLogger("HttpLoggingPolicyTests.resent"), 16);
+        HttpPipeline pipeline = createPipeline(
+            new PolicyEntry("resend", (context, next) -> next.process().then(Mono.defer(next::process))),
+            new PolicyEntry("logging", new HttpLoggingPolicy(new HttpLoggingOptions()
+                .withAppender(appender)
+                .withBodySampleRate(1))));
+        //
+        HttpRequest request = newRequest().withBody("hello world!");
+        final Flux<ByteBuffer> body = request.body();
+        pipeline.sendRequest(pipeline.newContext(request)).block();
+        Assert.assertSame(body, request.body());
+        appender.close();
+        // One request body entry per attempt, a stacked tee would log the body of the second attempt twice
+        Assert.assertEquals(2, messages.stream().filter(m -> m.startsWith("Request body")).count());
+    }
+
+    private static List<String> captureMessages(String loggerName, Level level) {
+        final List<String> messages = new CopyOnWriteArrayList<>();
+        Logger logger = Logger.getLogger(loggerName);
+        logger.setUseParentHandlers(false);
+        logger.setLevel(level);
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                messages.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        return messages;
+    }
+
+    private static HttpPipeline createPipeline(HttpLoggingPolicy policy) {
+        return createPipeline(new PolicyEntry("logging", policy));
+    }
+
+    private static HttpPipeline createPipeline(PolicyEntry... policies) {
+        return new HttpPipeline(policies, new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                final HttpRequest request = context.httpRequest();
+                final Mono<Void> sent = request.body() == null ? Mono.empty() : request.body().then();
+                return sent.then(Mono.fromSupplier(() -> new HttpResponse() {
+                    @Override
+                    public int statusCode() {
+                        return 200;
+                    }
+
+                    @Override
+                    public String headerValue(String headerName) {
+                        return this.headers().value(headerName);
+                    }
+
+                    @Override
+                    public HttpHeaders headers() {
+                        return new HttpHeaders()
+                            .set("x-ms-request-id", "r1")
+                            .set("Set-Cookie", "session=1");
+                    }
+
+                    @Override
+                    public Flux<ByteBuffer> body() {
+                        return Flux.just("response", "-body")
+                            .map(s -> ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8)));
+                    }
+                }.withRequest(request)));
+            }
+        });
+    }
+
+    private static HttpRequest newRequest() {
+        try {
+            return new HttpRequest("", HttpMethod.GET, new URL("http://localhost/logging"));
+        } catch (MalformedURLException mue) {
+            throw new RuntimeException(mue);
+        }
+    }
+
+    private static byte[] collect(Flux<ByteBuffer> body) {
+        final AtomicReference<byte[]> result = new AtomicReference<>(new byte[0]);
+        body.doOnNext(buffer -> {
+            byte[] current = result.get();
+            byte[] next = new byte[current.length + buffer.remaining()];
+            System.arraycopy(current, 0, next, 0, current.length);
+            buffer.get(next, current.length, buffer.remaining());
+            result.set(next);
+        }).blockLast();
+        return result.get();
+    }
+}
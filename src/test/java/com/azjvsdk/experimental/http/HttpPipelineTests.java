@@ -1,6 +1,7 @@
 package com.azjvsdk.experimental.http;
 
 import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.HttpPipelineOptions;
 import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
 import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
 import com.azjvsdk.experimental.http.pipeline.RequestPolicy;
@@ -14,6 +15,7 @@ import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class HttpPipelineTests
@@ -381,6 +383,94 @@ public class HttpPipelineTests
         Assert.assertEquals("httpClient", l.get(2));
     }
 
+    @Test
+    public void pipelineWithManyLocalPoliciesInsertedBetweenGlobalPolicies() {
+        PolicyEntry[] globalPolicyEntries = new PolicyEntry[2];
+        globalPolicyEntries[0] = new PolicyEntry("gPolicyA", recordingPolicy("gPolicyA"));
+        globalPolicyEntries[1] = new PolicyEntry("gPolicyB", (context, next) -> {
+            List<String> l = (ArrayList<String>) context.getData("foo");
+            l.add("gPolicyB");
+            // The flow passed gPolicyA, a policy cannot be added before it any more
+            try {
+                context.addPolicyBefore("GPOLICYA", "lPolicyLate", recordingPolicy("lPolicyLate"));
+                Assert.fail("Adding a policy before a passed policy must fail.");
+            } catch (IllegalStateException expected) {
+            }
+            return next.process();
+        });
+        HttpPipeline pipeline = new HttpPipeline(globalPolicyEntries, createHttpClient());
+        PipelineCallContext cxt = pipeline.newContext(createHttpRequest());
+        // Each insert halves the gap between the last inserted policy and gPolicyB,
+        // enough inserts to exhaust the gap and renumber the chain.
+        List<String> expected = new ArrayList<>();
+        expected.add("gPolicyA");
+        String previous = "gPolicyA";
+        for (int i = 0; i < 64; i++) {
+            String name = "lPolicy" + i;
+            cxt.addPolicyAfter(previous.toUpperCase(), name, recordingPolicy(name));
+            expected.add(name);
+            previous = name;
+        }
+        expected.add("gPolicyB");
+        cxt.addPolicyLast("lPolicyLast", recordingPolicy("lPolicyLast"));
+        expected.add("lPolicyLast");
+        expected.add("httpClient");
+        try {
+            cxt.addPolicyLast("LPOLICYLAST", recordingPolicy("LPOLICYLAST"));
+            Assert.fail("Adding a policy with an existing name must fail.");
+        } catch (IllegalArgumentException expectedException) {
+        }
+        cxt.setData("foo", new ArrayList<String>());
+        //
+        pipeline.sendRequest(cxt).block();
+        //
+        Assert.assertEquals(expected, cxt.getData("foo"));
+    }
+
+    @Test
+    public void globalPoliciesSwappedOnLivePipeline() {
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[] {
+            new PolicyEntry("gPolicyA", recordingPolicy("gPolicyA")),
+            new PolicyEntry("gPolicyB", recordingPolicy("gPolicyB"))
+        }, createHttpClient(), new HttpPipelineOptions().withMaxPooledContexts(4));
+        // Created before the swap, finishes with the policies it started with
+        PipelineCallContext inFlight = pipeline.newContext(createHttpRequest());
+        List<String> inFlightRecords = new ArrayList<>();
+        inFlight.setData("foo", inFlightRecords);
+        //
+        pipeline.updateRequestPolicyEntries(entries -> {
+            PolicyEntry[] updated = Arrays.copyOf(entries, entries.length + 1);
+            updated[entries.length] = new PolicyEntry("gPolicyC", recordingPolicy("gPolicyC"));
+            return updated;
+        });
+        try {
+            pipeline.setRequestPolicyEntries(new PolicyEntry[] {
+                new PolicyEntry("gPolicyA", recordingPolicy("gPolicyA")),
+                new PolicyEntry("GPOLICYA", recordingPolicy("gPolicyA"))
+            });
+            Assert.fail("Policies with same name must be rejected.");
+        } catch (IllegalArgumentException expected) {
+        }
+        //
+        pipeline.sendRequest(inFlight).block();
+        Assert.assertEquals(Arrays.asList("gPolicyA", "gPolicyB", "httpClient"), inFlightRecords);
+        // The recycled context picks up the new policies
+        PipelineCallContext cxt = pipeline.newContext(createHttpRequest());
+        Assert.assertSame(inFlight, cxt);
+        List<String> records = new ArrayList<>();
+        cxt.setData("foo", records);
+        pipeline.sendRequest(cxt).block();
+        Assert.assertEquals(Arrays.asList("gPolicyA", "gPolicyB", "gPolicyC", "httpClient"), records);
+    }
+
+    private static RequestPolicy recordingPolicy(String name) {
+        return (context, next) -> {
+            List<String> l = (ArrayList<String>) context.getData("foo");
+            l.add(name);
+            return next.process();
+        };
+    }
+
     //
     private HttpClient createHttpClient() {
         return new HttpClient() {
@@ -0,0 +1,174 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.balancing.Endpoint;
+import com.azjvsdk.experimental.http.balancing.LoadBalancingOptions;
+import com.azjvsdk.experimental.http.balancing.LoadBalancingPolicy;
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class LoadBalancingPolicyTests {
+    @Test
+    public void fasterEndpointsArePreferred() {
+        final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+        LoadBalancingPolicy policy = new LoadBalancingPolicy(
+            Arrays.asList(RequestUrl.parse("https://slow.contoso.com"), RequestUrl.parse("https://fast1.contoso.com"), RequestUrl.parse("https://fast2.contoso.com")),
+            new LoadBalancingOptions().withLatencyDecayTime(Duration.ofMillis(250)));
+        // Start the timer threads so that the first sample is not inflated
+        Mono.delay(Duration.ofMillis(1)).block();
+        HttpPipeline pipeline = createPipeline(policy, hits, request -> request.requestUrl().host().startsWith("slow")
+            ? Mono.delay(Duration.ofMillis(100)).then(Mono.just(response(200)))
+            : Mono.delay(Duration.ofMillis(2)).then(Mono.just(response(200))));
+        for (int i = 0; i < 60; i++) {
+            HttpResponse response = pipeline.sendRequest(pipeline.newContext(newRequest(HttpMethod.GET, "http://localhost/items?i=" + i))).block();
+            Assert.assertEquals(200, response.statusCode());
+            // The path and query are kept, only the scheme and authority are rewritten
+            Assert.assertEquals("https", response.request().requestUrl().scheme());
+            Assert.assertEquals("/items", response.request().requestUrl().path());
+            Assert.assertEquals("i=" + i, response.request().requestUrl().rawQuery());
+        }
+        // The slow endpoint loses the comparisons until it's latency decays
+        Assert.assertTrue(hits.toString(), hitsOf(hits, "slow.contoso.com") <= 8);
+        Assert.assertEquals(60, hitsOf(hits, "slow.contoso.com") + hitsOf(hits, "fast1.contoso.com") + hitsOf(hits, "fast2.contoso.com"));
+        for (Endpoint endpoint : policy.endpoints()) {
+            Assert.assertEquals(0, endpoint.inFlight());
+        }
+        Assert.assertTrue(policy.endpoints().get(0).latencyEwmaNanos() > policy.endpoints().get(1).latencyEwmaNanos());
+    }
+
+    @Test
+    public void failingEndpointIsEjectedAndRequestsFailOver() {
+        final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+        LoadBalancingPolicy policy = new LoadBalancingPolicy(
+            Arrays.asList(RequestUrl.parse("http://down.contoso.com"), RequestUrl.parse("http://up.contoso.com")),
+            new LoadBalancingOptions().withFailureThreshold(2).withBaseEjectionTime(Duration.ofMinutes(1)));
+        HttpPipeline pipeline = createPipeline(policy, hits, request -> request.requestUrl().host().startsWith("down")
+            ? Mono.error(new IOException("Connection refused"))
+            : Mono.just(response(200)));
+        for (int i = 0; i < 20; i++) {
+            HttpResponse response = pipeline.sendRequest(pipeline.newContext(newRequest(HttpMethod.GET, "http://localhost/"))).block();
+            Assert.assertEquals(200, response.statusCode());
+        }
+        Endpoint down = policy.endpoints().get(0);
+        Assert.assertTrue(down.isEjected());
+        Assert.assertEquals(2, hitsOf(hits, "down.contoso.com"));
+        Assert.assertEquals(20, hitsOf(hits, "up.contoso.com"));
+        Assert.assertEquals(0, down.inFlight());
+    }
+
+    @Test
+    public void hangingEndpointIsAvoidedAsRequestsPileUp() {
+        final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+        LoadBalancingPolicy policy = new LoadBalancingPolicy(
+            Arrays.asList(RequestUrl.parse("http://hanging.contoso.com"), RequestUrl.parse("http://up.contoso.com")),
+            new LoadBalancingOptions());
+        HttpPipeline pipeline = createPipeline(policy, hits, request -> request.requestUrl().host().startsWith("hanging")
+            ? Mono.never()
+            : Mono.just(response(200)));
+        final Disposable.Composite requests = Disposables.composite();
+        try {
+            for (int i = 0; i < 50; i++) {
+                requests.add(pipeline.sendRequest(pipeline.newContext(newRequest(HttpMethod.GET, "http://localhost/"))).subscribe());
+            }
+            // The endpoint that never completes nor fails is not chosen once requests are in flight to it
+            Assert.assertTrue(hits.toString(), hitsOf(hits, "hanging.contoso.com") <= 2);
+            Assert.assertEquals(50, hitsOf(hits, "hanging.contoso.com") + hitsOf(hits, "up.contoso.com"));
+        } finally {
+            requests.dispose();
+        }
+    }
+
+    @Test
+    public void onlyIdempotentRequestsFailOver() {
+        final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+        LoadBalancingPolicy policy = new LoadBalancingPolicy(
+            Arrays.asList(RequestUrl.parse("http://a.contoso.com"), RequestUrl.parse("http://b.contoso.com")),
+            new LoadBalancingOptions().withFailureThreshold(100));
+        HttpPipeline pipeline = createPipeline(policy, hits, request -> Mono.error(new IOException("Connection reset")));
+        //
+        try {
+            pipeline.sendRequest(pipeline.newContext(newRequest(HttpMethod.GET, "http://localhost/"))).block();
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        }
+        // Failed over to the other endpoint once
+        Assert.assertEquals(1, hitsOf(hits, "a.contoso.com"));
+        Assert.assertEquals(1, hitsOf(hits, "b.contoso.com"));
+        //
+        try {
+            pipeline.sendRequest(pipeline.newContext(newRequest(HttpMethod.POST, "http://localhost/"))).block();
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        }
+        Assert.assertEquals(3, hitsOf(hits, "a.contoso.com") + hitsOf(hits, "b.contoso.com"));
+    }
+
+    private static int hitsOf(Map<String, AtomicInteger> hits, String host) {
+        AtomicInteger count = hits.get(host);
+        return count == null ? 0 : count.get();
+    }
+
+    private static HttpPipeline createPipeline(LoadBalancingPolicy policy, Map<String, AtomicInteger> hits,
+                                               Function<HttpRequest, Mono<HttpResponse>> server) {
+        return new HttpPipeline(new PolicyEntry[] { new PolicyEntry("balancing", policy) }, new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                final HttpRequest request = context.httpRequest();
+                hits.computeIfAbsent(request.requestUrl().host(), host -> new AtomicInteger()).incrementAndGet();
+                return server.apply(request).map(response -> response.withRequest(request));
+            }
+        });
+    }
+
+    private static HttpRequest newRequest(HttpMethod method, String url) {
+        try {
+            return new HttpRequest("", method, new URL(url));
+        } catch (MalformedURLException mue) {
+            throw new RuntimeException(mue);
+        }
+    }
+
+    private static HttpResponse response(int statusCode) {
+        return new HttpResponse() {
+            @Override
+            public int statusCode() {
+                return statusCode;
+            }
+
+            @Override
+            public String headerValue(String headerName) {
+                return null;
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return new HttpHeaders();
+            }
+
+            @Override
+            public Flux<ByteBuffer> body() {
+                return Flux.empty();
+            }
+        };
+    }
+}
@@ -0,0 +1,176 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Drives a {@link HttpPipeline} in open-loop, requests are started at a constant arrival rate
+ * whether or not the earlier requests completed, so a slow pipeline builds a backlog instead
+ * of silently lowering the offered load.
+ *
+ * The latency of a request is measured from it's intended start time, not from the time the
+ * driver actually got to send it, so the delays of the driver and the pipeline are not hidden
+ * (no coordinated omission). Requests still running at the end of the drain period are counted
+ * with the latency they had reached.
+ */
+final class LoadTestDriver {
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(10);
+    //
+    private final HttpPipeline pipeline;
+    private final Function<Integer, HttpRequest> requestFactory;
+
+    /**
+     * Creates LoadTestDriver.
+     *
+     * @param pipeline the pipeline to drive
+     * @param requestFactory the factory to create the request with the given sequence number
+     */
+    LoadTestDriver(HttpPipeline pipeline, Function<Integer, HttpRequest> requestFactory) {
+        this.pipeline = pipeline;
+        this.requestFactory = requestFactory;
+    }
+
+    /**
+     * Runs the load.
+     *
+     * @param requestsPerSecond the arrival rate
+     * @param duration the duration of the arrivals
+     * @return the report of the run.
+     */
+    Report run(int requestsPerSecond, Duration duration) {
+        final int count = (int) Math.max(1, duration.toNanos() * requestsPerSecond / TimeUnit.SECONDS.toNanos(1));
+        final long intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        final AtomicLongArray latencies = new AtomicLongArray(count);
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final long allocatedAtStart = allocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            final long intendedStart = start + i * intervalNanos;
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            final int index = i;
+            final PipelineCallContext context = this.pipeline.newContext(this.requestFactory.apply(i));
+            this.pipeline.sendRequest(context)
+                .flatMap(response -> response.body().then().thenReturn(response.statusCode()))
+                .subscribe(statusCode -> {
+                    if (statusCode / 100 != 2) {
+                        failed.incrementAndGet();
+                    }
+                }, error -> {
+                    failed.incrementAndGet();
+                    latencies.set(index, System.nanoTime() - intendedStart);
+                    completed.incrementAndGet();
+                }, () -> {
+                    latencies.set(index, System.nanoTime() - intendedStart);
+                    completed.incrementAndGet();
+                });
+        }
+        final long arrivalsEnd = System.nanoTime();
+        final long drainDeadline = arrivalsEnd + DRAIN_TIMEOUT.toNanos();
+        while (completed.get() < count && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        final long end = System.nanoTime();
+        final long allocated = allocatedBytes() - allocatedAtStart;
+        //
+        final long[] sorted = new long[count];
+        int incomplete = 0;
+        for (int i = 0; i < count; i++) {
+            sorted[i] = latencies.get(i);
+            if (sorted[i] == 0) {
+                // Still running, count it with the latency it has reached.
+                sorted[i] = end - (start + i * intervalNanos);
+                incomplete++;
+            }
+        }
+        Arrays.sort(sorted);
+        return new Report(count, failed.get(), incomplete, end - start, sorted, allocated);
+    }
+
+    /**
+     * @return the bytes allocated so far by the live threads, -1 if not supported by the JVM.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+        long total = 0;
+        for (long allocated : sunThreads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Type representing the result of a run.
+     */
+    static final class Report {
+        final int requests;
+        final int failed;
+        final int incomplete;
+        final long elapsedNanos;
+        final long allocatedBytes;
+        private final long[] sortedLatencies;
+
+        private Report(int requests, int failed, int incomplete, long elapsedNanos, long[] sortedLatencies, long allocatedBytes) {
+            this.requests = requests;
+            this.failed = failed;
+            this.incomplete = incomplete;
+            this.elapsedNanos = elapsedNanos;
+            this.sortedLatencies = sortedLatencies;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        /**
+         * @return the completed requests per second.
+         */
+        double throughput() {
+            return (this.requests - this.incomplete) * (double) TimeUnit.SECONDS.toNanos(1) / this.elapsedNanos;
+        }
+
+        /**
+         * @param percentile the percentile, e.g. 99.9
+         * @return the latency at the percentile.
+         */
+        Duration latency(double percentile) {
+            int index = (int) Math.ceil(percentile / 100 * this.sortedLatencies.length) - 1;
+            return Duration.ofNanos(this.sortedLatencies[Math.max(0, Math.min(index, this.sortedLatencies.length - 1))]);
+        }
+
+        /**
+         * @return the bytes allocated per second during the run, negative if not supported by the JVM.
+         */
+        double allocationRate() {
+            return this.allocatedBytes * (double) TimeUnit.SECONDS.toNanos(1) / this.elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d failed=%d incomplete=%d throughput=%.1f/s p50=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms allocation=%.1fMB/s",
+                this.requests, this.failed, this.incomplete, this.throughput(),
+                millis(this.latency(50)), millis(this.latency(99)), millis(this.latency(99.9)), millis(this.latency(100)),
+                this.allocationRate() / (1024 * 1024));
+        }
+
+        private static double millis(Duration duration) {
+            return duration.toNanos() / 1e6;
+        }
+    }
+}
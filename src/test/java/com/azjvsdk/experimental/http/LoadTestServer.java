@@ -0,0 +1,128 @@
+package com.azjvsdk.experimental.http;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.ssl.SslContext;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.Closeable;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local reactor-netty server standing in for a service in the load tests, responds to
+ * every request after a fixed latency with a fixed size payload, or with 503 for the
+ * configured fraction of requests. HEAD requests are answered right away with no payload.
+ */
+final class LoadTestServer implements Closeable {
+    private final DisposableServer server;
+    private final boolean secure;
+    private final Set<Channel> channels = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger peakConnections = new AtomicInteger();
+    private final AtomicLong acceptedConnections = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+
+    /**
+     * Starts LoadTestServer on an ephemeral localhost port.
+     *
+     * @param latency the delay before responding
+     * @param payloadBytes the size of the response payload
+     * @param errorRate the fraction of requests (0 to 1) answered with 503
+     */
+    LoadTestServer(Duration latency, int payloadBytes, double errorRate) {
+        this(latency, payloadBytes, errorRate, null);
+    }
+
+    /**
+     * Starts LoadTestServer on an ephemeral localhost port.
+     *
+     * @param latency the delay before responding
+     * @param payloadBytes the size of the response payload
+     * @param errorRate the fraction of requests (0 to 1) answered with 503
+     * @param sslContext the server TLS context to serve https, null to serve http
+     */
+    LoadTestServer(Duration latency, int payloadBytes, double errorRate, SslContext sslContext) {
+        final byte[] payload = new byte[payloadBytes];
+        ThreadLocalRandom.current().nextBytes(payload);
+        HttpServer httpServer = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0);
+        if (sslContext != null) {
+            httpServer = httpServer.secure(spec -> spec.sslContext(sslContext));
+        }
+        this.secure = sslContext != null;
+        this.server = httpServer
+            .tcpConfiguration(tcp -> tcp.doOnConnection(connection -> {
+                // Observed once per request on a keep-alive channel, count the channels.
+                final Channel channel = connection.channel();
+                if (this.channels.add(channel)) {
+                    this.acceptedConnections.incrementAndGet();
+                    this.peakConnections.accumulateAndGet(this.channels.size(), Math::max);
+                    channel.closeFuture().addListener(future -> this.channels.remove(channel));
+                }
+            }))
+            .handle((request, response) -> {
+                this.requests.incrementAndGet();
+                if (request.method() == HttpMethod.HEAD) {
+                    return response.header("Content-Length", "0").send();
+                }
+                final boolean fail = errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+                return request.receive()
+                    .then(latency.isZero() ? Mono.empty() : Mono.delay(latency).then())
+                    .then(fail
+                        ? response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).header("Content-Length", "0").send().then()
+                        : response.header("Content-Length", String.valueOf(payload.length))
+                            .send(Mono.fromCallable(() -> Unpooled.wrappedBuffer(payload)))
+                            .then());
+            })
+            .bindNow();
+    }
+
+    /**
+     * @param path the path on the server
+     * @return the url of the path on the server.
+     */
+    URL url(String path) {
+        try {
+            return new URL((this.secure ? "https" : "http") + "://127.0.0.1:" + this.server.port() + path);
+        } catch (MalformedURLException mue) {
+            throw new IllegalArgumentException(mue);
+        }
+    }
+
+    /**
+     * @return the number of connections accepted since start.
+     */
+    long acceptedConnections() {
+        return this.acceptedConnections.get();
+    }
+
+    /**
+     * @return the highest number of connections open at the same time.
+     */
+    int peakConnections() {
+        return this.peakConnections.get();
+    }
+
+    /**
+     * @return the number of requests received.
+     */
+    long requests() {
+        return this.requests.get();
+    }
+
+    @Override
+    public void close() {
+        this.server.disposeNow();
+    }
+}
@@ -0,0 +1,110 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.NextPolicy;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.ReplayingRequestPolicy;
+import com.azjvsdk.experimental.http.pipeline.RequestPolicy;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * End-to-end load test against a local server, runs as a short smoke test by default.
+ *
+ * To compare releases on the same box run with a longer duration, e.g.
+ * {@code mvn test -Dtest=LoadTests -Dloadtest.rate=2000 -Dloadtest.durationSeconds=60 -Dloadtest.report=true}.
+ * Settings: loadtest.rate, loadtest.durationSeconds, loadtest.latencyMillis,
+ * loadtest.payloadBytes, loadtest.errorRate and loadtest.maxConnections. The report is logged
+ * at debug level unless loadtest.report is set, so the default build stays quiet.
+ */
+public class LoadTests {
+    @BeforeClass
+    public static void beforeClass() {
+        // Without slf4j reactor falls back to logging everything to the console, which
+        // would dominate the measured latency.
+        Loggers.useJdkLoggers();
+    }
+
+    @Test
+    public void openLoopLoad() {
+        final int rate = Integer.getInteger("loadtest.rate", 200);
+        final int durationSeconds = Integer.getInteger("loadtest.durationSeconds", 2);
+        final int latencyMillis = Integer.getInteger("loadtest.latencyMillis", 5);
+        final int payloadBytes = Integer.getInteger("loadtest.payloadBytes", 4096);
+        final double errorRate = Double.parseDouble(System.getProperty("loadtest.errorRate", "0.01"));
+        final int maxConnections = Integer.getInteger("loadtest.maxConnections", 64);
+        //
+        try (LoadTestServer server = new LoadTestServer(Duration.ofMillis(latencyMillis), payloadBytes, errorRate);
+             ReactorNettyClientFactory clientFactory = new ReactorNettyClientFactory(maxConnections)) {
+            HttpPipeline pipeline = new HttpPipeline(new RequestPolicy[] {
+                new RequestIdPolicy(),
+                new RetryPolicy(3, Duration.ofSeconds(5)),
+                (context, next) -> {
+                    context.httpRequest().withHeader("User-Agent", "load-test");
+                    return next.process();
+                }
+            }, clientFactory.create(new HttpClientConfiguration(null)));
+            LoadTestDriver driver = new LoadTestDriver(pipeline,
+                i -> new HttpRequest("load", HttpMethod.GET, server.url("/item/" + i)));
+            // Warm up the connections and the JIT before the measured run.
+            driver.run(rate, Duration.ofMillis(500));
+            final long acceptedBeforeRun = server.acceptedConnections();
+            //
+            LoadTestDriver.Report report = driver.run(rate, Duration.ofSeconds(durationSeconds));
+            // The logger is looked up once the jdk loggers are installed.
+            final Logger logger = Loggers.getLogger(LoadTests.class);
+            final String message = "LoadTests: " + report
+                + " connections(new=" + (server.acceptedConnections() - acceptedBeforeRun)
+                + " peak=" + server.peakConnections() + ")";
+            if (Boolean.getBoolean("loadtest.report")) {
+                logger.info(message);
+            } else {
+                logger.debug(message);
+            }
+            //
+            Assert.assertEquals(0, report.incomplete);
+            Assert.assertTrue(report.failed <= Math.max(1, report.requests * errorRate));
+            Assert.assertTrue(server.peakConnections() <= maxConnections);
+            Assert.assertTrue(report.latency(50).compareTo(report.latency(99.9)) <= 0);
+        }
+    }
+
+    private static class RequestIdPolicy implements RequestPolicy {
+        @Override
+        public Mono<HttpResponse> process(PipelineCallContext context, NextPolicy next) {
+            context.httpRequest().withHeader("x-ms-client-request-id", UUID.randomUUID().toString());
+            return next.process();
+        }
+    }
+
+    private static class RetryPolicy implements ReplayingRequestPolicy {
+        private final int maxRetries;
+        private final Duration attemptTimeout;
+
+        RetryPolicy(int maxRetries, Duration attemptTimeout) {
+            this.maxRetries = maxRetries;
+            this.attemptTimeout = attemptTimeout;
+        }
+
+        @Override
+        public Mono<HttpResponse> process(PipelineCallContext context, NextPolicy next) {
+            return this.attempt(next, 0);
+        }
+
+        private Mono<HttpResponse> attempt(NextPolicy next, int retry) {
+            return next.process(this.attemptTimeout).flatMap(response -> {
+                if (response.statusCode() == 503 && retry < this.maxRetries) {
+                    return response.body().then(this.attempt(next, retry + 1));
+                }
+                return Mono.just(response);
+            });
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.HttpPipelineOptions;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import com.azjvsdk.experimental.http.pipeline.ResponseBufferingPolicy;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class MemoryBudgetTests {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Test
+    public void requestsAreRejectedOnceBudgetIsExhausted() {
+        AtomicReference<MemoryBudget> contextBudget = new AtomicReference<>();
+        HttpPipeline pipeline = createPipeline(new HttpPipelineOptions().withMaxBufferedBytes(2 * BUFFER_SIZE), contextBudget);
+        //
+        BufferedHttpResponse response = (BufferedHttpResponse) send(pipeline).block();
+        // Two buffers fit in the budget, the rest of the body spilled to temp file
+        Assert.assertTrue(response.spilled());
+        Assert.assertEquals(2 * BUFFER_SIZE, pipeline.memoryBudget().used());
+        Assert.assertEquals(2 * BUFFER_SIZE, contextBudget.get().used());
+        try {
+            send(pipeline).block();
+            Assert.fail("A request must be rejected while the budget is exhausted.");
+        } catch (RejectedExecutionException expected) {
+        }
+        //
+        response.close();
+        Assert.assertEquals(0, pipeline.memoryBudget().used());
+        Assert.assertEquals(0, contextBudget.get().used());
+        Assert.assertEquals(2 * BUFFER_SIZE, pipeline.memoryBudget().highWaterMark());
+        send(pipeline).block().close();
+    }
+
+    @Test
+    public void requestsWaitForBudget() {
+        HttpPipeline pipeline = createPipeline(new HttpPipelineOptions()
+            .withMaxBufferedBytes(BUFFER_SIZE)
+            .withBufferedBytesWaitTimeout(Duration.ofSeconds(10)), new AtomicReference<>());
+        //
+        HttpResponse response = send(pipeline).block();
+        Assert.assertTrue(pipeline.memoryBudget().exhausted());
+        MonoProcessor<HttpResponse> waiting = send(pipeline).toProcessor();
+        Assert.assertFalse(waiting.isTerminated());
+        //
+        response.close();
+        waiting.block(Duration.ofSeconds(10)).close();
+        Assert.assertEquals(0, pipeline.memoryBudget().used());
+    }
+
+    private static HttpPipeline createPipeline(HttpPipelineOptions options, AtomicReference<MemoryBudget> contextBudget) {
+        return new HttpPipeline(new PolicyEntry[] {
+            new PolicyEntry("budget", (context, next) -> next.process().doOnNext(response -> contextBudget.set(context.memoryBudget()))),
+            new PolicyEntry("buffering", new ResponseBufferingPolicy(1 << 20, 1 << 30))
+        }, createHttpClient(), options);
+    }
+
+    private static Mono<HttpResponse> send(HttpPipeline pipeline) {
+        try {
+            return pipeline.sendRequest(pipeline.newContext(new HttpRequest("", HttpMethod.GET, new URL("http://contoso.com/large"))));
+        } catch (MalformedURLException mue) {
+            throw new RuntimeException(mue);
+        }
+    }
+
+    private static HttpClient createHttpClient() {
+        return new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                return Mono.just(new HttpResponse() {
+                    @Override
+                    public int statusCode() {
+                        return 200;
+                    }
+
+                    @Override
+                    public String headerValue(String headerName) {
+                        return null;
+                    }
+
+                    @Override
+                    public HttpHeaders headers() {
+                        return new HttpHeaders();
+                    }
+
+                    @Override
+                    public Flux<ByteBuffer> body() {
+                        return Flux.range(0, 5).map(i -> ByteBuffer.allocate(BUFFER_SIZE));
+                    }
+                }.withRequest(context.httpRequest()));
+            }
+        };
+    }
+}
@@ -0,0 +1,213 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.paging.Page;
+import com.azjvsdk.experimental.http.paging.PagedFlux;
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.RequestPolicy;
+import org.junit.Assert;
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PagedFluxTests {
+    @Test
+    public void pagedFluxEmitsItemsOfAllPages() {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpPipeline pipeline = new HttpPipeline(new RequestPolicy[0], createHttpClient(3, requestCount));
+        //
+        PagedFlux<String> pagedFlux = new PagedFlux<>(pipeline, createHttpRequest(0), (request, response) -> {
+            int pageIndex = Integer.parseInt(response.headerValue("x-page"));
+            String next = response.headerValue("x-next");
+            List<String> items = Arrays.asList("p" + pageIndex + "-0", "p" + pageIndex + "-1");
+            return Mono.just(new Page<>(items, next == null ? null : createHttpRequest(Integer.parseInt(next))));
+        }, 2);
+        // Nothing is retrieved until subscription
+        Assert.assertEquals(0, requestCount.get());
+        //
+        List<String> items = pagedFlux.collectList().block();
+        Assert.assertEquals(Arrays.asList("p0-0", "p0-1", "p1-0", "p1-1", "p2-0", "p2-1"), items);
+        Assert.assertEquals(3, requestCount.get());
+        //
+        List<Page<String>> pages = pagedFlux.byPage().collectList().block();
+        Assert.assertEquals(3, pages.size());
+        Assert.assertNull(pages.get(2).nextPageRequest());
+    }
+
+    @Test
+    public void pagedFluxRetrievesPagesOnDemand() {
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpPipeline pipeline = new HttpPipeline(new RequestPolicy[0], createHttpClient(10, requestCount));
+        //
+        PagedFlux<String> pagedFlux = new PagedFlux<>(pipeline, createHttpRequest(0), (request, response) -> {
+            String next = response.headerValue("x-next");
+            return Mono.just(new Page<>(Arrays.asList(response.headerValue("x-page")), next == null ? null : createHttpRequest(Integer.parseInt(next))));
+        }, 1);
+        //
+        List<String> items = pagedFlux.take(2).collectList().block();
+        Assert.assertEquals(Arrays.asList("0", "1"), items);
+        // The consumed pages plus at most the prefetched page
+        Assert.assertTrue(requestCount.get() <= 3);
+    }
+
+    @Test
+    public void nextPageIsRetrievedWhileConsumerProcessesPage() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger requestCount = new AtomicInteger();
+        HttpClient client = createHttpClient(4, requestCount);
+        // Each page takes 100ms to retrieve
+        HttpPipeline pipeline = new HttpPipeline(new RequestPolicy[0], new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                return Mono.delay(Duration.ofMillis(100))
+                    .doOnSubscribe(s -> inFlight.incrementAndGet())
+                    .then(client.sendRequestAsync(context))
+                    .doOnNext(r -> inFlight.decrementAndGet());
+            }
+        });
+        PagedFlux<String> pagedFlux = new PagedFlux<>(pipeline, createHttpRequest(0), (request, response) -> {
+            String next = response.headerValue("x-next");
+            return Mono.just(new Page<>(Arrays.asList(response.headerValue("x-page")), next == null ? null : createHttpRequest(Integer.parseInt(next))));
+        }, 1);
+        // The slow consumer finds the next page being retrieved for all but the last page
+        AtomicInteger overlaps = new AtomicInteger();
+        List<Page<String>> pages = pagedFlux.byPage().doOnNext(page -> {
+            if (inFlight.get() > 0) {
+                overlaps.incrementAndGet();
+            }
+            sleep(150);
+        }).collectList().block();
+        Assert.assertEquals(4, pages.size());
+        Assert.assertEquals(3, overlaps.get());
+    }
+
+    @Test
+    public void prefetchIsBoundedByPrefetchPages() {
+        for (int prefetchPages : new int[] {1, 3}) {
+            AtomicInteger requestCount = new AtomicInteger();
+            HttpPipeline pipeline = new HttpPipeline(new RequestPolicy[0], createHttpClient(10, requestCount));
+            PagedFlux<String> pagedFlux = new PagedFlux<>(pipeline, createHttpRequest(0), (request, response) -> {
+                String next = response.headerValue("x-next");
+                return Mono.just(new Page<>(Arrays.asList(response.headerValue("x-page")), next == null ? null : createHttpRequest(Integer.parseInt(next))));
+            }, prefetchPages);
+            List<Page<String>> received = new ArrayList<>();
+            pagedFlux.byPage().subscribe(new BaseSubscriber<Page<String>>() {
+                @Override
+                protected void hookOnSubscribe(Subscription subscription) {
+                    subscription.request(1);
+                }
+
+                @Override
+                protected void hookOnNext(Page<String> page) {
+                    received.add(page);
+                }
+            });
+            // The consumed page plus the pages waiting for the consumer
+            Assert.assertEquals(1, received.size());
+            Assert.assertEquals(1 + prefetchPages, requestCount.get());
+        }
+    }
+
+    @Test
+    public void cancellationCancelsRetrievalStartedBySynchronousPage() {
+        AtomicInteger requestCount = new AtomicInteger();
+        AtomicInteger cancelledCount = new AtomicInteger();
+        HttpClient client = createHttpClient(10, requestCount);
+        // The first page is retrieved synchronously, the second page never arrives
+        HttpPipeline pipeline = new HttpPipeline(new RequestPolicy[0], new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                return context.httpRequest().url().getQuery().equals("page=0")
+                    ? client.sendRequestAsync(context)
+                    : Mono.<HttpResponse>never().doOnCancel(cancelledCount::incrementAndGet);
+            }
+        });
+        PagedFlux<String> pagedFlux = new PagedFlux<>(pipeline, createHttpRequest(0), (request, response) -> {
+            String next = response.headerValue("x-next");
+            return Mono.just(new Page<>(Arrays.asList(response.headerValue("x-page")), next == null ? null : createHttpRequest(Integer.parseInt(next))));
+        }, 1);
+        List<Page<String>> received = new ArrayList<>();
+        BaseSubscriber<Page<String>> subscriber = new BaseSubscriber<Page<String>>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                subscription.request(1);
+            }
+
+            @Override
+            protected void hookOnNext(Page<String> page) {
+                received.add(page);
+            }
+        };
+        pagedFlux.byPage().subscribe(subscriber);
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals(0, cancelledCount.get());
+        //
+        subscriber.dispose();
+        Assert.assertEquals(1, cancelledCount.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
+            throw new RuntimeException(ie);
+        }
+    }
+
+    private HttpClient createHttpClient(int pageCount, AtomicInteger requestCount) {
+        return new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                return Mono.fromCallable(() -> {
+                    requestCount.incrementAndGet();
+                    int pageIndex = Integer.parseInt(context.httpRequest().url().getQuery().substring("page=".length()));
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.set("x-page", String.valueOf(pageIndex));
+                    if (pageIndex + 1 < pageCount) {
+                        headers.set("x-next", String.valueOf(pageIndex + 1));
+                    }
+                    return new HttpResponse() {
+                        @Override
+                        public int statusCode() {
+                            return 200;
+                        }
+
+                        @Override
+                        public String headerValue(String headerName) {
+                            return headers.value(headerName);
+                        }
+
+                        @Override
+                        public HttpHeaders headers() {
+                            return headers;
+                        }
+
+                        @Override
+                        public Flux<ByteBuffer> body() {
+                            return Flux.empty();
+                        }
+                    };
+                });
+            }
+        };
+    }
+
+    private HttpRequest createHttpRequest(int pageIndex) {
+        try {
+            return new HttpRequest("", HttpMethod.GET, new URL("http://contoso.com/items?page=" + pageIndex));
+        } catch (MalformedURLException mue) {
+            throw new RuntimeException(mue);
+        }
+    }
+}
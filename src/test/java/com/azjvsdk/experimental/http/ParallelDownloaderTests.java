@@ -0,0 +1,129 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.RequestPolicy;
+import com.azjvsdk.experimental.http.transfer.DownloadOptions;
+import com.azjvsdk.experimental.http.transfer.ParallelDownloader;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelDownloaderTests {
+    @Test
+    public void downloadWritesAllChunksAndRetriesFailedChunk() throws IOException {
+        byte[] content = new byte[10_000];
+        new Random(42).nextBytes(content);
+        AtomicInteger rangeRequestCount = new AtomicInteger();
+        Set<String> failedOnce = ConcurrentHashMap.newKeySet();
+        //
+        HttpClient httpClient = new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                return Mono.fromCallable(() -> {
+                    HttpRequest request = context.httpRequest();
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.set("ETag", "\"v1\"");
+                    if (request.httpMethod() == HttpMethod.HEAD) {
+                        headers.set("Content-Length", String.valueOf(content.length));
+                        return createResponse(200, headers, Flux.empty());
+                    }
+                    Assert.assertEquals("\"v1\"", request.headers().value("If-Match"));
+                    rangeRequestCount.incrementAndGet();
+                    String range = request.headers().value("Range");
+                    String[] bounds = range.substring("bytes=".length()).split("-");
+                    int start = Integer.parseInt(bounds[0]);
+                    int end = Integer.parseInt(bounds[1]);
+                    if (start == 3000 && failedOnce.add(range)) {
+                        // Truncated body, the downloader must retry only this chunk
+                        return createResponse(206, headers, Flux.just(ByteBuffer.wrap(content, start, 10)));
+                    }
+                    return createResponse(206, headers, Flux.just(
+                        ByteBuffer.wrap(content, start, (end - start + 1) / 2),
+                        ByteBuffer.wrap(content, start + (end - start + 1) / 2, (end - start + 1) - (end - start + 1) / 2)));
+                });
+            }
+        };
+        HttpPipeline pipeline = new HttpPipeline(new RequestPolicy[0], httpClient);
+        ParallelDownloader downloader = new ParallelDownloader(pipeline, new DownloadOptions()
+            .withChunkSize(1000)
+            .withParallelism(3));
+        //
+        Path file = Files.createTempFile("download", ".bin");
+        try {
+            // The stale bytes of a larger existing file do not survive the download
+            Files.write(file, new byte[2 * content.length]);
+            Long size = downloader.download(new URL("http://contoso.com/blob"), file).block();
+            Assert.assertEquals(content.length, size.longValue());
+            Assert.assertArrayEquals(content, Files.readAllBytes(file));
+            Assert.assertEquals(11, rangeRequestCount.get());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void nonRetriableChunkFailureIsNotRetried() throws IOException {
+        AtomicInteger rangeRequestCount = new AtomicInteger();
+        HttpClient httpClient = new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                return Mono.fromCallable(() -> {
+                    if (context.httpRequest().httpMethod() == HttpMethod.HEAD) {
+                        return createResponse(200, new HttpHeaders().set("Content-Length", "1000"), Flux.empty());
+                    }
+                    rangeRequestCount.incrementAndGet();
+                    return createResponse(404, new HttpHeaders(), Flux.empty());
+                });
+            }
+        };
+        ParallelDownloader downloader = new ParallelDownloader(new HttpPipeline(new RequestPolicy[0], httpClient), new DownloadOptions()
+            .withChunkSize(1000)
+            .withMaxRetriesPerChunk(3));
+        Path file = Files.createTempFile("download", ".bin");
+        try {
+            downloader.download(new URL("http://contoso.com/blob"), file).block();
+            Assert.fail("A missing object must fail the download.");
+        } catch (HttpResponseException expected) {
+            Assert.assertEquals(404, expected.response().statusCode());
+        } finally {
+            Files.delete(file);
+        }
+        Assert.assertEquals(1, rangeRequestCount.get());
+    }
+
+    private static HttpResponse createResponse(int statusCode, HttpHeaders headers, Flux<ByteBuffer> body) {
+        return new HttpResponse() {
+            @Override
+            public int statusCode() {
+                return statusCode;
+            }
+
+            @Override
+            public String headerValue(String headerName) {
+                return headers.value(headerName);
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return headers;
+            }
+
+            @Override
+            public Flux<ByteBuffer> body() {
+                return body;
+            }
+        };
+    }
+}
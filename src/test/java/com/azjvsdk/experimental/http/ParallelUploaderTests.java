@@ -0,0 +1,156 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.RequestPolicy;
+import com.azjvsdk.experimental.http.transfer.BlockRequestFactory;
+import com.azjvsdk.experimental.http.transfer.ParallelUploader;
+import com.azjvsdk.experimental.http.transfer.UploadOptions;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ParallelUploaderTests {
+    @Test
+    public void uploadStagesBlocksConcurrentlyAndCommits() {
+        byte[] content = new byte[10_500];
+        new Random(7).nextBytes(content);
+        Map<Long, byte[]> stagedBlocks = new ConcurrentHashMap<>();
+        AtomicInteger blockAttempts = new AtomicInteger();
+        ByteArrayOutputStream committed = new ByteArrayOutputStream();
+        //
+        HttpClient httpClient = new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                HttpRequest request = context.httpRequest();
+                String query = request.url().getQuery();
+                if (query.startsWith("block=")) {
+                    long blockIndex = Long.parseLong(query.substring("block=".length()));
+                    return request.body().reduce(new ByteArrayOutputStream(), (stream, buffer) -> {
+                        byte[] bytes = new byte[buffer.remaining()];
+                        buffer.get(bytes);
+                        stream.write(bytes, 0, bytes.length);
+                        return stream;
+                    }).map(stream -> {
+                        // First attempt of block 2 fails, the uploader must retry only that block
+                        if (blockIndex == 2 && blockAttempts.getAndIncrement() == 0) {
+                            return createResponse(500);
+                        }
+                        Assert.assertEquals(String.valueOf(stream.size()), request.headers().value("Content-Length"));
+                        stagedBlocks.put(blockIndex, stream.toByteArray());
+                        return createResponse(201);
+                    });
+                }
+                long blockCount = Long.parseLong(query.substring("commit=".length()));
+                for (long i = 0; i < blockCount; i++) {
+                    byte[] block = stagedBlocks.get(i);
+                    committed.write(block, 0, block.length);
+                }
+                return Mono.just(createResponse(201));
+            }
+        };
+        BlockRequestFactory requestFactory = new BlockRequestFactory() {
+            @Override
+            public HttpRequest createBlockRequest(long blockIndex, long offset, int length) {
+                return new HttpRequest("upload", HttpMethod.PUT, url("http://contoso.com/blob?block=" + blockIndex));
+            }
+
+            @Override
+            public HttpRequest createCommitRequest(long blockCount, long contentLength) {
+                Assert.assertEquals(content.length, contentLength);
+                return new HttpRequest("upload", HttpMethod.PUT, url("http://contoso.com/blob?commit=" + blockCount));
+            }
+        };
+        AtomicLong progress = new AtomicLong();
+        ParallelUploader uploader = new ParallelUploader(new HttpPipeline(new RequestPolicy[0], httpClient), requestFactory, new UploadOptions()
+            .withBlockSize(1024)
+            .withConcurrency(3)
+            .withProgressListener(bytesTransferred -> progress.accumulateAndGet(bytesTransferred, Math::max)));
+        // Content buffers that don't align with the block size
+        Flux<ByteBuffer> source = Flux.range(0, 15)
+            .map(i -> ByteBuffer.wrap(content, i * 700, 700));
+        //
+        HttpResponse response = uploader.upload(source).block();
+        Assert.assertEquals(201, response.statusCode());
+        Assert.assertEquals(11, stagedBlocks.size());
+        Assert.assertArrayEquals(content, committed.toByteArray());
+        Assert.assertEquals(content.length, progress.get());
+    }
+
+    @Test
+    public void nonRetriableBlockFailureIsNotRetried() {
+        AtomicInteger blockAttempts = new AtomicInteger();
+        HttpClient httpClient = new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                blockAttempts.incrementAndGet();
+                return context.httpRequest().body().then(Mono.just(createResponse(403)));
+            }
+        };
+        BlockRequestFactory requestFactory = new BlockRequestFactory() {
+            @Override
+            public HttpRequest createBlockRequest(long blockIndex, long offset, int length) {
+                return new HttpRequest("upload", HttpMethod.PUT, url("http://contoso.com/blob?block=" + blockIndex));
+            }
+
+            @Override
+            public HttpRequest createCommitRequest(long blockCount, long contentLength) {
+                return new HttpRequest("upload", HttpMethod.PUT, url("http://contoso.com/blob?commit=" + blockCount));
+            }
+        };
+        ParallelUploader uploader = new ParallelUploader(new HttpPipeline(new RequestPolicy[0], httpClient), requestFactory, new UploadOptions()
+            .withBlockSize(1024)
+            .withConcurrency(1)
+            .withMaxRetriesPerBlock(3));
+        try {
+            uploader.upload(Flux.just(ByteBuffer.wrap(new byte[100]))).block();
+            Assert.fail("A forbidden block must fail the upload.");
+        } catch (HttpResponseException expected) {
+            Assert.assertEquals(403, expected.response().statusCode());
+        }
+        Assert.assertEquals(1, blockAttempts.get());
+    }
+
+    private static HttpResponse createResponse(int statusCode) {
+        return new HttpResponse() {
+            @Override
+            public int statusCode() {
+                return statusCode;
+            }
+
+            @Override
+            public String headerValue(String headerName) {
+                return null;
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return new HttpHeaders();
+            }
+
+            @Override
+            public Flux<ByteBuffer> body() {
+                return Flux.empty();
+            }
+        };
+    }
+
+    private static URL url(String url) {
+        try {
+            return new URL(url);
+        } catch (MalformedURLException mue) {
+            throw new RuntimeException(mue);
+        }
+    }
+}
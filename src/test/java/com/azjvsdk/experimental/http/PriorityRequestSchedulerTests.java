@@ -0,0 +1,147 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.HttpPipelineOptions;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import com.azjvsdk.experimental.http.pipeline.PriorityRequestScheduler;
+import com.azjvsdk.experimental.http.pipeline.RequestPriority;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+
+public class PriorityRequestSchedulerTests {
+    @Test
+    public void higherWeightClassIsAdmittedFirst() {
+        PriorityRequestScheduler scheduler = new PriorityRequestScheduler(1);
+        List<String> admitted = sendQueued(scheduler);
+        Assert.assertEquals(Arrays.asList("gate", "I", "I", "I", "I", "B", "B", "B", "B"), admitted);
+    }
+
+    @Test
+    public void starvingRequestsAreAdmittedInArrivalOrder() {
+        Map<RequestPriority, Integer> weights = new EnumMap<>(RequestPriority.class);
+        weights.put(RequestPriority.INTERACTIVE, 8);
+        PriorityRequestScheduler scheduler = new PriorityRequestScheduler(1, weights, 16, Duration.ZERO);
+        List<String> admitted = sendQueued(scheduler);
+        Assert.assertEquals(Arrays.asList("gate", "B", "B", "B", "B", "I", "I", "I", "I"), admitted);
+    }
+
+    @Test
+    public void fullQueueRejectsRequest() {
+        MonoProcessor<HttpResponse> gate = MonoProcessor.create();
+        PriorityRequestScheduler scheduler = new PriorityRequestScheduler(1, new EnumMap<>(RequestPriority.class), 1, Duration.ofSeconds(1));
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[0], createHttpClient(gate, new CopyOnWriteArrayList<>()),
+            new HttpPipelineOptions().withRequestScheduler(scheduler));
+        pipeline.sendRequest(pipeline.newContext(createHttpRequest("gate"))).subscribe();
+        pipeline.sendRequest(pipeline.newContext(createHttpRequest("queued"))).subscribe();
+        Assert.assertEquals(1, scheduler.queued(RequestPriority.DEFAULT));
+        try {
+            pipeline.sendRequest(pipeline.newContext(createHttpRequest("rejected"))).block();
+            Assert.fail("The request must be rejected when the queue is full.");
+        } catch (RejectedExecutionException expected) {
+        }
+        gate.onNext(createResponse());
+        Assert.assertEquals(0, scheduler.inFlight());
+    }
+
+    @Test
+    public void cancelledWaitersFreeTheirQueueSlots() {
+        MonoProcessor<HttpResponse> gate = MonoProcessor.create();
+        List<String> admitted = new CopyOnWriteArrayList<>();
+        PriorityRequestScheduler scheduler = new PriorityRequestScheduler(1, new EnumMap<>(RequestPriority.class), 2, Duration.ofSeconds(1));
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[0], createHttpClient(gate, admitted),
+            new HttpPipelineOptions().withRequestScheduler(scheduler));
+        pipeline.sendRequest(pipeline.newContext(createHttpRequest("gate"))).subscribe();
+        for (int i = 0; i < 4; i++) {
+            pipeline.sendRequest(pipeline.newContext(createHttpRequest("abandoned"))).subscribe().dispose();
+        }
+        Assert.assertEquals(0, scheduler.queued(RequestPriority.DEFAULT));
+        pipeline.sendRequest(pipeline.newContext(createHttpRequest("queued"))).subscribe();
+        pipeline.sendRequest(pipeline.newContext(createHttpRequest("queued"))).subscribe();
+        Assert.assertEquals(2, scheduler.queued(RequestPriority.DEFAULT));
+        gate.onNext(createResponse());
+        Assert.assertEquals(Arrays.asList("gate", "queued", "queued"), admitted);
+        Assert.assertEquals(0, scheduler.queued(RequestPriority.DEFAULT));
+        Assert.assertEquals(0, scheduler.inFlight());
+    }
+
+    private List<String> sendQueued(PriorityRequestScheduler scheduler) {
+        MonoProcessor<HttpResponse> gate = MonoProcessor.create();
+        List<String> admitted = new CopyOnWriteArrayList<>();
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[0], createHttpClient(gate, admitted),
+            new HttpPipelineOptions().withRequestScheduler(scheduler));
+        // The gate request holds the only permit while the others are queued
+        pipeline.sendRequest(pipeline.newContext(createHttpRequest("gate"))).subscribe();
+        for (int i = 0; i < 4; i++) {
+            PipelineCallContext context = pipeline.newContext(createHttpRequest("B"));
+            context.setPriority(RequestPriority.BACKGROUND);
+            pipeline.sendRequest(context).subscribe();
+        }
+        for (int i = 0; i < 4; i++) {
+            PipelineCallContext context = pipeline.newContext(createHttpRequest("I"));
+            context.setPriority(RequestPriority.INTERACTIVE);
+            pipeline.sendRequest(context).subscribe();
+        }
+        Assert.assertEquals(4, scheduler.queued(RequestPriority.BACKGROUND));
+        gate.onNext(createResponse());
+        Assert.assertEquals(0, scheduler.inFlight());
+        return admitted;
+    }
+
+    private static HttpClient createHttpClient(Mono<HttpResponse> gate, List<String> admitted) {
+        return new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                String name = context.httpRequest().url().getPath().substring(1);
+                admitted.add(name);
+                return name.equals("gate") ? gate : Mono.just(createResponse());
+            }
+        };
+    }
+
+    private static HttpResponse createResponse() {
+        return new HttpResponse() {
+            @Override
+            public int statusCode() {
+                return 200;
+            }
+
+            @Override
+            public String headerValue(String headerName) {
+                return null;
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return new HttpHeaders();
+            }
+
+            @Override
+            public Flux<ByteBuffer> body() {
+                return Flux.empty();
+            }
+        };
+    }
+
+    private static HttpRequest createHttpRequest(String name) {
+        try {
+            return new HttpRequest("", HttpMethod.GET, new URL("http://contoso.com/" + name));
+        } catch (MalformedURLException mue) {
+            throw new RuntimeException(mue);
+        }
+    }
+}
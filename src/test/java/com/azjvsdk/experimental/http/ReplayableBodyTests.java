@@ -0,0 +1,162 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.HttpPipelineOptions;
+import com.azjvsdk.experimental.http.pipeline.NextPolicy;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import com.azjvsdk.experimental.http.pipeline.ReplayingRequestPolicy;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ReplayableBodyTests {
+    @Test
+    public void replayingPolicyResendsOneShotBody() {
+        byte[] content = new byte[5000];
+        new Random(3).nextBytes(content);
+        List<byte[]> receivedBodies = new ArrayList<>();
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[] { new PolicyEntry("retry", new RetryOncePolicy()) },
+            createHttpClient(receivedBodies),
+            new HttpPipelineOptions().withReplayMemoryThreshold(1024));
+        //
+        HttpRequest request = createHttpRequest().withBody(oneShot(content));
+        HttpResponse response = pipeline.sendRequest(pipeline.newContext(request)).block();
+        Assert.assertEquals(200, response.statusCode());
+        Assert.assertEquals(2, receivedBodies.size());
+        Assert.assertArrayEquals(content, receivedBodies.get(0));
+        Assert.assertArrayEquals(content, receivedBodies.get(1));
+    }
+
+    @Test
+    public void requestGetsOriginalBodyBackAfterResponse() {
+        byte[] content = new byte[5000];
+        new Random(4).nextBytes(content);
+        List<byte[]> receivedBodies = new ArrayList<>();
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[] { new PolicyEntry("retry", new RetryOncePolicy()) },
+            createHttpClient(receivedBodies),
+            new HttpPipelineOptions().withReplayMemoryThreshold(1024));
+        // A body that can be subscribed again, but is not declared replayable
+        Flux<ByteBuffer> body = Flux.defer(() -> Flux.just(ByteBuffer.wrap(content)));
+        HttpRequest request = createHttpRequest().withBody(body);
+        pipeline.sendRequest(pipeline.newContext(request)).block();
+        Assert.assertSame(body, request.body());
+        Assert.assertFalse(request.isBodyReplayable());
+        // The same request object can be sent again
+        receivedBodies.clear();
+        pipeline.sendRequest(pipeline.newContext(request)).block();
+        Assert.assertEquals(2, receivedBodies.size());
+        Assert.assertArrayEquals(content, receivedBodies.get(0));
+        Assert.assertArrayEquals(content, receivedBodies.get(1));
+    }
+
+    @Test
+    public void replayableBodyIsNotWrapped() {
+        byte[] content = new byte[] { 1, 2, 3 };
+        List<byte[]> receivedBodies = new ArrayList<>();
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[] { new PolicyEntry("retry", new RetryOncePolicy()) },
+            createHttpClient(receivedBodies));
+        //
+        HttpRequest request = createHttpRequest().withBody(content);
+        Flux<ByteBuffer> body = request.body();
+        pipeline.sendRequest(pipeline.newContext(request)).block();
+        Assert.assertSame(body, request.body());
+        Assert.assertEquals(2, receivedBodies.size());
+        Assert.assertArrayEquals(content, receivedBodies.get(1));
+    }
+
+    @Test
+    public void replayableBodySpillsBeyondMemoryThreshold() {
+        byte[] content = new byte[3000];
+        new Random(5).nextBytes(content);
+        ReplayableBody body = new ReplayableBody(oneShot(content), new ByteBufferPool(256, 4), 1000);
+        Assert.assertArrayEquals(content, read(body.toFlux()));
+        Assert.assertTrue(body.spilled());
+        Assert.assertArrayEquals(content, read(body.toFlux()));
+        body.close();
+        try {
+            read(body.toFlux());
+            Assert.fail("Reading a closed body must fail.");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    private static class RetryOncePolicy implements ReplayingRequestPolicy {
+        @Override
+        public Mono<HttpResponse> process(PipelineCallContext context, NextPolicy next) {
+            return next.process().flatMap(response -> response.statusCode() == 503
+                ? next.process()
+                : Mono.just(response));
+        }
+    }
+
+    private static Flux<ByteBuffer> oneShot(byte[] content) {
+        AtomicBoolean subscribed = new AtomicBoolean();
+        return Flux.defer(() -> {
+            if (!subscribed.compareAndSet(false, true)) {
+                return Flux.error(new IllegalStateException("The source can be subscribed only once."));
+            }
+            return Flux.range(0, 10).map(i -> ByteBuffer.wrap(content, i * content.length / 10, content.length / 10));
+        });
+    }
+
+    private static byte[] read(Flux<ByteBuffer> body) {
+        return body.reduce(new ByteArrayOutputStream(), (stream, buffer) -> {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            stream.write(bytes, 0, bytes.length);
+            return stream;
+        }).block().toByteArray();
+    }
+
+    private static HttpClient createHttpClient(List<byte[]> receivedBodies) {
+        return new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                return Mono.fromCallable(() -> {
+                    receivedBodies.add(read(context.httpRequest().body()));
+                    final int statusCode = receivedBodies.size() == 1 ? 503 : 200;
+                    return new HttpResponse() {
+                        @Override
+                        public int statusCode() {
+                            return statusCode;
+                        }
+
+                        @Override
+                        public String headerValue(String headerName) {
+                            return null;
+                        }
+
+                        @Override
+                        public HttpHeaders headers() {
+                            return new HttpHeaders();
+                        }
+
+                        @Override
+                        public Flux<ByteBuffer> body() {
+                            return Flux.empty();
+                        }
+                    };
+                });
+            }
+        };
+    }
+
+    private static HttpRequest createHttpRequest() {
+        try {
+            return new HttpRequest("", HttpMethod.PUT, new URL("http://contoso.com"));
+        } catch (MalformedURLException mue) {
+            throw new RuntimeException(mue);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.HttpPipelineOptions;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import com.azjvsdk.experimental.http.pipeline.SlowRequestLog;
+import com.azjvsdk.experimental.http.pipeline.TimelineEvent;
+import com.azjvsdk.experimental.http.pipeline.TimelineSnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RequestTimelineTests {
+    @Test
+    public void onlySlowRequestsAreKept() {
+        final List<TimelineSnapshot> notified = new ArrayList<>();
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[] {
+            new PolicyEntry("outer", (context, next) -> next.process()),
+            new PolicyEntry("slow", (context, next) -> context.getData("slow") == null
+                ? next.process()
+                : Mono.delay(Duration.ofMillis(150)).then(next.process())),
+        }, createHttpClient(), new HttpPipelineOptions()
+            .withSlowRequestThreshold(Duration.ofMillis(100))
+            .withSlowRequestListener(notified::add));
+        //
+        pipeline.sendRequest(pipeline.newContext(newRequest("http://localhost/fast"))).block();
+        Assert.assertEquals(0, pipeline.slowRequestLog().count());
+        //
+        PipelineCallContext context = pipeline.newContext(newRequest("http://localhost/slow"));
+        context.setData("slow", true);
+        pipeline.sendRequest(context).block();
+        //
+        List<TimelineSnapshot> snapshots = pipeline.slowRequestLog().dump();
+        Assert.assertEquals(1, snapshots.size());
+        Assert.assertEquals(1, notified.size());
+        TimelineSnapshot snapshot = snapshots.get(0);
+        Assert.assertSame(snapshot, notified.get(0));
+        Assert.assertEquals("http://localhost/slow", snapshot.url());
+        Assert.assertTrue(snapshot.durationNanos() >= Duration.ofMillis(150).toNanos());
+        //
+        TimelineEvent[] expectedEvents = new TimelineEvent[] {
+            TimelineEvent.REQUEST_START,
+            TimelineEvent.POLICY_ENTER,
+            TimelineEvent.POLICY_ENTER,
+            TimelineEvent.CLIENT_SEND,
+            TimelineEvent.POLICY_EXIT,
+            TimelineEvent.POLICY_EXIT,
+            TimelineEvent.REQUEST_END
+        };
+        String[] expectedLabels = new String[] { null, "outer", "slow", null, "slow", "outer", null };
+        Assert.assertEquals(expectedEvents.length, snapshot.size());
+        for (int i = 0; i < expectedEvents.length; i++) {
+            Assert.assertEquals(expectedEvents[i], snapshot.event(i));
+            Assert.assertEquals(expectedLabels[i], snapshot.label(i));
+            if (i > 0) {
+                Assert.assertTrue(snapshot.offsetNanos(i) >= snapshot.offsetNanos(i - 1));
+            }
+        }
+        // The time went to the slow policy before it invoked the client
+        Assert.assertTrue(snapshot.offsetNanos(3) - snapshot.offsetNanos(2) >= Duration.ofMillis(150).toNanos());
+        Assert.assertTrue(snapshot.toString().contains("POLICY_ENTER slow"));
+    }
+
+    @Test
+    public void logKeepsMostRecentTimelines() {
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[0], createHttpClient(), new HttpPipelineOptions()
+            .withSlowRequestThreshold(Duration.ZERO)
+            .withSlowRequestLogCapacity(4)
+            .withMaxPooledContexts(2));
+        for (int i = 0; i < 6; i++) {
+            pipeline.sendRequest(pipeline.newContext(newRequest("http://localhost/" + i))).block();
+        }
+        SlowRequestLog log = pipeline.slowRequestLog();
+        Assert.assertEquals(6, log.count());
+        List<TimelineSnapshot> snapshots = log.dump();
+        Assert.assertEquals(4, snapshots.size());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(i + 2, snapshots.get(i).sequence());
+            Assert.assertEquals("http://localhost/" + (i + 2), snapshots.get(i).url());
+            // The recycled context starts a fresh timeline for each request
+            Assert.assertEquals(3, snapshots.get(i).size());
+        }
+    }
+
+    @Test
+    public void timelineOfClientRequestEndsWithBody() {
+        try (LoadTestServer server = new LoadTestServer(Duration.ZERO, 64 * 1024, 0);
+             ReactorNettyClientFactory clientFactory = new ReactorNettyClientFactory(4)) {
+            HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[0], clientFactory.create(new HttpClientConfiguration(null)),
+                new HttpPipelineOptions().withSlowRequestThreshold(Duration.ofMillis(100)));
+            // The response is emitted right away, the body is read after 150ms
+            pipeline.sendRequest(pipeline.newContext(new HttpRequest("", HttpMethod.GET, server.url("/item"))))
+                .delayElement(Duration.ofMillis(150))
+                .flatMap(response -> response.body().then())
+                .block(Duration.ofSeconds(10));
+            List<TimelineSnapshot> snapshots = pipeline.slowRequestLog().dump();
+            Assert.assertEquals(1, snapshots.size());
+            TimelineSnapshot snapshot = snapshots.get(0);
+            Assert.assertTrue(snapshot.durationNanos() >= Duration.ofMillis(150).toNanos());
+            List<TimelineEvent> events = new ArrayList<>();
+            for (int i = 0; i < snapshot.size(); i++) {
+                events.add(snapshot.event(i));
+            }
+            Assert.assertEquals(Arrays.asList(
+                TimelineEvent.REQUEST_START,
+                TimelineEvent.CLIENT_SEND,
+                TimelineEvent.CONNECTION_ACQUIRED,
+                TimelineEvent.FIRST_BYTE,
+                TimelineEvent.LAST_BYTE,
+                TimelineEvent.REQUEST_END), events);
+            // The time went to reading the body
+            Assert.assertTrue(snapshot.offsetNanos(4) - snapshot.offsetNanos(3) >= Duration.ofMillis(150).toNanos());
+        }
+    }
+
+    @Test
+    public void timelinesCanBeDisabled() {
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[0], createHttpClient(), new HttpPipelineOptions()
+            .withSlowRequestThreshold(null));
+        Assert.assertNull(pipeline.slowRequestLog());
+        PipelineCallContext context = pipeline.newContext(newRequest("http://localhost/"));
+        Assert.assertNotNull(pipeline.sendRequest(context).block());
+    }
+
+    private static HttpRequest newRequest(String url) {
+        try {
+            return new HttpRequest("", HttpMethod.GET, new URL(url));
+        } catch (MalformedURLException mue) {
+            throw new RuntimeException(mue);
+        }
+    }
+
+    private static HttpClient createHttpClient() {
+        return new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                return Mono.just(new HttpResponse() {
+                    @Override
+                    public int statusCode() {
+                        return 200;
+                    }
+
+                    @Override
+                    public String headerValue(String headerName) {
+                        return null;
+                    }
+
+                    @Override
+                    public HttpHeaders headers() {
+                        return new HttpHeaders();
+                    }
+
+                    @Override
+                    public Flux<ByteBuffer> body() {
+                        return Flux.empty();
+                    }
+                });
+            }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.azjvsdk.experimental.http;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+public class RequestUrlTests {
+    @Test
+    public void urlIsParsedIntoComponents() {
+        RequestUrl url = RequestUrl.parse("HTTPS://user@Blob.Contoso.com:8443/container/a%20b?comp=list&prefix=x#top");
+        Assert.assertEquals("https", url.scheme());
+        Assert.assertEquals("blob.contoso.com", url.host());
+        Assert.assertEquals(8443, url.port());
+        Assert.assertEquals("blob.contoso.com:8443", url.authority());
+        Assert.assertEquals("/container/a%20b", url.path());
+        Assert.assertEquals("comp=list&prefix=x", url.rawQuery());
+        Assert.assertEquals("https://blob.contoso.com:8443/container/a%20b?comp=list&prefix=x", url.toString());
+        //
+        RequestUrl ipv6 = RequestUrl.parse("http://[::1]/");
+        Assert.assertEquals("[::1]", ipv6.host());
+        Assert.assertEquals(-1, ipv6.port());
+        Assert.assertEquals(80, ipv6.effectivePort());
+        Assert.assertEquals("", RequestUrl.parse("http://contoso.com").path());
+        Assert.assertNull(RequestUrl.parse("http://contoso.com/a").rawQuery());
+        //
+        for (String invalid : new String[] { "contoso.com/a", "http:///a", "http://contoso.com:80a/", "http://contoso.com:99999/" }) {
+            try {
+                RequestUrl.parse(invalid);
+                Assert.fail("Parsing '" + invalid + "' must fail.");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void urlIsUsableAsKey() throws Exception {
+        Map<RequestUrl, String> map = new HashMap<>();
+        map.put(RequestUrl.parse("http://Contoso.com/a?b=c"), "value");
+        Assert.assertEquals("value", map.get(RequestUrl.parse("http://contoso.COM/a?b=c")));
+        Assert.assertEquals("value", map.get(RequestUrl.fromUrl(new URL("http://contoso.com/a?b=c"))));
+        Assert.assertNull(map.get(RequestUrl.parse("http://contoso.com/a?b=d")));
+        Assert.assertNull(map.get(RequestUrl.parse("http://contoso.com:8080/a?b=c")));
+    }
+
+    @Test
+    public void builderAppendsEncodedQueryParameters() {
+        RequestUrl url = RequestUrl.parse("http://contoso.com/container?restype=container")
+            .toBuilder()
+            .withPathSegment("a b/c")
+            .withQueryParameter("prefix", "dir/file name")
+            .withQueryParameter("marker", "é~")
+            .build();
+        Assert.assertEquals("http://contoso.com/container/a%20b%2Fc?restype=container&prefix=dir%2Ffile%20name&marker=%C3%A9~", url.toString());
+        //
+        RequestUrl built = new RequestUrl.Builder().withScheme("http").withHost("contoso.com").withPort(8080).withPath("items").build();
+        Assert.assertEquals("http://contoso.com:8080/items", built.toString());
+    }
+
+    @Test
+    public void requestAcceptsRequestUrl() throws Exception {
+        HttpRequest request = new HttpRequest("", HttpMethod.GET, RequestUrl.parse("http://contoso.com/a?b=c"));
+        Assert.assertEquals(new URL("http://contoso.com/a?b=c").toString(), request.url().toString());
+        //
+        request.withUrl(new URL("http://contoso.com/d"));
+        Assert.assertEquals("/d", request.requestUrl().path());
+    }
+}
@@ -0,0 +1,138 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import com.azjvsdk.experimental.http.pipeline.ResponseBufferingPolicy;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ResponseBufferingPolicyTests {
+    @Test
+    public void smallBodyIsBufferedInMemory() {
+        byte[] content = content(1000);
+        BufferedHttpResponse response = send(new ResponseBufferingPolicy(4096, 1 << 20), content, true, new AtomicInteger());
+        Assert.assertFalse(response.spilled());
+        Assert.assertEquals(content.length, response.length());
+        Assert.assertArrayEquals(content, read(response.body()));
+        response.close();
+    }
+
+    @Test
+    public void largeBodySpillsToTempFileAndCanBeReadAgain() {
+        byte[] content = content(100_000);
+        AtomicInteger subscriptions = new AtomicInteger();
+        BufferedHttpResponse response = send(new ResponseBufferingPolicy(4096, 1 << 20), content, false, subscriptions);
+        Assert.assertTrue(response.spilled());
+        Assert.assertArrayEquals(content, read(response.body()));
+        Assert.assertArrayEquals(content, read(response.body()));
+        Assert.assertEquals(1, subscriptions.get());
+        //
+        response.close();
+        try {
+            read(response.body());
+            Assert.fail("Reading a closed response must fail.");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void spilledBodyIsReadInChunksWhateverTheMemoryThreshold() {
+        byte[] content = content(200_000);
+        BufferedHttpResponse response = send(new ResponseBufferingPolicy(1, 1 << 20), content, true, new AtomicInteger());
+        Assert.assertTrue(response.spilled());
+        AtomicInteger chunks = new AtomicInteger();
+        Assert.assertArrayEquals(content, read(response.body().doOnNext(buffer -> chunks.incrementAndGet())));
+        // The byte kept in memory and the spilled bytes in 64KB reads
+        Assert.assertEquals(5, chunks.get());
+        response.close();
+    }
+
+    @Test
+    public void bodyOverMaxLengthFails() {
+        byte[] content = content(100_000);
+        // Fails before reading the body when the Content-Length exceeds the maximum
+        AtomicInteger subscriptions = new AtomicInteger();
+        try {
+            send(new ResponseBufferingPolicy(4096, 50_000), content, true, subscriptions);
+            Assert.fail("A response over the maximum length must fail.");
+        } catch (HttpResponseException expected) {
+            Assert.assertEquals(0, subscriptions.get());
+        }
+        // Fails once the bytes read exceed the maximum when the length is not known upfront
+        try {
+            send(new ResponseBufferingPolicy(4096, 50_000), content, false, subscriptions);
+            Assert.fail("A response over the maximum length must fail.");
+        } catch (HttpResponseException expected) {
+            Assert.assertEquals(1, subscriptions.get());
+        }
+    }
+
+    private static BufferedHttpResponse send(ResponseBufferingPolicy policy, byte[] content, boolean withContentLength, AtomicInteger subscriptions) {
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[] { new PolicyEntry("buffering", policy) },
+            createHttpClient(content, withContentLength, subscriptions));
+        try {
+            HttpRequest request = new HttpRequest("", HttpMethod.GET, new URL("http://contoso.com/large"));
+            return (BufferedHttpResponse) pipeline.sendRequest(pipeline.newContext(request)).block();
+        } catch (MalformedURLException mue) {
+            throw new RuntimeException(mue);
+        }
+    }
+
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+        new Random(length).nextBytes(content);
+        return content;
+    }
+
+    private static byte[] read(Flux<ByteBuffer> body) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        body.doOnNext(buffer -> {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            stream.write(bytes, 0, bytes.length);
+        }).blockLast();
+        return stream.toByteArray();
+    }
+
+    private static HttpClient createHttpClient(byte[] content, boolean withContentLength, AtomicInteger subscriptions) {
+        return new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                return Mono.just(new HttpResponse() {
+                    @Override
+                    public int statusCode() {
+                        return 200;
+                    }
+
+                    @Override
+                    public String headerValue(String headerName) {
+                        return withContentLength && headerName.equalsIgnoreCase("Content-Length") ? String.valueOf(content.length) : null;
+                    }
+
+                    @Override
+                    public HttpHeaders headers() {
+                        return new HttpHeaders();
+                    }
+
+                    @Override
+                    public Flux<ByteBuffer> body() {
+                        // One-shot body, delivered in chunks.
+                        return Flux.range(0, (content.length + 999) / 1000)
+                            .map(i -> ByteBuffer.wrap(content, i * 1000, Math.min(1000, content.length - i * 1000)))
+                            .doOnSubscribe(s -> subscriptions.incrementAndGet());
+                    }
+                }.withRequest(context.httpRequest()));
+            }
+        };
+    }
+}
@@ -0,0 +1,211 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.MalformedURLException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ResponseLifecycleTests {
+    @Test
+    public void unreadResponsesAreDrainedOrAborted() {
+        try (LoadTestServer server = new LoadTestServer(Duration.ZERO, 1024, 0);
+             ReactorNettyClientFactory clientFactory = new ReactorNettyClientFactory(1)) {
+            HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[0], clientFactory.create(new HttpClientConfiguration(null)));
+            // A discarded response with a small body is drained and it's connection reused
+            for (int i = 0; i < 10; i++) {
+                HttpResponse response = pipeline.sendRequest(pipeline.newContext(new HttpRequest("discard", HttpMethod.GET, server.url("/item/" + i))))
+                    .block(Duration.ofSeconds(10));
+                response.discard();
+            }
+            Assert.assertEquals(1, server.acceptedConnections());
+            // A closed response aborts it's connection
+            HttpResponse response = pipeline.sendRequest(pipeline.newContext(new HttpRequest("close", HttpMethod.GET, server.url("/item"))))
+                .block(Duration.ofSeconds(10));
+            response.close();
+            response.close();
+            try {
+                response.body().blockLast();
+                Assert.fail("Reading a closed response must fail.");
+            } catch (IllegalStateException expected) {
+            }
+            pipeline.sendRequest(pipeline.newContext(new HttpRequest("read", HttpMethod.GET, server.url("/item"))))
+                .flatMap(r -> r.body().then())
+                .block(Duration.ofSeconds(10));
+            Assert.assertEquals(2, server.acceptedConnections());
+        }
+    }
+
+    @Test
+    public void responsesWithoutContentAreDiscardedWithoutClosingConnection() throws IOException {
+        // Answers HEAD with the Content-Length of a large body and other methods with 204 and no Content-Length
+        try (ServerSocket serverSocket = new ServerSocket(0, 16, InetAddress.getLoopbackAddress());
+             ReactorNettyClientFactory clientFactory = new ReactorNettyClientFactory(1)) {
+            AtomicInteger connections = new AtomicInteger();
+            Thread acceptor = new Thread(() -> {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        Socket socket = serverSocket.accept();
+                        connections.incrementAndGet();
+                        Thread handler = new Thread(() -> answerWithoutContent(socket));
+                        handler.setDaemon(true);
+                        handler.start();
+                    } catch (IOException closed) {
+                        return;
+                    }
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+            HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[0], clientFactory.create(new HttpClientConfiguration(null)));
+            URL url = new URL("http://127.0.0.1:" + serverSocket.getLocalPort() + "/item");
+            for (int i = 0; i < 6; i++) {
+                HttpMethod method = i % 2 == 0 ? HttpMethod.HEAD : HttpMethod.DELETE;
+                HttpResponse response = pipeline.sendRequest(pipeline.newContext(new HttpRequest("discard", method, url)))
+                    .block(Duration.ofSeconds(10));
+                Assert.assertEquals(method == HttpMethod.HEAD ? 200 : 204, response.statusCode());
+                response.discard();
+            }
+            Assert.assertEquals(1, connections.get());
+        }
+    }
+
+    private static void answerWithoutContent(Socket socket) {
+        try (Socket s = socket) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+            OutputStream out = s.getOutputStream();
+            String requestLine;
+            while ((requestLine = reader.readLine()) != null) {
+                String line;
+                while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                    // The requests have no body
+                }
+                out.write((requestLine.startsWith("HEAD")
+                    ? "HTTP/1.1 200 OK\r\nContent-Length: 1048576\r\n\r\n"
+                    : "HTTP/1.1 204 No Content\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+            }
+        } catch (IOException ioe) {
+            // The client closed the connection
+        }
+    }
+
+    @Test
+    public void leakDetectorReportsUnreleasedResponses() throws MalformedURLException {
+        List<Throwable> leaks = new CopyOnWriteArrayList<>();
+        ResponseLeakDetector detector = new ResponseLeakDetector(1, leaks::add);
+        HttpRequest request = new HttpRequest("leak", HttpMethod.GET, new URL("http://localhost/leak"));
+        // A released response is not reported even if it's reference is enqueued
+        ResponseLeakDetector.Tracker released = detector.track(new TrackedResponse(), detector.sample(request));
+        released.close();
+        released.enqueue();
+        // An unreleased response is reported once collected, enqueue the reference as the collector would
+        HttpResponse response = new TrackedResponse();
+        ResponseLeakDetector.Tracker leaked = detector.track(response, detector.sample(request));
+        detector.reportLeaks();
+        Assert.assertEquals(0, leaks.size());
+        Assert.assertEquals(200, response.statusCode());
+        leaked.enqueue();
+        detector.reportLeaks();
+        Assert.assertEquals(1, leaks.size());
+        Assert.assertEquals(1, detector.leakCount());
+        Assert.assertTrue(leaks.get(0).getMessage().contains("http://localhost/leak"));
+        // The trace points at the code that sent the request
+        Assert.assertEquals(ResponseLifecycleTests.class.getName(), leaks.get(0).getStackTrace()[1].getClassName());
+        // Sampling disabled
+        Assert.assertNull(new ResponseLeakDetector(0, leaks::add).sample(request));
+    }
+
+    @Test
+    public void pipelineDiscardsResponsesItDoesNotEmit() throws MalformedURLException {
+        List<TrackedResponse> responses = new CopyOnWriteArrayList<>();
+        HttpClient client = new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                return Mono.fromCallable(() -> {
+                    TrackedResponse response = new TrackedResponse();
+                    responses.add(response);
+                    return response;
+                });
+            }
+        };
+        // A response superseded by a resend is discarded, the emitted one is not
+        HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[] {
+            new PolicyEntry("resend", (context, next) -> next.process().then(next.process()))
+        }, client);
+        HttpResponse emitted = pipeline.sendRequest(pipeline.newContext(new HttpRequest("resend", HttpMethod.GET, new URL("http://localhost/")))).block();
+        Assert.assertEquals(2, responses.size());
+        Assert.assertEquals(1, responses.get(0).discards.get());
+        Assert.assertSame(responses.get(1), emitted);
+        Assert.assertEquals(0, responses.get(1).discards.get());
+        // A response mapped to an error is discarded
+        responses.clear();
+        pipeline = new HttpPipeline(new PolicyEntry[] {
+            new PolicyEntry("fail", (context, next) -> next.process()
+                .flatMap(response -> Mono.error(new HttpResponseException("Unexpected status code.", response))))
+        }, client);
+        try {
+            pipeline.sendRequest(pipeline.newContext(new HttpRequest("fail", HttpMethod.GET, new URL("http://localhost/")))).block();
+            Assert.fail("The request must fail.");
+        } catch (HttpResponseException expected) {
+        }
+        Assert.assertEquals(1, responses.get(0).discards.get());
+        // A response received before the subscriber cancelled is discarded
+        responses.clear();
+        pipeline = new HttpPipeline(new PolicyEntry[] {
+            new PolicyEntry("slow", (context, next) -> next.process().delayElement(Duration.ofSeconds(10)))
+        }, client);
+        Disposable subscription = pipeline.sendRequest(pipeline.newContext(new HttpRequest("cancel", HttpMethod.GET, new URL("http://localhost/")))).subscribe();
+        Assert.assertEquals(1, responses.size());
+        subscription.dispose();
+        Assert.assertEquals(1, responses.get(0).discards.get());
+    }
+
+    private static final class TrackedResponse extends HttpResponse {
+        private final AtomicInteger discards = new AtomicInteger();
+
+        @Override
+        public int statusCode() {
+            return 200;
+        }
+
+        @Override
+        public String headerValue(String headerName) {
+            return null;
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return new HttpHeaders();
+        }
+
+        @Override
+        public Flux<ByteBuffer> body() {
+            return Flux.empty();
+        }
+
+        @Override
+        public void discard() {
+            this.discards.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.HttpPipelineOptions;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import com.azjvsdk.experimental.http.pipeline.RouteRule;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+
+public class RouteRuleTests {
+    @Test
+    public void requestIsRoutedToMostSpecificChain() {
+        HttpPipeline pipeline = new HttpPipeline(chain("global"), createHttpClient(), new HttpPipelineOptions()
+            .withRouteRules(
+                new RouteRule(chain("anyHostItems")).withPathPrefix("/items"),
+                new RouteRule(chain("blob")).withHost("Blob.contoso.com"),
+                new RouteRule(chain("blobUpload")).withHost("blob.contoso.com").withPathPrefix("/container/upload").withMethods(HttpMethod.PUT, HttpMethod.POST),
+                new RouteRule(chain("blobContainer")).withHost("blob.contoso.com").withPathPrefix("/container")));
+        //
+        Assert.assertEquals("global", send(pipeline, HttpMethod.GET, "http://queue.contoso.com/messages"));
+        Assert.assertEquals("anyHostItems", send(pipeline, HttpMethod.GET, "http://queue.contoso.com/items/1"));
+        Assert.assertEquals("blob", send(pipeline, HttpMethod.GET, "http://BLOB.contoso.com:8080/other"));
+        Assert.assertEquals("blobContainer", send(pipeline, HttpMethod.GET, "http://blob.contoso.com/container/upload/b1"));
+        Assert.assertEquals("blobUpload", send(pipeline, HttpMethod.PUT, "http://blob.contoso.com/container/upload/b1"));
+        // Path prefix is matched segment-wise
+        Assert.assertEquals("blob", send(pipeline, HttpMethod.GET, "http://blob.contoso.com/containers"));
+        // The rules for the host win over the rules for any host
+        Assert.assertEquals("blob", send(pipeline, HttpMethod.GET, "http://blob.contoso.com/items"));
+        //
+        pipeline.setRouteRules();
+        Assert.assertEquals("global", send(pipeline, HttpMethod.PUT, "http://blob.contoso.com/container/upload/b1"));
+    }
+
+    private static PolicyEntry[] chain(String name) {
+        return new PolicyEntry[] {
+            new PolicyEntry(name, (context, next) -> {
+                context.setData("chain", name);
+                return next.process();
+            })
+        };
+    }
+
+    private static String send(HttpPipeline pipeline, HttpMethod method, String url) {
+        try {
+            PipelineCallContext cxt = pipeline.newContext(new HttpRequest("", method, new URL(url)));
+            pipeline.sendRequest(cxt).block();
+            return (String) cxt.getData("chain");
+        } catch (MalformedURLException mue) {
+            throw new RuntimeException(mue);
+        }
+    }
+
+    private static HttpClient createHttpClient() {
+        return new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                return Mono.just(new HttpResponse() {
+                    @Override
+                    public int statusCode() {
+                        return 200;
+                    }
+
+                    @Override
+                    public String headerValue(String headerName) {
+                        return null;
+                    }
+
+                    @Override
+                    public HttpHeaders headers() {
+                        return new HttpHeaders();
+                    }
+
+                    @Override
+                    public Flux<ByteBuffer> body() {
+                        return Flux.empty();
+                    }
+                });
+            }
+        };
+    }
+}
@@ -0,0 +1,197 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.HttpPipelineOptions;
+import com.azjvsdk.experimental.http.pipeline.PipelineCallContext;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import com.azjvsdk.experimental.http.pipeline.RequestPolicy;
+import com.azjvsdk.experimental.http.pipeline.RxRequestPolicy;
+import io.reactivex.Single;
+import io.reactivex.plugins.RxJavaPlugins;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RxPipelineTests {
+    private static final String HOOK_KEY = "RxPipelineTests";
+
+    @Test
+    public void rxChainAssemblesNoReactorOperators() {
+        final List<String> invoked = new ArrayList<>();
+        PolicyEntry[] entries = new PolicyEntry[8];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = new PolicyEntry("rx" + i, rxPolicy("rx" + i, invoked));
+        }
+        HttpPipeline pipeline = new HttpPipeline(entries, createRxHttpClient(), new HttpPipelineOptions());
+        //
+        final AtomicInteger operators = new AtomicInteger();
+        Hooks.onEachOperator(HOOK_KEY, publisher -> {
+            operators.incrementAndGet();
+            return publisher;
+        });
+        try {
+            PipelineCallContext context = pipeline.newContext(newRequest());
+            operators.set(0);
+            HttpResponse response = pipeline.sendRequestRx(context).blockingGet();
+            Assert.assertEquals(200, response.statusCode());
+            Assert.assertEquals(0, operators.get());
+        } finally {
+            Hooks.resetOnEachOperator(HOOK_KEY);
+        }
+        Assert.assertEquals(entries.length, invoked.size());
+        for (int i = 0; i < entries.length; i++) {
+            Assert.assertEquals("rx" + i, invoked.get(i));
+        }
+    }
+
+    @Test
+    public void mixedChainConvertsAtBoundaries() {
+        final List<String> invoked = new ArrayList<>();
+        PolicyEntry[] entries = new PolicyEntry[] {
+            new PolicyEntry("rx0", rxPolicy("rx0", invoked)),
+            new PolicyEntry("rx1", rxPolicy("rx1", invoked)),
+            new PolicyEntry("reactor2", reactorPolicy("reactor2", invoked)),
+            new PolicyEntry("rx3", rxPolicy("rx3", invoked)),
+        };
+        HttpPipeline pipeline = new HttpPipeline(entries, createHttpClient(), new HttpPipelineOptions());
+        //
+        HttpResponse response = pipeline.sendRequestRx(pipeline.newContext(newRequest())).blockingGet();
+        Assert.assertEquals(200, response.statusCode());
+        Assert.assertEquals(4, invoked.size());
+        Assert.assertEquals("rx0", invoked.get(0));
+        Assert.assertEquals("reactor2", invoked.get(2));
+        Assert.assertEquals("rx3", invoked.get(3));
+        // The same chain sent through the Reactor path
+        invoked.clear();
+        response = pipeline.sendRequest(pipeline.newContext(newRequest())).block();
+        Assert.assertEquals(200, response.statusCode());
+        Assert.assertEquals(4, invoked.size());
+    }
+
+    @Test
+    public void rxChainConvertsAtMostOncePerCall() {
+        final int policyCount = 10;
+        final int requestCount = 100;
+        PolicyEntry[] rxEntries = new PolicyEntry[policyCount];
+        for (int i = 0; i < policyCount; i++) {
+            rxEntries[i] = new PolicyEntry("rx" + i, (RxRequestPolicy) (context, next) -> next.processRx());
+        }
+        final AtomicInteger toRx = new AtomicInteger();
+        final AtomicInteger toReactor = new AtomicInteger();
+        RxJavaPlugins.setOnSingleAssembly(single -> {
+            if (single.getClass().getSimpleName().equals("SingleFromPublisher")) {
+                toRx.incrementAndGet();
+            }
+            return single;
+        });
+        RxJavaPlugins.setOnFlowableAssembly(flowable -> {
+            if (flowable.getClass().getSimpleName().equals("SingleToFlowable")) {
+                toReactor.incrementAndGet();
+            }
+            return flowable;
+        });
+        try {
+            // A Rx chain sent to a Rx client is not converted
+            HttpPipeline rxPipeline = new HttpPipeline(rxEntries, createRxHttpClient(), new HttpPipelineOptions());
+            for (int i = 0; i < requestCount; i++) {
+                rxPipeline.sendRequestRx(rxPipeline.newContext(newRequest())).blockingGet();
+            }
+            Assert.assertEquals(0, toRx.get());
+            Assert.assertEquals(0, toReactor.get());
+            // The response of a Reactor client is converted once, not once per policy
+            HttpPipeline reactorClientPipeline = new HttpPipeline(rxEntries, createHttpClient(), new HttpPipelineOptions());
+            for (int i = 0; i < requestCount; i++) {
+                reactorClientPipeline.sendRequestRx(reactorClientPipeline.newContext(newRequest())).blockingGet();
+            }
+            Assert.assertEquals(requestCount, toRx.get());
+            Assert.assertEquals(0, toReactor.get());
+            // A Rx chain sent through the Reactor path is converted once at it's first policy
+            toRx.set(0);
+            for (int i = 0; i < requestCount; i++) {
+                rxPipeline.sendRequest(rxPipeline.newContext(newRequest())).block();
+            }
+            Assert.assertEquals(0, toRx.get());
+            Assert.assertEquals(requestCount, toReactor.get());
+        } finally {
+            RxJavaPlugins.setOnSingleAssembly(null);
+            RxJavaPlugins.setOnFlowableAssembly(null);
+        }
+    }
+
+    private static RxRequestPolicy rxPolicy(String name, List<String> invoked) {
+        return (context, next) -> {
+            invoked.add(name);
+            return next.processRx();
+        };
+    }
+
+    private static RequestPolicy reactorPolicy(String name, List<String> invoked) {
+        return (context, next) -> {
+            invoked.add(name);
+            return next.process();
+        };
+    }
+
+    private static HttpRequest newRequest() {
+        try {
+            return new HttpRequest("", HttpMethod.GET, new URL("http://localhost/rx"));
+        } catch (MalformedURLException mue) {
+            throw new RuntimeException(mue);
+        }
+    }
+
+    private static HttpClient createRxHttpClient() {
+        final HttpResponse response = new OkResponse();
+        return new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                return Mono.just(response);
+            }
+
+            @Override
+            public Single<HttpResponse> sendRequestRx(PipelineCallContext context) {
+                return Single.just(response);
+            }
+        };
+    }
+
+    private static HttpClient createHttpClient() {
+        return new HttpClient() {
+            @Override
+            public Mono<HttpResponse> sendRequestAsync(PipelineCallContext context) {
+                return Mono.just(new OkResponse());
+            }
+        };
+    }
+
+    private static class OkResponse extends HttpResponse {
+        @Override
+        public int statusCode() {
+            return 200;
+        }
+
+        @Override
+        public String headerValue(String headerName) {
+            return null;
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return new HttpHeaders();
+        }
+
+        @Override
+        public Flux<ByteBuffer> body() {
+            return Flux.empty();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.HttpPipelineOptions;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.util.Loggers;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class StaticHeadersTests {
+    @BeforeClass
+    public static void beforeClass() {
+        Loggers.useJdkLoggers();
+    }
+
+    @Test
+    public void defaultHeadersAreSentUnlessOverridden() throws Exception {
+        List<io.netty.handler.codec.http.HttpHeaders> received = new CopyOnWriteArrayList<>();
+        DisposableServer server = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .handle((request, response) -> {
+                received.add(request.requestHeaders().copy());
+                return response.header("Content-Length", "0").send();
+            })
+            .bindNow();
+        Map<String, String> defaults = new LinkedHashMap<>();
+        defaults.put("User-Agent", "azjvsdk/1.0");
+        defaults.put("x-ms-version", "2018-11-09");
+        try (ReactorNettyClientFactory clientFactory = new ReactorNettyClientFactory()) {
+            HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[] {
+                new PolicyEntry("override", (context, next) -> {
+                    if (context.httpRequest().url().getPath().equals("/override")) {
+                        context.httpRequest().withHeader("user-agent", "custom");
+                    }
+                    return next.process();
+                })
+            }, clientFactory.create(new HttpClientConfiguration(null)),
+                new HttpPipelineOptions().withDefaultHeaders(new StaticHeaders(defaults)));
+            //
+            HttpRequest request = new HttpRequest("", HttpMethod.GET, new URL("http://127.0.0.1:" + server.port() + "/default"));
+            pipeline.sendRequest(pipeline.newContext(request)).flatMap(response -> response.body().then()).block();
+            // The default headers are not copied into the request
+            Assert.assertEquals(0, request.headers().size());
+            Assert.assertNull(request.staticHeaders());
+            HttpRequest override = new HttpRequest("", HttpMethod.GET, new URL("http://127.0.0.1:" + server.port() + "/override"));
+            pipeline.sendRequest(pipeline.newContext(override)).flatMap(response -> response.body().then()).block();
+            //
+            Assert.assertEquals(Collections.singletonList("azjvsdk/1.0"), received.get(0).getAll("User-Agent"));
+            Assert.assertEquals("2018-11-09", received.get(0).get("x-ms-version"));
+            Assert.assertEquals(Collections.singletonList("custom"), received.get(1).getAll("User-Agent"));
+            Assert.assertEquals("2018-11-09", received.get(1).get("x-ms-version"));
+            // The request is sent without them by a pipeline without default headers
+            HttpPipeline otherPipeline = new HttpPipeline(new PolicyEntry[0], clientFactory.create(new HttpClientConfiguration(null)));
+            otherPipeline.sendRequest(otherPipeline.newContext(request)).flatMap(response -> response.body().then()).block();
+            Assert.assertNull(received.get(2).get("x-ms-version"));
+        } finally {
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    public void mixedStaticHeadersAreEncodedOncePerInstance() throws Exception {
+        List<io.netty.handler.codec.http.HttpHeaders> received = new CopyOnWriteArrayList<>();
+        DisposableServer server = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .handle((request, response) -> {
+                received.add(request.requestHeaders().copy());
+                return response.header("Content-Length", "0").send();
+            })
+            .bindNow();
+        StaticHeaders defaults = new StaticHeaders(Collections.singletonMap("x-ms-version", "2018-11-09"));
+        StaticHeaders requestHeaders = new StaticHeaders(Collections.singletonMap("x-ms-version", "2019-02-02"));
+        try (ReactorNettyClientFactory clientFactory = new ReactorNettyClientFactory()) {
+            HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[0], clientFactory.create(new HttpClientConfiguration(null)),
+                new HttpPipelineOptions().withDefaultHeaders(defaults));
+            Object encodedDefaults = null;
+            Object encodedRequestHeaders = null;
+            for (int i = 0; i < 4; i++) {
+                HttpRequest request = new HttpRequest("", HttpMethod.GET, new URL("http://127.0.0.1:" + server.port() + "/" + i));
+                if (i % 2 == 1) {
+                    request.withStaticHeaders(requestHeaders);
+                }
+                pipeline.sendRequest(pipeline.newContext(request)).flatMap(response -> response.body().then()).block();
+                if (i == 1) {
+                    encodedDefaults = defaults.clientEncoding();
+                    encodedRequestHeaders = requestHeaders.clientEncoding();
+                }
+            }
+            //
+            Assert.assertNotNull(encodedDefaults);
+            Assert.assertNotNull(encodedRequestHeaders);
+            Assert.assertSame(encodedDefaults, defaults.clientEncoding());
+            Assert.assertSame(encodedRequestHeaders, requestHeaders.clientEncoding());
+            for (int i = 0; i < 4; i++) {
+                Assert.assertEquals(i % 2 == 1 ? "2019-02-02" : "2018-11-09", received.get(i).get("x-ms-version"));
+            }
+        } finally {
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    public void invalidHeadersAreRejected() {
+        for (String[] header : new String[][] { { "x-name", "line\r\nx-injected: 1" }, { "x name", "value" }, { "x-name", "café" } }) {
+            try {
+                new StaticHeaders(Collections.singletonMap(header[0], header[1]));
+                Assert.fail("The header '" + header[0] + "' must be rejected.");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+        Map<String, String> duplicated = new LinkedHashMap<>();
+        duplicated.put("Accept", "a");
+        duplicated.put("accept", "b");
+        try {
+            new StaticHeaders(duplicated);
+            Assert.fail("The duplicated header must be rejected.");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.azjvsdk.experimental.http;
+
+import com.azjvsdk.experimental.http.pipeline.HttpPipeline;
+import com.azjvsdk.experimental.http.pipeline.PolicyEntry;
+import com.azjvsdk.experimental.http.pipeline.WarmUpOptions;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.util.Loggers;
+
+import javax.net.ssl.KeyManagerFactory;
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WarmUpTests {
+    private static final char[] KEYSTORE_PASSWORD = "changeit".toCharArray();
+
+    @BeforeClass
+    public static void beforeClass() {
+        Loggers.useJdkLoggers();
+    }
+
+    @Test
+    public void warmUpOpensTlsConnectionsAndRunsSyntheticRequests() throws Exception {
+        // A keystore with a self-signed certificate for localhost and 127.0.0.1.
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream stream = WarmUpTests.class.getResourceAsStream("/localhost.p12")) {
+            keyStore.load(stream, KEYSTORE_PASSWORD);
+        }
+        KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore, KEYSTORE_PASSWORD);
+        SslContext serverSslContext = SslContextBuilder.forServer(keyManagerFactory).build();
+        SslContext clientSslContext = SslContextBuilder.forClient()
+            .trustManager((X509Certificate) keyStore.getCertificate("localhost"))
+            .build();
+        //
+        try (LoadTestServer server = new LoadTestServer(Duration.ZERO, 16, 0, serverSslContext);
+             ReactorNettyClientFactory clientFactory = new ReactorNettyClientFactory(16, clientSslContext)) {
+            AtomicInteger policyCalls = new AtomicInteger();
+            HttpPipeline pipeline = new HttpPipeline(new PolicyEntry[] {
+                new PolicyEntry("counter", (context, next) -> {
+                    policyCalls.incrementAndGet();
+                    return next.process();
+                })
+            }, clientFactory.create(new HttpClientConfiguration(null)));
+            Assert.assertFalse(pipeline.ready());
+            //
+            pipeline.warmUp(new WarmUpOptions()
+                .withConnections(server.url("/"), 4)
+                .withSyntheticRequests(100, () -> new HttpRequest("warm-up", HttpMethod.GET, server.url("/item"))))
+                .block();
+            Assert.assertTrue(pipeline.ready());
+            Assert.assertEquals(100, policyCalls.get());
+            Assert.assertEquals(4, server.acceptedConnections());
+            // The synthetic requests never reach the server
+            Assert.assertEquals(4, server.requests());
+            //
+            Flux.range(0, 4)
+                .flatMap(i -> pipeline.sendRequest(pipeline.newContext(new HttpRequest("real", HttpMethod.GET, server.url("/item/" + i))))
+                    .flatMap(response -> {
+                        Assert.assertEquals(200, response.statusCode());
+                        return response.body().then();
+                    }))
+                .blockLast();
+            // The real requests use the pre-opened connections
+            Assert.assertEquals(4, server.acceptedConnections());
+            Assert.assertEquals(8, server.requests());
+        }
+    }
+}